@@ -314,6 +314,7 @@ public enum LocalizedFormats implements Localizable {
     SIMPLE_MESSAGE("{0}"),
     SINGULAR_MATRIX("matrix is singular"), /* keep */
     SINGULAR_OPERATOR("operator is singular"),
+    SPARSITY_PATTERN_MISMATCH("entry ({0},{1}) is outside of the analyzed sparsity pattern"),
     SUBARRAY_ENDS_AFTER_ARRAY_END("subarray ends after array end"),
     TOO_LARGE_CUTOFF_SINGULAR_VALUE("cutoff singular value is {0}, should be at most {1}"),
     TOO_LARGE_TOURNAMENT_ARITY("tournament arity ({0}) cannot be bigger than population size ({1})"),
@@ -329,6 +330,7 @@ public enum LocalizedFormats implements Localizable {
     UNABLE_TO_BRACKET_OPTIMUM_IN_LINE_SEARCH("unable to bracket optimum in line search"),
     UNABLE_TO_COMPUTE_COVARIANCE_SINGULAR_PROBLEM("unable to compute covariances: singular problem"),
     UNABLE_TO_FIRST_GUESS_HARMONIC_COEFFICIENTS("unable to first guess the harmonic coefficients"),
+    UNABLE_TO_LOAD_LINEAR_ALGEBRA_BACKEND("unable to load linear algebra backend {0}"),
     UNABLE_TO_ORTHOGONOLIZE_MATRIX("unable to orthogonalize matrix in {0} iterations"),
     UNABLE_TO_PERFORM_QR_DECOMPOSITION_ON_JACOBIAN("unable to perform Q.R decomposition on the {0}x{1} jacobian matrix"),
     UNABLE_TO_SOLVE_SINGULAR_PROBLEM("unable to solve: singular problem"),
@@ -660,14 +660,38 @@ public abstract class AbstractRealMatrix
 
     /** {@inheritDoc} */
     public double[] operate(final double[] v)
+        throws DimensionMismatchException {
+        final double[] out = new double[getRowDimension()];
+        operateInto(v, out);
+        return out;
+    }
+
+    /**
+     * Stores the result of postmultiplying this by the vector {@code v}
+     * into {@code out}.
+     * <p>
+     * This is the allocation-free counterpart of {@link #operate(double[])}.
+     * </p>
+     *
+     * @param v the vector to operate on
+     * @param out the array in which the product should be stored (must be
+     * distinct from {@code v})
+     * @throws DimensionMismatchException if the length of {@code v} does not
+     * match the column dimension of {@code this}, or the length of {@code out}
+     * does not match its row dimension
+     * @since 3.4
+     */
+    public void operateInto(final double[] v, final double[] out)
         throws DimensionMismatchException {
         final int nRows = getRowDimension();
         final int nCols = getColumnDimension();
         if (v.length != nCols) {
             throw new DimensionMismatchException(v.length, nCols);
         }
+        if (out.length != nRows) {
+            throw new DimensionMismatchException(out.length, nRows);
+        }
 
-        final double[] out = new double[nRows];
         for (int row = 0; row < nRows; ++row) {
             double sum = 0;
             for (int i = 0; i < nCols; ++i) {
@@ -675,8 +699,32 @@ public abstract class AbstractRealMatrix
             }
             out[row] = sum;
         }
+    }
 
-        return out;
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final RealVector v, final RealVector out)
+        throws DimensionMismatchException {
+        if (v instanceof ArrayRealVector && out instanceof ArrayRealVector) {
+            operateInto(((ArrayRealVector) v).getDataRef(),
+                        ((ArrayRealVector) out).getDataRef());
+        } else {
+            final int nRows = getRowDimension();
+            final int nCols = getColumnDimension();
+            if (v.getDimension() != nCols) {
+                throw new DimensionMismatchException(v.getDimension(), nCols);
+            }
+            if (out.getDimension() != nRows) {
+                throw new DimensionMismatchException(out.getDimension(), nRows);
+            }
+            for (int row = 0; row < nRows; ++row) {
+                double sum = 0;
+                for (int i = 0; i < nCols; ++i) {
+                    sum += getEntry(row, i) * v.getEntry(i);
+                }
+                out.setEntry(row, sum);
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -206,8 +206,23 @@ public class Array2DRowRealMatrix extends AbstractRealMatrix implements Serializ
         return new Array2DRowRealMatrix(outData, false);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix multiply(final RealMatrix m)
+        throws DimensionMismatchException {
+        if (m instanceof Array2DRowRealMatrix) {
+            return multiply((Array2DRowRealMatrix) m);
+        }
+        return super.multiply(m);
+    }
+
     /**
      * Returns the result of postmultiplying {@code this} by {@code m}.
+     * <p>
+     * The product is computed by the {@link LinearAlgebraBackend#gemm(double,
+     * double[][], double[][], double, double[][]) gemm} kernel of the
+     * {@link MatrixUtils#getLinearAlgebraBackend() current backend}.
+     * </p>
      *
      * @param m matrix to postmultiply by
      * @return {@code this * m}
@@ -218,32 +233,8 @@ public class Array2DRowRealMatrix extends AbstractRealMatrix implements Serializ
         throws DimensionMismatchException {
         MatrixUtils.checkMultiplicationCompatible(this, m);
 
-        final int nRows = this.getRowDimension();
-        final int nCols = m.getColumnDimension();
-        final int nSum = this.getColumnDimension();
-
-        final double[][] outData = new double[nRows][nCols];
-        // Will hold a column of "m".
-        final double[] mCol = new double[nSum];
-        final double[][] mData = m.data;
-
-        // Multiply.
-        for (int col = 0; col < nCols; col++) {
-            // Copy all elements of column "col" of "m" so that
-            // will be in contiguous memory.
-            for (int mRow = 0; mRow < nSum; mRow++) {
-                mCol[mRow] = mData[mRow][col];
-            }
-
-            for (int row = 0; row < nRows; row++) {
-                final double[] dataRow = data[row];
-                double sum = 0;
-                for (int i = 0; i < nSum; i++) {
-                    sum += dataRow[i] * mCol[i];
-                }
-                outData[row][col] = sum;
-            }
-        }
+        final double[][] outData = new double[this.getRowDimension()][m.getColumnDimension()];
+        MatrixUtils.getLinearAlgebraBackend().gemm(1.0, data, m.data, 0.0, outData);
 
         return new Array2DRowRealMatrix(outData, false);
     }
@@ -348,22 +339,25 @@ public class Array2DRowRealMatrix extends AbstractRealMatrix implements Serializ
     /** {@inheritDoc} */
     @Override
     public double[] operate(final double[] v)
+        throws DimensionMismatchException {
+        final double[] out = new double[getRowDimension()];
+        operateInto(v, out);
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out)
         throws DimensionMismatchException {
         final int nRows = this.getRowDimension();
         final int nCols = this.getColumnDimension();
         if (v.length != nCols) {
             throw new DimensionMismatchException(v.length, nCols);
         }
-        final double[] out = new double[nRows];
-        for (int row = 0; row < nRows; row++) {
-            final double[] dataRow = data[row];
-            double sum = 0;
-            for (int i = 0; i < nCols; i++) {
-                sum += dataRow[i] * v[i];
-            }
-            out[row] = sum;
+        if (out.length != nRows) {
+            throw new DimensionMismatchException(out.length, nRows);
         }
-        return out;
+        MatrixUtils.getLinearAlgebraBackend().gemv(1.0, data, v, 0.0, out);
     }
 
     /** {@inheritDoc} */
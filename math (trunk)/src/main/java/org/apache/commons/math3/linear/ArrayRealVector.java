@@ -456,11 +456,7 @@ public class ArrayRealVector extends RealVector implements Serializable {
         if (v instanceof ArrayRealVector) {
             final double[] vData = ((ArrayRealVector) v).data;
             checkVectorDimensions(vData.length);
-            double dot = 0;
-            for (int i = 0; i < data.length; i++) {
-                dot += data[i] * vData[i];
-            }
-            return dot;
+            return MatrixUtils.getLinearAlgebraBackend().dot(data.length, data, 0, vData, 0);
         }
         return super.dotProduct(v);
     }
@@ -851,8 +847,12 @@ public class ArrayRealVector extends RealVector implements Serializable {
         if (y instanceof ArrayRealVector) {
             final double[] yData = ((ArrayRealVector) y).data;
             checkVectorDimensions(yData.length);
-            for (int i = 0; i < this.data.length; i++) {
-                data[i] = a * data[i] + b * yData[i];
+            if (a == 1) {
+                MatrixUtils.getLinearAlgebraBackend().axpy(data.length, b, yData, 0, data, 0);
+            } else {
+                for (int i = 0; i < this.data.length; i++) {
+                    data[i] = a * data[i] + b * yData[i];
+                }
             }
         } else {
             checkVectorDimensions(y);
@@ -863,6 +863,82 @@ public class ArrayRealVector extends RealVector implements Serializable {
         return this;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ArrayRealVector addToSelf(RealVector v)
+        throws DimensionMismatchException {
+        return axpy(1, v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ArrayRealVector subtractToSelf(RealVector v)
+        throws DimensionMismatchException {
+        return axpy(-1, v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ArrayRealVector axpy(double alpha, RealVector x)
+        throws DimensionMismatchException {
+        if (x instanceof ArrayRealVector) {
+            final double[] xData = ((ArrayRealVector) x).data;
+            checkVectorDimensions(xData.length);
+            MatrixUtils.getLinearAlgebraBackend().axpy(data.length, alpha, xData, 0, data, 0);
+        } else if (x instanceof SparseRealVector) {
+            checkVectorDimensions(x);
+            final Iterator<Entry> it = x.sparseIterator();
+            while (it.hasNext()) {
+                final Entry e = it.next();
+                data[e.getIndex()] += alpha * e.getValue();
+            }
+        } else {
+            checkVectorDimensions(x);
+            for (int i = 0; i < data.length; i++) {
+                data[i] += alpha * x.getEntry(i);
+            }
+        }
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ArrayRealVector ebeMultiplyToSelf(RealVector v)
+        throws DimensionMismatchException {
+        if (v instanceof ArrayRealVector) {
+            final double[] vData = ((ArrayRealVector) v).data;
+            checkVectorDimensions(vData.length);
+            for (int i = 0; i < data.length; i++) {
+                data[i] *= vData[i];
+            }
+        } else {
+            checkVectorDimensions(v);
+            for (int i = 0; i < data.length; i++) {
+                data[i] *= v.getEntry(i);
+            }
+        }
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ArrayRealVector ebeDivideToSelf(RealVector v)
+        throws DimensionMismatchException {
+        if (v instanceof ArrayRealVector) {
+            final double[] vData = ((ArrayRealVector) v).data;
+            checkVectorDimensions(vData.length);
+            for (int i = 0; i < data.length; i++) {
+                data[i] /= vData[i];
+            }
+        } else {
+            checkVectorDimensions(v);
+            for (int i = 0; i < data.length; i++) {
+                data[i] /= v.getEntry(i);
+            }
+        }
+        return this;
+    }
+
     /** {@inheritDoc} */
     @Override
     public double walkInDefaultOrder(final RealVectorPreservingVisitor visitor) {
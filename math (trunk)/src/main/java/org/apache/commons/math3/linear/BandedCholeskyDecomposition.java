@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Calculates the Cholesky decomposition of a symmetric positive-definite
+ * {@link BandedRealMatrix banded matrix}.
+ * <p>
+ * The factor L of a matrix with bandwidth p has the same lower bandwidth p,
+ * so the decomposition is computed in O(n p<sup>2</sup>) operations and each
+ * solve is performed in O(n p) operations, instead of O(n<sup>3</sup>) and
+ * O(n<sup>2</sup>) for {@link CholeskyDecomposition}.
+ * </p>
+ *
+ * @see CholeskyDecomposition
+ * @see BandedRealMatrix
+ * @version $Id$
+ * @since 3.4
+ */
+public class BandedCholeskyDecomposition {
+
+    /** Dimension of the matrix. */
+    private final int n;
+
+    /** Bandwidth of the matrix. */
+    private final int p;
+
+    /** Entries of L, row i holding columns i - p to i. */
+    private final double[] l;
+
+    /** Cached value of L. */
+    private BandedRealMatrix cachedL;
+
+    /** Cached value of LT. */
+    private BandedRealMatrix cachedLT;
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix.
+     * <p>
+     * Calling this constructor is equivalent to call {@link
+     * #BandedCholeskyDecomposition(BandedRealMatrix, double, double)} with the
+     * thresholds set to the default values {@link
+     * CholeskyDecomposition#DEFAULT_RELATIVE_SYMMETRY_THRESHOLD} and {@link
+     * CholeskyDecomposition#DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD}
+     * </p>
+     * @param matrix the matrix to decompose
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric.
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     */
+    public BandedCholeskyDecomposition(final BandedRealMatrix matrix) {
+        this(matrix,
+             CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+             CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD);
+    }
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix.
+     * @param matrix the matrix to decompose
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric,
+     * which includes the case of different lower and upper bandwidths with
+     * non-zero entries outside of the common band.
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     */
+    public BandedCholeskyDecomposition(final BandedRealMatrix matrix,
+                                       final double relativeSymmetryThreshold,
+                                       final double absolutePositivityThreshold) {
+
+        n = matrix.getRowDimension();
+        p = FastMath.max(matrix.getLowerBandwidth(), matrix.getUpperBandwidth());
+
+        // check symmetry, entries outside of the band being read as zeros
+        for (int i = 0; i < n; ++i) {
+            final int jMax = FastMath.min(n - 1, i + p);
+            for (int j = i + 1; j <= jMax; ++j) {
+                final double aIJ = matrix.getEntry(i, j);
+                final double aJI = matrix.getEntry(j, i);
+                final double maxDelta =
+                    relativeSymmetryThreshold * FastMath.max(FastMath.abs(aIJ), FastMath.abs(aJI));
+                if (FastMath.abs(aIJ - aJI) > maxDelta) {
+                    throw new NonSymmetricMatrixException(i, j, relativeSymmetryThreshold);
+                }
+            }
+        }
+
+        // row-oriented band Cholesky, L(i, j) is at index i (p + 1) + j - i + p
+        final int width = p + 1;
+        l = new double[n * width];
+        for (int i = 0; i < n; ++i) {
+            final int iShift = i * width - i + p;
+            final int jMin   = FastMath.max(0, i - p);
+            for (int j = jMin; j <= i; ++j) {
+                final int jShift = j * width - j + p;
+                double sum = matrix.getEntry(i, j);
+                for (int k = jMin; k < j; ++k) {
+                    sum -= l[iShift + k] * l[jShift + k];
+                }
+                if (j < i) {
+                    l[iShift + j] = sum / l[jShift + j];
+                } else {
+                    if (sum <= absolutePositivityThreshold) {
+                        throw new NonPositiveDefiniteMatrixException(sum, i, absolutePositivityThreshold);
+                    }
+                    l[iShift + i] = FastMath.sqrt(sum);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Returns the matrix L of the decomposition.
+     * <p>L is an lower-triangular banded matrix</p>
+     * @return the L matrix
+     */
+    public BandedRealMatrix getL() {
+        if (cachedL == null) {
+            cachedL = new BandedRealMatrix(n, p, 0);
+            System.arraycopy(l, 0, cachedL.getDataRef(), 0, l.length);
+        }
+        return cachedL;
+    }
+
+    /**
+     * Returns the transpose of the matrix L of the decomposition.
+     * <p>L<sup>T</sup> is an upper-triangular banded matrix</p>
+     * @return the transpose of the matrix L of the decomposition
+     */
+    public BandedRealMatrix getLT() {
+        if (cachedLT == null) {
+            cachedLT = getL().transpose();
+        }
+        return cachedLT;
+    }
+
+    /**
+     * Return the determinant of the matrix
+     * @return determinant of the matrix
+     */
+    public double getDeterminant() {
+        double determinant = 1.0;
+        for (int i = 0; i < n; ++i) {
+            final double lII = l[i * (p + 1) + p];
+            determinant *= lII * lII;
+        }
+        return determinant;
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in least square sense.
+     * @return a solver
+     */
+    public DecompositionSolver getSolver() {
+        return new Solver(n, p, l);
+    }
+
+    /** Specialized solver. */
+    private static class Solver implements DecompositionSolver {
+
+        /** Dimension of the matrix. */
+        private final int n;
+
+        /** Bandwidth of the matrix. */
+        private final int p;
+
+        /** Entries of L. */
+        private final double[] l;
+
+        /**
+         * Build a solver from decomposed matrix.
+         * @param n dimension of the matrix
+         * @param p bandwidth of the matrix
+         * @param l entries of L
+         */
+        private Solver(final int n, final int p, final double[] l) {
+            this.n = n;
+            this.p = p;
+            this.l = l;
+        }
+
+        /** {@inheritDoc} */
+        public boolean isNonSingular() {
+            // if we get this far, the matrix was positive definite, hence non-singular
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        public RealVector solve(final RealVector b) {
+            if (b.getDimension() != n) {
+                throw new DimensionMismatchException(b.getDimension(), n);
+            }
+            final double[] x = b.toArray();
+            solveInPlace(x);
+            return new ArrayRealVector(x, false);
+        }
+
+        /** {@inheritDoc} */
+        public RealMatrix solve(final RealMatrix b) {
+            if (b.getRowDimension() != n) {
+                throw new DimensionMismatchException(b.getRowDimension(), n);
+            }
+
+            final int nColB = b.getColumnDimension();
+            final double[][] x = new double[n][nColB];
+            final double[] column = new double[n];
+            for (int col = 0; col < nColB; ++col) {
+                for (int row = 0; row < n; ++row) {
+                    column[row] = b.getEntry(row, col);
+                }
+                solveInPlace(column);
+                for (int row = 0; row < n; ++row) {
+                    x[row][col] = column[row];
+                }
+            }
+
+            return new Array2DRowRealMatrix(x, false);
+        }
+
+        /**
+         * Solve a linear system in place.
+         * @param x right hand side on entry, solution on exit
+         */
+        private void solveInPlace(final double[] x) {
+
+            final int width = p + 1;
+
+            // solve LY = b
+            for (int i = 0; i < n; ++i) {
+                final int shift = i * width - i + p;
+                double sum = x[i];
+                for (int j = FastMath.max(0, i - p); j < i; ++j) {
+                    sum -= l[shift + j] * x[j];
+                }
+                x[i] = sum / l[shift + i];
+            }
+
+            // solve LTX = Y
+            for (int j = n - 1; j >= 0; --j) {
+                final int shift = j * width - j + p;
+                x[j] /= l[shift + j];
+                final double xJ = x[j];
+                for (int i = FastMath.max(0, j - p); i < j; ++i) {
+                    x[i] -= xJ * l[shift + i];
+                }
+            }
+
+        }
+
+        /** {@inheritDoc} */
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(n));
+        }
+
+    }
+
+}
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Calculates the LU-decomposition of a {@link BandedRealMatrix banded matrix}.
+ * <p>
+ * The decomposition uses partial pivoting, as {@link LUDecomposition} does,
+ * but only the band is stored and processed. Row interchanges enlarge the
+ * upper bandwidth of U to kl + ku, but L keeps at most kl non-zero entries
+ * per column, so the decomposition is computed in O(n kl (kl + ku)) operations
+ * and each solve is performed in O(n (2 kl + ku)) operations, instead of
+ * O(n<sup>3</sup>) and O(n<sup>2</sup>) for a dense decomposition. As in LAPACK
+ * {@code dgbtrf}, L is kept in factored form, i.e. as the sequence of row
+ * interchanges and elementary eliminations, so only U is available as a matrix.
+ * </p>
+ *
+ * @see LUDecomposition
+ * @see BandedRealMatrix
+ * @version $Id$
+ * @since 3.4
+ */
+public class BandedLUDecomposition {
+
+    /** Default bound to determine effective singularity in LU decomposition. */
+    private static final double DEFAULT_TOO_SMALL = 1e-11;
+
+    /** Dimension of the matrix. */
+    private final int n;
+
+    /** Lower bandwidth of the decomposed matrix. */
+    private final int kl;
+
+    /** Upper bandwidth of U. */
+    private final int ku;
+
+    /** Entries of U, row i holding columns i to i + ku. */
+    private final double[] u;
+
+    /** Multipliers of the eliminations, kl per step. */
+    private final double[] multipliers;
+
+    /** Row interchanged with row k at step k. */
+    private final int[] pivot;
+
+    /** Parity of the permutation associated with the LU decomposition. */
+    private final boolean even;
+
+    /** Singularity indicator. */
+    private final boolean singular;
+
+    /** Cached value of U. */
+    private BandedRealMatrix cachedU;
+
+    /**
+     * Calculates the LU-decomposition of the given matrix.
+     * This constructor uses 1e-11 as default value for the singularity
+     * threshold.
+     *
+     * @param matrix Matrix to decompose.
+     */
+    public BandedLUDecomposition(final BandedRealMatrix matrix) {
+        this(matrix, DEFAULT_TOO_SMALL);
+    }
+
+    /**
+     * Calculates the LU-decomposition of the given matrix.
+     * @param matrix The matrix to decompose.
+     * @param singularityThreshold threshold under which a pivot is
+     * considered null and the matrix singular
+     */
+    public BandedLUDecomposition(final BandedRealMatrix matrix,
+                                 final double singularityThreshold) {
+
+        n  = matrix.getRowDimension();
+        kl = matrix.getLowerBandwidth();
+        ku = kl + matrix.getUpperBandwidth();
+
+        // working storage: row r holds columns r - kl to r + kl + ku
+        final int width  = kl + ku + 1;
+        final int mWidth = kl + matrix.getUpperBandwidth() + 1;
+        final double[] band = matrix.getDataRef();
+        final double[] work = new double[n * width];
+        for (int r = 0; r < n; ++r) {
+            System.arraycopy(band, r * mWidth, work, r * width, mWidth);
+        }
+
+        multipliers = new double[n * kl];
+        pivot       = new int[n];
+        boolean isEven     = true;
+        boolean isSingular = false;
+
+        for (int k = 0; k < n; ++k) {
+
+            final int iMax = FastMath.min(n - 1, k + kl);
+            final int jMax = FastMath.min(n - 1, k + ku);
+
+            // search for the pivot in column k
+            int max = k;
+            double largest = FastMath.abs(work[k * width + kl]);
+            for (int i = k + 1; i <= iMax; ++i) {
+                final double abs = FastMath.abs(work[i * width + k - i + kl]);
+                if (abs > largest) {
+                    largest = abs;
+                    max     = i;
+                }
+            }
+            pivot[k] = max;
+
+            if (largest < singularityThreshold) {
+                isSingular = true;
+                continue;
+            }
+
+            // interchange rows
+            if (max != k) {
+                final int kShift = k   * width - k   + kl;
+                final int mShift = max * width - max + kl;
+                for (int j = k; j <= jMax; ++j) {
+                    final double tmp = work[kShift + j];
+                    work[kShift + j] = work[mShift + j];
+                    work[mShift + j] = tmp;
+                }
+                isEven = !isEven;
+            }
+
+            // eliminate the entries below the pivot
+            final int kShift = k * width - k + kl;
+            final double luDiag = work[kShift + k];
+            for (int i = k + 1; i <= iMax; ++i) {
+                final int iShift = i * width - i + kl;
+                final double mult = work[iShift + k] / luDiag;
+                multipliers[k * kl + i - k - 1] = mult;
+                work[iShift + k] = 0;
+                if (mult != 0) {
+                    for (int j = k + 1; j <= jMax; ++j) {
+                        work[iShift + j] -= mult * work[kShift + j];
+                    }
+                }
+            }
+
+        }
+
+        // extract U
+        u = new double[n * (ku + 1)];
+        for (int r = 0; r < n; ++r) {
+            System.arraycopy(work, r * width + kl, u, r * (ku + 1), ku + 1);
+        }
+
+        even     = isEven;
+        singular = isSingular;
+
+    }
+
+    /**
+     * Returns the matrix U of the decomposition.
+     * <p>U is an upper-triangular banded matrix, with upper bandwidth
+     * kl + ku</p>
+     * @return the U matrix
+     */
+    public BandedRealMatrix getU() {
+        if (cachedU == null) {
+            cachedU = new BandedRealMatrix(n, 0, ku);
+            System.arraycopy(u, 0, cachedU.getDataRef(), 0, u.length);
+        }
+        return cachedU;
+    }
+
+    /**
+     * Returns the pivot rows.
+     * <p>At step k of the elimination, row k was interchanged with
+     * row {@code getPivot()[k]} (which may be k itself).</p>
+     * @return the pivot rows
+     */
+    public int[] getPivot() {
+        return pivot.clone();
+    }
+
+    /**
+     * Return the determinant of the matrix
+     * @return determinant of the matrix
+     */
+    public double getDeterminant() {
+        if (singular) {
+            return 0;
+        } else {
+            double determinant = even ? 1 : -1;
+            for (int i = 0; i < n; i++) {
+                determinant *= u[i * (ku + 1)];
+            }
+            return determinant;
+        }
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in exact linear
+     * sense.
+     * @return a solver
+     */
+    public DecompositionSolver getSolver() {
+        return new Solver(n, kl, ku, u, multipliers, pivot, singular);
+    }
+
+    /** Specialized solver. */
+    private static class Solver implements DecompositionSolver {
+
+        /** Dimension of the matrix. */
+        private final int n;
+
+        /** Lower bandwidth of the decomposed matrix. */
+        private final int kl;
+
+        /** Upper bandwidth of U. */
+        private final int ku;
+
+        /** Entries of U. */
+        private final double[] u;
+
+        /** Multipliers of the eliminations. */
+        private final double[] multipliers;
+
+        /** Pivot rows. */
+        private final int[] pivot;
+
+        /** Singularity indicator. */
+        private final boolean singular;
+
+        /**
+         * Build a solver from decomposed matrix.
+         * @param n dimension of the matrix
+         * @param kl lower bandwidth of the decomposed matrix
+         * @param ku upper bandwidth of U
+         * @param u entries of U
+         * @param multipliers multipliers of the eliminations
+         * @param pivot pivot rows
+         * @param singular singularity indicator
+         */
+        private Solver(final int n, final int kl, final int ku,
+                       final double[] u, final double[] multipliers,
+                       final int[] pivot, final boolean singular) {
+            this.n           = n;
+            this.kl          = kl;
+            this.ku          = ku;
+            this.u           = u;
+            this.multipliers = multipliers;
+            this.pivot       = pivot;
+            this.singular    = singular;
+        }
+
+        /** {@inheritDoc} */
+        public boolean isNonSingular() {
+            return !singular;
+        }
+
+        /** {@inheritDoc} */
+        public RealVector solve(final RealVector b) {
+            if (b.getDimension() != n) {
+                throw new DimensionMismatchException(b.getDimension(), n);
+            }
+            if (singular) {
+                throw new SingularMatrixException();
+            }
+            final double[] x = b.toArray();
+            solveInPlace(x);
+            return new ArrayRealVector(x, false);
+        }
+
+        /** {@inheritDoc} */
+        public RealMatrix solve(final RealMatrix b) {
+            if (b.getRowDimension() != n) {
+                throw new DimensionMismatchException(b.getRowDimension(), n);
+            }
+            if (singular) {
+                throw new SingularMatrixException();
+            }
+
+            final int nColB = b.getColumnDimension();
+            final double[][] x = new double[n][nColB];
+            final double[] column = new double[n];
+            for (int col = 0; col < nColB; ++col) {
+                for (int row = 0; row < n; ++row) {
+                    column[row] = b.getEntry(row, col);
+                }
+                solveInPlace(column);
+                for (int row = 0; row < n; ++row) {
+                    x[row][col] = column[row];
+                }
+            }
+
+            return new Array2DRowRealMatrix(x, false);
+        }
+
+        /**
+         * Solve a linear system in place.
+         * @param x right hand side on entry, solution on exit
+         */
+        private void solveInPlace(final double[] x) {
+
+            // apply the interchanges and eliminations to the right hand side
+            for (int k = 0; k < n; ++k) {
+                final int p = pivot[k];
+                if (p != k) {
+                    final double tmp = x[k];
+                    x[k] = x[p];
+                    x[p] = tmp;
+                }
+                final double xk = x[k];
+                if (xk != 0) {
+                    final int iMax = FastMath.min(n - 1, k + kl);
+                    for (int i = k + 1; i <= iMax; ++i) {
+                        x[i] -= multipliers[k * kl + i - k - 1] * xk;
+                    }
+                }
+            }
+
+            // solve UX = Y
+            for (int i = n - 1; i >= 0; --i) {
+                final int shift = i * (ku + 1) - i;
+                final int jMax  = FastMath.min(n - 1, i + ku);
+                double sum = x[i];
+                for (int j = i + 1; j <= jMax; ++j) {
+                    sum -= u[shift + j] * x[j];
+                }
+                x[i] = sum / u[shift + i];
+            }
+
+        }
+
+        /** {@inheritDoc} */
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(n));
+        }
+
+    }
+
+}
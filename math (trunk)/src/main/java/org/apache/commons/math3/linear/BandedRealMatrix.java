@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.io.Serializable;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotPositiveException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * Implementation of a square banded matrix.
+ * <p>
+ * Only the entries (i, j) with -kl &le; j - i &le; ku are stored, where
+ * kl is the lower bandwidth and ku is the upper bandwidth, so storage and
+ * matrix-vector products are proportional to n (kl + ku + 1) instead of
+ * n<sup>2</sup>. The band is stored row by row, each row using kl + ku + 1
+ * consecutive elements, entry (i, j) being at index
+ * i (kl + ku + 1) + j - i + kl.
+ * </p>
+ * <p>
+ * Attempts to set a non-zero value outside of the band trigger a
+ * {@link NumberIsTooLargeException}.
+ * </p>
+ * <p>
+ * Linear systems can be solved in O(n kl (kl + ku)) operations using
+ * {@link BandedLUDecomposition} or, for symmetric positive definite matrices,
+ * in O(n kl<sup>2</sup>) operations using {@link BandedCholeskyDecomposition}.
+ * </p>
+ *
+ * @see TridiagonalRealMatrix
+ * @version $Id$
+ * @since 3.4
+ */
+public class BandedRealMatrix extends AbstractRealMatrix
+    implements Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141017L;
+
+    /** Dimension of the matrix. */
+    private final int dimension;
+
+    /** Lower bandwidth. */
+    private final int lowerBandwidth;
+
+    /** Upper bandwidth. */
+    private final int upperBandwidth;
+
+    /** Band entries, row by row. */
+    private final double[] data;
+
+    /**
+     * Creates a matrix with the supplied dimension and bandwidths.
+     *
+     * @param dimension Number of rows and columns in the new matrix.
+     * @param lowerBandwidth Number of non-zero sub-diagonals.
+     * @param upperBandwidth Number of non-zero super-diagonals.
+     * @throws NotStrictlyPositiveException if the dimension is not positive.
+     * @throws NotPositiveException if one of the bandwidths is negative.
+     */
+    public BandedRealMatrix(final int dimension,
+                            final int lowerBandwidth, final int upperBandwidth)
+        throws NotStrictlyPositiveException, NotPositiveException {
+        super(dimension, dimension);
+        if (lowerBandwidth < 0) {
+            throw new NotPositiveException(lowerBandwidth);
+        }
+        if (upperBandwidth < 0) {
+            throw new NotPositiveException(upperBandwidth);
+        }
+        this.dimension      = dimension;
+        this.lowerBandwidth = lowerBandwidth;
+        this.upperBandwidth = upperBandwidth;
+        this.data           = new double[dimension * (lowerBandwidth + upperBandwidth + 1)];
+    }
+
+    /**
+     * Creates a matrix holding the band of another matrix.
+     * <p>
+     * The entries of {@code matrix} outside of the band are ignored.
+     * </p>
+     *
+     * @param matrix Matrix to copy.
+     * @param lowerBandwidth Number of sub-diagonals to copy.
+     * @param upperBandwidth Number of super-diagonals to copy.
+     * @throws NonSquareMatrixException if the matrix is not square.
+     * @throws NotPositiveException if one of the bandwidths is negative.
+     */
+    public BandedRealMatrix(final RealMatrix matrix,
+                            final int lowerBandwidth, final int upperBandwidth)
+        throws NonSquareMatrixException, NotPositiveException {
+        this(checkSquare(matrix), lowerBandwidth, upperBandwidth);
+        for (int i = 0; i < dimension; ++i) {
+            final int jMin = FastMath.max(0, i - lowerBandwidth);
+            final int jMax = FastMath.min(dimension - 1, i + upperBandwidth);
+            for (int j = jMin; j <= jMax; ++j) {
+                data[index(i, j)] = matrix.getEntry(i, j);
+            }
+        }
+    }
+
+    /**
+     * Check a matrix is square.
+     * @param matrix matrix to check
+     * @return dimension of the matrix
+     * @throws NonSquareMatrixException if the matrix is not square.
+     */
+    private static int checkSquare(final RealMatrix matrix)
+        throws NonSquareMatrixException {
+        if (!matrix.isSquare()) {
+            throw new NonSquareMatrixException(matrix.getRowDimension(),
+                                               matrix.getColumnDimension());
+        }
+        return matrix.getRowDimension();
+    }
+
+    /**
+     * Get the lower bandwidth.
+     * @return number of non-zero sub-diagonals
+     */
+    public int getLowerBandwidth() {
+        return lowerBandwidth;
+    }
+
+    /**
+     * Get the upper bandwidth.
+     * @return number of non-zero super-diagonals
+     */
+    public int getUpperBandwidth() {
+        return upperBandwidth;
+    }
+
+    /**
+     * Returns a reference to the band entries.
+     * <p>
+     * Entry (i, j) is at index i (kl + ku + 1) + j - i + kl. Elements
+     * corresponding to indices outside of the matrix are zero.
+     * </p>
+     *
+     * @return the band entries, row by row.
+     */
+    public double[] getDataRef() {
+        return data;
+    }
+
+    /**
+     * Check if an entry belongs to the band.
+     * @param row row index
+     * @param column column index
+     * @return true if the entry belongs to the band
+     */
+    public boolean isInBand(final int row, final int column) {
+        final int offset = column - row;
+        return offset >= -lowerBandwidth && offset <= upperBandwidth;
+    }
+
+    /**
+     * Get the index of an entry of the band.
+     * @param row row index
+     * @param column column index
+     * @return index of the entry in the data array
+     */
+    private int index(final int row, final int column) {
+        return row * (lowerBandwidth + upperBandwidth + 1) + column - row + lowerBandwidth;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The created matrix is a general {@link Array2DRowRealMatrix}.
+     * </p>
+     */
+    @Override
+    public RealMatrix createMatrix(final int rowDimension,
+                                   final int columnDimension)
+        throws NotStrictlyPositiveException {
+        return new Array2DRowRealMatrix(rowDimension, columnDimension);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public BandedRealMatrix copy() {
+        final BandedRealMatrix copy = createBanded(lowerBandwidth, upperBandwidth);
+        System.arraycopy(data, 0, copy.data, 0, data.length);
+        return copy;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return dimension;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return dimension;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        return isInBand(row, column) ? data[index(row, column)] : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws NumberIsTooLargeException if the entry is outside of the band
+     * and {@code value} is not zero.
+     */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws OutOfRangeException, NumberIsTooLargeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        if (isInBand(row, column)) {
+            data[index(row, column)] = value;
+        } else {
+            ensureZero(value);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws NumberIsTooLargeException if the entry is outside of the band
+     * and {@code increment} is not zero.
+     */
+    @Override
+    public void addToEntry(final int row, final int column, final double increment)
+        throws OutOfRangeException, NumberIsTooLargeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        if (isInBand(row, column)) {
+            data[index(row, column)] += increment;
+        } else {
+            ensureZero(increment);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiplyEntry(final int row, final int column, final double factor)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        if (isInBand(row, column)) {
+            data[index(row, column)] *= factor;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public BandedRealMatrix transpose() {
+        final BandedRealMatrix transposed = createBanded(upperBandwidth, lowerBandwidth);
+        for (int i = 0; i < dimension; ++i) {
+            final int jMin = FastMath.max(0, i - lowerBandwidth);
+            final int jMax = FastMath.min(dimension - 1, i + upperBandwidth);
+            for (int j = jMin; j <= jMax; ++j) {
+                transposed.data[transposed.index(j, i)] = data[index(i, j)];
+            }
+        }
+        return transposed;
+    }
+
+    /**
+     * Create an empty banded matrix with the same dimension as the instance.
+     * <p>
+     * This method is used by {@link #copy()} and {@link #transpose()}, it
+     * allows subclasses to preserve their type.
+     * </p>
+     * @param lower lower bandwidth
+     * @param upper upper bandwidth
+     * @return empty banded matrix
+     */
+    protected BandedRealMatrix createBanded(final int lower, final int upper) {
+        return new BandedRealMatrix(dimension, lower, upper);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out)
+        throws DimensionMismatchException {
+        if (v.length != dimension) {
+            throw new DimensionMismatchException(v.length, dimension);
+        }
+        if (out.length != dimension) {
+            throw new DimensionMismatchException(out.length, dimension);
+        }
+        for (int i = 0; i < dimension; ++i) {
+            final int jMin = FastMath.max(0, i - lowerBandwidth);
+            final int jMax = FastMath.min(dimension - 1, i + upperBandwidth);
+            final int shift = index(i, 0);
+            double sum = 0;
+            for (int j = jMin; j <= jMax; ++j) {
+                sum += data[shift + j] * v[j];
+            }
+            out[i] = sum;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v)
+        throws DimensionMismatchException {
+        if (v.length != dimension) {
+            throw new DimensionMismatchException(v.length, dimension);
+        }
+        final double[] out = new double[dimension];
+        for (int i = 0; i < dimension; ++i) {
+            final int jMin = FastMath.max(0, i - lowerBandwidth);
+            final int jMax = FastMath.min(dimension - 1, i + upperBandwidth);
+            final int shift = index(i, 0);
+            final double vi = v[i];
+            for (int j = jMin; j <= jMax; ++j) {
+                out[j] += data[shift + j] * vi;
+            }
+        }
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector preMultiply(final RealVector v)
+        throws DimensionMismatchException {
+        if (v instanceof ArrayRealVector) {
+            return new ArrayRealVector(preMultiply(((ArrayRealVector) v).getDataRef()), false);
+        }
+        return new ArrayRealVector(preMultiply(v.toArray()), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getTrace() {
+        double trace = 0;
+        for (int i = 0; i < dimension; ++i) {
+            trace += data[index(i, i)];
+        }
+        return trace;
+    }
+
+    /**
+     * Ensure a value is zero.
+     *
+     * @param value Value to check.
+     * @exception NumberIsTooLargeException if {@code value} is not zero.
+     */
+    private void ensureZero(final double value) throws NumberIsTooLargeException {
+        if (!Precision.equals(0.0, value, 1)) {
+            throw new NumberIsTooLargeException(FastMath.abs(value), 0, true);
+        }
+    }
+
+}
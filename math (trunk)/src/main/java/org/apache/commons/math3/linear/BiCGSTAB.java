@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MaxCountExceededException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.util.IterationManager;
+
+/**
+ * <p>
+ * This is an implementation of the BiConjugate Gradient STABilized method of
+ * <a href="#VORS1992">van der Vorst (1992)</a> for {@link RealLinearOperator}.
+ * It follows closely the template by <a href="#BARR1994">Barrett et al.
+ * (1994)</a> (figure 2.10). The linear system at hand is A &middot; x = b,
+ * and the residual is r = b - A &middot; x. A is not required to be
+ * symmetric, and, unlike {@link GMRES}, the memory requirement does not
+ * grow with the number of iterations: only a fixed number of vectors of the
+ * size of the system are needed.
+ * </p>
+ * <p>
+ * The preconditioner M, which approximates A<sup>-1</sup>, is applied on the
+ * right, so the residual used by the stopping criterion is the residual of
+ * the original system. M does not need to be symmetric.
+ * </p>
+ * <h3><a id="stopcrit">Default stopping criterion</a></h3>
+ * <p>
+ * The iterations stop when || r || &le; &delta; || b ||, where b is the
+ * right-hand side vector, r the current estimate of the residual, and
+ * &delta; a user-specified tolerance. As for {@link ConjugateGradient}, r is
+ * the <em>updated</em> residual, which might differ from the true residual
+ * due to rounding-off errors.
+ * </p>
+ * <h3>Breakdowns</h3>
+ * <p>
+ * The method breaks down when the shadow residual becomes orthogonal to the
+ * residual, or when the stabilization step cannot reduce the residual. In
+ * both cases, the iterations are restarted from the current residual, which
+ * is used as the new shadow residual.
+ * </p>
+ * <h3>Iteration count</h3>
+ * <p>
+ * An iteration is one step of the method, which involves two evaluations of
+ * the matrix-vector products A &middot; x (and M &middot; x if a
+ * preconditioner is used). The initialization phase counts as one iteration.
+ * </p>
+ * <h3>References</h3>
+ * <dl>
+ * <dt><a id="BARR1994">Barret et al. (1994)</a></dt>
+ * <dd>R. Barrett, M. Berry, T. F. Chan, J. Demmel, J. M. Donato, J. Dongarra,
+ * V. Eijkhout, R. Pozo, C. Romine and H. Van der Vorst,
+ * <a href="http://www.netlib.org/linalg/html_templates/Templates.html"><em>
+ * Templates for the Solution of Linear Systems: Building Blocks for Iterative
+ * Methods</em></a>, SIAM</dd>
+ * <dt><a id="VORS1992">van der Vorst (1992)</a></dt>
+ * <dd>H. A. van der Vorst, <em>Bi-CGSTAB: A Fast and Smoothly Converging
+ * Variant of Bi-CG for the Solution of Nonsymmetric Linear Systems</em>,
+ * SIAM Journal on Scientific and Statistical Computing 13 (2): 631-644,
+ * 1992</dd>
+ * </dl>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class BiCGSTAB
+    extends PreconditionedIterativeLinearSolver {
+
+    /** The value of &delta;, for the default stopping criterion. */
+    private final double delta;
+
+    /**
+     * Creates a new instance of this class, with <a href="#stopcrit">default
+     * stopping criterion</a>.
+     *
+     * @param maxIterations the maximum number of iterations
+     * @param delta the &delta; parameter for the default stopping criterion
+     */
+    public BiCGSTAB(final int maxIterations, final double delta) {
+        super(maxIterations);
+        this.delta = delta;
+    }
+
+    /**
+     * Creates a new instance of this class, with <a href="#stopcrit">default
+     * stopping criterion</a> and custom iteration manager.
+     *
+     * @param manager the custom iteration manager
+     * @param delta the &delta; parameter for the default stopping criterion
+     * @throws NullArgumentException if {@code manager} is {@code null}
+     */
+    public BiCGSTAB(final IterationManager manager, final double delta)
+        throws NullArgumentException {
+        super(manager);
+        this.delta = delta;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws SingularOperatorException if {@code a} &middot; {@code m} is
+     * found to be singular
+     */
+    @Override
+    public RealVector solveInPlace(final RealLinearOperator a,
+                                   final RealLinearOperator m,
+                                   final RealVector b,
+                                   final RealVector x0)
+        throws NullArgumentException, NonSquareOperatorException,
+        DimensionMismatchException, MaxCountExceededException,
+        SingularOperatorException {
+        checkParameters(a, m, b, x0);
+        final IterationManager manager = getIterationManager();
+        // Initialization of default stopping criterion
+        manager.resetIterationCount();
+        final double rmax = delta * b.getNorm();
+        final RealVector bro = RealVector.unmodifiableRealVector(b);
+
+        // Initialization phase counts as one iteration.
+        manager.incrementIterationCount();
+        final RealVector x = x0;
+        final RealVector xro = RealVector.unmodifiableRealVector(x);
+        final RealVector r = b.combine(1, -1, a.operate(x));
+        final RealVector rro = RealVector.unmodifiableRealVector(r);
+        double rnorm = r.getNorm();
+        IterativeLinearSolverEvent evt;
+        evt = new DefaultIterativeLinearSolverEvent(this,
+            manager.getIterations(), xro, bro, rro, rnorm);
+        manager.fireInitializationEvent(evt);
+        if (rnorm <= rmax) {
+            manager.fireTerminationEvent(evt);
+            return x;
+        }
+
+        final RealVector rHat = r.copy();
+        final RealVector p    = r.copy();
+        RealVector v          = null;
+        boolean restarted     = true;
+        boolean shadowIsR     = true;
+        double rhoPrev        = 1;
+        double alpha          = 1;
+        double omega          = 1;
+        while (true) {
+            manager.incrementIterationCount();
+            evt = new DefaultIterativeLinearSolverEvent(this,
+                manager.getIterations(), xro, bro, rro, rnorm);
+            manager.fireIterationStartedEvent(evt);
+
+            double rho = rHat.dotProduct(r);
+            if (rho == 0) {
+                // the shadow residual is orthogonal to the residual, restart
+                rHat.setSubVector(0, r);
+                rho       = rnorm * rnorm;
+                restarted = true;
+                shadowIsR = true;
+            }
+            if (restarted) {
+                p.setSubVector(0, r);
+                restarted = false;
+            } else {
+                final double beta = (rho / rhoPrev) * (alpha / omega);
+                p.combineToSelf(1, -omega, v);
+                p.combineToSelf(beta, 1, r);
+            }
+            rhoPrev = rho;
+
+            final RealVector pHat = (m == null) ? p.copy() : m.operate(p);
+            v = a.operate(pHat);
+            final double rHatV = rHat.dotProduct(v);
+            if (rHatV == 0) {
+                if (shadowIsR) {
+                    // r^T A M r = 0, restarting would not make any progress
+                    throw new SingularOperatorException();
+                }
+                rHat.setSubVector(0, r);
+                restarted = true;
+                shadowIsR = true;
+                evt = new DefaultIterativeLinearSolverEvent(this,
+                    manager.getIterations(), xro, bro, rro, rnorm);
+                manager.fireIterationPerformedEvent(evt);
+                continue;
+            }
+            alpha = rho / rHatV;
+
+            // intermediate residual s, stored in r
+            x.combineToSelf(1, alpha, pHat);
+            r.combineToSelf(1, -alpha, v);
+            shadowIsR = false;
+            rnorm = r.getNorm();
+            if (rnorm <= rmax) {
+                evt = new DefaultIterativeLinearSolverEvent(this,
+                    manager.getIterations(), xro, bro, rro, rnorm);
+                manager.fireIterationPerformedEvent(evt);
+                manager.fireTerminationEvent(evt);
+                return x;
+            }
+
+            // stabilization step
+            final RealVector sHat = (m == null) ? r.copy() : m.operate(r);
+            final RealVector t = a.operate(sHat);
+            final double tt = t.dotProduct(t);
+            if (tt == 0) {
+                throw new SingularOperatorException();
+            }
+            omega = t.dotProduct(r) / tt;
+            x.combineToSelf(1, omega, sHat);
+            r.combineToSelf(1, -omega, t);
+            rnorm = r.getNorm();
+            if (omega == 0) {
+                // no progress was made by the stabilization step, restart
+                rHat.setSubVector(0, r);
+                restarted = true;
+                shadowIsR = true;
+            }
+
+            evt = new DefaultIterativeLinearSolverEvent(this,
+                manager.getIterations(), xro, bro, rro, rnorm);
+            manager.fireIterationPerformedEvent(evt);
+            if (rnorm <= rmax) {
+                manager.fireTerminationEvent(evt);
+                return x;
+            }
+        }
+    }
+}
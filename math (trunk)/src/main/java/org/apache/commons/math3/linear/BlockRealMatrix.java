@@ -18,7 +18,11 @@
 package org.apache.commons.math3.linear;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.math3.exception.DimensionMismatchException;
 import org.apache.commons.math3.exception.NoDataException;
@@ -539,59 +543,100 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
         final BlockRealMatrix out = new BlockRealMatrix(rows, m.columns);
 
         // perform multiplication block-wise, to ensure good cache behavior
-        int blockIndex = 0;
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
         for (int iBlock = 0; iBlock < out.blockRows; ++iBlock) {
+            multiplyBlockRow(m, out, iBlock, backend);
+        }
 
-            final int pStart = iBlock * BLOCK_SIZE;
-            final int pEnd = FastMath.min(pStart + BLOCK_SIZE, rows);
+        return out;
+    }
 
-            for (int jBlock = 0; jBlock < out.blockColumns; ++jBlock) {
-                final int jWidth = out.blockWidth(jBlock);
-                final int jWidth2 = jWidth  + jWidth;
-                final int jWidth3 = jWidth2 + jWidth;
-                final int jWidth4 = jWidth3 + jWidth;
+    /**
+     * Returns the result of postmultiplying this by {@code m}, distributing
+     * the work on an executor.
+     * <p>
+     * Each row of blocks of the product is computed by a separate task
+     * submitted to the executor. As the tasks write into disjoint blocks and
+     * each block is computed exactly as in {@link #multiply(BlockRealMatrix)},
+     * the result is bit-for-bit identical to the serial product, whatever
+     * the number of threads used by the executor.
+     * </p>
+     * <p>
+     * The executor is neither created nor shut down by this method, it can
+     * therefore be shared between several calls.
+     * </p>
+     *
+     * @param m Matrix to postmultiply by.
+     * @param executor Executor running the tasks.
+     * @return {@code this} * m.
+     * @throws DimensionMismatchException if the matrices are not compatible.
+     * @throws NullArgumentException if {@code executor} is {@code null}.
+     * @throws org.apache.commons.math3.exception.MathIllegalStateException
+     * if the calling thread is interrupted while waiting for the tasks.
+     * @since 3.4
+     */
+    public BlockRealMatrix multiply(final BlockRealMatrix m,
+                                    final ExecutorService executor)
+        throws DimensionMismatchException, NullArgumentException {
+        MathUtils.checkNotNull(executor);
+        // safety check
+        MatrixUtils.checkMultiplicationCompatible(this, m);
 
-                // select current block
-                final double[] outBlock = out.blocks[blockIndex];
+        final BlockRealMatrix out = new BlockRealMatrix(rows, m.columns);
 
-                // perform multiplication on current block
-                for (int kBlock = 0; kBlock < blockColumns; ++kBlock) {
-                    final int kWidth = blockWidth(kBlock);
-                    final double[] tBlock = blocks[iBlock * blockColumns + kBlock];
-                    final double[] mBlock = m.blocks[kBlock * m.blockColumns + jBlock];
-                    int k = 0;
-                    for (int p = pStart; p < pEnd; ++p) {
-                        final int lStart = (p - pStart) * kWidth;
-                        final int lEnd = lStart + kWidth;
-                        for (int nStart = 0; nStart < jWidth; ++nStart) {
-                            double sum = 0;
-                            int l = lStart;
-                            int n = nStart;
-                            while (l < lEnd - 3) {
-                                sum += tBlock[l] * mBlock[n] +
-                                       tBlock[l + 1] * mBlock[n + jWidth] +
-                                       tBlock[l + 2] * mBlock[n + jWidth2] +
-                                       tBlock[l + 3] * mBlock[n + jWidth3];
-                                l += 4;
-                                n += jWidth4;
-                            }
-                            while (l < lEnd) {
-                                sum += tBlock[l++] * mBlock[n];
-                                n += jWidth;
-                            }
-                            outBlock[k] += sum;
-                            ++k;
-                        }
-                    }
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(out.blockRows);
+        for (int iBlock = 0; iBlock < out.blockRows; ++iBlock) {
+            final int blockRow = iBlock;
+            tasks.add(new Callable<Void>() {
+                /** {@inheritDoc} */
+                public Void call() {
+                    multiplyBlockRow(m, out, blockRow, backend);
+                    return null;
                 }
-                // go to next block
-                ++blockIndex;
-            }
+            });
         }
+        ParallelTasks.invokeAll(executor, tasks);
 
         return out;
     }
 
+    /**
+     * Compute one row of blocks of the product of this by {@code m}.
+     *
+     * @param m Matrix to postmultiply by.
+     * @param out Product matrix, updated in place.
+     * @param iBlock Row index (in block sense) of the blocks to compute.
+     * @param backend Backend performing the block products.
+     */
+    private void multiplyBlockRow(final BlockRealMatrix m,
+                                  final BlockRealMatrix out,
+                                  final int iBlock,
+                                  final LinearAlgebraBackend backend) {
+
+        final int iHeight = blockHeight(iBlock);
+
+        int blockIndex = iBlock * out.blockColumns;
+        for (int jBlock = 0; jBlock < out.blockColumns; ++jBlock) {
+            final int jWidth = out.blockWidth(jBlock);
+
+            // select current block
+            final double[] outBlock = out.blocks[blockIndex];
+
+            // perform multiplication on current block
+            for (int kBlock = 0; kBlock < blockColumns; ++kBlock) {
+                final int kWidth = blockWidth(kBlock);
+                final double[] tBlock = blocks[iBlock * blockColumns + kBlock];
+                final double[] mBlock = m.blocks[kBlock * m.blockColumns + jBlock];
+                backend.gemm(iHeight, jWidth, kWidth, 1.0,
+                             tBlock, 0, kWidth, mBlock, 0, jWidth,
+                             1.0, outBlock, 0, jWidth);
+            }
+            // go to next block
+            ++blockIndex;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public double[][] getData() {
@@ -1260,11 +1305,23 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
     /** {@inheritDoc} */
     @Override
     public double[] operate(final double[] v)
+        throws DimensionMismatchException {
+        final double[] out = new double[rows];
+        operateInto(v, out);
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out)
         throws DimensionMismatchException {
         if (v.length != columns) {
             throw new DimensionMismatchException(v.length, columns);
         }
-        final double[] out = new double[rows];
+        if (out.length != rows) {
+            throw new DimensionMismatchException(out.length, rows);
+        }
+        Arrays.fill(out, 0.0);
 
         // perform multiplication block-wise, to ensure good cache behavior
         for (int iBlock = 0; iBlock < blockRows; ++iBlock) {
@@ -1293,8 +1350,6 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
                 }
             }
         }
-
-        return out;
     }
 
     /** {@inheritDoc} */
@@ -17,6 +17,11 @@
 
 package org.apache.commons.math3.linear;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
 import org.apache.commons.math3.exception.DimensionMismatchException;
 import org.apache.commons.math3.util.FastMath;
 
@@ -56,12 +61,21 @@ public class CholeskyDecomposition {
      * and matrix not positive definite.
      */
     public static final double DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD = 1.0e-10;
+    /**
+     * Number of rows of the panels used by the blocked algorithm.
+     * @since 3.4
+     */
+    public static final int BLOCK_SIZE = 64;
+    /** Maximal number of rows per trailing update product in the blocked algorithm. */
+    private static final int UPDATE_ROWS = 4 * BLOCK_SIZE;
     /** Row-oriented storage for L<sup>T</sup> matrix data. */
     private double[][] lTData;
     /** Cached value of L. */
     private RealMatrix cachedL;
     /** Cached value of LT. */
     private RealMatrix cachedLT;
+    /** Threshold below which diagonal elements are considered null. */
+    private final double absolutePositivityThreshold;
 
     /**
      * Calculates the Cholesky decomposition of the given matrix.
@@ -104,61 +118,299 @@ public class CholeskyDecomposition {
     public CholeskyDecomposition(final RealMatrix matrix,
                                      final double relativeSymmetryThreshold,
                                      final double absolutePositivityThreshold) {
+        this(matrix, relativeSymmetryThreshold, absolutePositivityThreshold, false, null);
+    }
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix using a blocked algorithm.
+     * <p>
+     * The matrix is processed by panels of {@link #BLOCK_SIZE} rows of
+     * L<sup>T</sup>: each panel is factored, then the trailing sub-matrix is
+     * updated by a single symmetric rank-{@link #BLOCK_SIZE} product. This
+     * update, which concentrates almost all the floating point operations, is
+     * delegated to the {@link LinearAlgebraBackend#syrk(double, double[][],
+     * double, double[][]) syrk} (diagonal blocks) and {@link
+     * LinearAlgebraBackend#gemm(double, double[][], double[][], double,
+     * double[][]) gemm} (off-diagonal blocks) kernels of the {@link
+     * MatrixUtils#getLinearAlgebraBackend() linear algebra backend}, and it is
+     * split by groups of rows between the tasks submitted to the executor if
+     * one is provided.
+     * </p>
+     * <p>
+     * The operations are performed in a different order than in the unblocked
+     * algorithm used by {@link #CholeskyDecomposition(RealMatrix, double, double)},
+     * so the results may differ in the last bits. This algorithm is intended
+     * for large matrices (several hundreds rows and columns).
+     * </p>
+     * @param matrix the matrix to decompose
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @param executor executor to use for the trailing updates (may be null,
+     * in which case all computations are performed in the calling thread)
+     * @throws NonSquareMatrixException if the matrix is not square.
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric.
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     * @throws org.apache.commons.math3.exception.MathIllegalStateException
+     * if the calling thread is interrupted while waiting for the tasks
+     * @see #DEFAULT_RELATIVE_SYMMETRY_THRESHOLD
+     * @see #DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD
+     * @since 3.4
+     */
+    public CholeskyDecomposition(final RealMatrix matrix,
+                                 final double relativeSymmetryThreshold,
+                                 final double absolutePositivityThreshold,
+                                 final ExecutorService executor) {
+        this(matrix, relativeSymmetryThreshold, absolutePositivityThreshold, true, executor);
+    }
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix.
+     * @param matrix the matrix to decompose
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @param blocked if true, use the blocked algorithm
+     * @param executor executor to use for the trailing updates of the
+     * blocked algorithm (may be null)
+     * @throws NonSquareMatrixException if the matrix is not square.
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric.
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     */
+    private CholeskyDecomposition(final RealMatrix matrix,
+                                  final double relativeSymmetryThreshold,
+                                  final double absolutePositivityThreshold,
+                                  final boolean blocked,
+                                  final ExecutorService executor) {
         if (!matrix.isSquare()) {
             throw new NonSquareMatrixException(matrix.getRowDimension(),
                                                matrix.getColumnDimension());
         }
 
         final int order = matrix.getRowDimension();
-        lTData   = matrix.getData();
         cachedL  = null;
         cachedLT = null;
+        this.absolutePositivityThreshold = absolutePositivityThreshold;
+
+        if (matrix instanceof SymmetricRealMatrix) {
+            // the matrix is symmetric by construction, only its packed upper triangle is read
+            final double[] packed = ((SymmetricRealMatrix) matrix).getDataRef();
+            lTData = new double[order][order];
+            int k = 0;
+            for (int j = 0; j < order; ++j) {
+                for (int i = 0; i <= j; ++i) {
+                    lTData[i][j] = packed[k++];
+                }
+            }
+        } else {
+            lTData = matrix.getData();
 
-        // check the matrix before transformation
-        for (int i = 0; i < order; ++i) {
-            final double[] lI = lTData[i];
+            // check the matrix before transformation
+            for (int i = 0; i < order; ++i) {
+                final double[] lI = lTData[i];
 
-            // check off-diagonal elements (and reset them to 0)
-            for (int j = i + 1; j < order; ++j) {
-                final double[] lJ = lTData[j];
-                final double lIJ = lI[j];
-                final double lJI = lJ[i];
-                final double maxDelta =
-                    relativeSymmetryThreshold * FastMath.max(FastMath.abs(lIJ), FastMath.abs(lJI));
-                if (FastMath.abs(lIJ - lJI) > maxDelta) {
-                    throw new NonSymmetricMatrixException(i, j, relativeSymmetryThreshold);
+                // check off-diagonal elements (and reset them to 0)
+                for (int j = i + 1; j < order; ++j) {
+                    final double[] lJ = lTData[j];
+                    final double lIJ = lI[j];
+                    final double lJI = lJ[i];
+                    final double maxDelta =
+                        relativeSymmetryThreshold * FastMath.max(FastMath.abs(lIJ), FastMath.abs(lJI));
+                    if (FastMath.abs(lIJ - lJI) > maxDelta) {
+                        throw new NonSymmetricMatrixException(i, j, relativeSymmetryThreshold);
+                    }
+                    lJ[i] = 0;
                 }
-                lJ[i] = 0;
-           }
+            }
         }
 
         // transform the matrix
-        for (int i = 0; i < order; ++i) {
+        if (blocked) {
+            blockedDecompose(absolutePositivityThreshold, executor);
+        } else {
+            final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+            for (int i = 0; i < order; ++i) {
 
-            final double[] ltI = lTData[i];
+                final double[] ltI = lTData[i];
+
+                // check diagonal element
+                if (ltI[i] <= absolutePositivityThreshold) {
+                    throw new NonPositiveDefiniteMatrixException(ltI[i], i, absolutePositivityThreshold);
+                }
+
+                ltI[i] = FastMath.sqrt(ltI[i]);
+                final double inverse = 1.0 / ltI[i];
 
-            // check diagonal element
-            if (ltI[i] <= absolutePositivityThreshold) {
-                throw new NonPositiveDefiniteMatrixException(ltI[i], i, absolutePositivityThreshold);
+                for (int q = order - 1; q > i; --q) {
+                    ltI[q] *= inverse;
+                    backend.axpy(order - q, -ltI[q], ltI, q, lTData[q], q);
+                }
             }
+        }
+    }
+
+    /**
+     * Build a decomposition from an already computed factor.
+     * @param lTData row-oriented storage for L<sup>T</sup> matrix data
+     * (the lower triangle must be zero), it is used without copying
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     */
+    private CholeskyDecomposition(final double[][] lTData,
+                                  final double absolutePositivityThreshold) {
+        this.lTData = lTData;
+        cachedL     = null;
+        cachedLT    = null;
+        this.absolutePositivityThreshold = absolutePositivityThreshold;
+    }
+
+    /**
+     * Perform the decomposition using the blocked algorithm.
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @param executor executor to use for the trailing updates (may be null)
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     */
+    private void blockedDecompose(final double absolutePositivityThreshold,
+                                  final ExecutorService executor) {
 
-            ltI[i] = FastMath.sqrt(ltI[i]);
-            final double inverse = 1.0 / ltI[i];
+        final int order = lTData.length;
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
 
-            for (int q = order - 1; q > i; --q) {
-                ltI[q] *= inverse;
-                final double[] ltQ = lTData[q];
-                for (int p = q; p < order; ++p) {
-                    ltQ[p] -= ltI[q] * ltI[p];
+        for (int k0 = 0; k0 < order; k0 += BLOCK_SIZE) {
+            final int k1 = FastMath.min(k0 + BLOCK_SIZE, order);
+
+            // factor the panel made of rows k0 to k1 - 1 of L^T
+            for (int i = k0; i < k1; ++i) {
+
+                final double[] ltI = lTData[i];
+
+                // check diagonal element
+                if (ltI[i] <= absolutePositivityThreshold) {
+                    throw new NonPositiveDefiniteMatrixException(ltI[i], i, absolutePositivityThreshold);
                 }
+
+                ltI[i] = FastMath.sqrt(ltI[i]);
+                final double inverse = 1.0 / ltI[i];
+                for (int q = i + 1; q < order; ++q) {
+                    ltI[q] *= inverse;
+                }
+
+                // update the remaining rows of the panel
+                for (int q = i + 1; q < k1; ++q) {
+                    backend.axpy(order - q, -ltI[q], ltI, q, lTData[q], q);
+                }
+
             }
+
+            if (k1 < order) {
+                // update the trailing sub-matrix: A22 = A22 - U12^T U12
+                if (executor == null) {
+                    for (int r0 = k1; r0 < order; r0 += UPDATE_ROWS) {
+                        updateTrailingRows(k0, k1, r0, FastMath.min(r0 + UPDATE_ROWS, order));
+                    }
+                } else {
+                    final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+                    for (int r0 = k1; r0 < order; r0 += UPDATE_ROWS) {
+                        final int start = r0;
+                        final int end   = FastMath.min(r0 + UPDATE_ROWS, order);
+                        final int panelStart = k0;
+                        final int panelEnd   = k1;
+                        tasks.add(new Callable<Void>() {
+                            /** {@inheritDoc} */
+                            public Void call() {
+                                updateTrailingRows(panelStart, panelEnd, start, end);
+                                return null;
+                            }
+                        });
+                    }
+                    ParallelTasks.invokeAll(executor, tasks);
+                }
+            }
+
         }
     }
 
+    /**
+     * Update some rows of the trailing sub-matrix after a panel has been factored.
+     * <p>
+     * Only the upper triangular part of the rows is updated. Denoting W the
+     * columns of the panel corresponding to the rows, the diagonal block is
+     * updated by a backend {@link LinearAlgebraBackend#syrk(double, double[][],
+     * double, double[][]) syrk} call computing C = C - W W<sup>T</sup>, and the
+     * block on its right by a backend {@link LinearAlgebraBackend#gemm(double,
+     * double[][], double[][], double, double[][]) gemm} call. Callers limit the
+     * number of rows to {@link #UPDATE_ROWS} so the temporary copies stay small.
+     * </p>
+     * @param k0 index of the first row of the panel
+     * @param k1 index of the first row after the panel
+     * @param startRow index of the first row to update
+     * @param endRow index of the row after the last row to update
+     */
+    private void updateTrailingRows(final int k0, final int k1,
+                                    final int startRow, final int endRow) {
+
+        final int order = lTData.length;
+        final int kb    = k1 - k0;
+        final int nRows = endRow - startRow;
+        final int nCols = order - endRow;
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+
+        // W = transpose of the panel part above the rows
+        final double[][] w = new double[nRows][kb];
+        for (int i = k0; i < k1; ++i) {
+            final double[] ltI = lTData[i];
+            for (int q = 0; q < nRows; ++q) {
+                w[q][i - k0] = ltI[startRow + q];
+            }
+        }
+
+        // diagonal block, symmetrized from the upper triangular part
+        final double[][] diag = new double[nRows][nRows];
+        for (int q = 0; q < nRows; ++q) {
+            final double[] ltQ = lTData[startRow + q];
+            for (int p = q; p < nRows; ++p) {
+                diag[q][p] = ltQ[startRow + p];
+                diag[p][q] = diag[q][p];
+            }
+        }
+        backend.syrk(-1.0, w, 1.0, diag);
+        for (int q = 0; q < nRows; ++q) {
+            System.arraycopy(diag[q], q, lTData[startRow + q], startRow + q, nRows - q);
+        }
+
+        // off-diagonal block, using the negated panel so the product accumulates in place
+        if (nCols > 0) {
+            final double[][] minusU = new double[kb][nCols];
+            for (int i = k0; i < k1; ++i) {
+                final double[] ltI = lTData[i];
+                final double[] uI  = minusU[i - k0];
+                for (int p = 0; p < nCols; ++p) {
+                    uI[p] = -ltI[endRow + p];
+                }
+            }
+            final double[][] off = new double[nRows][nCols];
+            for (int q = 0; q < nRows; ++q) {
+                System.arraycopy(lTData[startRow + q], endRow, off[q], 0, nCols);
+            }
+            backend.gemm(1.0, w, minusU, 1.0, off);
+            for (int q = 0; q < nRows; ++q) {
+                System.arraycopy(off[q], 0, lTData[startRow + q], endRow, nCols);
+            }
+        }
+
+    }
+
     /**
      * Returns the matrix L of the decomposition.
      * <p>L is an lower-triangular matrix</p>
      * @return the L matrix
+     * @see #getPackedL()
      */
     public RealMatrix getL() {
         if (cachedL == null) {
@@ -171,6 +423,7 @@ public class CholeskyDecomposition {
      * Returns the transpose of the matrix L of the decomposition.
      * <p>L<sup>T</sup> is an upper-triangular matrix</p>
      * @return the transpose of the matrix L of the decomposition
+     * @see #getPackedLT()
      */
     public RealMatrix getLT() {
 
@@ -182,6 +435,32 @@ public class CholeskyDecomposition {
         return cachedLT;
     }
 
+    /**
+     * Returns the matrix L of the decomposition in packed storage.
+     * <p>
+     * Only the lower triangle is stored, using about half the memory of
+     * {@link #getL()}. A new matrix is built at each call.
+     * </p>
+     * @return the L matrix, as a lower {@link TriangularRealMatrix}
+     * @since 3.4
+     */
+    public TriangularRealMatrix getPackedL() {
+        return TriangularRealMatrix.fromUpperRows(lTData, true);
+    }
+
+    /**
+     * Returns the transpose of the matrix L of the decomposition in packed storage.
+     * <p>
+     * Only the upper triangle is stored, using about half the memory of
+     * {@link #getLT()}. A new matrix is built at each call.
+     * </p>
+     * @return the transpose of the matrix L, as an upper {@link TriangularRealMatrix}
+     * @since 3.4
+     */
+    public TriangularRealMatrix getPackedLT() {
+        return TriangularRealMatrix.fromUpperRows(lTData, false);
+    }
+
     /**
      * Return the determinant of the matrix
      * @return determinant of the matrix
@@ -195,6 +474,153 @@ public class CholeskyDecomposition {
         return determinant;
     }
 
+    /**
+     * Compute the decomposition of A + x x<sup>T</sup>.
+     * <p>
+     * The factor is updated by a sequence of rotations in O(n<sup>2</sup>)
+     * operations, instead of the O(n<sup>3</sup>) operations needed to
+     * decompose the updated matrix from scratch. The instance is not modified.
+     * </p>
+     * @param x update vector
+     * @return decomposition of the updated matrix
+     * @throws DimensionMismatchException if the vector dimension does not
+     * match the matrix dimension
+     * @since 3.4
+     */
+    public CholeskyDecomposition update(final RealVector x)
+        throws DimensionMismatchException {
+        final double[][] updated = copyFactor();
+        rankOneUpdate(updated, x, 1.0, absolutePositivityThreshold);
+        return new CholeskyDecomposition(updated, absolutePositivityThreshold);
+    }
+
+    /**
+     * Compute the decomposition of A + X X<sup>T</sup>.
+     * <p>
+     * The columns of X are applied as successive rank-one updates, in
+     * O(k n<sup>2</sup>) operations where k is the number of columns of X.
+     * The instance is not modified.
+     * </p>
+     * @param x update matrix, with one row per row of A
+     * @return decomposition of the updated matrix
+     * @throws DimensionMismatchException if the number of rows of {@code x}
+     * does not match the matrix dimension
+     * @since 3.4
+     */
+    public CholeskyDecomposition update(final RealMatrix x)
+        throws DimensionMismatchException {
+        final double[][] updated = copyFactor();
+        for (int k = 0; k < x.getColumnDimension(); ++k) {
+            rankOneUpdate(updated, x.getColumnVector(k), 1.0, absolutePositivityThreshold);
+        }
+        return new CholeskyDecomposition(updated, absolutePositivityThreshold);
+    }
+
+    /**
+     * Compute the decomposition of A - x x<sup>T</sup>.
+     * <p>
+     * The factor is downdated by a sequence of hyperbolic rotations in
+     * O(n<sup>2</sup>) operations. The downdated matrix must remain positive
+     * definite, with respect to the absolute positivity threshold this
+     * instance was built with. The resulting decomposition uses the same
+     * threshold. The instance is not modified.
+     * </p>
+     * @param x downdate vector
+     * @return decomposition of the downdated matrix
+     * @throws DimensionMismatchException if the vector dimension does not
+     * match the matrix dimension
+     * @throws NonPositiveDefiniteMatrixException if the downdated matrix is
+     * not strictly positive definite
+     * @since 3.4
+     */
+    public CholeskyDecomposition downdate(final RealVector x)
+        throws DimensionMismatchException, NonPositiveDefiniteMatrixException {
+        final double[][] downdated = copyFactor();
+        rankOneUpdate(downdated, x, -1.0, absolutePositivityThreshold);
+        return new CholeskyDecomposition(downdated, absolutePositivityThreshold);
+    }
+
+    /**
+     * Compute the decomposition of A - X X<sup>T</sup>.
+     * <p>
+     * The columns of X are applied as successive rank-one downdates, in
+     * O(k n<sup>2</sup>) operations where k is the number of columns of X.
+     * All intermediate matrices must remain positive definite. The instance
+     * is not modified.
+     * </p>
+     * @param x downdate matrix, with one row per row of A
+     * @return decomposition of the downdated matrix
+     * @throws DimensionMismatchException if the number of rows of {@code x}
+     * does not match the matrix dimension
+     * @throws NonPositiveDefiniteMatrixException if a downdated matrix is
+     * not strictly positive definite
+     * @since 3.4
+     */
+    public CholeskyDecomposition downdate(final RealMatrix x)
+        throws DimensionMismatchException, NonPositiveDefiniteMatrixException {
+        final double[][] downdated = copyFactor();
+        for (int k = 0; k < x.getColumnDimension(); ++k) {
+            rankOneUpdate(downdated, x.getColumnVector(k), -1.0, absolutePositivityThreshold);
+        }
+        return new CholeskyDecomposition(downdated, absolutePositivityThreshold);
+    }
+
+    /**
+     * Copy the factor.
+     * @return a copy of the row-oriented storage for L<sup>T</sup>
+     */
+    private double[][] copyFactor() {
+        final double[][] copy = new double[lTData.length][];
+        for (int i = 0; i < copy.length; ++i) {
+            copy[i] = lTData[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Perform in place a rank-one update or downdate of a factor.
+     * @param lT row-oriented storage for L<sup>T</sup>, updated in place
+     * @param x update vector
+     * @param sign +1 for an update, -1 for a downdate
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @throws DimensionMismatchException if the vector dimension does not
+     * match the matrix dimension
+     * @throws NonPositiveDefiniteMatrixException if the downdated matrix is
+     * not strictly positive definite (never thrown for updates, which
+     * cannot decrease the diagonal elements)
+     */
+    private static void rankOneUpdate(final double[][] lT, final RealVector x,
+                                      final double sign,
+                                      final double absolutePositivityThreshold)
+        throws DimensionMismatchException, NonPositiveDefiniteMatrixException {
+
+        final int order = lT.length;
+        if (x.getDimension() != order) {
+            throw new DimensionMismatchException(x.getDimension(), order);
+        }
+        final double[] w = x.toArray();
+
+        for (int k = 0; k < order; ++k) {
+            final double[] lTK = lT[k];
+            final double lKK   = lTK[k];
+            final double wK    = w[k];
+            final double r2    = lKK * lKK + sign * wK * wK;
+            if (sign < 0 && r2 <= absolutePositivityThreshold) {
+                throw new NonPositiveDefiniteMatrixException(r2, k, absolutePositivityThreshold);
+            }
+            final double r = FastMath.sqrt(r2);
+            final double c = r  / lKK;
+            final double s = wK / lKK;
+            lTK[k] = r;
+            for (int i = k + 1; i < order; ++i) {
+                lTK[i] = (lTK[i] + sign * s * w[i]) / c;
+                w[i]   = c * w[i] - s * lTK[i];
+            }
+        }
+
+    }
+
     /**
      * Get a solver for finding the A &times; X = B solution in least square sense.
      * @return a solver
@@ -232,13 +658,11 @@ public class CholeskyDecomposition {
             final double[] x = b.toArray();
 
             // Solve LY = b
+            final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
             for (int j = 0; j < m; j++) {
                 final double[] lJ = lTData[j];
                 x[j] /= lJ[j];
-                final double xJ = x[j];
-                for (int i = j + 1; i < m; i++) {
-                    x[i] -= xJ * lJ[i];
-                }
+                backend.axpy(m - j - 1, -x[j], lJ, j + 1, x, j + 1);
             }
 
             // Solve LTX = Y
@@ -260,43 +684,17 @@ public class CholeskyDecomposition {
                 throw new DimensionMismatchException(b.getRowDimension(), m);
             }
 
-            final int nColB = b.getColumnDimension();
             final double[][] x = b.getData();
 
+            final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+
             // Solve LY = b
-            for (int j = 0; j < m; j++) {
-                final double[] lJ = lTData[j];
-                final double lJJ = lJ[j];
-                final double[] xJ = x[j];
-                for (int k = 0; k < nColB; ++k) {
-                    xJ[k] /= lJJ;
-                }
-                for (int i = j + 1; i < m; i++) {
-                    final double[] xI = x[i];
-                    final double lJI = lJ[i];
-                    for (int k = 0; k < nColB; ++k) {
-                        xI[k] -= xJ[k] * lJI;
-                    }
-                }
-            }
+            backend.trsm(true, true, false, lTData, x);
 
             // Solve LTX = Y
-            for (int j = m - 1; j >= 0; j--) {
-                final double lJJ = lTData[j][j];
-                final double[] xJ = x[j];
-                for (int k = 0; k < nColB; ++k) {
-                    xJ[k] /= lJJ;
-                }
-                for (int i = 0; i < j; i++) {
-                    final double[] xI = x[i];
-                    final double lIJ = lTData[i][j];
-                    for (int k = 0; k < nColB; ++k) {
-                        xI[k] -= xJ[k] * lIJ;
-                    }
-                }
-            }
+            backend.trsm(true, false, false, lTData, x);
 
-            return new Array2DRowRealMatrix(x);
+            return new Array2DRowRealMatrix(x, false);
         }
 
         /**
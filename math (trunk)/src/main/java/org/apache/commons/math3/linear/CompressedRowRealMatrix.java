@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import java.io.Serializable;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+
+/**
+ * Immutable sparse matrix in compressed sparse row (CSR) format.
+ * <p>
+ * The non-zero entries are stored row by row in contiguous arrays, with
+ * increasing column indices within each row. Products by a vector
+ * ({@link #operate(double[]) operate}) therefore scan the storage linearly,
+ * without any lookup, and {@link #preMultiply(double[]) preMultiply} scatters
+ * each row in the result. The {@link #transpose() transpose} is a
+ * {@link CompressedColumnRealMatrix} sharing the same storage, it is
+ * computed in constant time.
+ * </p>
+ * <p>
+ * Instances are built either from an existing matrix or from coordinate
+ * triplets using a {@link SparseRealMatrixBuilder}. As they are immutable,
+ * all methods that would modify an entry throw a {@link
+ * MathUnsupportedOperationException}, and {@link #createMatrix(int, int)}
+ * creates an {@link OpenMapRealMatrix}.
+ * </p>
+ * <p>
+ *  Caveat: This implementation assumes that, for any {@code x},
+ *  the equality {@code x * 0d == 0d} holds. But it is is not true for
+ *  {@code NaN}. Moreover, zero entries will lose their sign.
+ *  Some operations (that involve {@code NaN} and/or infinities) may
+ *  thus give incorrect results.
+ * </p>
+ * @see CompressedColumnRealMatrix
+ * @version $Id$
+ * @since 3.4
+ */
+public class CompressedRowRealMatrix extends AbstractRealMatrix
+    implements SparseRealMatrix, Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141016L;
+
+    /** Number of rows of the matrix. */
+    private final int rows;
+
+    /** Number of columns of the matrix. */
+    private final int columns;
+
+    /** Storage of the non-zero entries, with rows as major lines. */
+    private final CompressedStorage storage;
+
+    /**
+     * Build a compressed row matrix from another matrix.
+     * <p>
+     * Only the non-zero entries of the matrix are stored. If the matrix
+     * already uses a compressed storage, this storage is reused or converted
+     * without visiting the zero entries.
+     * </p>
+     * @param matrix matrix to convert
+     */
+    public CompressedRowRealMatrix(final RealMatrix matrix) {
+        this(matrix.getRowDimension(), matrix.getColumnDimension(), rowStorage(matrix));
+    }
+
+    /**
+     * Build a compressed row matrix from its storage.
+     * @param rows number of rows
+     * @param columns number of columns
+     * @param storage storage of the non-zero entries, with rows as major lines
+     */
+    CompressedRowRealMatrix(final int rows, final int columns, final CompressedStorage storage) {
+        super(rows, columns);
+        this.rows    = rows;
+        this.columns = columns;
+        this.storage = storage;
+    }
+
+    /**
+     * Get the storage of a matrix, with rows as major lines.
+     * @param matrix matrix to convert
+     * @return storage of the non-zero entries
+     */
+    private static CompressedStorage rowStorage(final RealMatrix matrix) {
+        if (matrix instanceof CompressedRowRealMatrix) {
+            return ((CompressedRowRealMatrix) matrix).storage;
+        } else if (matrix instanceof CompressedColumnRealMatrix) {
+            return ((CompressedColumnRealMatrix) matrix).getStorage().transpose(matrix.getRowDimension());
+        } else {
+            return SparseRealMatrixBuilder.fromMatrix(matrix).buildRowStorage();
+        }
+    }
+
+    /**
+     * Get the storage of the non-zero entries.
+     * @return storage of the non-zero entries, with rows as major lines
+     */
+    CompressedStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Get the number of stored (i.e. non-zero) entries.
+     * @return number of stored entries
+     */
+    public int getNonZeroCount() {
+        return storage.getNonZeros();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As compressed matrices are immutable, the created matrix is an
+     * {@link OpenMapRealMatrix}.
+     * </p>
+     * @throws NumberIsTooLargeException if the total number of entries of the
+     * matrix is larger than {@code Integer.MAX_VALUE}.
+     */
+    @Override
+    public RealMatrix createMatrix(final int rowDimension, final int columnDimension)
+        throws NotStrictlyPositiveException, NumberIsTooLargeException {
+        return new OpenMapRealMatrix(rowDimension, columnDimension);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompressedRowRealMatrix copy() {
+        // the storage is immutable, it can be shared
+        return new CompressedRowRealMatrix(rows, columns, storage);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return rows;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return columns;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column) throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        return storage.get(row, column);
+    }
+
+    /**
+     * Unsupported operation, compressed matrices are immutable.
+     * @param row row index
+     * @param column column index
+     * @param value new value
+     * @throws MathUnsupportedOperationException always
+     */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws MathUnsupportedOperationException {
+        throw new MathUnsupportedOperationException();
+    }
+
+    /**
+     * Unsupported operation, compressed matrices are immutable.
+     * @param row row index
+     * @param column column index
+     * @param increment value to add
+     * @throws MathUnsupportedOperationException always
+     */
+    @Override
+    public void addToEntry(final int row, final int column, final double increment)
+        throws MathUnsupportedOperationException {
+        throw new MathUnsupportedOperationException();
+    }
+
+    /**
+     * Unsupported operation, compressed matrices are immutable.
+     * @param row row index
+     * @param column column index
+     * @param factor multiplication factor
+     * @throws MathUnsupportedOperationException always
+     */
+    @Override
+    public void multiplyEntry(final int row, final int column, final double factor)
+        throws MathUnsupportedOperationException {
+        throw new MathUnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The transpose shares the storage of the instance, it is built in
+     * constant time.
+     * </p>
+     */
+    @Override
+    public CompressedColumnRealMatrix transpose() {
+        return new CompressedColumnRealMatrix(columns, rows, storage);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If {@code m} is a {@link SparseRealMatrix}, the rows of its compressed
+     * row storage are merged and the product is a compressed row matrix.
+     * Otherwise the product is dense.
+     * </p>
+     */
+    @Override
+    public RealMatrix multiply(final RealMatrix m) throws DimensionMismatchException {
+        MatrixUtils.checkMultiplicationCompatible(this, m);
+        if (m instanceof SparseRealMatrix) {
+            final int outCols = m.getColumnDimension();
+            return new CompressedRowRealMatrix(rows, outCols,
+                                               storage.multiply(rowStorage(m), outCols));
+        }
+        return new Array2DRowRealMatrix(storage.gather(m.getData()), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] operate(final double[] v) throws DimensionMismatchException {
+        final double[] out = new double[rows];
+        operateInto(v, out);
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out) throws DimensionMismatchException {
+        if (v.length != columns) {
+            throw new DimensionMismatchException(v.length, columns);
+        }
+        if (out.length != rows) {
+            throw new DimensionMismatchException(out.length, rows);
+        }
+        storage.gather(v, out);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(final RealVector v) throws DimensionMismatchException {
+        return new ArrayRealVector(operate(CompressedStorage.getData(v)), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final RealVector v, final RealVector out) throws DimensionMismatchException {
+        if (out instanceof ArrayRealVector) {
+            operateInto(CompressedStorage.getData(v), ((ArrayRealVector) out).getDataRef());
+        } else {
+            if (out.getDimension() != rows) {
+                throw new DimensionMismatchException(out.getDimension(), rows);
+            }
+            out.setSubVector(0, operate(v));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v) throws DimensionMismatchException {
+        if (v.length != rows) {
+            throw new DimensionMismatchException(v.length, rows);
+        }
+        return storage.scatter(v, columns);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector preMultiply(final RealVector v) throws DimensionMismatchException {
+        return new ArrayRealVector(preMultiply(CompressedStorage.getData(v)), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operateTranspose(final RealVector x) throws DimensionMismatchException {
+        return preMultiply(x);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}, products by the transpose are always supported
+     */
+    @Override
+    public boolean isTransposable() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInRowOrder(final RealMatrixPreservingVisitor visitor) {
+        visitor.start(rows, columns, 0, rows - 1, 0, columns - 1);
+        storage.walk(visitor, columns, false);
+        return visitor.end();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInOptimizedOrder(final RealMatrixPreservingVisitor visitor) {
+        return walkInRowOrder(visitor);
+    }
+
+}
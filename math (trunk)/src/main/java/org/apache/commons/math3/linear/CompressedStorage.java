@@ -0,0 +1,495 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.math3.util.MathArrays;
+
+/**
+ * Immutable compressed storage shared by the compressed sparse row and
+ * compressed sparse column matrices.
+ * <p>
+ * The storage is described in terms of <em>major</em> and <em>minor</em>
+ * indices: for a compressed row matrix the major index is the row and the
+ * minor index is the column, for a compressed column matrix it is the
+ * opposite. The non-zero entries of major line {@code i} are stored at
+ * indices {@code pointers[i]} to {@code pointers[i + 1] - 1} of the
+ * {@code indices} and {@code values} arrays, sorted by increasing minor
+ * index. As the storage of a matrix is also the storage of its transpose
+ * in the other compression, it can be shared between both.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+final class CompressedStorage implements Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141016L;
+
+    /** Start of each major line in the entries arrays (one extra last element). */
+    private final int[] pointers;
+
+    /** Minor indices of the non-zero entries. */
+    private final int[] indices;
+
+    /** Values of the non-zero entries. */
+    private final double[] values;
+
+    /**
+     * Simple constructor.
+     * <p>
+     * The arrays are referenced, not copied.
+     * </p>
+     * @param pointers start of each major line in the entries arrays
+     * @param indices minor indices of the non-zero entries
+     * @param values values of the non-zero entries
+     */
+    CompressedStorage(final int[] pointers, final int[] indices, final double[] values) {
+        this.pointers = pointers;
+        this.indices  = indices;
+        this.values   = values;
+    }
+
+    /**
+     * Build a storage from unsorted coordinate triplets.
+     * <p>
+     * Duplicate entries are summed and entries that end up exactly equal
+     * to zero are dropped.
+     * </p>
+     * @param majorDimension number of major lines
+     * @param minorDimension number of minor lines
+     * @param major major indices of the triplets
+     * @param minor minor indices of the triplets
+     * @param value values of the triplets
+     * @param n number of triplets
+     * @return compressed storage
+     */
+    static CompressedStorage fromTriplets(final int majorDimension, final int minorDimension,
+                                          final int[] major, final int[] minor,
+                                          final double[] value, final int n) {
+
+        // first pass: stable counting sort by minor index
+        final int[] byMinor = countingSort(minorDimension, minor, identity(n), n);
+
+        // second pass: stable counting sort by major index,
+        // the entries of each major line are then sorted by minor index
+        final int[] order = countingSort(majorDimension, major, byMinor, n);
+
+        // merge duplicates and drop zeros
+        final int[]    pointers = new int[majorDimension + 1];
+        final int[]    indices  = new int[n];
+        final double[] values   = new double[n];
+        int size = 0;
+        int k = 0;
+        for (int i = 0; i < majorDimension; ++i) {
+            pointers[i] = size;
+            while (k < n && major[order[k]] == i) {
+                final int j = minor[order[k]];
+                double sum = 0;
+                while (k < n && major[order[k]] == i && minor[order[k]] == j) {
+                    sum += value[order[k++]];
+                }
+                if (sum != 0.0) {
+                    indices[size]  = j;
+                    values[size++] = sum;
+                }
+            }
+        }
+        pointers[majorDimension] = size;
+
+        return new CompressedStorage(pointers,
+                                     size == n ? indices : MathArrays.copyOf(indices, size),
+                                     size == n ? values  : MathArrays.copyOf(values, size));
+
+    }
+
+    /**
+     * Get the number of major lines.
+     * @return number of major lines
+     */
+    int getMajorDimension() {
+        return pointers.length - 1;
+    }
+
+    /**
+     * Get the number of stored entries.
+     * @return number of stored entries
+     */
+    int getNonZeros() {
+        return pointers[pointers.length - 1];
+    }
+
+    /**
+     * Get the reference to the line pointers array.
+     * @return reference to the line pointers array
+     */
+    int[] getPointersRef() {
+        return pointers;
+    }
+
+    /**
+     * Get the reference to the minor indices array.
+     * @return reference to the minor indices array
+     */
+    int[] getIndicesRef() {
+        return indices;
+    }
+
+    /**
+     * Get the reference to the values array.
+     * @return reference to the values array
+     */
+    double[] getValuesRef() {
+        return values;
+    }
+
+    /**
+     * Get an entry.
+     * @param major major index of the entry
+     * @param minor minor index of the entry
+     * @return entry value (0 if the entry is not stored)
+     */
+    double get(final int major, final int minor) {
+        int low  = pointers[major];
+        int high = pointers[major + 1] - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int index = indices[mid];
+            if (index < minor) {
+                low = mid + 1;
+            } else if (index > minor) {
+                high = mid - 1;
+            } else {
+                return values[mid];
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Multiply by a vector indexed by minor indices.
+     * <p>
+     * Each component of the result is the dot product of a major line
+     * with the vector, this is the natural product for row compression.
+     * </p>
+     * @param x vector indexed by minor indices
+     * @return product, indexed by major indices
+     */
+    double[] gather(final double[] x) {
+        final double[] y = new double[pointers.length - 1];
+        gather(x, y);
+        return y;
+    }
+
+    /**
+     * Multiply by a vector indexed by minor indices, without allocation.
+     * @param x vector indexed by minor indices
+     * @param y placeholder for the product, indexed by major indices
+     * (must be distinct from {@code x})
+     */
+    void gather(final double[] x, final double[] y) {
+        final int n = pointers.length - 1;
+        for (int i = 0; i < n; ++i) {
+            double sum = 0;
+            final int end = pointers[i + 1];
+            for (int k = pointers[i]; k < end; ++k) {
+                sum += values[k] * x[indices[k]];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Multiply by a vector indexed by major indices.
+     * <p>
+     * Each major line scaled by the corresponding vector component is
+     * accumulated in the result, this is the natural product for column
+     * compression.
+     * </p>
+     * @param x vector indexed by major indices
+     * @param minorDimension number of minor lines
+     * @return product, indexed by minor indices
+     */
+    double[] scatter(final double[] x, final int minorDimension) {
+        final double[] y = new double[minorDimension];
+        scatter(x, y);
+        return y;
+    }
+
+    /**
+     * Multiply by a vector indexed by major indices, without allocation.
+     * @param x vector indexed by major indices
+     * @param y placeholder for the product, indexed by minor indices
+     * (must be distinct from {@code x})
+     */
+    void scatter(final double[] x, final double[] y) {
+        Arrays.fill(y, 0.0);
+        for (int i = 0; i < x.length; ++i) {
+            final double xI = x[i];
+            if (xI != 0) {
+                final int end = pointers[i + 1];
+                for (int k = pointers[i]; k < end; ++k) {
+                    y[indices[k]] += values[k] * xI;
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiply by a dense matrix whose rows are indexed by minor indices.
+     * @param b dense matrix whose rows are indexed by minor indices
+     * @return product, with rows indexed by major indices
+     */
+    double[][] gather(final double[][] b) {
+        final int n = pointers.length - 1;
+        final int nCols = b.length == 0 ? 0 : b[0].length;
+        final double[][] c = new double[n][nCols];
+        for (int i = 0; i < n; ++i) {
+            final double[] cI = c[i];
+            final int end = pointers[i + 1];
+            for (int k = pointers[i]; k < end; ++k) {
+                final double v = values[k];
+                final double[] bK = b[indices[k]];
+                for (int j = 0; j < nCols; ++j) {
+                    cI[j] += v * bK[j];
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Multiply by a dense matrix whose rows are indexed by major indices.
+     * @param b dense matrix whose rows are indexed by major indices
+     * @param minorDimension number of minor lines
+     * @return product, with rows indexed by minor indices
+     */
+    double[][] scatter(final double[][] b, final int minorDimension) {
+        final int nCols = b.length == 0 ? 0 : b[0].length;
+        final double[][] c = new double[minorDimension][nCols];
+        for (int i = 0; i < b.length; ++i) {
+            final double[] bI = b[i];
+            final int end = pointers[i + 1];
+            for (int k = pointers[i]; k < end; ++k) {
+                final double v = values[k];
+                final double[] cK = c[indices[k]];
+                for (int j = 0; j < nCols; ++j) {
+                    cK[j] += v * bI[j];
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Multiply by another compressed storage.
+     * <p>
+     * Each entry at (major {@code i}, minor {@code k}) of the instance scales
+     * major line {@code k} of {@code other}, and the scaled lines are merged
+     * into major line {@code i} of the product. The merge uses a dense
+     * accumulator indexed by the minor indices of {@code other}, so the cost
+     * is proportional to the number of elementary products, independently of
+     * the dimensions. Entries of the product that end up exactly equal to zero
+     * are dropped.
+     * </p>
+     * @param other storage whose major lines are indexed by the minor indices
+     * of the instance
+     * @param minorDimension number of minor lines of {@code other}
+     * @return product, with the major lines of the instance and the minor
+     * lines of {@code other}
+     */
+    CompressedStorage multiply(final CompressedStorage other, final int minorDimension) {
+
+        final int n = pointers.length - 1;
+        final int[] marker = new int[minorDimension];
+        Arrays.fill(marker, -1);
+
+        // symbolic pass: count the entries of each line of the product
+        final int[] cPointers = new int[n + 1];
+        for (int i = 0; i < n; ++i) {
+            int count = 0;
+            final int end = pointers[i + 1];
+            for (int k = pointers[i]; k < end; ++k) {
+                final int line = indices[k];
+                final int lineEnd = other.pointers[line + 1];
+                for (int l = other.pointers[line]; l < lineEnd; ++l) {
+                    final int j = other.indices[l];
+                    if (marker[j] != i) {
+                        marker[j] = i;
+                        ++count;
+                    }
+                }
+            }
+            cPointers[i + 1] = cPointers[i] + count;
+        }
+
+        // numeric pass: accumulate the scaled lines and compact them
+        final int[]    cIndices    = new int[cPointers[n]];
+        final double[] cValues     = new double[cPointers[n]];
+        final double[] accumulator = new double[minorDimension];
+        Arrays.fill(marker, -1);
+        int nnz = 0;
+        for (int i = 0; i < n; ++i) {
+            final int start = cPointers[i];
+            int count = 0;
+            final int end = pointers[i + 1];
+            for (int k = pointers[i]; k < end; ++k) {
+                final double v = values[k];
+                final int line = indices[k];
+                final int lineEnd = other.pointers[line + 1];
+                for (int l = other.pointers[line]; l < lineEnd; ++l) {
+                    final int j = other.indices[l];
+                    if (marker[j] != i) {
+                        marker[j] = i;
+                        accumulator[j] = 0;
+                        cIndices[start + count++] = j;
+                    }
+                    accumulator[j] += v * other.values[l];
+                }
+            }
+            Arrays.sort(cIndices, start, start + count);
+            cPointers[i] = nnz;
+            for (int p = start; p < start + count; ++p) {
+                final int j = cIndices[p];
+                if (accumulator[j] != 0) {
+                    cIndices[nnz]  = j;
+                    cValues[nnz++] = accumulator[j];
+                }
+            }
+        }
+        cPointers[n] = nnz;
+
+        final boolean full = nnz == cIndices.length;
+        return new CompressedStorage(cPointers,
+                                     full ? cIndices : MathArrays.copyOf(cIndices, nnz),
+                                     full ? cValues  : MathArrays.copyOf(cValues, nnz));
+
+    }
+
+    /**
+     * Build the storage of the same matrix in the other compression.
+     * @param minorDimension number of minor lines
+     * @return storage where major and minor indices are exchanged
+     */
+    CompressedStorage transpose(final int minorDimension) {
+
+        final int nnz = getNonZeros();
+        final int[]    tPointers = new int[minorDimension + 1];
+        final int[]    tIndices  = new int[nnz];
+        final double[] tValues   = new double[nnz];
+
+        for (int k = 0; k < nnz; ++k) {
+            ++tPointers[indices[k] + 1];
+        }
+        for (int j = 0; j < minorDimension; ++j) {
+            tPointers[j + 1] += tPointers[j];
+        }
+
+        // scanning major lines in order keeps the new minor indices sorted
+        final int[] next = tPointers.clone();
+        for (int i = 0; i < pointers.length - 1; ++i) {
+            final int end = pointers[i + 1];
+            for (int k = pointers[i]; k < end; ++k) {
+                final int position = next[indices[k]]++;
+                tIndices[position] = i;
+                tValues[position]  = values[k];
+            }
+        }
+
+        return new CompressedStorage(tPointers, tIndices, tValues);
+
+    }
+
+    /**
+     * Visit all entries of the matrix, major line by major line.
+     * @param visitor visitor to use, entries are provided as (major, minor, value)
+     * @param minorDimension number of minor lines
+     * @param transposed if true, the visitor expects (minor, major, value)
+     */
+    void walk(final RealMatrixPreservingVisitor visitor, final int minorDimension,
+              final boolean transposed) {
+        for (int i = 0; i < pointers.length - 1; ++i) {
+            int k = pointers[i];
+            final int end = pointers[i + 1];
+            for (int j = 0; j < minorDimension; ++j) {
+                final double value;
+                if (k < end && indices[k] == j) {
+                    value = values[k++];
+                } else {
+                    value = 0.0;
+                }
+                if (transposed) {
+                    visitor.visit(j, i, value);
+                } else {
+                    visitor.visit(i, j, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the data of a vector, avoiding copies when possible.
+     * @param v vector
+     * @return vector data (may be a reference to the vector internal array)
+     */
+    static double[] getData(final RealVector v) {
+        return (v instanceof ArrayRealVector) ? ((ArrayRealVector) v).getDataRef() : v.toArray();
+    }
+
+    /**
+     * Build the identity permutation.
+     * @param n size of the permutation
+     * @return identity permutation
+     */
+    private static int[] identity(final int n) {
+        final int[] permutation = new int[n];
+        for (int i = 0; i < n; ++i) {
+            permutation[i] = i;
+        }
+        return permutation;
+    }
+
+    /**
+     * Stable counting sort of a permutation according to keys.
+     * @param nKeys number of distinct keys
+     * @param keys keys of the triplets
+     * @param permutation permutation to sort
+     * @param n number of triplets
+     * @return sorted permutation
+     */
+    private static int[] countingSort(final int nKeys, final int[] keys,
+                                      final int[] permutation, final int n) {
+        final int[] start = new int[nKeys + 1];
+        for (int k = 0; k < n; ++k) {
+            ++start[keys[k] + 1];
+        }
+        for (int i = 0; i < nKeys; ++i) {
+            start[i + 1] += start[i];
+        }
+        final int[] sorted = new int[n];
+        for (int k = 0; k < n; ++k) {
+            final int p = permutation[k];
+            sorted[start[keys[p]]++] = p;
+        }
+        return sorted;
+    }
+
+}
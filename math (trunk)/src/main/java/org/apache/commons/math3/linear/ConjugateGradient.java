@@ -167,7 +167,8 @@ public class ConjugateGradient
         final RealVector x = x0;
         final RealVector xro = RealVector.unmodifiableRealVector(x);
         final RealVector p = x.copy();
-        RealVector q = a.operate(p);
+        final RealVector q = new ArrayRealVector(a.getRowDimension());
+        a.operateInto(p, q);
 
         final RealVector r = b.combine(1, -1, q);
         final RealVector rro = RealVector.unmodifiableRealVector(r);
@@ -209,7 +210,7 @@ public class ConjugateGradient
             } else {
                 p.combineToSelf(rhoNext / rhoPrev, 1., z);
             }
-            q = a.operate(p);
+            a.operateInto(p, q);
             final double pq = p.dotProduct(q);
             if (check && (pq <= 0.)) {
                 final NonPositiveDefiniteOperatorException e;
@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Pure Java implementation of the {@link LinearAlgebraBackend} kernels.
+ * <p>
+ * This is the backend used when no other implementation has been
+ * registered. It is also a convenient base class for specialized
+ * backends that only need to override a few of the kernels.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class DefaultLinearAlgebraBackend implements LinearAlgebraBackend {
+
+    /**
+     * Minimal number of multiply-add operations (rows &times; columns &times;
+     * common dimension) above which products use the cache-blocked kernel.
+     */
+    private static final long BLOCKED_MULTIPLY_THRESHOLD = 64 * 64 * 64;
+
+    /** Number of rows of the tiles used in triangular solves. */
+    private static final int TRSM_ROWS = 64;
+
+    /** Number of columns of the tiles used in triangular solves. */
+    private static final int TRSM_COLUMNS = 256;
+
+    /** {@inheritDoc} */
+    public void gemm(final double alpha, final double[][] a, final double[][] b,
+                     final double beta, final double[][] c) {
+
+        final int nRows = a.length;
+        final int nCols = b[0].length;
+        final int nSum  = b.length;
+
+        if (((long) nRows) * nCols * nSum >= BLOCKED_MULTIPLY_THRESHOLD) {
+            if (alpha == 1.0) {
+                scale(beta, c);
+                GemmKernel.multiply(a, b, c);
+            } else {
+                final double[][] product = new double[nRows][nCols];
+                GemmKernel.multiply(a, b, product);
+                for (int row = 0; row < nRows; ++row) {
+                    final double[] pRow = product[row];
+                    final double[] cRow = c[row];
+                    for (int col = 0; col < nCols; ++col) {
+                        cRow[col] = (beta == 0) ?
+                                    alpha * pRow[col] :
+                                    beta * cRow[col] + alpha * pRow[col];
+                    }
+                }
+            }
+            return;
+        }
+
+        // Will hold a column of "b".
+        final double[] bCol = new double[nSum];
+
+        for (int col = 0; col < nCols; col++) {
+            // Copy all elements of column "col" of "b" so that
+            // will be in contiguous memory.
+            for (int bRow = 0; bRow < nSum; bRow++) {
+                bCol[bRow] = b[bRow][col];
+            }
+
+            for (int row = 0; row < nRows; row++) {
+                final double[] aRow = a[row];
+                double sum = 0;
+                for (int i = 0; i < nSum; i++) {
+                    sum += aRow[i] * bCol[i];
+                }
+                c[row][col] = (beta == 0) ? alpha * sum : beta * c[row][col] + alpha * sum;
+            }
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    public void gemm(final int m, final int n, final int k, final double alpha,
+                     final double[] a, final int aOffset, final int lda,
+                     final double[] b, final int bOffset, final int ldb,
+                     final double beta, final double[] c, final int cOffset, final int ldc) {
+
+        final int ldb2 = ldb  + ldb;
+        final int ldb3 = ldb2 + ldb;
+        final int ldb4 = ldb3 + ldb;
+
+        for (int i = 0; i < m; ++i) {
+            final int lStart = aOffset + i * lda;
+            final int lEnd   = lStart + k;
+            int index = cOffset + i * ldc;
+            for (int j = 0; j < n; ++j) {
+                double sum = 0;
+                int l  = lStart;
+                int nb = bOffset + j;
+                while (l < lEnd - 3) {
+                    sum += a[l] * b[nb] +
+                           a[l + 1] * b[nb + ldb] +
+                           a[l + 2] * b[nb + ldb2] +
+                           a[l + 3] * b[nb + ldb3];
+                    l  += 4;
+                    nb += ldb4;
+                }
+                while (l < lEnd) {
+                    sum += a[l++] * b[nb];
+                    nb += ldb;
+                }
+                if (beta == 0) {
+                    c[index] = alpha * sum;
+                } else if (beta == 1) {
+                    c[index] += alpha * sum;
+                } else {
+                    c[index] = beta * c[index] + alpha * sum;
+                }
+                ++index;
+            }
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    public void gemv(final double alpha, final double[][] a, final double[] x,
+                     final double beta, final double[] y) {
+        for (int row = 0; row < a.length; row++) {
+            final double[] aRow = a[row];
+            double sum = 0;
+            for (int i = 0; i < x.length; i++) {
+                sum += aRow[i] * x[i];
+            }
+            y[row] = (beta == 0) ? alpha * sum : beta * y[row] + alpha * sum;
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void axpy(final int n, final double alpha,
+                     final double[] x, final int xOffset,
+                     final double[] y, final int yOffset) {
+        for (int i = 0; i < n; ++i) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    /** {@inheritDoc} */
+    public double dot(final int n,
+                      final double[] x, final int xOffset,
+                      final double[] y, final int yOffset) {
+        double dot = 0;
+        for (int i = 0; i < n; ++i) {
+            dot += x[xOffset + i] * y[yOffset + i];
+        }
+        return dot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The right hand side is processed by tiles of {@link #TRSM_ROWS} rows
+     * and {@link #TRSM_COLUMNS} columns: once a tile of the solution is
+     * known, it is used to update all the remaining rows of the same columns
+     * while it is still in cache. Each entry still receives its updates in
+     * the same order as in a plain row by row substitution, so the tiling
+     * does not change the result.
+     * </p>
+     */
+    public void trsm(final boolean upper, final boolean transpose, final boolean unitDiagonal,
+                     final double[][] t, final double[][] b) {
+
+        final int n = t.length;
+        if (n == 0) {
+            return;
+        }
+        final int nColB = b[0].length;
+        final boolean backward = upper != transpose;
+
+        for (int c0 = 0; c0 < nColB; c0 += TRSM_COLUMNS) {
+            final int c1 = FastMath.min(c0 + TRSM_COLUMNS, nColB);
+            if (backward) {
+                // op(t) is upper triangular: backward substitution
+                for (int j1 = n; j1 > 0; j1 -= TRSM_ROWS) {
+                    final int j0 = FastMath.max(j1 - TRSM_ROWS, 0);
+                    for (int j = j1 - 1; j >= j0; --j) {
+                        final double[] bJ = b[j];
+                        if (!unitDiagonal) {
+                            final double tJJ = t[j][j];
+                            for (int k = c0; k < c1; ++k) {
+                                bJ[k] /= tJJ;
+                            }
+                        }
+                        for (int i = j0; i < j; ++i) {
+                            subtract(bJ, transpose ? t[j][i] : t[i][j], b[i], c0, c1);
+                        }
+                    }
+                    for (int i = 0; i < j0; ++i) {
+                        final double[] bI = b[i];
+                        for (int j = j1 - 1; j >= j0; --j) {
+                            subtract(b[j], transpose ? t[j][i] : t[i][j], bI, c0, c1);
+                        }
+                    }
+                }
+            } else {
+                // op(t) is lower triangular: forward substitution
+                for (int j0 = 0; j0 < n; j0 += TRSM_ROWS) {
+                    final int j1 = FastMath.min(j0 + TRSM_ROWS, n);
+                    for (int j = j0; j < j1; ++j) {
+                        final double[] bJ = b[j];
+                        if (!unitDiagonal) {
+                            final double tJJ = t[j][j];
+                            for (int k = c0; k < c1; ++k) {
+                                bJ[k] /= tJJ;
+                            }
+                        }
+                        for (int i = j + 1; i < j1; ++i) {
+                            subtract(bJ, transpose ? t[j][i] : t[i][j], b[i], c0, c1);
+                        }
+                    }
+                    for (int i = j1; i < n; ++i) {
+                        final double[] bI = b[i];
+                        for (int j = j0; j < j1; ++j) {
+                            subtract(b[j], transpose ? t[j][i] : t[i][j], bI, c0, c1);
+                        }
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the lower triangle of {@code c} is read. Large updates are
+     * computed as a full product by the cache-blocked kernel used by
+     * {@link #gemm(double, double[][], double[][], double, double[][]) gemm},
+     * which is faster than computing only one triangle with dot products,
+     * and the upper triangle is then copied from the lower one so the
+     * result is exactly symmetric.
+     * </p>
+     */
+    public void syrk(final double alpha, final double[][] a,
+                     final double beta, final double[][] c) {
+
+        final int n = a.length;
+        final int k = (n == 0) ? 0 : a[0].length;
+
+        if (((long) n) * n * k >= BLOCKED_MULTIPLY_THRESHOLD) {
+            symmetrize(c);
+            scale(beta, c);
+            final double[][] scaledT = new double[k][n];
+            for (int i = 0; i < n; ++i) {
+                final double[] aI = a[i];
+                for (int p = 0; p < k; ++p) {
+                    scaledT[p][i] = alpha * aI[p];
+                }
+            }
+            GemmKernel.multiply(a, scaledT, c);
+            symmetrize(c);
+            return;
+        }
+
+        for (int i = 0; i < a.length; ++i) {
+            final double[] aI = a[i];
+            for (int j = 0; j <= i; ++j) {
+                final double[] aJ = a[j];
+                double sum = 0;
+                for (int p = 0; p < k; ++p) {
+                    sum += aI[p] * aJ[p];
+                }
+                final double cIJ = (beta == 0) ? alpha * sum : beta * c[i][j] + alpha * sum;
+                c[i][j] = cIJ;
+                c[j][i] = cIJ;
+            }
+        }
+    }
+
+    /**
+     * Copy the lower triangle of a square matrix into its upper triangle.
+     * @param c square matrix, updated in place
+     */
+    private static void symmetrize(final double[][] c) {
+        for (int i = 1; i < c.length; ++i) {
+            final double[] cI = c[i];
+            for (int j = 0; j < i; ++j) {
+                c[j][i] = cI[j];
+            }
+        }
+    }
+
+    /**
+     * Subtract a scaled range of a row from another row.
+     * @param x row to scale
+     * @param alpha scaling factor
+     * @param y row to update
+     * @param start first index of the range
+     * @param end index after the last index of the range
+     */
+    private static void subtract(final double[] x, final double alpha, final double[] y,
+                                 final int start, final int end) {
+        for (int k = start; k < end; ++k) {
+            y[k] -= x[k] * alpha;
+        }
+    }
+
+    /**
+     * Scale a matrix in place.
+     * @param beta scaling factor (if 0, the matrix is simply reset)
+     * @param c matrix to scale
+     */
+    private static void scale(final double beta, final double[][] c) {
+        if (beta == 1) {
+            return;
+        }
+        for (final double[] cRow : c) {
+            for (int j = 0; j < cRow.length; ++j) {
+                cRow[j] = (beta == 0) ? 0 : beta * cRow[j];
+            }
+        }
+    }
+
+}
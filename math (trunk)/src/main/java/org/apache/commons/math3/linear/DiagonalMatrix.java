@@ -290,6 +290,21 @@ public class DiagonalMatrix extends AbstractRealMatrix
         return multiply(new DiagonalMatrix(v, false)).getDataRef();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out)
+        throws DimensionMismatchException {
+        if (v.length != data.length) {
+            throw new DimensionMismatchException(v.length, data.length);
+        }
+        if (out.length != data.length) {
+            throw new DimensionMismatchException(out.length, data.length);
+        }
+        for (int i = 0; i < data.length; i++) {
+            out[i] = data[i] * v[i];
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public double[] preMultiply(final double[] v)
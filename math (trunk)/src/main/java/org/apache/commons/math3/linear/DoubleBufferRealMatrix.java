@@ -0,0 +1,627 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Implementation of {@link RealMatrix} storing its entries in
+ * {@link DoubleBuffer direct or memory-mapped buffers}.
+ * <p>
+ * The entries are stored outside of the Java heap, so very large matrices
+ * can be processed without garbage collection pressure, and matrices
+ * larger than the available memory can be processed directly from a file
+ * using {@link #map(FileChannel, FileChannel.MapMode, long, int, int, Layout)
+ * memory mapping}, letting the operating system page the data in and out.
+ * </p>
+ * <p>
+ * Two storage layouts are supported: plain row major order, and the blocks
+ * layout used by {@link BlockRealMatrix}, where the matrix is split in
+ * {@link BlockRealMatrix#BLOCK_SIZE} x {@link BlockRealMatrix#BLOCK_SIZE}
+ * blocks, each block being stored in row major order and the blocks
+ * themselves being organized in row major order. A file containing the
+ * concatenation of the blocks of a {@link BlockRealMatrix} can therefore
+ * be mapped directly.
+ * </p>
+ * <p>
+ * As a single buffer cannot hold more than 2<sup>31</sup> bytes, the
+ * entries are split in several segments, each segment holding complete
+ * rows (for row major layout) or complete rows of blocks (for blocks
+ * layout). The segments are contiguous in the mapped file, so the
+ * segmentation is invisible in the file format.
+ * </p>
+ * <p>
+ * Matrix-vector products and full matrix walks access the buffers
+ * directly in storage order. Other operations rely on the generic
+ * implementations from {@link AbstractRealMatrix}, which create their
+ * results using {@link #createMatrix(int, int)}, i.e. in newly allocated
+ * direct buffers.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class DoubleBufferRealMatrix extends AbstractRealMatrix {
+
+    /** Storage layouts. */
+    public static enum Layout {
+
+        /** Row major layout, entry (i, j) is at index i * columns + j. */
+        ROW_MAJOR,
+
+        /** Blocks layout, compatible with {@link BlockRealMatrix}. */
+        BLOCKS
+
+    }
+
+    /** Size of a double in bytes. */
+    private static final int DOUBLE_SIZE = 8;
+
+    /** Maximal number of entries in one segment. */
+    private static final int MAX_SEGMENT_LENGTH = Integer.MAX_VALUE / DOUBLE_SIZE;
+
+    /** Block size. */
+    private static final int BLOCK_SIZE = BlockRealMatrix.BLOCK_SIZE;
+
+    /** Number of rows of the matrix. */
+    private final int rows;
+
+    /** Number of columns of the matrix. */
+    private final int columns;
+
+    /** Storage layout. */
+    private final Layout layout;
+
+    /** Number of rows in each segment (except possibly the last one). */
+    private final int rowsPerSegment;
+
+    /** Segments holding the entries. */
+    private final DoubleBuffer[] segments;
+
+    /** Memory-mapped buffers underlying the segments (null if not mapped). */
+    private final MappedByteBuffer[] mapped;
+
+    /**
+     * Create a new matrix in direct buffers, using row major layout.
+     * <p>
+     * All entries are initialized to zero.
+     * </p>
+     * @param rowDimension number of rows of the matrix
+     * @param columnDimension number of columns of the matrix
+     * @throws NotStrictlyPositiveException if row or column dimension is not
+     * positive
+     */
+    public DoubleBufferRealMatrix(final int rowDimension, final int columnDimension)
+        throws NotStrictlyPositiveException {
+        this(rowDimension, columnDimension, Layout.ROW_MAJOR);
+    }
+
+    /**
+     * Create a new matrix in direct buffers.
+     * <p>
+     * All entries are initialized to zero.
+     * </p>
+     * @param rowDimension number of rows of the matrix
+     * @param columnDimension number of columns of the matrix
+     * @param layout storage layout
+     * @throws NotStrictlyPositiveException if row or column dimension is not
+     * positive
+     */
+    public DoubleBufferRealMatrix(final int rowDimension, final int columnDimension,
+                                  final Layout layout)
+        throws NotStrictlyPositiveException {
+        this(rowDimension, columnDimension, layout, MAX_SEGMENT_LENGTH);
+    }
+
+    /**
+     * Create a new matrix in direct buffers with specified segments size.
+     * @param rowDimension number of rows of the matrix
+     * @param columnDimension number of columns of the matrix
+     * @param layout storage layout
+     * @param maxSegmentLength maximal number of entries in one segment
+     * @throws NotStrictlyPositiveException if row or column dimension is not
+     * positive
+     * @throws NumberIsTooLargeException if a single row (or row of blocks)
+     * does not fit in a segment
+     */
+    DoubleBufferRealMatrix(final int rowDimension, final int columnDimension,
+                           final Layout layout, final int maxSegmentLength)
+        throws NotStrictlyPositiveException, NumberIsTooLargeException {
+        super(rowDimension, columnDimension);
+        this.rows           = rowDimension;
+        this.columns        = columnDimension;
+        this.layout         = layout;
+        this.rowsPerSegment = computeRowsPerSegment(rowDimension, columnDimension,
+                                                    layout, maxSegmentLength);
+        this.segments       = new DoubleBuffer[(rows + rowsPerSegment - 1) / rowsPerSegment];
+        this.mapped         = null;
+        for (int k = 0; k < segments.length; ++k) {
+            segments[k] = ByteBuffer.allocateDirect(DOUBLE_SIZE * segmentLength(k)).
+                          order(ByteOrder.nativeOrder()).
+                          asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Create a new matrix wrapping an existing buffer.
+     * <p>
+     * The entries are read starting at the current position of the buffer,
+     * the buffer position and limit are not changed. The buffer is not
+     * copied, changes in the matrix are visible in the buffer and vice
+     * versa.
+     * </p>
+     * @param rowDimension number of rows of the matrix
+     * @param columnDimension number of columns of the matrix
+     * @param layout storage layout
+     * @param buffer buffer holding the entries
+     * @throws NotStrictlyPositiveException if row or column dimension is not
+     * positive
+     * @throws DimensionMismatchException if the number of remaining elements
+     * in the buffer is smaller than {@code rowDimension * columnDimension}
+     */
+    public DoubleBufferRealMatrix(final int rowDimension, final int columnDimension,
+                                  final Layout layout, final DoubleBuffer buffer)
+        throws NotStrictlyPositiveException, DimensionMismatchException {
+        super(rowDimension, columnDimension);
+        final long length = ((long) rowDimension) * columnDimension;
+        if (buffer.remaining() < length) {
+            throw new DimensionMismatchException(buffer.remaining(), (int) FastMath.min(length, Integer.MAX_VALUE));
+        }
+        this.rows           = rowDimension;
+        this.columns        = columnDimension;
+        this.layout         = layout;
+        this.rowsPerSegment = rowDimension;
+        this.segments       = new DoubleBuffer[] { buffer.slice() };
+        this.mapped         = null;
+    }
+
+    /**
+     * Create a new matrix from memory-mapped segments.
+     * @param rowDimension number of rows of the matrix
+     * @param columnDimension number of columns of the matrix
+     * @param layout storage layout
+     * @param rowsPerSegment number of rows in each segment
+     * @param mapped memory-mapped segments
+     */
+    private DoubleBufferRealMatrix(final int rowDimension, final int columnDimension,
+                                   final Layout layout, final int rowsPerSegment,
+                                   final MappedByteBuffer[] mapped) {
+        super(rowDimension, columnDimension);
+        this.rows           = rowDimension;
+        this.columns        = columnDimension;
+        this.layout         = layout;
+        this.rowsPerSegment = rowsPerSegment;
+        this.segments       = new DoubleBuffer[mapped.length];
+        this.mapped         = mapped;
+        for (int k = 0; k < segments.length; ++k) {
+            segments[k] = mapped[k].asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Create a matrix mapped to a file.
+     * <p>
+     * The entries are stored as {@link ByteOrder#BIG_ENDIAN big endian}
+     * doubles (i.e. the format used by {@link java.io.DataOutput#writeDouble(double)}),
+     * starting at {@code position} in the file. If the mapping mode is
+     * {@link FileChannel.MapMode#READ_WRITE} and the file is too small, it
+     * is extended. If the mapping mode is {@link FileChannel.MapMode#READ_ONLY},
+     * all attempts to modify the matrix trigger a {@link
+     * MathUnsupportedOperationException}.
+     * </p>
+     * <p>
+     * The mapping remains valid even if the channel is closed.
+     * </p>
+     * @param channel file channel to map
+     * @param mode mapping mode
+     * @param position position in the file of the first entry, in bytes
+     * @param rowDimension number of rows of the matrix
+     * @param columnDimension number of columns of the matrix
+     * @param layout storage layout
+     * @return mapped matrix
+     * @throws IOException if the file cannot be mapped
+     * @throws NotStrictlyPositiveException if row or column dimension is not
+     * positive
+     */
+    public static DoubleBufferRealMatrix map(final FileChannel channel, final FileChannel.MapMode mode,
+                                             final long position,
+                                             final int rowDimension, final int columnDimension,
+                                             final Layout layout)
+        throws IOException, NotStrictlyPositiveException {
+        return map(channel, mode, position, rowDimension, columnDimension, layout, MAX_SEGMENT_LENGTH);
+    }
+
+    /**
+     * Create a matrix mapped to a file with specified segments size.
+     * @param channel file channel to map
+     * @param mode mapping mode
+     * @param position position in the file of the first entry, in bytes
+     * @param rowDimension number of rows of the matrix
+     * @param columnDimension number of columns of the matrix
+     * @param layout storage layout
+     * @param maxSegmentLength maximal number of entries in one segment
+     * @return mapped matrix
+     * @throws IOException if the file cannot be mapped
+     * @throws NotStrictlyPositiveException if row or column dimension is not
+     * positive
+     * @throws NumberIsTooLargeException if a single row (or row of blocks)
+     * does not fit in a segment
+     */
+    static DoubleBufferRealMatrix map(final FileChannel channel, final FileChannel.MapMode mode,
+                                      final long position,
+                                      final int rowDimension, final int columnDimension,
+                                      final Layout layout, final int maxSegmentLength)
+        throws IOException, NotStrictlyPositiveException, NumberIsTooLargeException {
+        if (rowDimension < 1) {
+            throw new NotStrictlyPositiveException(rowDimension);
+        }
+        if (columnDimension < 1) {
+            throw new NotStrictlyPositiveException(columnDimension);
+        }
+        final int perSegment =
+            computeRowsPerSegment(rowDimension, columnDimension, layout, maxSegmentLength);
+        final MappedByteBuffer[] buffers =
+            new MappedByteBuffer[(rowDimension + perSegment - 1) / perSegment];
+        long offset = position;
+        for (int k = 0; k < buffers.length; ++k) {
+            final int segmentRows = FastMath.min(perSegment, rowDimension - k * perSegment);
+            final long size = ((long) DOUBLE_SIZE) * segmentRows * columnDimension;
+            buffers[k] = channel.map(mode, offset, size);
+            offset += size;
+        }
+        return new DoubleBufferRealMatrix(rowDimension, columnDimension, layout, perSegment, buffers);
+    }
+
+    /**
+     * Compute the number of rows in each segment.
+     * @param rowDimension number of rows of the matrix
+     * @param columnDimension number of columns of the matrix
+     * @param layout storage layout
+     * @param maxSegmentLength maximal number of entries in one segment
+     * @return number of rows in each segment (except possibly the last one)
+     * @throws NumberIsTooLargeException if a single row (or row of blocks)
+     * does not fit in a segment
+     */
+    private static int computeRowsPerSegment(final int rowDimension, final int columnDimension,
+                                             final Layout layout, final int maxSegmentLength)
+        throws NumberIsTooLargeException {
+        // segments must hold complete rows (or complete rows of blocks)
+        final int granularity = (layout == Layout.BLOCKS) ? BLOCK_SIZE : 1;
+        final long unitLength = ((long) granularity) * columnDimension;
+        if (unitLength > maxSegmentLength) {
+            throw new NumberIsTooLargeException(unitLength, maxSegmentLength, true);
+        }
+        final long perSegment = (maxSegmentLength / unitLength) * granularity;
+        return (int) FastMath.min(perSegment, rowDimension);
+    }
+
+    /**
+     * Get the storage layout.
+     * @return storage layout
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Force the changes made to a memory-mapped matrix to be written
+     * to the storage device.
+     * <p>
+     * This method does nothing if the matrix is not memory-mapped.
+     * </p>
+     * @see MappedByteBuffer#force()
+     */
+    public void force() {
+        if (mapped != null) {
+            for (final MappedByteBuffer buffer : mapped) {
+                buffer.force();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return rows;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return columns;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DoubleBufferRealMatrix createMatrix(final int rowDimension, final int columnDimension)
+        throws NotStrictlyPositiveException {
+        return new DoubleBufferRealMatrix(rowDimension, columnDimension, layout);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy is stored in direct buffers, even if the instance is
+     * memory-mapped.
+     * </p>
+     */
+    @Override
+    public DoubleBufferRealMatrix copy() {
+        final DoubleBufferRealMatrix copy = createMatrix(rows, columns);
+        final int width = runWidth();
+        for (int row = 0; row < rows; ++row) {
+            final DoubleBuffer source      = segment(row);
+            final DoubleBuffer destination = copy.segment(row);
+            for (int c0 = 0; c0 < columns; c0 += width) {
+                final int w = FastMath.min(width, columns - c0);
+                final int s = offset(row, c0);
+                final int d = copy.offset(row, c0);
+                for (int j = 0; j < w; ++j) {
+                    destination.put(d + j, source.get(s + j));
+                }
+            }
+        }
+        return copy;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        return segment(row).get(offset(row, column));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws OutOfRangeException, MathUnsupportedOperationException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        checkWritable();
+        segment(row).put(offset(row, column), value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToEntry(final int row, final int column, final double increment)
+        throws OutOfRangeException, MathUnsupportedOperationException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        checkWritable();
+        final DoubleBuffer segment = segment(row);
+        final int k = offset(row, column);
+        segment.put(k, segment.get(k) + increment);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiplyEntry(final int row, final int column, final double factor)
+        throws OutOfRangeException, MathUnsupportedOperationException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        checkWritable();
+        final DoubleBuffer segment = segment(row);
+        final int k = offset(row, column);
+        segment.put(k, segment.get(k) * factor);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out)
+        throws DimensionMismatchException {
+        if (v.length != columns) {
+            throw new DimensionMismatchException(v.length, columns);
+        }
+        if (out.length != rows) {
+            throw new DimensionMismatchException(out.length, rows);
+        }
+        final int width = runWidth();
+        for (int row = 0; row < rows; ++row) {
+            final DoubleBuffer segment = segment(row);
+            double sum = 0;
+            for (int c0 = 0; c0 < columns; c0 += width) {
+                final int w = FastMath.min(width, columns - c0);
+                final int k = offset(row, c0);
+                for (int j = 0; j < w; ++j) {
+                    sum += segment.get(k + j) * v[c0 + j];
+                }
+            }
+            out[row] = sum;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v)
+        throws DimensionMismatchException {
+        if (v.length != rows) {
+            throw new DimensionMismatchException(v.length, rows);
+        }
+        final double[] out = new double[columns];
+        final int width = runWidth();
+        for (int row = 0; row < rows; ++row) {
+            final DoubleBuffer segment = segment(row);
+            final double vi = v[row];
+            for (int c0 = 0; c0 < columns; c0 += width) {
+                final int w = FastMath.min(width, columns - c0);
+                final int k = offset(row, c0);
+                for (int j = 0; j < w; ++j) {
+                    out[c0 + j] += vi * segment.get(k + j);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInRowOrder(final RealMatrixChangingVisitor visitor) {
+        checkWritable();
+        visitor.start(rows, columns, 0, rows - 1, 0, columns - 1);
+        final int width = runWidth();
+        for (int row = 0; row < rows; ++row) {
+            final DoubleBuffer segment = segment(row);
+            for (int c0 = 0; c0 < columns; c0 += width) {
+                final int w = FastMath.min(width, columns - c0);
+                final int k = offset(row, c0);
+                for (int j = 0; j < w; ++j) {
+                    segment.put(k + j, visitor.visit(row, c0 + j, segment.get(k + j)));
+                }
+            }
+        }
+        return visitor.end();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInRowOrder(final RealMatrixPreservingVisitor visitor) {
+        visitor.start(rows, columns, 0, rows - 1, 0, columns - 1);
+        final int width = runWidth();
+        for (int row = 0; row < rows; ++row) {
+            final DoubleBuffer segment = segment(row);
+            for (int c0 = 0; c0 < columns; c0 += width) {
+                final int w = FastMath.min(width, columns - c0);
+                final int k = offset(row, c0);
+                for (int j = 0; j < w; ++j) {
+                    visitor.visit(row, c0 + j, segment.get(k + j));
+                }
+            }
+        }
+        return visitor.end();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInOptimizedOrder(final RealMatrixChangingVisitor visitor) {
+        if (layout == Layout.ROW_MAJOR) {
+            return walkInRowOrder(visitor);
+        }
+        checkWritable();
+        visitor.start(rows, columns, 0, rows - 1, 0, columns - 1);
+        for (int r0 = 0; r0 < rows; r0 += BLOCK_SIZE) {
+            final DoubleBuffer segment = segment(r0);
+            final int h = FastMath.min(BLOCK_SIZE, rows - r0);
+            for (int c0 = 0; c0 < columns; c0 += BLOCK_SIZE) {
+                final int w = FastMath.min(BLOCK_SIZE, columns - c0);
+                int k = offset(r0, c0);
+                for (int i = 0; i < h; ++i) {
+                    for (int j = 0; j < w; ++j) {
+                        segment.put(k, visitor.visit(r0 + i, c0 + j, segment.get(k)));
+                        ++k;
+                    }
+                }
+            }
+        }
+        return visitor.end();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInOptimizedOrder(final RealMatrixPreservingVisitor visitor) {
+        if (layout == Layout.ROW_MAJOR) {
+            return walkInRowOrder(visitor);
+        }
+        visitor.start(rows, columns, 0, rows - 1, 0, columns - 1);
+        for (int r0 = 0; r0 < rows; r0 += BLOCK_SIZE) {
+            final DoubleBuffer segment = segment(r0);
+            final int h = FastMath.min(BLOCK_SIZE, rows - r0);
+            for (int c0 = 0; c0 < columns; c0 += BLOCK_SIZE) {
+                final int w = FastMath.min(BLOCK_SIZE, columns - c0);
+                int k = offset(r0, c0);
+                for (int i = 0; i < h; ++i) {
+                    for (int j = 0; j < w; ++j) {
+                        visitor.visit(r0 + i, c0 + j, segment.get(k++));
+                    }
+                }
+            }
+        }
+        return visitor.end();
+    }
+
+    /**
+     * Check the matrix can be modified.
+     * @throws MathUnsupportedOperationException if the underlying buffers
+     * are read-only
+     */
+    private void checkWritable() throws MathUnsupportedOperationException {
+        if (segments[0].isReadOnly()) {
+            throw new MathUnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Get the width of the contiguous runs of entries within a row.
+     * @return width of the contiguous runs of entries within a row
+     */
+    private int runWidth() {
+        return (layout == Layout.ROW_MAJOR) ? columns : BLOCK_SIZE;
+    }
+
+    /**
+     * Get the number of entries in a segment.
+     * @param k index of the segment
+     * @return number of entries in the segment
+     */
+    private int segmentLength(final int k) {
+        return FastMath.min(rowsPerSegment, rows - k * rowsPerSegment) * columns;
+    }
+
+    /**
+     * Get the segment holding a row.
+     * @param row row index
+     * @return segment holding the row
+     */
+    private DoubleBuffer segment(final int row) {
+        return segments[row / rowsPerSegment];
+    }
+
+    /**
+     * Get the index of an entry within its segment.
+     * <p>
+     * For blocks layout, entries {@code (row, column)} to {@code (row, column + w - 1)}
+     * are contiguous as long as they belong to the same block.
+     * </p>
+     * @param row row index of the entry
+     * @param column column index of the entry
+     * @return index of the entry within its segment
+     */
+    private int offset(final int row, final int column) {
+        final int localRow = row % rowsPerSegment;
+        if (layout == Layout.ROW_MAJOR) {
+            return localRow * columns + column;
+        }
+        final int iInBlock = row % BLOCK_SIZE;
+        final int jBlock   = column / BLOCK_SIZE;
+        final int jInBlock = column - jBlock * BLOCK_SIZE;
+        final int height   = FastMath.min(BLOCK_SIZE, rows - (row - iInBlock));
+        final int width    = FastMath.min(BLOCK_SIZE, columns - jBlock * BLOCK_SIZE);
+        return (localRow - iInBlock) * columns + jBlock * height * BLOCK_SIZE +
+               iInBlock * width + jInBlock;
+    }
+
+}
@@ -17,6 +17,9 @@
 
 package org.apache.commons.math3.linear;
 
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
 import org.apache.commons.math3.complex.Complex;
 import org.apache.commons.math3.exception.MathArithmeticException;
 import org.apache.commons.math3.exception.MathUnsupportedOperationException;
@@ -69,6 +72,13 @@ import org.apache.commons.math3.util.FastMath;
  * Handbook for automatic computation, vol. 2, Linear algebra, Springer-Verlag,
  * New-York
  * </p>
+ * <p>
+ * As of 3.4, the tridiagonal form of symmetric matrices can also be decomposed
+ * using the divide-and-conquer algorithm (see
+ * {@link #EigenDecomposition(RealMatrix, ExecutorService)}), and the eigenvalues
+ * of symmetric matrices can be computed alone (see
+ * {@link #computeSymmetricEigenvalues(RealMatrix)}).
+ * </p>
  * @see <a href="http://mathworld.wolfram.com/EigenDecomposition.html">MathWorld</a>
  * @see <a href="http://en.wikipedia.org/wiki/Eigendecomposition_of_a_matrix">Wikipedia</a>
  * @version $Id: EigenDecomposition.java 1538368 2013-11-03 13:57:37Z erans $
@@ -77,8 +87,10 @@ import org.apache.commons.math3.util.FastMath;
 public class EigenDecomposition {
     /** Internally used epsilon criteria. */
     private static final double EPSILON = 1e-12;
+    /** Default maximum number of iterations accepted in the implicit QL transformation */
+    private static final byte MAX_ITER = 30;
     /** Maximum number of iterations accepted in the implicit QL transformation */
-    private byte maxIter = 30;
+    private byte maxIter = MAX_ITER;
     /** Main diagonal of the tridiagonal matrix. */
     private double[] main;
     /** Secondary diagonal of the tridiagonal matrix. */
@@ -116,11 +128,66 @@ public class EigenDecomposition {
      */
     public EigenDecomposition(final RealMatrix matrix)
         throws MathArithmeticException {
-        final double symTol = 10 * matrix.getRowDimension() * matrix.getColumnDimension() * Precision.EPSILON;
-        isSymmetric = MatrixUtils.isSymmetric(matrix, symTol);
+        this(matrix, false, null);
+    }
+
+    /**
+     * Calculates the eigen decomposition of the given real matrix using a
+     * divide-and-conquer algorithm for symmetric matrices.
+     * <p>
+     * If the matrix is symmetric, its tridiagonal form is decomposed by
+     * Cuppen's divide-and-conquer algorithm instead of the implicit QL
+     * algorithm. Most of the computation is then performed by large matrix
+     * products, which are both faster than the plane rotations of the QL
+     * algorithm for large matrices and easy to split in independent tasks.
+     * If an executor is provided, these tasks are run on it, otherwise they
+     * are run in the calling thread. The eigenvalues and eigenvectors are
+     * the same as the ones computed by {@link #EigenDecomposition(RealMatrix)}
+     * up to round-off errors (and up to the orientation of the eigenvectors,
+     * or the choice of a basis for eigenspaces of multiple eigenvalues).
+     * </p>
+     * <p>
+     * If the matrix is not symmetric, the executor is ignored and the
+     * decomposition is computed as in {@link #EigenDecomposition(RealMatrix)}.
+     * </p>
+     *
+     * @param matrix Matrix to decompose.
+     * @param executor Executor to use for the independent tasks (may be
+     * null, in which case all computations are done in the calling thread).
+     * @throws MaxCountExceededException if the algorithm fails to converge.
+     * @throws MathArithmeticException if the decomposition of a general matrix
+     * results in a matrix with zero norm
+     * @since 3.4
+     */
+    public EigenDecomposition(final RealMatrix matrix, final ExecutorService executor)
+        throws MathArithmeticException {
+        this(matrix, true, executor);
+    }
+
+    /**
+     * Calculates the eigen decomposition of the given real matrix.
+     *
+     * @param matrix Matrix to decompose.
+     * @param divideAndConquer If true, symmetric matrices are decomposed
+     * using the divide-and-conquer algorithm.
+     * @param executor Executor to use for the independent tasks of the
+     * divide-and-conquer algorithm (may be null).
+     * @throws MaxCountExceededException if the algorithm fails to converge.
+     * @throws MathArithmeticException if the decomposition of a general matrix
+     * results in a matrix with zero norm
+     */
+    private EigenDecomposition(final RealMatrix matrix, final boolean divideAndConquer,
+                               final ExecutorService executor)
+        throws MathArithmeticException {
+        isSymmetric = (matrix instanceof SymmetricRealMatrix) ||
+                      MatrixUtils.isSymmetric(matrix, symmetryTolerance(matrix));
         if (isSymmetric) {
             transformToTridiagonal(matrix);
-            findEigenVectors(transformer.getQ().getData());
+            if (divideAndConquer) {
+                findEigenVectorsDivideAndConquer(executor);
+            } else {
+                findEigenVectors(transformer.getQ().getData());
+            }
         } else {
             final SchurTransformer t = transformToSchur(matrix);
             findEigenVectorsFromSchur(t);
@@ -184,6 +251,46 @@ public class EigenDecomposition {
         this(main, secondary);
     }
 
+    /**
+     * Computes the eigenvalues of a symmetric matrix, without the eigenvectors.
+     * <p>
+     * This is much faster than building an {@code EigenDecomposition}
+     * instance when only the eigenvalues are needed, as neither the
+     * transformation to tridiagonal form nor the QL iterations have to be
+     * accumulated. The eigenvalues are the same as the ones that would be
+     * returned by {@link #getRealEigenvalues()}, in the same order.
+     * </p>
+     *
+     * @param matrix Symmetric matrix.
+     * @return the eigenvalues of the matrix, sorted in decreasing order.
+     * @throws NonSquareMatrixException if the matrix is not square.
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric.
+     * @throws MaxCountExceededException if the algorithm fails to converge.
+     * @since 3.4
+     */
+    public static double[] computeSymmetricEigenvalues(final RealMatrix matrix)
+        throws NonSquareMatrixException, NonSymmetricMatrixException {
+        if (!(matrix instanceof SymmetricRealMatrix)) {
+            MatrixUtils.checkSymmetric(matrix, symmetryTolerance(matrix));
+        }
+        final TriDiagonalTransformer t = new TriDiagonalTransformer(matrix);
+        final double[] d = t.getMainDiagonalRef().clone();
+        final double[] e = new double[d.length];
+        System.arraycopy(t.getSecondaryDiagonalRef(), 0, e, 0, d.length - 1);
+
+        implicitQL(d, e, null, MAX_ITER);
+
+        // sort the eigenvalues in decreasing order
+        Arrays.sort(d);
+        for (int i = 0, j = d.length - 1; i < j; ++i, --j) {
+            final double tmp = d[i];
+            d[i] = d[j];
+            d[j] = tmp;
+        }
+        nullifyNegligible(d);
+        return d;
+    }
+
     /**
      * Gets the matrix V of the decomposition.
      * V is an orthogonal matrix, i.e. its transpose is also its inverse.
@@ -572,6 +679,16 @@ public class EigenDecomposition {
         }
     }
 
+    /**
+     * Get the tolerance used for checking matrix symmetry.
+     *
+     * @param matrix Matrix to check.
+     * @return symmetry tolerance
+     */
+    private static double symmetryTolerance(final RealMatrix matrix) {
+        return 10 * matrix.getRowDimension() * matrix.getColumnDimension() * Precision.EPSILON;
+    }
+
     /**
      * Transforms the matrix to tridiagonal form.
      *
@@ -603,11 +720,98 @@ public class EigenDecomposition {
         realEigenvalues[n - 1] = main[n - 1];
         e[n - 1] = 0;
 
+        implicitQL(realEigenvalues, e, z, maxIter);
+
+        //Sort the eigen values (and vectors) in increase order
+        for (int i = 0; i < n; i++) {
+            int k = i;
+            double p = realEigenvalues[i];
+            for (int j = i + 1; j < n; j++) {
+                if (realEigenvalues[j] > p) {
+                    k = j;
+                    p = realEigenvalues[j];
+                }
+            }
+            if (k != i) {
+                realEigenvalues[k] = realEigenvalues[i];
+                realEigenvalues[i] = p;
+                for (int j = 0; j < n; j++) {
+                    p = z[j][i];
+                    z[j][i] = z[j][k];
+                    z[j][k] = p;
+                }
+            }
+        }
+
+        nullifyNegligible(realEigenvalues);
+        eigenvectors = new ArrayRealVector[n];
+        final double[] tmp = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                tmp[j] = z[j][i];
+            }
+            eigenvectors[i] = new ArrayRealVector(tmp);
+        }
+    }
+
+    /**
+     * Find eigenvalues and eigenvectors using the divide-and-conquer algorithm.
+     *
+     * @param executor Executor to use for the independent tasks (may be null).
+     */
+    private void findEigenVectorsDivideAndConquer(final ExecutorService executor) {
+        final int n = main.length;
+        final TriDiagonalEigenSolver solver =
+            new TriDiagonalEigenSolver(main, secondary, maxIter, executor);
+        final double[] values = solver.getEigenvaluesRef();
+        final double[][] vectors = solver.getEigenvectorsRef();
+
+        // sort in decreasing order
+        realEigenvalues = new double[n];
+        imagEigenvalues = new double[n];
+        final double[][] z = new double[n][];
+        for (int i = 0; i < n; ++i) {
+            realEigenvalues[i] = values[n - 1 - i];
+            z[i] = vectors[n - 1 - i];
+        }
+        nullifyNegligible(realEigenvalues);
+
+        // eigenvectors of the original matrix (one per row)
+        final double[][] v =
+            TriDiagonalEigenSolver.multiply(z, transformer.getQT().getData(), executor);
+        eigenvectors = new ArrayRealVector[n];
+        for (int i = 0; i < n; i++) {
+            eigenvectors[i] = new ArrayRealVector(v[i], false);
+        }
+    }
+
+    /**
+     * Find the eigenvalues of a symmetric tridiagonal matrix, and optionally
+     * accumulate the corresponding transformations (Dubrulle et al., 1971).
+     * <p>
+     * The eigenvalues are not sorted.
+     * </p>
+     *
+     * @param d On input, main diagonal of the tridiagonal matrix, on output
+     * eigenvalues.
+     * @param e Secondary diagonal of the tridiagonal matrix, with one extra
+     * element at the end (destroyed on output).
+     * @param z Transformations accumulator: on output, each column j is
+     * multiplied by the rotations which lead to eigenvalue j (may be null if
+     * only eigenvalues are needed).
+     * @param maxIter Maximum number of iterations for each eigenvalue.
+     * @throws MaxCountExceededException if the algorithm fails to converge.
+     */
+    static void implicitQL(final double[] d, final double[] e, final double[][] z,
+                           final int maxIter) {
+
+        final int n = d.length;
+
         // Determine the largest main and secondary value in absolute term.
         double maxAbsoluteValue = 0;
         for (int i = 0; i < n; i++) {
-            if (FastMath.abs(realEigenvalues[i]) > maxAbsoluteValue) {
-                maxAbsoluteValue = FastMath.abs(realEigenvalues[i]);
+            if (FastMath.abs(d[i]) > maxAbsoluteValue) {
+                maxAbsoluteValue = FastMath.abs(d[i]);
             }
             if (FastMath.abs(e[i]) > maxAbsoluteValue) {
                 maxAbsoluteValue = FastMath.abs(e[i]);
@@ -616,8 +820,8 @@ public class EigenDecomposition {
         // Make null any main and secondary value too small to be significant
         if (maxAbsoluteValue != 0) {
             for (int i=0; i < n; i++) {
-                if (FastMath.abs(realEigenvalues[i]) <= Precision.EPSILON * maxAbsoluteValue) {
-                    realEigenvalues[i] = 0;
+                if (FastMath.abs(d[i]) <= Precision.EPSILON * maxAbsoluteValue) {
+                    d[i] = 0;
                 }
                 if (FastMath.abs(e[i]) <= Precision.EPSILON * maxAbsoluteValue) {
                     e[i]=0;
@@ -630,8 +834,8 @@ public class EigenDecomposition {
             int m;
             do {
                 for (m = j; m < n - 1; m++) {
-                    double delta = FastMath.abs(realEigenvalues[m]) +
-                        FastMath.abs(realEigenvalues[m + 1]);
+                    double delta = FastMath.abs(d[m]) +
+                        FastMath.abs(d[m + 1]);
                     if (FastMath.abs(e[m]) + delta == delta) {
                         break;
                     }
@@ -642,12 +846,12 @@ public class EigenDecomposition {
                                                             maxIter);
                     }
                     its++;
-                    double q = (realEigenvalues[j + 1] - realEigenvalues[j]) / (2 * e[j]);
+                    double q = (d[j + 1] - d[j]) / (2 * e[j]);
                     double t = FastMath.sqrt(1 + q * q);
                     if (q < 0.0) {
-                        q = realEigenvalues[m] - realEigenvalues[j] + e[j] / (q - t);
+                        q = d[m] - d[j] + e[j] / (q - t);
                     } else {
-                        q = realEigenvalues[m] - realEigenvalues[j] + e[j] / (q + t);
+                        q = d[m] - d[j] + e[j] / (q + t);
                     }
                     double u = 0.0;
                     double s = 1.0;
@@ -670,75 +874,55 @@ public class EigenDecomposition {
                             s *= c;
                         }
                         if (e[i + 1] == 0.0) {
-                            realEigenvalues[i + 1] -= u;
+                            d[i + 1] -= u;
                             e[m] = 0.0;
                             break;
                         }
-                        q = realEigenvalues[i + 1] - u;
-                        t = (realEigenvalues[i] - q) * s + 2.0 * c * h;
+                        q = d[i + 1] - u;
+                        t = (d[i] - q) * s + 2.0 * c * h;
                         u = s * t;
-                        realEigenvalues[i + 1] = q + u;
+                        d[i + 1] = q + u;
                         q = c * t - h;
-                        for (int ia = 0; ia < n; ia++) {
-                            p = z[ia][i + 1];
-                            z[ia][i + 1] = s * z[ia][i] + c * p;
-                            z[ia][i] = c * z[ia][i] - s * p;
+                        if (z != null) {
+                            for (int ia = 0; ia < z.length; ia++) {
+                                p = z[ia][i + 1];
+                                z[ia][i + 1] = s * z[ia][i] + c * p;
+                                z[ia][i] = c * z[ia][i] - s * p;
+                            }
                         }
                     }
                     if (t == 0.0 && i >= j) {
                         continue;
                     }
-                    realEigenvalues[j] -= u;
+                    d[j] -= u;
                     e[j] = q;
                     e[m] = 0.0;
                 }
             } while (m != j);
         }
+    }
 
-        //Sort the eigen values (and vectors) in increase order
-        for (int i = 0; i < n; i++) {
-            int k = i;
-            double p = realEigenvalues[i];
-            for (int j = i + 1; j < n; j++) {
-                if (realEigenvalues[j] > p) {
-                    k = j;
-                    p = realEigenvalues[j];
-                }
-            }
-            if (k != i) {
-                realEigenvalues[k] = realEigenvalues[i];
-                realEigenvalues[i] = p;
-                for (int j = 0; j < n; j++) {
-                    p = z[j][i];
-                    z[j][i] = z[j][k];
-                    z[j][k] = p;
-                }
-            }
-        }
-
+    /**
+     * Nullify the values too small to be significant with respect to the largest one.
+     *
+     * @param values Values to check (modified in place).
+     */
+    private static void nullifyNegligible(final double[] values) {
         // Determine the largest eigen value in absolute term.
-        maxAbsoluteValue = 0;
-        for (int i = 0; i < n; i++) {
-            if (FastMath.abs(realEigenvalues[i]) > maxAbsoluteValue) {
-                maxAbsoluteValue=FastMath.abs(realEigenvalues[i]);
+        double maxAbsoluteValue = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (FastMath.abs(values[i]) > maxAbsoluteValue) {
+                maxAbsoluteValue=FastMath.abs(values[i]);
             }
         }
         // Make null any eigen value too small to be significant
         if (maxAbsoluteValue != 0.0) {
-            for (int i=0; i < n; i++) {
-                if (FastMath.abs(realEigenvalues[i]) < Precision.EPSILON * maxAbsoluteValue) {
-                    realEigenvalues[i] = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (FastMath.abs(values[i]) < Precision.EPSILON * maxAbsoluteValue) {
+                    values[i] = 0;
                 }
             }
         }
-        eigenvectors = new ArrayRealVector[n];
-        final double[] tmp = new double[n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                tmp[j] = z[j][i];
-            }
-            eigenvectors[i] = new ArrayRealVector(tmp);
-        }
     }
 
     /**
@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NoDataException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.MathUtils;
+
+/**
+ * Implementation of {@link RealMatrix} using a {@code float[][]} array to
+ * store entries.
+ * <p>
+ * Entries are rounded to the nearest {@code float} when they are stored,
+ * which halves the memory footprint and memory bandwidth with respect to
+ * {@link Array2DRowRealMatrix}. Products are accumulated in double precision
+ * and rounded only when they are stored in a single precision result, so
+ * {@link #operate(double[]) operate} returns double precision vectors.
+ * </p>
+ *
+ * @see FloatBlockRealMatrix
+ * @see FloatArrayRealVector
+ * @version $Id$
+ * @since 3.4
+ */
+public class FloatArray2DRowRealMatrix extends AbstractRealMatrix implements Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141018L;
+
+    /** Entries of the matrix. */
+    private final float[][] data;
+
+    /**
+     * Create a new matrix with the supplied row and column dimensions.
+     *
+     * @param rowDimension Number of rows in the new matrix.
+     * @param columnDimension Number of columns in the new matrix.
+     * @throws NotStrictlyPositiveException if the row or column dimension is
+     * not positive.
+     */
+    public FloatArray2DRowRealMatrix(final int rowDimension,
+                                     final int columnDimension)
+        throws NotStrictlyPositiveException {
+        super(rowDimension, columnDimension);
+        data = new float[rowDimension][columnDimension];
+    }
+
+    /**
+     * Create a new matrix using the input array as the underlying data array.
+     *
+     * @param d Data for the new matrix.
+     * @param copyArray if {@code true}, the input array will be copied,
+     * otherwise it will be referenced.
+     * @throws DimensionMismatchException if {@code d} is not rectangular.
+     * @throws NoDataException if {@code d} row or column dimension is zero.
+     * @throws NullArgumentException if {@code d} is {@code null}.
+     */
+    public FloatArray2DRowRealMatrix(final float[][] d, final boolean copyArray)
+        throws DimensionMismatchException, NoDataException, NullArgumentException {
+        MathUtils.checkNotNull(d);
+        final int nRows = d.length;
+        if (nRows == 0) {
+            throw new NoDataException(LocalizedFormats.AT_LEAST_ONE_ROW);
+        }
+        final int nCols = d[0].length;
+        if (nCols == 0) {
+            throw new NoDataException(LocalizedFormats.AT_LEAST_ONE_COLUMN);
+        }
+        for (int r = 1; r < nRows; ++r) {
+            if (d[r].length != nCols) {
+                throw new DimensionMismatchException(d[r].length, nCols);
+            }
+        }
+        if (copyArray) {
+            data = new float[nRows][];
+            for (int i = 0; i < nRows; ++i) {
+                data[i] = d[i].clone();
+            }
+        } else {
+            data = d;
+        }
+    }
+
+    /**
+     * Create a new matrix from a double precision array.
+     * <p>The entries are rounded to single precision.</p>
+     *
+     * @param d Data for the new matrix.
+     * @throws DimensionMismatchException if {@code d} is not rectangular.
+     * @throws NoDataException if {@code d} row or column dimension is zero.
+     * @throws NullArgumentException if {@code d} is {@code null}.
+     */
+    public FloatArray2DRowRealMatrix(final double[][] d)
+        throws DimensionMismatchException, NoDataException, NullArgumentException {
+        this(round(d), false);
+    }
+
+    /**
+     * Create a new matrix from another matrix.
+     * <p>The entries are rounded to single precision.</p>
+     *
+     * @param m Matrix to copy.
+     */
+    public FloatArray2DRowRealMatrix(final RealMatrix m) {
+        this(m.getRowDimension(), m.getColumnDimension());
+        m.walkInOptimizedOrder(new DefaultRealMatrixPreservingVisitor() {
+            /** {@inheritDoc} */
+            @Override
+            public void visit(final int row, final int column, final double value) {
+                data[row][column] = (float) value;
+            }
+        });
+    }
+
+    /**
+     * Round a double precision array to single precision.
+     * @param d array to round
+     * @return rounded array
+     * @throws DimensionMismatchException if {@code d} is not rectangular.
+     * @throws NoDataException if {@code d} row or column dimension is zero.
+     * @throws NullArgumentException if {@code d} is {@code null}.
+     */
+    private static float[][] round(final double[][] d)
+        throws DimensionMismatchException, NoDataException, NullArgumentException {
+        MathUtils.checkNotNull(d);
+        if (d.length == 0) {
+            throw new NoDataException(LocalizedFormats.AT_LEAST_ONE_ROW);
+        }
+        final float[][] rounded = new float[d.length][];
+        for (int i = 0; i < d.length; ++i) {
+            if (d[i].length != d[0].length) {
+                throw new DimensionMismatchException(d[i].length, d[0].length);
+            }
+            rounded[i] = new float[d[i].length];
+            for (int j = 0; j < d[i].length; ++j) {
+                rounded[i][j] = (float) d[i][j];
+            }
+        }
+        return rounded;
+    }
+
+    /**
+     * Get a reference to the underlying data array.
+     *
+     * @return 2-dimensional array of entries.
+     */
+    public float[][] getDataRef() {
+        return data;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatArray2DRowRealMatrix createMatrix(final int rowDimension,
+                                                  final int columnDimension)
+        throws NotStrictlyPositiveException {
+        return new FloatArray2DRowRealMatrix(rowDimension, columnDimension);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatArray2DRowRealMatrix copy() {
+        return new FloatArray2DRowRealMatrix(data, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return data.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return data[0].length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        return data[row][column];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        data[row][column] = (float) value;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToEntry(final int row, final int column,
+                           final double increment)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        data[row][column] = (float) (data[row][column] + increment);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiplyEntry(final int row, final int column,
+                              final double factor)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        data[row][column] = (float) (data[row][column] * factor);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix multiply(final RealMatrix m)
+        throws DimensionMismatchException {
+        if (m instanceof FloatArray2DRowRealMatrix) {
+            return multiply((FloatArray2DRowRealMatrix) m);
+        }
+        return super.multiply(m);
+    }
+
+    /**
+     * Returns the result of postmultiplying {@code this} by {@code m}.
+     * <p>
+     * Each row of the product is accumulated in double precision before
+     * being rounded.
+     * </p>
+     *
+     * @param m matrix to postmultiply by
+     * @return {@code this * m}
+     * @throws DimensionMismatchException if
+     * {@code columnDimension(this) != rowDimension(m)}
+     */
+    public FloatArray2DRowRealMatrix multiply(final FloatArray2DRowRealMatrix m)
+        throws DimensionMismatchException {
+        MatrixUtils.checkMultiplicationCompatible(this, m);
+
+        final int nRows = getRowDimension();
+        final int nCols = m.getColumnDimension();
+        final int nSum  = getColumnDimension();
+        final float[][] out = new float[nRows][nCols];
+        final double[] acc  = new double[nCols];
+        for (int i = 0; i < nRows; ++i) {
+            Arrays.fill(acc, 0.0);
+            final float[] dataI = data[i];
+            for (int k = 0; k < nSum; ++k) {
+                final double aIK = dataI[k];
+                if (aIK != 0) {
+                    final float[] mK = m.data[k];
+                    for (int j = 0; j < nCols; ++j) {
+                        acc[j] += aIK * mK[j];
+                    }
+                }
+            }
+            final float[] outI = out[i];
+            for (int j = 0; j < nCols; ++j) {
+                outI[j] = (float) acc[j];
+            }
+        }
+
+        return new FloatArray2DRowRealMatrix(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out)
+        throws DimensionMismatchException {
+        final int nRows = getRowDimension();
+        final int nCols = getColumnDimension();
+        if (v.length != nCols) {
+            throw new DimensionMismatchException(v.length, nCols);
+        }
+        if (out.length != nRows) {
+            throw new DimensionMismatchException(out.length, nRows);
+        }
+        for (int row = 0; row < nRows; row++) {
+            final float[] dataRow = data[row];
+            double sum = 0;
+            for (int i = 0; i < nCols; i++) {
+                sum += dataRow[i] * v[i];
+            }
+            out[row] = sum;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v)
+        throws DimensionMismatchException {
+        final int nRows = getRowDimension();
+        final int nCols = getColumnDimension();
+        if (v.length != nRows) {
+            throw new DimensionMismatchException(v.length, nRows);
+        }
+
+        final double[] out = new double[nCols];
+        for (int i = 0; i < nRows; ++i) {
+            final float[] dataI = data[i];
+            final double vI = v[i];
+            for (int col = 0; col < nCols; ++col) {
+                out[col] += dataI[col] * vI;
+            }
+        }
+
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInRowOrder(final RealMatrixChangingVisitor visitor) {
+        final int rows    = getRowDimension();
+        final int columns = getColumnDimension();
+        visitor.start(rows, columns, 0, rows - 1, 0, columns - 1);
+        for (int i = 0; i < rows; ++i) {
+            final float[] rowI = data[i];
+            for (int j = 0; j < columns; ++j) {
+                rowI[j] = (float) visitor.visit(i, j, rowI[j]);
+            }
+        }
+        return visitor.end();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInRowOrder(final RealMatrixPreservingVisitor visitor) {
+        final int rows    = getRowDimension();
+        final int columns = getColumnDimension();
+        visitor.start(rows, columns, 0, rows - 1, 0, columns - 1);
+        for (int i = 0; i < rows; ++i) {
+            final float[] rowI = data[i];
+            for (int j = 0; j < columns; ++j) {
+                visitor.visit(i, j, rowI[j]);
+            }
+        }
+        return visitor.end();
+    }
+
+}
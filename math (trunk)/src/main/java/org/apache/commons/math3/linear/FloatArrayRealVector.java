@@ -0,0 +1,380 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotPositiveException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+
+/**
+ * This class implements the {@link RealVector} interface with a single
+ * precision {@code float} array.
+ * <p>
+ * Entries are rounded to the nearest {@code float} when they are stored,
+ * which halves the memory footprint and memory bandwidth with respect to
+ * {@link ArrayRealVector}. All computations (dot products, norms...) are
+ * performed in double precision on the stored values.
+ * </p>
+ *
+ * @see FloatArray2DRowRealMatrix
+ * @see FloatBlockRealMatrix
+ * @version $Id$
+ * @since 3.4
+ */
+public class FloatArrayRealVector extends RealVector implements Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141018L;
+
+    /** Entries of the vector. */
+    private final float[] data;
+
+    /**
+     * Construct a vector of zeroes.
+     *
+     * @param size Size of the vector.
+     */
+    public FloatArrayRealVector(final int size) {
+        data = new float[size];
+    }
+
+    /**
+     * Construct a vector from an array.
+     *
+     * @param d Array of single precision entries.
+     * @param copyArray if {@code true}, the input array will be copied,
+     * otherwise it will be referenced.
+     * @throws NullArgumentException if {@code d} is {@code null}.
+     */
+    public FloatArrayRealVector(final float[] d, final boolean copyArray)
+        throws NullArgumentException {
+        MathUtils.checkNotNull(d);
+        data = copyArray ? d.clone() : d;
+    }
+
+    /**
+     * Construct a vector from a double precision array.
+     * <p>The entries are rounded to single precision.</p>
+     *
+     * @param d Array of entries.
+     * @throws NullArgumentException if {@code d} is {@code null}.
+     */
+    public FloatArrayRealVector(final double[] d)
+        throws NullArgumentException {
+        MathUtils.checkNotNull(d);
+        data = new float[d.length];
+        for (int i = 0; i < d.length; ++i) {
+            data[i] = (float) d[i];
+        }
+    }
+
+    /**
+     * Construct a vector from another vector.
+     * <p>The entries are rounded to single precision.</p>
+     *
+     * @param v Vector to copy.
+     * @throws NullArgumentException if {@code v} is {@code null}.
+     */
+    public FloatArrayRealVector(final RealVector v)
+        throws NullArgumentException {
+        MathUtils.checkNotNull(v);
+        data = new float[v.getDimension()];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (float) v.getEntry(i);
+        }
+    }
+
+    /**
+     * Get a reference to the underlying data array.
+     * This method does not make a fresh copy of the underlying data.
+     *
+     * @return the array of entries.
+     */
+    public float[] getDataRef() {
+        return data;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getDimension() {
+        return data.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int index) throws OutOfRangeException {
+        try {
+            return data[index];
+        } catch (IndexOutOfBoundsException e) {
+            throw new OutOfRangeException(LocalizedFormats.INDEX, index, 0,
+                                          getDimension() - 1);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setEntry(final int index, final double value)
+        throws OutOfRangeException {
+        try {
+            data[index] = (float) value;
+        } catch (IndexOutOfBoundsException e) {
+            checkIndex(index);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToEntry(final int index, final double increment)
+        throws OutOfRangeException {
+        try {
+            data[index] = (float) (data[index] + increment);
+        } catch (IndexOutOfBoundsException e) {
+            throw new OutOfRangeException(LocalizedFormats.INDEX,
+                                          index, 0, data.length - 1);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatArrayRealVector append(final RealVector v) {
+        final int n = v.getDimension();
+        final float[] out = new float[data.length + n];
+        System.arraycopy(data, 0, out, 0, data.length);
+        for (int i = 0; i < n; ++i) {
+            out[data.length + i] = (float) v.getEntry(i);
+        }
+        return new FloatArrayRealVector(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatArrayRealVector append(final double d) {
+        final float[] out = new float[data.length + 1];
+        System.arraycopy(data, 0, out, 0, data.length);
+        out[data.length] = (float) d;
+        return new FloatArrayRealVector(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatArrayRealVector getSubVector(final int index, final int n)
+        throws OutOfRangeException, NotPositiveException {
+        if (n < 0) {
+            throw new NotPositiveException(LocalizedFormats.NUMBER_OF_ELEMENTS_SHOULD_BE_POSITIVE, n);
+        }
+        final float[] out = new float[n];
+        try {
+            System.arraycopy(data, index, out, 0, n);
+        } catch (IndexOutOfBoundsException e) {
+            checkIndex(index);
+            checkIndex(index + n - 1);
+        }
+        return new FloatArrayRealVector(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setSubVector(final int index, final RealVector v)
+        throws OutOfRangeException {
+        final int n = v.getDimension();
+        if (n > 0) {
+            checkIndex(index);
+            checkIndex(index + n - 1);
+        }
+        for (int i = 0; i < n; ++i) {
+            data[index + i] = (float) v.getEntry(i);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(final double value) {
+        Arrays.fill(data, (float) value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] toArray() {
+        final double[] out = new double[data.length];
+        for (int i = 0; i < data.length; ++i) {
+            out[i] = data[i];
+        }
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isNaN() {
+        for (final float v : data) {
+            if (Float.isNaN(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isInfinite() {
+        if (isNaN()) {
+            return false;
+        }
+        for (final float v : data) {
+            if (Float.isInfinite(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatArrayRealVector copy() {
+        return new FloatArrayRealVector(data, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatArrayRealVector ebeMultiply(final RealVector v)
+        throws DimensionMismatchException {
+        checkVectorDimensions(v);
+        final float[] out = new float[data.length];
+        for (int i = 0; i < data.length; ++i) {
+            out[i] = (float) (data[i] * v.getEntry(i));
+        }
+        return new FloatArrayRealVector(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatArrayRealVector ebeDivide(final RealVector v)
+        throws DimensionMismatchException {
+        checkVectorDimensions(v);
+        final float[] out = new float[data.length];
+        for (int i = 0; i < data.length; ++i) {
+            out[i] = (float) (data[i] / v.getEntry(i));
+        }
+        return new FloatArrayRealVector(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double dotProduct(final RealVector v) throws DimensionMismatchException {
+        checkVectorDimensions(v);
+        double dot = 0;
+        if (v instanceof FloatArrayRealVector) {
+            final float[] vData = ((FloatArrayRealVector) v).data;
+            for (int i = 0; i < data.length; ++i) {
+                dot += (double) data[i] * vData[i];
+            }
+        } else if (v instanceof ArrayRealVector) {
+            final double[] vData = ((ArrayRealVector) v).getDataRef();
+            for (int i = 0; i < data.length; ++i) {
+                dot += data[i] * vData[i];
+            }
+        } else {
+            for (int i = 0; i < data.length; ++i) {
+                dot += data[i] * v.getEntry(i);
+            }
+        }
+        return dot;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getNorm() {
+        double sum = 0;
+        for (final double a : data) {
+            sum += a * a;
+        }
+        return FastMath.sqrt(sum);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getL1Norm() {
+        double sum = 0;
+        for (final double a : data) {
+            sum += FastMath.abs(a);
+        }
+        return sum;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getLInfNorm() {
+        double max = 0;
+        for (final double a : data) {
+            max = FastMath.max(max, FastMath.abs(a));
+        }
+        return max;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The vectors are compared using their double precision entries, so a
+     * single precision vector may be equal to an {@link ArrayRealVector}
+     * holding the same values.
+     * </p>
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof RealVector)) {
+            return false;
+        }
+
+        final RealVector rhs = (RealVector) other;
+        if (data.length != rhs.getDimension()) {
+            return false;
+        }
+
+        if (rhs.isNaN()) {
+            return this.isNaN();
+        }
+
+        for (int i = 0; i < data.length; ++i) {
+            if (data[i] != rhs.getEntry(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} All {@code NaN} values have the same hash code.
+     */
+    @Override
+    public int hashCode() {
+        if (isNaN()) {
+            return 9;
+        }
+        return MathUtils.hash(toArray());
+    }
+
+}
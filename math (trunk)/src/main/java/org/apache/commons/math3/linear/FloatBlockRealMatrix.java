@@ -0,0 +1,424 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Cache-friendly implementation of {@link RealMatrix} using single precision
+ * {@code float} blocks to store entries.
+ * <p>
+ * The layout is the same as the one used by {@link BlockRealMatrix}: square
+ * blocks are flattened in row major order and are themselves organized in
+ * row major order. As entries use half the memory, the default block size is
+ * 72x72, so one block holds 5184 values or 20736 bytes, which is about the
+ * same memory footprint as the 52x52 double precision blocks of
+ * {@link BlockRealMatrix}.
+ * </p>
+ * <p>
+ * Entries are rounded to the nearest {@code float} when they are stored.
+ * Products are accumulated in double precision and rounded only when they
+ * are stored in a single precision result, so {@link #operate(double[])
+ * operate} returns double precision vectors.
+ * </p>
+ *
+ * @see FloatArray2DRowRealMatrix
+ * @see FloatArrayRealVector
+ * @version $Id$
+ * @since 3.4
+ */
+public class FloatBlockRealMatrix extends AbstractRealMatrix implements Serializable {
+
+    /** Block size. */
+    public static final int BLOCK_SIZE = 72;
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141018L;
+
+    /** Blocks of matrix entries. */
+    private final float blocks[][];
+
+    /** Number of rows of the matrix. */
+    private final int rows;
+
+    /** Number of columns of the matrix. */
+    private final int columns;
+
+    /** Number of block rows of the matrix. */
+    private final int blockRows;
+
+    /** Number of block columns of the matrix. */
+    private final int blockColumns;
+
+    /**
+     * Create a new matrix with the supplied row and column dimensions.
+     *
+     * @param rows  the number of rows in the new matrix
+     * @param columns  the number of columns in the new matrix
+     * @throws NotStrictlyPositiveException if row or column dimension is not
+     * positive.
+     */
+    public FloatBlockRealMatrix(final int rows, final int columns)
+        throws NotStrictlyPositiveException {
+        super(rows, columns);
+        this.rows         = rows;
+        this.columns      = columns;
+        this.blockRows    = (rows    + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.blockColumns = (columns + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        blocks = new float[blockRows * blockColumns][];
+        int blockIndex = 0;
+        for (int iBlock = 0; iBlock < blockRows; ++iBlock) {
+            final int iHeight = blockHeight(iBlock);
+            for (int jBlock = 0; jBlock < blockColumns; ++jBlock) {
+                blocks[blockIndex++] = new float[iHeight * blockWidth(jBlock)];
+            }
+        }
+    }
+
+    /**
+     * Create a new matrix from another matrix.
+     * <p>The entries are rounded to single precision.</p>
+     *
+     * @param m Matrix to copy.
+     */
+    public FloatBlockRealMatrix(final RealMatrix m) {
+        this(m.getRowDimension(), m.getColumnDimension());
+        m.walkInOptimizedOrder(new DefaultRealMatrixPreservingVisitor() {
+            /** {@inheritDoc} */
+            @Override
+            public void visit(final int row, final int column, final double value) {
+                setEntryUnchecked(row, column, value);
+            }
+        });
+    }
+
+    /**
+     * Create a new matrix from a double precision array.
+     * <p>The entries are rounded to single precision.</p>
+     *
+     * @param rawData data for new matrix, in raw layout
+     * @throws DimensionMismatchException if the shape of {@code rawData} is
+     * inconsistent (not rectangular).
+     * @throws NotStrictlyPositiveException if row or column dimension is not
+     * positive.
+     */
+    public FloatBlockRealMatrix(final double[][] rawData)
+        throws DimensionMismatchException, NotStrictlyPositiveException {
+        this(rawData.length, rawData[0].length);
+        for (int i = 0; i < rows; ++i) {
+            if (rawData[i].length != columns) {
+                throw new DimensionMismatchException(rawData[i].length, columns);
+            }
+            for (int j = 0; j < columns; ++j) {
+                setEntryUnchecked(i, j, rawData[i][j]);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatBlockRealMatrix createMatrix(final int rowDimension,
+                                             final int columnDimension)
+        throws NotStrictlyPositiveException {
+        return new FloatBlockRealMatrix(rowDimension, columnDimension);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FloatBlockRealMatrix copy() {
+        final FloatBlockRealMatrix copied = new FloatBlockRealMatrix(rows, columns);
+        for (int i = 0; i < blocks.length; ++i) {
+            System.arraycopy(blocks[i], 0, copied.blocks[i], 0, blocks[i].length);
+        }
+        return copied;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return rows;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return columns;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        final int iBlock = row / BLOCK_SIZE;
+        final int jBlock = column / BLOCK_SIZE;
+        final int k = (row - iBlock * BLOCK_SIZE) * blockWidth(jBlock) +
+            (column - jBlock * BLOCK_SIZE);
+        return blocks[iBlock * blockColumns + jBlock][k];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        setEntryUnchecked(row, column, value);
+    }
+
+    /**
+     * Set an entry without checking the indices.
+     * @param row row index
+     * @param column column index
+     * @param value value to set, it will be rounded to single precision
+     */
+    private void setEntryUnchecked(final int row, final int column, final double value) {
+        final int iBlock = row / BLOCK_SIZE;
+        final int jBlock = column / BLOCK_SIZE;
+        final int k = (row - iBlock * BLOCK_SIZE) * blockWidth(jBlock) +
+            (column - jBlock * BLOCK_SIZE);
+        blocks[iBlock * blockColumns + jBlock][k] = (float) value;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToEntry(final int row, final int column,
+                           final double increment)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        final int iBlock = row / BLOCK_SIZE;
+        final int jBlock = column / BLOCK_SIZE;
+        final int k = (row - iBlock * BLOCK_SIZE) * blockWidth(jBlock) +
+            (column - jBlock * BLOCK_SIZE);
+        final float[] block = blocks[iBlock * blockColumns + jBlock];
+        block[k] = (float) (block[k] + increment);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiplyEntry(final int row, final int column,
+                              final double factor)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        final int iBlock = row / BLOCK_SIZE;
+        final int jBlock = column / BLOCK_SIZE;
+        final int k = (row - iBlock * BLOCK_SIZE) * blockWidth(jBlock) +
+            (column - jBlock * BLOCK_SIZE);
+        final float[] block = blocks[iBlock * blockColumns + jBlock];
+        block[k] = (float) (block[k] * factor);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix multiply(final RealMatrix m)
+        throws DimensionMismatchException {
+        if (m instanceof FloatBlockRealMatrix) {
+            return multiply((FloatBlockRealMatrix) m);
+        }
+        return super.multiply(m);
+    }
+
+    /**
+     * Returns the result of postmultiplying this by {@code m}.
+     * <p>
+     * Each block of the product is accumulated in double precision before
+     * being rounded.
+     * </p>
+     *
+     * @param m matrix to postmultiply by
+     * @return {@code this * m}
+     * @throws DimensionMismatchException if the matrices are not compatible.
+     */
+    public FloatBlockRealMatrix multiply(final FloatBlockRealMatrix m)
+        throws DimensionMismatchException {
+        MatrixUtils.checkMultiplicationCompatible(this, m);
+
+        final FloatBlockRealMatrix out = new FloatBlockRealMatrix(rows, m.columns);
+        final double[] acc = new double[BLOCK_SIZE * BLOCK_SIZE];
+
+        // perform multiplication block-wise, to ensure good cache behavior
+        int blockIndex = 0;
+        for (int iBlock = 0; iBlock < out.blockRows; ++iBlock) {
+            final int iHeight = blockHeight(iBlock);
+            for (int jBlock = 0; jBlock < out.blockColumns; ++jBlock) {
+                final int jWidth = out.blockWidth(jBlock);
+                Arrays.fill(acc, 0, iHeight * jWidth, 0.0);
+
+                // perform multiplication on current block
+                for (int kBlock = 0; kBlock < blockColumns; ++kBlock) {
+                    final int kWidth = blockWidth(kBlock);
+                    final float[] tBlock = blocks[iBlock * blockColumns + kBlock];
+                    final float[] mBlock = m.blocks[kBlock * m.blockColumns + jBlock];
+                    for (int p = 0; p < iHeight; ++p) {
+                        final int lStart = p * jWidth;
+                        for (int k = 0; k < kWidth; ++k) {
+                            final double a = tBlock[p * kWidth + k];
+                            if (a != 0) {
+                                final int mStart = k * jWidth;
+                                for (int q = 0; q < jWidth; ++q) {
+                                    acc[lStart + q] += a * mBlock[mStart + q];
+                                }
+                            }
+                        }
+                    }
+                }
+
+                // store the rounded block
+                final float[] outBlock = out.blocks[blockIndex++];
+                for (int l = 0; l < outBlock.length; ++l) {
+                    outBlock[l] = (float) acc[l];
+                }
+            }
+        }
+
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out)
+        throws DimensionMismatchException {
+        if (v.length != columns) {
+            throw new DimensionMismatchException(v.length, columns);
+        }
+        if (out.length != rows) {
+            throw new DimensionMismatchException(out.length, rows);
+        }
+        Arrays.fill(out, 0.0);
+
+        // perform multiplication block-wise, to ensure good cache behavior
+        for (int iBlock = 0; iBlock < blockRows; ++iBlock) {
+            final int pStart = iBlock * BLOCK_SIZE;
+            final int pEnd   = FastMath.min(pStart + BLOCK_SIZE, rows);
+            for (int jBlock = 0; jBlock < blockColumns; ++jBlock) {
+                final float[] block  = blocks[iBlock * blockColumns + jBlock];
+                final int     qStart = jBlock * BLOCK_SIZE;
+                final int     qEnd   = FastMath.min(qStart + BLOCK_SIZE, columns);
+                int k = 0;
+                for (int p = pStart; p < pEnd; ++p) {
+                    double sum = 0;
+                    for (int q = qStart; q < qEnd; ++q) {
+                        sum += block[k++] * v[q];
+                    }
+                    out[p] += sum;
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v)
+        throws DimensionMismatchException {
+        if (v.length != rows) {
+            throw new DimensionMismatchException(v.length, rows);
+        }
+        final double[] out = new double[columns];
+
+        // perform multiplication block-wise, to ensure good cache behavior
+        for (int iBlock = 0; iBlock < blockRows; ++iBlock) {
+            final int pStart = iBlock * BLOCK_SIZE;
+            final int pEnd   = FastMath.min(pStart + BLOCK_SIZE, rows);
+            for (int jBlock = 0; jBlock < blockColumns; ++jBlock) {
+                final float[] block  = blocks[iBlock * blockColumns + jBlock];
+                final int     qStart = jBlock * BLOCK_SIZE;
+                final int     qEnd   = FastMath.min(qStart + BLOCK_SIZE, columns);
+                int k = 0;
+                for (int p = pStart; p < pEnd; ++p) {
+                    final double vP = v[p];
+                    for (int q = qStart; q < qEnd; ++q) {
+                        out[q] += block[k++] * vP;
+                    }
+                }
+            }
+        }
+
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInOptimizedOrder(final RealMatrixChangingVisitor visitor) {
+        visitor.start(rows, columns, 0, rows - 1, 0, columns - 1);
+        int blockIndex = 0;
+        for (int iBlock = 0; iBlock < blockRows; ++iBlock) {
+            final int pStart = iBlock * BLOCK_SIZE;
+            final int pEnd   = FastMath.min(pStart + BLOCK_SIZE, rows);
+            for (int jBlock = 0; jBlock < blockColumns; ++jBlock) {
+                final int qStart = jBlock * BLOCK_SIZE;
+                final int qEnd   = FastMath.min(qStart + BLOCK_SIZE, columns);
+                final float[] block = blocks[blockIndex++];
+                int k = 0;
+                for (int p = pStart; p < pEnd; ++p) {
+                    for (int q = qStart; q < qEnd; ++q) {
+                        block[k] = (float) visitor.visit(p, q, block[k]);
+                        ++k;
+                    }
+                }
+            }
+        }
+        return visitor.end();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double walkInOptimizedOrder(final RealMatrixPreservingVisitor visitor) {
+        visitor.start(rows, columns, 0, rows - 1, 0, columns - 1);
+        int blockIndex = 0;
+        for (int iBlock = 0; iBlock < blockRows; ++iBlock) {
+            final int pStart = iBlock * BLOCK_SIZE;
+            final int pEnd   = FastMath.min(pStart + BLOCK_SIZE, rows);
+            for (int jBlock = 0; jBlock < blockColumns; ++jBlock) {
+                final int qStart = jBlock * BLOCK_SIZE;
+                final int qEnd   = FastMath.min(qStart + BLOCK_SIZE, columns);
+                final float[] block = blocks[blockIndex++];
+                int k = 0;
+                for (int p = pStart; p < pEnd; ++p) {
+                    for (int q = qStart; q < qEnd; ++q) {
+                        visitor.visit(p, q, block[k++]);
+                    }
+                }
+            }
+        }
+        return visitor.end();
+    }
+
+    /**
+     * Get the height of a block.
+     * @param blockRow row index (in block sense) of the block
+     * @return height (number of rows) of the block
+     */
+    private int blockHeight(final int blockRow) {
+        return (blockRow == blockRows - 1) ? rows - blockRow * BLOCK_SIZE : BLOCK_SIZE;
+    }
+
+    /**
+     * Get the width of a block.
+     * @param blockColumn column index (in block sense) of the block
+     * @return width (number of columns) of the block
+     */
+    private int blockWidth(final int blockColumn) {
+        return (blockColumn == blockColumns - 1) ? columns - blockColumn * BLOCK_SIZE : BLOCK_SIZE;
+    }
+
+}
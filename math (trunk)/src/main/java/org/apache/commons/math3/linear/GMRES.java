@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MaxCountExceededException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.IterationManager;
+
+/**
+ * <p>
+ * This is an implementation of the restarted Generalized Minimal RESidual
+ * method GMRES(m) of <a href="#SAAD1986">Saad and Schultz (1986)</a> for
+ * {@link RealLinearOperator}. It follows the template by <a
+ * href="#BARR1994">Barrett et al. (1994)</a> (figure 2.6), using the
+ * modified Gram-Schmidt process for the Arnoldi iterations and Givens
+ * rotations for the least-squares problems. The linear system at hand is
+ * A &middot; x = b, and the residual is r = b - A &middot; x. Unlike
+ * {@link ConjugateGradient} and {@link SymmLQ}, A is not required to be
+ * symmetric.
+ * </p>
+ * <p>
+ * After every {@code m} iterations (the <em>restart</em> parameter), the
+ * current estimate of the solution is updated, the Krylov basis is discarded
+ * and the process is restarted from the true residual. The memory requirement
+ * is therefore {@code m + 1} vectors of the size of the system, in addition
+ * to the storage of A.
+ * </p>
+ * <h3>Preconditioning</h3>
+ * <p>
+ * The preconditioner M, which approximates A<sup>-1</sup>, is applied on the
+ * right: the Krylov subspace is built for A &middot; M, so the residual which
+ * is minimized, and used by the stopping criterion, is the residual of the
+ * original system. M does not need to be symmetric.
+ * </p>
+ * <h3><a id="stopcrit">Default stopping criterion</a></h3>
+ * <p>
+ * The iterations stop when || r || &le; &delta; || b ||, where b is the
+ * right-hand side vector, r the current estimate of the residual, and
+ * &delta; a user-specified tolerance. Within a cycle, || r || is the
+ * estimate provided by the least-squares problem, at the end of each cycle
+ * it is the norm of the true residual.
+ * </p>
+ * <h3>Iteration count</h3>
+ * <p>
+ * An iteration is one step of the Arnoldi process, that is one evaluation of
+ * the matrix-vector product A &middot; M &middot; v. The initialization phase
+ * counts as one iteration, the computation of the true residual at the end
+ * of each cycle is not counted.
+ * </p>
+ * <h3>Events</h3>
+ * <p>
+ * The estimate of the solution is only updated at the end of each cycle,
+ * the events fired during a cycle therefore provide the solution at the start
+ * of the cycle. Only the events fired at initialization and termination
+ * provide the residual vector.
+ * </p>
+ * <h3>References</h3>
+ * <dl>
+ * <dt><a id="BARR1994">Barret et al. (1994)</a></dt>
+ * <dd>R. Barrett, M. Berry, T. F. Chan, J. Demmel, J. M. Donato, J. Dongarra,
+ * V. Eijkhout, R. Pozo, C. Romine and H. Van der Vorst,
+ * <a href="http://www.netlib.org/linalg/html_templates/Templates.html"><em>
+ * Templates for the Solution of Linear Systems: Building Blocks for Iterative
+ * Methods</em></a>, SIAM</dd>
+ * <dt><a id="SAAD1986">Saad and Schultz (1986)</a></dt>
+ * <dd>Y. Saad and M. H. Schultz, <em>GMRES: A Generalized Minimal Residual
+ * Algorithm for Solving Nonsymmetric Linear Systems</em>, SIAM Journal on
+ * Scientific and Statistical Computing 7 (3): 856-869, 1986</dd>
+ * </dl>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class GMRES
+    extends PreconditionedIterativeLinearSolver {
+
+    /** Number of iterations between restarts. */
+    private final int restart;
+
+    /** The value of &delta;, for the default stopping criterion. */
+    private final double delta;
+
+    /**
+     * Creates a new instance of this class, with <a href="#stopcrit">default
+     * stopping criterion</a>.
+     *
+     * @param maxIterations the maximum number of iterations
+     * @param restart the number of iterations between restarts
+     * @param delta the &delta; parameter for the default stopping criterion
+     * @throws NotStrictlyPositiveException if {@code restart} is not positive
+     */
+    public GMRES(final int maxIterations, final int restart, final double delta)
+        throws NotStrictlyPositiveException {
+        super(maxIterations);
+        if (restart <= 0) {
+            throw new NotStrictlyPositiveException(restart);
+        }
+        this.restart = restart;
+        this.delta   = delta;
+    }
+
+    /**
+     * Creates a new instance of this class, with <a href="#stopcrit">default
+     * stopping criterion</a> and custom iteration manager.
+     *
+     * @param manager the custom iteration manager
+     * @param restart the number of iterations between restarts
+     * @param delta the &delta; parameter for the default stopping criterion
+     * @throws NullArgumentException if {@code manager} is {@code null}
+     * @throws NotStrictlyPositiveException if {@code restart} is not positive
+     */
+    public GMRES(final IterationManager manager, final int restart,
+                 final double delta)
+        throws NullArgumentException, NotStrictlyPositiveException {
+        super(manager);
+        if (restart <= 0) {
+            throw new NotStrictlyPositiveException(restart);
+        }
+        this.restart = restart;
+        this.delta   = delta;
+    }
+
+    /**
+     * Returns the number of iterations between restarts.
+     *
+     * @return the number of iterations between restarts
+     */
+    public final int getRestart() {
+        return restart;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws SingularOperatorException if {@code a} &middot; {@code m} is
+     * found to be singular
+     */
+    @Override
+    public RealVector solveInPlace(final RealLinearOperator a,
+                                   final RealLinearOperator m,
+                                   final RealVector b,
+                                   final RealVector x0)
+        throws NullArgumentException, NonSquareOperatorException,
+        DimensionMismatchException, MaxCountExceededException,
+        SingularOperatorException {
+        checkParameters(a, m, b, x0);
+        final IterationManager manager = getIterationManager();
+        // Initialization of default stopping criterion
+        manager.resetIterationCount();
+        final double rmax = delta * b.getNorm();
+        final RealVector bro = RealVector.unmodifiableRealVector(b);
+
+        // Initialization phase counts as one iteration.
+        manager.incrementIterationCount();
+        final RealVector x = x0;
+        final RealVector xro = RealVector.unmodifiableRealVector(x);
+        RealVector r = b.combine(1, -1, a.operate(x));
+        double rnorm = r.getNorm();
+        IterativeLinearSolverEvent evt;
+        evt = new DefaultIterativeLinearSolverEvent(this,
+            manager.getIterations(), xro, bro,
+            RealVector.unmodifiableRealVector(r), rnorm);
+        manager.fireInitializationEvent(evt);
+        if (rnorm <= rmax) {
+            manager.fireTerminationEvent(evt);
+            return x;
+        }
+
+        // Krylov basis and Hessenberg matrix, reduced to triangular form
+        final RealVector[] v = new RealVector[restart + 1];
+        final double[][] h   = new double[restart + 1][restart];
+        final double[] cs    = new double[restart];
+        final double[] sn    = new double[restart];
+        final double[] g     = new double[restart + 1];
+
+        while (true) {
+
+            // start a new cycle from the current residual
+            v[0] = r.mapDivideToSelf(rnorm);
+            g[0] = rnorm;
+            int k = 0;
+            while (k < restart) {
+                manager.incrementIterationCount();
+                evt = new DefaultIterativeLinearSolverEvent(this,
+                    manager.getIterations(), xro, bro, rnorm);
+                manager.fireIterationStartedEvent(evt);
+
+                // Arnoldi step, with modified Gram-Schmidt orthogonalization
+                final RealVector w = a.operate((m == null) ? v[k] : m.operate(v[k]));
+                for (int i = 0; i <= k; ++i) {
+                    h[i][k] = w.dotProduct(v[i]);
+                    w.combineToSelf(1, -h[i][k], v[i]);
+                }
+                final double hNext = w.getNorm();
+
+                // apply the previous rotations to the new column
+                for (int i = 0; i < k; ++i) {
+                    final double tmp = cs[i] * h[i][k] + sn[i] * h[i + 1][k];
+                    h[i + 1][k] = cs[i] * h[i + 1][k] - sn[i] * h[i][k];
+                    h[i][k]     = tmp;
+                }
+
+                // compute the new rotation, eliminating hNext
+                final double gamma = FastMath.hypot(h[k][k], hNext);
+                if (gamma == 0) {
+                    throw new SingularOperatorException();
+                }
+                cs[k]     = h[k][k] / gamma;
+                sn[k]     = hNext / gamma;
+                h[k][k]   = gamma;
+                g[k + 1]  = -sn[k] * g[k];
+                g[k]      = cs[k] * g[k];
+                rnorm     = FastMath.abs(g[k + 1]);
+                ++k;
+
+                evt = new DefaultIterativeLinearSolverEvent(this,
+                    manager.getIterations(), xro, bro, rnorm);
+                manager.fireIterationPerformedEvent(evt);
+
+                if (hNext == 0 || rnorm <= rmax) {
+                    // either converged or the Krylov subspace is invariant
+                    break;
+                }
+                v[k] = w.mapDivideToSelf(hNext);
+
+            }
+
+            // solve the triangular least squares system and update the solution
+            final double[] y = new double[k];
+            for (int i = k - 1; i >= 0; --i) {
+                double sum = g[i];
+                for (int j = i + 1; j < k; ++j) {
+                    sum -= h[i][j] * y[j];
+                }
+                y[i] = sum / h[i][i];
+            }
+            RealVector u = v[0].mapMultiply(y[0]);
+            for (int i = 1; i < k; ++i) {
+                u.combineToSelf(1, y[i], v[i]);
+            }
+            if (m != null) {
+                u = m.operate(u);
+            }
+            x.combineToSelf(1, 1, u);
+
+            // restart from the true residual
+            r = b.combine(1, -1, a.operate(x));
+            rnorm = r.getNorm();
+            if (rnorm <= rmax) {
+                evt = new DefaultIterativeLinearSolverEvent(this,
+                    manager.getIterations(), xro, bro,
+                    RealVector.unmodifiableRealVector(r), rnorm);
+                manager.fireTerminationEvent(evt);
+                return x;
+            }
+
+        }
+    }
+}
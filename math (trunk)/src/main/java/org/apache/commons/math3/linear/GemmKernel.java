@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Cache-blocked matrix multiplication kernel for row-major {@code double[][]} data.
+ * <p>
+ * The kernel follows the classical GEMM organization: the right operand is
+ * split in panels of {@link #KC} rows by {@link #NC} columns which are packed
+ * into a reused buffer, so that a panel stays in L2 cache while all the rows
+ * of the left operand are multiplied by it. For each left row, the
+ * corresponding segment of the output row is accumulated in a contiguous
+ * buffer which stays in L1 cache, using a micro-kernel which broadcasts
+ * {@link #UNROLL} entries of the left row and combines the same number of
+ * packed panel rows. The inner loop of this micro-kernel reads and writes
+ * arrays with the same index, which is the form the JIT compiler turns into
+ * SIMD instructions.
+ * </p>
+ * <p>
+ * For a given output entry, the products are accumulated in increasing
+ * index order within each depth panel, and the panel sums are added to the
+ * output in increasing panel order, so the result is deterministic and does
+ * not depend on how the rows of the output are split between calls.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+final class GemmKernel {
+
+    /** Number of rows of the right panel combined at each micro-kernel step. */
+    static final int UNROLL = 4;
+
+    /** Depth of the packed panels. */
+    static final int KC = 256;
+
+    /** Number of columns of the packed panels. */
+    static final int NC = 256;
+
+    /** Private constructor for utility class. */
+    private GemmKernel() {
+    }
+
+    /**
+     * Compute c += a &times; b.
+     * <p>
+     * No dimension check is performed, the caller is responsible for
+     * ensuring the arrays are rectangular and compatible.
+     * </p>
+     * @param a left operand, m rows of k columns
+     * @param b right operand, k rows of n columns
+     * @param c output, m rows of n columns, updated in place
+     */
+    static void multiply(final double[][] a, final double[][] b, final double[][] c) {
+
+        final int m = a.length;
+        final int k = b.length;
+        final int n = b[0].length;
+
+        final double[][] packedB = new double[FastMath.min(KC, k)][FastMath.min(NC, n)];
+        final double[] acc       = new double[FastMath.min(NC, n)];
+
+        for (int jc = 0; jc < n; jc += NC) {
+            final int nc = FastMath.min(NC, n - jc);
+            for (int pc = 0; pc < k; pc += KC) {
+                final int kc = FastMath.min(KC, k - pc);
+                for (int p = 0; p < kc; ++p) {
+                    System.arraycopy(b[pc + p], jc, packedB[p], 0, nc);
+                }
+                for (int i = 0; i < m; ++i) {
+                    final double[] cRow = c[i];
+                    System.arraycopy(cRow, jc, acc, 0, nc);
+                    multiplyRow(a[i], pc, kc, packedB, nc, acc);
+                    System.arraycopy(acc, 0, cRow, jc, nc);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Multiply a segment of a left row by a packed panel.
+     * @param aRow left row
+     * @param p0 index of the first element of the segment in the left row
+     * @param kc length of the segment (depth of the panel)
+     * @param packedB packed right panel
+     * @param nc number of columns of the panel
+     * @param acc accumulator for the output row segment, updated in place
+     */
+    private static void multiplyRow(final double[] aRow, final int p0, final int kc,
+                                    final double[][] packedB, final int nc,
+                                    final double[] acc) {
+        int p = 0;
+        for (; p < kc - (UNROLL - 1); p += UNROLL) {
+            final double a0 = aRow[p0 + p];
+            final double a1 = aRow[p0 + p + 1];
+            final double a2 = aRow[p0 + p + 2];
+            final double a3 = aRow[p0 + p + 3];
+            final double[] b0 = packedB[p];
+            final double[] b1 = packedB[p + 1];
+            final double[] b2 = packedB[p + 2];
+            final double[] b3 = packedB[p + 3];
+            for (int j = 0; j < nc; ++j) {
+                acc[j] += a0 * b0[j] + a1 * b1[j] + a2 * b2[j] + a3 * b3[j];
+            }
+        }
+        for (; p < kc; ++p) {
+            final double a0 = aRow[p0 + p];
+            final double[] b0 = packedB[p];
+            for (int j = 0; j < nc; ++j) {
+                acc[j] += a0 * b0[j];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Incomplete Cholesky factorization preconditioner without fill-in, IC(0).
+ * <p>
+ * The lower triangular factor L is computed by Cholesky elimination restricted
+ * to the sparsity pattern of the lower triangle of A: entries which would be
+ * created outside of this pattern are dropped. The preconditioner is then
+ * M = (L &middot; L<sup>T</sup>)<sup>-1</sup>, which is symmetric positive
+ * definite and can therefore be used with {@link ConjugateGradient}, applied
+ * by two triangular solves whose cost is proportional to the number of
+ * non-zero entries of A.
+ * </p>
+ * <p>
+ * Only the lower triangle of A is used, symmetry is not checked. The
+ * incomplete factorization always exists for M-matrices, for example
+ * the matrices of finite differences discretizations of elliptic problems,
+ * but it may break down for general symmetric positive definite matrices.
+ * In this case, a small relative shift of the diagonal, A + &alpha; diag(A),
+ * usually restores positivity at the expense of a slightly weaker
+ * preconditioner.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class IncompleteCholeskyPreconditioner extends RealLinearOperator {
+
+    /** Column pointers of the factor. */
+    private final int[] pointers;
+
+    /** Sorted row indices of the factor, the diagonal being first in each column. */
+    private final int[] indices;
+
+    /** Entries of the factor. */
+    private final double[] values;
+
+    /**
+     * Creates a new instance of this class, without diagonal shift.
+     *
+     * @param a the symmetric matrix for which the preconditioner should be built
+     * @throws NonSquareMatrixException if the matrix is not square
+     * @throws NonPositiveDefiniteMatrixException if the incomplete
+     * factorization breaks down
+     */
+    public IncompleteCholeskyPreconditioner(final RealMatrix a)
+        throws NonSquareMatrixException, NonPositiveDefiniteMatrixException {
+        this(a, 0);
+    }
+
+    /**
+     * Creates a new instance of this class.
+     * <p>
+     * The matrix is converted to {@link CompressedColumnRealMatrix compressed
+     * column} storage first, so it can be any {@link RealMatrix}, but sparse
+     * implementations avoid the scan of all entries.
+     * </p>
+     *
+     * @param a the symmetric matrix for which the preconditioner should be built
+     * @param shift relative shift &alpha; applied to the diagonal entries
+     * before the factorization
+     * @throws NonSquareMatrixException if the matrix is not square
+     * @throws NonPositiveDefiniteMatrixException if the incomplete
+     * factorization breaks down
+     */
+    public IncompleteCholeskyPreconditioner(final RealMatrix a, final double shift)
+        throws NonSquareMatrixException, NonPositiveDefiniteMatrixException {
+
+        if (a.getRowDimension() != a.getColumnDimension()) {
+            throw new NonSquareMatrixException(a.getRowDimension(), a.getColumnDimension());
+        }
+        final CompressedStorage storage = new CompressedColumnRealMatrix(a).getStorage();
+        final int n = storage.getMajorDimension();
+        final int[] aPointers = storage.getPointersRef();
+        final int[] aIndices  = storage.getIndicesRef();
+        final double[] aValues = storage.getValuesRef();
+
+        // extract the lower triangle
+        pointers = new int[n + 1];
+        for (int j = 0; j < n; ++j) {
+            int count = 0;
+            for (int p = aPointers[j]; p < aPointers[j + 1]; ++p) {
+                if (aIndices[p] >= j) {
+                    ++count;
+                }
+            }
+            pointers[j + 1] = pointers[j] + count;
+        }
+        indices = new int[pointers[n]];
+        values  = new double[pointers[n]];
+        for (int j = 0; j < n; ++j) {
+            int q = pointers[j];
+            for (int p = aPointers[j]; p < aPointers[j + 1]; ++p) {
+                if (aIndices[p] >= j) {
+                    indices[q]  = aIndices[p];
+                    values[q++] = aValues[p];
+                }
+            }
+            if (pointers[j] == pointers[j + 1] || indices[pointers[j]] != j) {
+                // missing diagonal entry
+                throw new NonPositiveDefiniteMatrixException(0, j, 0);
+            }
+            values[pointers[j]] *= 1 + shift;
+        }
+
+        // right-looking elimination, restricted to the pattern
+        final int[] position = new int[n];
+        for (int i = 0; i < n; ++i) {
+            position[i] = -1;
+        }
+        for (int k = 0; k < n; ++k) {
+            final double d = values[pointers[k]];
+            if (d <= 0) {
+                throw new NonPositiveDefiniteMatrixException(d, k, 0);
+            }
+            final double lKK = FastMath.sqrt(d);
+            values[pointers[k]] = lKK;
+            for (int p = pointers[k] + 1; p < pointers[k + 1]; ++p) {
+                values[p] /= lKK;
+            }
+            for (int p = pointers[k] + 1; p < pointers[k + 1]; ++p) {
+                // update column j with the entries l(i, k), i >= j
+                final int j = indices[p];
+                final double lJK = values[p];
+                for (int r = pointers[j]; r < pointers[j + 1]; ++r) {
+                    position[indices[r]] = r;
+                }
+                for (int q = p; q < pointers[k + 1]; ++q) {
+                    final int pos = position[indices[q]];
+                    if (pos >= 0) {
+                        values[pos] -= values[q] * lJK;
+                    }
+                }
+                for (int r = pointers[j]; r < pointers[j + 1]; ++r) {
+                    position[indices[r]] = -1;
+                }
+            }
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return pointers.length - 1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return pointers.length - 1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(final RealVector x)
+        throws DimensionMismatchException {
+        final int n = pointers.length - 1;
+        if (x.getDimension() != n) {
+            throw new DimensionMismatchException(x.getDimension(), n);
+        }
+        final double[] y = x.toArray();
+
+        // solve L.z = x
+        for (int j = 0; j < n; ++j) {
+            final double yJ = y[j] / values[pointers[j]];
+            y[j] = yJ;
+            for (int p = pointers[j] + 1; p < pointers[j + 1]; ++p) {
+                y[indices[p]] -= values[p] * yJ;
+            }
+        }
+
+        // solve L^T.y = z
+        for (int j = n - 1; j >= 0; --j) {
+            double sum = y[j];
+            for (int p = pointers[j] + 1; p < pointers[j + 1]; ++p) {
+                sum -= values[p] * y[indices[p]];
+            }
+            y[j] = sum / values[pointers[j]];
+        }
+
+        return new ArrayRealVector(y, false);
+    }
+
+}
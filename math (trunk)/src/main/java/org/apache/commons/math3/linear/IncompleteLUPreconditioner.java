@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+
+/**
+ * Incomplete LU factorization preconditioner without fill-in, ILU(0).
+ * <p>
+ * The factors L (unit lower triangular) and U (upper triangular) are computed
+ * by Gaussian elimination restricted to the sparsity pattern of A: entries
+ * which would be created outside of this pattern are dropped. The
+ * preconditioner is then M = (L &middot; U)<sup>-1</sup>, applied by two
+ * triangular solves whose cost is proportional to the number of non-zero
+ * entries of A. No pivoting is performed, so this preconditioner is best
+ * suited to diagonally dominant matrices or M-matrices, as obtained from the
+ * discretization of elliptic or convection-diffusion problems. It is meant
+ * to be used with solvers for unsymmetric systems like {@link GMRES} or
+ * {@link BiCGSTAB}; for symmetric positive definite matrices, see
+ * {@link IncompleteCholeskyPreconditioner}.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class IncompleteLUPreconditioner extends RealLinearOperator {
+
+    /** Row pointers of the factors. */
+    private final int[] pointers;
+
+    /** Sorted column indices of the factors. */
+    private final int[] indices;
+
+    /** Entries of L (below the diagonal) and U (on and above the diagonal). */
+    private final double[] values;
+
+    /** Positions of the diagonal entries in {@link #values}. */
+    private final int[] diagonal;
+
+    /**
+     * Creates a new instance of this class.
+     * <p>
+     * The matrix is converted to {@link CompressedRowRealMatrix compressed
+     * row} storage first, so it can be any {@link RealMatrix}, but sparse
+     * implementations avoid the scan of all entries.
+     * </p>
+     *
+     * @param a the matrix for which the preconditioner should be built
+     * @throws NonSquareMatrixException if the matrix is not square
+     * @throws SingularOperatorException if a zero pivot is encountered
+     */
+    public IncompleteLUPreconditioner(final RealMatrix a)
+        throws NonSquareMatrixException, SingularOperatorException {
+
+        if (a.getRowDimension() != a.getColumnDimension()) {
+            throw new NonSquareMatrixException(a.getRowDimension(), a.getColumnDimension());
+        }
+        final CompressedStorage storage = new CompressedRowRealMatrix(a).getStorage();
+        final int n = storage.getMajorDimension();
+
+        // the pattern is shared with the matrix, only the values are copied
+        pointers = storage.getPointersRef();
+        indices  = storage.getIndicesRef();
+        values   = storage.getValuesRef().clone();
+        diagonal = new int[n];
+
+        // IKJ variant of Gaussian elimination, restricted to the pattern
+        final int[] position = new int[n];
+        for (int j = 0; j < n; ++j) {
+            position[j] = -1;
+        }
+        for (int i = 0; i < n; ++i) {
+            diagonal[i] = -1;
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                position[indices[p]] = p;
+                if (indices[p] == i) {
+                    diagonal[i] = p;
+                }
+            }
+            if (diagonal[i] < 0) {
+                throw new SingularOperatorException();
+            }
+            for (int p = pointers[i]; p < diagonal[i]; ++p) {
+                final int k = indices[p];
+                final double lIK = values[p] / values[diagonal[k]];
+                values[p] = lIK;
+                for (int q = diagonal[k] + 1; q < pointers[k + 1]; ++q) {
+                    final int pos = position[indices[q]];
+                    if (pos >= 0) {
+                        values[pos] -= lIK * values[q];
+                    }
+                }
+            }
+            if (values[diagonal[i]] == 0) {
+                throw new SingularOperatorException();
+            }
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                position[indices[p]] = -1;
+            }
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return diagonal.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return diagonal.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(final RealVector x)
+        throws DimensionMismatchException {
+        final int n = diagonal.length;
+        if (x.getDimension() != n) {
+            throw new DimensionMismatchException(x.getDimension(), n);
+        }
+        final double[] y = x.toArray();
+
+        // solve L.z = x
+        for (int i = 0; i < n; ++i) {
+            double sum = y[i];
+            for (int p = pointers[i]; p < diagonal[i]; ++p) {
+                sum -= values[p] * y[indices[p]];
+            }
+            y[i] = sum;
+        }
+
+        // solve U.y = z
+        for (int i = n - 1; i >= 0; --i) {
+            double sum = y[i];
+            for (int p = diagonal[i] + 1; p < pointers[i + 1]; ++p) {
+                sum -= values[p] * y[indices[p]];
+            }
+            y[i] = sum / values[diagonal[i]];
+        }
+
+        return new ArrayRealVector(y, false);
+    }
+
+}
@@ -17,7 +17,13 @@
 
 package org.apache.commons.math3.linear;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
 import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotPositiveException;
 import org.apache.commons.math3.util.FastMath;
 
 /**
@@ -47,8 +53,15 @@ import org.apache.commons.math3.util.FastMath;
  * @since 2.0 (changed to concrete class in 3.0)
  */
 public class LUDecomposition {
+    /**
+     * Number of columns of the panels used by the blocked algorithm.
+     * @since 3.4
+     */
+    public static final int BLOCK_SIZE = 64;
     /** Default bound to determine effective singularity in LU decomposition. */
     private static final double DEFAULT_TOO_SMALL = 1e-11;
+    /** Maximal number of rows per trailing update product in the blocked algorithm. */
+    private static final int UPDATE_ROWS = 4 * BLOCK_SIZE;
     /** Entries of LU decomposition. */
     private final double[][] lu;
     /** Pivot permutation associated with LU decomposition. */
@@ -84,6 +97,58 @@ public class LUDecomposition {
      * @throws NonSquareMatrixException if matrix is not square
      */
     public LUDecomposition(RealMatrix matrix, double singularityThreshold) {
+        this(matrix, singularityThreshold, false, null);
+    }
+
+    /**
+     * Calculates the LU-decomposition of the given matrix using a blocked algorithm.
+     * <p>
+     * The matrix is processed by panels of {@link #BLOCK_SIZE} columns in a
+     * right-looking fashion: each panel is factored with partial pivoting,
+     * the corresponding block row of U is computed by a triangular solve and
+     * the trailing sub-matrix is updated by a single rank-{@link #BLOCK_SIZE}
+     * product. This update, which concentrates almost all the floating point
+     * operations, is delegated to the {@link LinearAlgebraBackend#gemm(double,
+     * double[][], double[][], double, double[][]) gemm} kernel of the {@link
+     * MatrixUtils#getLinearAlgebraBackend() linear algebra backend}, and it is
+     * split by groups of rows between the tasks submitted to the executor if
+     * one is provided.
+     * </p>
+     * <p>
+     * The pivots selected are the same as the ones selected by the unblocked
+     * algorithm used by {@link #LUDecomposition(RealMatrix, double)} (up to
+     * round-off effects), but the operations are performed in a different
+     * order, so the results may differ in the last bits. This algorithm is
+     * intended for large matrices (several hundreds rows and columns).
+     * </p>
+     * @param matrix The matrix to decompose.
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @param executor executor to use for the trailing updates (may be null,
+     * in which case all computations are performed in the calling thread)
+     * @throws NonSquareMatrixException if matrix is not square
+     * @throws org.apache.commons.math3.exception.MathIllegalStateException
+     * if the calling thread is interrupted while waiting for the tasks
+     * @since 3.4
+     */
+    public LUDecomposition(RealMatrix matrix, double singularityThreshold,
+                           ExecutorService executor) {
+        this(matrix, singularityThreshold, true, executor);
+    }
+
+    /**
+     * Calculates the LU-decomposition of the given matrix.
+     * @param matrix The matrix to decompose.
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @param blocked if true, use the blocked right-looking algorithm,
+     * otherwise use the unblocked Crout algorithm
+     * @param executor executor to use for the trailing updates of the blocked
+     * algorithm (may be null)
+     * @throws NonSquareMatrixException if matrix is not square
+     */
+    private LUDecomposition(RealMatrix matrix, double singularityThreshold,
+                            boolean blocked, ExecutorService executor) {
         if (!matrix.isSquare()) {
             throw new NonSquareMatrixException(matrix.getRowDimension(),
                                                matrix.getColumnDimension());
@@ -103,6 +168,22 @@ public class LUDecomposition {
         even     = true;
         singular = false;
 
+        if (blocked) {
+            blockedDecompose(singularityThreshold, executor);
+        } else {
+            croutDecompose(singularityThreshold);
+        }
+    }
+
+    /**
+     * Perform the decomposition using the unblocked Crout algorithm.
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     */
+    private void croutDecompose(final double singularityThreshold) {
+
+        final int m = pivot.length;
+
         // Loop over columns
         for (int col = 0; col < m; col++) {
 
@@ -164,6 +245,164 @@ public class LUDecomposition {
         }
     }
 
+    /**
+     * Perform the decomposition using the blocked right-looking algorithm.
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @param executor executor to use for the trailing updates (may be null)
+     */
+    private void blockedDecompose(final double singularityThreshold,
+                                  final ExecutorService executor) {
+
+        final int m = pivot.length;
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+
+        for (int k0 = 0; k0 < m; k0 += BLOCK_SIZE) {
+            final int k1 = FastMath.min(k0 + BLOCK_SIZE, m);
+
+            // factor the panel made of columns k0 to k1 - 1, rows k0 to m - 1
+            for (int col = k0; col < k1; ++col) {
+
+                // find pivot
+                int max = col;
+                double largest = FastMath.abs(lu[col][col]);
+                for (int row = col + 1; row < m; ++row) {
+                    final double value = FastMath.abs(lu[row][col]);
+                    if (value > largest) {
+                        largest = value;
+                        max = row;
+                    }
+                }
+
+                // Singularity check
+                if (largest < singularityThreshold) {
+                    singular = true;
+                    return;
+                }
+
+                // Pivot if necessary, exchanging complete rows
+                // (i.e. both the already computed part of L and the trailing part)
+                if (max != col) {
+                    final double[] tmp = lu[max];
+                    lu[max] = lu[col];
+                    lu[col] = tmp;
+                    final int temp = pivot[max];
+                    pivot[max] = pivot[col];
+                    pivot[col] = temp;
+                    even = !even;
+                }
+
+                // compute the column of L and update the rest of the panel
+                final double[] luCol = lu[col];
+                final double luDiag = luCol[col];
+                for (int row = col + 1; row < m; ++row) {
+                    final double[] luRow = lu[row];
+                    final double l = luRow[col] / luDiag;
+                    luRow[col] = l;
+                    if (col + 1 < k1) {
+                        backend.axpy(k1 - col - 1, -l, luCol, col + 1, luRow, col + 1);
+                    }
+                }
+
+            }
+
+            if (k1 < m) {
+
+                // compute the block row of U: solve L11 U12 = A12
+                for (int row = k0 + 1; row < k1; ++row) {
+                    final double[] luRow = lu[row];
+                    for (int i = k0; i < row; ++i) {
+                        backend.axpy(m - k1, -luRow[i], lu[i], k1, luRow, k1);
+                    }
+                }
+
+                // update the trailing sub-matrix: A22 = A22 - L21 U12
+                updateTrailing(k0, k1, executor);
+
+            }
+        }
+    }
+
+    /**
+     * Update the trailing sub-matrix after a panel has been factored.
+     * @param k0 index of the first column of the panel
+     * @param k1 index of the first column after the panel
+     * @param executor executor to use (may be null)
+     */
+    private void updateTrailing(final int k0, final int k1, final ExecutorService executor) {
+
+        final int m = pivot.length;
+
+        // extract the block row U12, shared by all row groups
+        final double[][] u12 = new double[k1 - k0][m - k1];
+        for (int i = k0; i < k1; ++i) {
+            System.arraycopy(lu[i], k1, u12[i - k0], 0, m - k1);
+        }
+
+        if (executor == null) {
+            for (int r0 = k1; r0 < m; r0 += UPDATE_ROWS) {
+                updateTrailingRows(k0, k1, r0, FastMath.min(r0 + UPDATE_ROWS, m), u12);
+            }
+        } else {
+            final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+            for (int r0 = k1; r0 < m; r0 += BLOCK_SIZE) {
+                final int start = r0;
+                final int end   = FastMath.min(r0 + BLOCK_SIZE, m);
+                tasks.add(new Callable<Void>() {
+                    /** {@inheritDoc} */
+                    public Void call() {
+                        updateTrailingRows(k0, k1, start, end, u12);
+                        return null;
+                    }
+                });
+            }
+            ParallelTasks.invokeAll(executor, tasks);
+        }
+
+    }
+
+    /**
+     * Update some rows of the trailing sub-matrix after a panel has been factored.
+     * <p>
+     * The rows are updated by a single call to the backend {@link
+     * LinearAlgebraBackend#gemm(double, double[][], double[][], double, double[][])
+     * gemm} kernel computing A22 = A22 - L21 U12. Callers limit the number of
+     * rows to {@link #UPDATE_ROWS} so the temporary copies stay small.
+     * </p>
+     * @param k0 index of the first column of the panel
+     * @param k1 index of the first column after the panel
+     * @param startRow index of the first row to update
+     * @param endRow index of the row after the last row to update
+     * @param u12 block row of U for the panel
+     */
+    private void updateTrailingRows(final int k0, final int k1,
+                                    final int startRow, final int endRow,
+                                    final double[][] u12) {
+
+        final int m     = pivot.length;
+        final int nRows = endRow - startRow;
+
+        // gather -L21 and A22 for the rows, so that the update is a plain
+        // accumulation C = C + A B, which backends handle without temporaries
+        final double[][] minusL21 = new double[nRows][k1 - k0];
+        final double[][] a22      = new double[nRows][m - k1];
+        for (int row = 0; row < nRows; ++row) {
+            final double[] luRow = lu[startRow + row];
+            final double[] lRow  = minusL21[row];
+            for (int i = k0; i < k1; ++i) {
+                lRow[i - k0] = -luRow[i];
+            }
+            System.arraycopy(luRow, k1, a22[row], 0, m - k1);
+        }
+
+        MatrixUtils.getLinearAlgebraBackend().gemm(1.0, minusL21, u12, 1.0, a22);
+
+        for (int row = 0; row < nRows; ++row) {
+            System.arraycopy(a22[row], 0, lu[startRow + row], k1, m - k1);
+        }
+
+    }
+
     /**
      * Returns the matrix L of the decomposition.
      * <p>L is a lower-triangular matrix</p>
@@ -258,6 +497,69 @@ public class LUDecomposition {
         return new Solver(lu, pivot, singular);
     }
 
+    /**
+     * Create a mixed-precision solver performing iterative refinement of the solutions.
+     * <p>
+     * This method uses 1e-11 as default value for the singularity threshold.
+     * </p>
+     * @param matrix matrix to decompose (it is referenced, not copied)
+     * @param maxIterations maximal number of refinement iterations per solution
+     * @return a solver
+     * @throws NonSquareMatrixException if matrix is not square
+     * @throws NotPositiveException if {@code maxIterations} is negative
+     * @see #createRefinedSolver(RealMatrix, double, int)
+     * @since 3.4
+     */
+    public static DecompositionSolver createRefinedSolver(final RealMatrix matrix,
+                                                          final int maxIterations)
+        throws NonSquareMatrixException, NotPositiveException {
+        return createRefinedSolver(matrix, DEFAULT_TOO_SMALL, maxIterations);
+    }
+
+    /**
+     * Create a mixed-precision solver performing iterative refinement of the solutions.
+     * <p>
+     * The matrix is decomposed in single precision: the LU factors are
+     * computed with float arithmetic and stored in {@code float} arrays,
+     * which use half the memory of a double precision decomposition. Each
+     * solution computed with these factors is then improved by solving
+     * correction equations whose right hand sides are the residuals
+     * b - A x, computed in double precision using the matrix itself. The
+     * corrections and the solutions are accumulated in double precision. The
+     * iterations stop when the corrections become negligible with respect to
+     * the solution, when they stop decreasing or when the maximal number of
+     * iterations is reached.
+     * </p>
+     * <p>
+     * For matrices whose condition number is small with respect to the
+     * inverse of the single precision accuracy (about 10<sup>7</sup>), the
+     * refined solutions are as accurate as those obtained with a double
+     * precision decomposition. As the matrix is referenced by the solver,
+     * it must not be modified while the solver is in use.
+     * </p>
+     * @param matrix matrix to decompose (it is referenced, not copied)
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @param maxIterations maximal number of refinement iterations per solution
+     * @return a solver
+     * @throws NonSquareMatrixException if matrix is not square
+     * @throws NotPositiveException if {@code maxIterations} is negative
+     * @since 3.4
+     */
+    public static DecompositionSolver createRefinedSolver(final RealMatrix matrix,
+                                                          final double singularityThreshold,
+                                                          final int maxIterations)
+        throws NonSquareMatrixException, NotPositiveException {
+        if (!matrix.isSquare()) {
+            throw new NonSquareMatrixException(matrix.getRowDimension(),
+                                               matrix.getColumnDimension());
+        }
+        if (maxIterations < 0) {
+            throw new NotPositiveException(maxIterations);
+        }
+        return new RefinedSolver(matrix, singularityThreshold, maxIterations);
+    }
+
     /** Specialized solver. */
     private static class Solver implements DecompositionSolver {
 
@@ -347,33 +649,13 @@ public class LUDecomposition {
                 }
             }
 
+            final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+
             // Solve LY = b
-            for (int col = 0; col < m; col++) {
-                final double[] bpCol = bp[col];
-                for (int i = col + 1; i < m; i++) {
-                    final double[] bpI = bp[i];
-                    final double luICol = lu[i][col];
-                    for (int j = 0; j < nColB; j++) {
-                        bpI[j] -= bpCol[j] * luICol;
-                    }
-                }
-            }
+            backend.trsm(false, false, true, lu, bp);
 
             // Solve UX = Y
-            for (int col = m - 1; col >= 0; col--) {
-                final double[] bpCol = bp[col];
-                final double luDiag = lu[col][col];
-                for (int j = 0; j < nColB; j++) {
-                    bpCol[j] /= luDiag;
-                }
-                for (int i = 0; i < col; i++) {
-                    final double[] bpI = bp[i];
-                    final double luICol = lu[i][col];
-                    for (int j = 0; j < nColB; j++) {
-                        bpI[j] -= bpCol[j] * luICol;
-                    }
-                }
-            }
+            backend.trsm(true, false, false, lu, bp);
 
             return new Array2DRowRealMatrix(bp, false);
         }
@@ -388,4 +670,225 @@ public class LUDecomposition {
             return solve(MatrixUtils.createRealIdentityMatrix(pivot.length));
         }
     }
+
+    /** Solver performing iterative refinement with single precision LU factors. */
+    private static class RefinedSolver implements DecompositionSolver {
+
+        /** Entries of the single precision LU decomposition. */
+        private final float[][] lu;
+
+        /** Pivot permutation associated with LU decomposition. */
+        private final int[] pivot;
+
+        /** Singularity indicator. */
+        private final boolean singular;
+
+        /** Matrix against which the residuals are computed. */
+        private final RealMatrix matrix;
+
+        /** Maximal number of refinement iterations per solution. */
+        private final int maxIterations;
+
+        /**
+         * Build a refining solver.
+         * @param matrix matrix to decompose, against which the residuals are computed
+         * @param singularityThreshold threshold (based on partial row norm)
+         * under which a matrix is considered singular
+         * @param maxIterations maximal number of refinement iterations per solution
+         */
+        private RefinedSolver(final RealMatrix matrix, final double singularityThreshold,
+                              final int maxIterations) {
+
+            final int m = matrix.getRowDimension();
+            this.lu            = new float[m][m];
+            this.pivot         = new int[m];
+            this.matrix        = matrix;
+            this.maxIterations = maxIterations;
+
+            // copy the matrix row by row, to avoid a full double precision copy
+            for (int row = 0; row < m; row++) {
+                final double[] data  = matrix.getRow(row);
+                final float[]  luRow = lu[row];
+                for (int col = 0; col < m; col++) {
+                    luRow[col] = (float) data[col];
+                }
+                pivot[row] = row;
+            }
+
+            this.singular = !croutDecompose(singularityThreshold);
+
+        }
+
+        /**
+         * Perform the single precision decomposition using the unblocked Crout algorithm.
+         * @param singularityThreshold threshold (based on partial row norm)
+         * under which a matrix is considered singular
+         * @return true if the matrix is non-singular
+         */
+        private boolean croutDecompose(final double singularityThreshold) {
+
+            final int m = pivot.length;
+
+            // Loop over columns
+            for (int col = 0; col < m; col++) {
+
+                // upper
+                for (int row = 0; row < col; row++) {
+                    final float[] luRow = lu[row];
+                    float sum = luRow[col];
+                    for (int i = 0; i < row; i++) {
+                        sum -= luRow[i] * lu[i][col];
+                    }
+                    luRow[col] = sum;
+                }
+
+                // lower
+                int max = col; // permutation row
+                float largest = Float.NEGATIVE_INFINITY;
+                for (int row = col; row < m; row++) {
+                    final float[] luRow = lu[row];
+                    float sum = luRow[col];
+                    for (int i = 0; i < col; i++) {
+                        sum -= luRow[i] * lu[i][col];
+                    }
+                    luRow[col] = sum;
+
+                    // maintain best permutation choice
+                    if (FastMath.abs(sum) > largest) {
+                        largest = FastMath.abs(sum);
+                        max = row;
+                    }
+                }
+
+                // Singularity check
+                if (FastMath.abs(lu[max][col]) < singularityThreshold) {
+                    return false;
+                }
+
+                // Pivot if necessary
+                if (max != col) {
+                    final float[] tmp = lu[max];
+                    lu[max] = lu[col];
+                    lu[col] = tmp;
+                    int temp = pivot[max];
+                    pivot[max] = pivot[col];
+                    pivot[col] = temp;
+                }
+
+                // Divide the lower elements by the "winning" diagonal elt.
+                final float luDiag = lu[col][col];
+                for (int row = col + 1; row < m; row++) {
+                    lu[row][col] /= luDiag;
+                }
+            }
+
+            return true;
+
+        }
+
+        /** {@inheritDoc} */
+        public boolean isNonSingular() {
+            return !singular;
+        }
+
+        /**
+         * Solve A x = b using the single precision factors.
+         * <p>
+         * The substitutions are performed in double precision.
+         * </p>
+         * @param b right hand side
+         * @return approximate solution
+         */
+        private double[] solveFactors(final double[] b) {
+
+            final int m = pivot.length;
+            final double[] bp = new double[m];
+
+            // Apply permutations to b
+            for (int row = 0; row < m; row++) {
+                bp[row] = b[pivot[row]];
+            }
+
+            // Solve LY = b
+            for (int row = 0; row < m; row++) {
+                final float[] luRow = lu[row];
+                double sum = bp[row];
+                for (int i = 0; i < row; i++) {
+                    sum -= luRow[i] * bp[i];
+                }
+                bp[row] = sum;
+            }
+
+            // Solve UX = Y
+            for (int row = m - 1; row >= 0; row--) {
+                final float[] luRow = lu[row];
+                double sum = bp[row];
+                for (int i = row + 1; i < m; i++) {
+                    sum -= luRow[i] * bp[i];
+                }
+                bp[row] = sum / luRow[row];
+            }
+
+            return bp;
+
+        }
+
+        /** {@inheritDoc} */
+        public RealVector solve(final RealVector b) {
+            final int m = pivot.length;
+            if (b.getDimension() != m) {
+                throw new DimensionMismatchException(b.getDimension(), m);
+            }
+            if (singular) {
+                throw new SingularMatrixException();
+            }
+
+            final double[] bData = b.toArray();
+            final double[] x     = solveFactors(bData);
+            double previous = Double.POSITIVE_INFINITY;
+            for (int iteration = 0; iteration < maxIterations; ++iteration) {
+                final double[] residual = matrix.operate(x);
+                for (int i = 0; i < m; ++i) {
+                    residual[i] = bData[i] - residual[i];
+                }
+                final double[] correction = solveFactors(residual);
+                double norm  = 0;
+                double xNorm = 0;
+                for (int i = 0; i < m; ++i) {
+                    norm = FastMath.max(norm, FastMath.abs(correction[i]));
+                }
+                if (norm > 0.5 * previous) {
+                    // the corrections do not decrease anymore
+                    break;
+                }
+                for (int i = 0; i < m; ++i) {
+                    x[i] += correction[i];
+                    xNorm = FastMath.max(xNorm, FastMath.abs(x[i]));
+                }
+                if (norm <= FastMath.ulp(xNorm)) {
+                    break;
+                }
+                previous = norm;
+            }
+            return new ArrayRealVector(x, false);
+        }
+
+        /** {@inheritDoc} */
+        public RealMatrix solve(final RealMatrix b) {
+            final int m = pivot.length;
+            if (b.getRowDimension() != m) {
+                throw new DimensionMismatchException(b.getRowDimension(), m);
+            }
+            final RealMatrix x = new Array2DRowRealMatrix(m, b.getColumnDimension());
+            for (int col = 0; col < b.getColumnDimension(); ++col) {
+                x.setColumnVector(col, solve(b.getColumnVector(col)));
+            }
+            return x;
+        }
+
+        /** {@inheritDoc} */
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(pivot.length));
+        }
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+/**
+ * Low level computation kernels used by the dense linear algebra classes.
+ * <p>
+ * This interface gathers the few BLAS-like primitives on which the dense
+ * matrices, vectors and decompositions of this package rely for their
+ * heavy computations. The implementation in use is returned by
+ * {@link MatrixUtils#getLinearAlgebraBackend()}; it defaults to
+ * {@link DefaultLinearAlgebraBackend} and can be replaced either
+ * programmatically using {@link MatrixUtils#setLinearAlgebraBackend(LinearAlgebraBackend)}
+ * or by declaring a provider class in a
+ * {@code META-INF/services/org.apache.commons.math3.linear.LinearAlgebraBackend}
+ * resource, following the standard service provider conventions.
+ * </p>
+ * <p>
+ * Matrices are provided either as row-major {@code double[][]} arrays (the
+ * layout of {@link Array2DRowRealMatrix}) or as flat row-major arrays with
+ * an explicit leading dimension (the layout of the blocks of
+ * {@link BlockRealMatrix}). No dimension checks are performed by the
+ * kernels, callers are responsible for providing consistent arguments.
+ * Implementations must be thread-safe.
+ * </p>
+ *
+ * @see DefaultLinearAlgebraBackend
+ * @version $Id$
+ * @since 3.4
+ */
+public interface LinearAlgebraBackend {
+
+    /**
+     * Compute c = &alpha; a &times; b + &beta; c for row-major matrices.
+     * @param alpha scaling factor for the product
+     * @param a left operand (m rows, k columns)
+     * @param b right operand (k rows, n columns)
+     * @param beta scaling factor for c (if 0, c initial content is ignored)
+     * @param c output (m rows, n columns), updated in place
+     */
+    void gemm(double alpha, double[][] a, double[][] b, double beta, double[][] c);
+
+    /**
+     * Compute c = &alpha; a &times; b + &beta; c for flat row-major matrices.
+     * @param m number of rows of a and c
+     * @param n number of columns of b and c
+     * @param k number of columns of a and rows of b
+     * @param alpha scaling factor for the product
+     * @param a left operand
+     * @param aOffset index of element (0, 0) of a
+     * @param lda leading dimension of a (distance between two rows)
+     * @param b right operand
+     * @param bOffset index of element (0, 0) of b
+     * @param ldb leading dimension of b (distance between two rows)
+     * @param beta scaling factor for c (if 0, c initial content is ignored)
+     * @param c output, updated in place
+     * @param cOffset index of element (0, 0) of c
+     * @param ldc leading dimension of c (distance between two rows)
+     */
+    void gemm(int m, int n, int k, double alpha,
+              double[] a, int aOffset, int lda,
+              double[] b, int bOffset, int ldb,
+              double beta, double[] c, int cOffset, int ldc);
+
+    /**
+     * Compute y = &alpha; a &times; x + &beta; y.
+     * @param alpha scaling factor for the product
+     * @param a row-major matrix (m rows, n columns)
+     * @param x vector (n elements)
+     * @param beta scaling factor for y (if 0, y initial content is ignored)
+     * @param y output vector (m elements), updated in place
+     */
+    void gemv(double alpha, double[][] a, double[] x, double beta, double[] y);
+
+    /**
+     * Compute y = &alpha; x + y on a contiguous range.
+     * @param n number of elements to process
+     * @param alpha scaling factor for x
+     * @param x input vector
+     * @param xOffset index of the first element of x to use
+     * @param y output vector, updated in place
+     * @param yOffset index of the first element of y to update
+     */
+    void axpy(int n, double alpha, double[] x, int xOffset, double[] y, int yOffset);
+
+    /**
+     * Compute the dot product of two contiguous ranges.
+     * @param n number of elements to process
+     * @param x first vector
+     * @param xOffset index of the first element of x to use
+     * @param y second vector
+     * @param yOffset index of the first element of y to use
+     * @return &sum; x[xOffset + i] y[yOffset + i]
+     */
+    double dot(int n, double[] x, int xOffset, double[] y, int yOffset);
+
+    /**
+     * Solve op(t) &times; x = b in place, for a triangular matrix t.
+     * <p>
+     * Only the triangle of {@code t} designated by {@code upper} is read,
+     * the other one may hold unrelated data (this allows for example to use
+     * the packed storage of an LU decomposition directly).
+     * </p>
+     * @param upper if true, t is upper triangular, otherwise it is lower triangular
+     * @param transpose if true, op(t) = t<sup>T</sup>, otherwise op(t) = t
+     * @param unitDiagonal if true, the diagonal of t is assumed to be made of 1
+     * and is not read
+     * @param t row-major square triangular matrix (n rows, n columns)
+     * @param b right hand side (n rows, any number of columns), replaced by the solution
+     */
+    void trsm(boolean upper, boolean transpose, boolean unitDiagonal,
+              double[][] t, double[][] b);
+
+    /**
+     * Compute the symmetric rank-k update c = &alpha; a &times; a<sup>T</sup> + &beta; c.
+     * <p>
+     * The full symmetric result is stored in {@code c}, both triangles included.
+     * </p>
+     * @param alpha scaling factor for the product
+     * @param a row-major matrix (n rows, k columns)
+     * @param beta scaling factor for c (if 0, c initial content is ignored)
+     * @param c symmetric output (n rows, n columns), updated in place
+     */
+    void syrk(double alpha, double[][] a, double beta, double[][] c);
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.Enumeration;
+
+import org.apache.commons.math3.exception.MathIllegalStateException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+
+/**
+ * Discovery of the {@link LinearAlgebraBackend} provider.
+ * <p>
+ * The provider is looked up in {@code META-INF/services} resources, using
+ * the same file format as {@code java.util.ServiceLoader} (which cannot be
+ * used directly as it is not available in Java 5): one fully qualified class
+ * name per line, with '#' starting comments. The first declared provider
+ * found in the class path is used. If none is declared, an instance of
+ * {@link DefaultLinearAlgebraBackend} is used.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+final class LinearAlgebraBackendLoader {
+
+    /** Name of the service provider configuration resource. */
+    static final String RESOURCE = "META-INF/services/" + LinearAlgebraBackend.class.getName();
+
+    /** Private constructor for utility class. */
+    private LinearAlgebraBackendLoader() {
+    }
+
+    /**
+     * Load the backend declared in the class path.
+     * @return declared backend, or a {@link DefaultLinearAlgebraBackend}
+     * if none is declared
+     * @throws MathIllegalStateException if a backend is declared but
+     * cannot be instantiated
+     */
+    static LinearAlgebraBackend load() throws MathIllegalStateException {
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = LinearAlgebraBackendLoader.class.getClassLoader();
+        }
+        if (loader == null) {
+            loader = ClassLoader.getSystemClassLoader();
+        }
+
+        String className = null;
+        try {
+            final Enumeration<URL> urls = loader.getResources(RESOURCE);
+            while (className == null && urls.hasMoreElements()) {
+                className = firstProvider(urls.nextElement());
+            }
+        } catch (IOException ioe) {
+            throw new MathIllegalStateException(ioe,
+                                                LocalizedFormats.UNABLE_TO_LOAD_LINEAR_ALGEBRA_BACKEND,
+                                                RESOURCE);
+        }
+
+        if (className == null) {
+            return new DefaultLinearAlgebraBackend();
+        }
+
+        try {
+            final Class<?> providerClass = Class.forName(className, true, loader);
+            return (LinearAlgebraBackend) providerClass.newInstance();
+        } catch (ClassNotFoundException cnfe) {
+            throw new MathIllegalStateException(cnfe,
+                                                LocalizedFormats.UNABLE_TO_LOAD_LINEAR_ALGEBRA_BACKEND,
+                                                className);
+        } catch (InstantiationException ie) {
+            throw new MathIllegalStateException(ie,
+                                                LocalizedFormats.UNABLE_TO_LOAD_LINEAR_ALGEBRA_BACKEND,
+                                                className);
+        } catch (IllegalAccessException iae) {
+            throw new MathIllegalStateException(iae,
+                                                LocalizedFormats.UNABLE_TO_LOAD_LINEAR_ALGEBRA_BACKEND,
+                                                className);
+        } catch (ClassCastException cce) {
+            throw new MathIllegalStateException(cce,
+                                                LocalizedFormats.UNABLE_TO_LOAD_LINEAR_ALGEBRA_BACKEND,
+                                                className);
+        }
+
+    }
+
+    /**
+     * Get the first provider class name declared in a configuration resource.
+     * @param url location of the configuration resource
+     * @return first class name declared, or null if the resource declares none
+     * @throws IOException if the resource cannot be read
+     */
+    private static String firstProvider(final URL url) throws IOException {
+        final BufferedReader reader =
+            new BufferedReader(new InputStreamReader(url.openStream(), "UTF-8"));
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final int comment = line.indexOf('#');
+                final String name = ((comment < 0) ? line : line.substring(0, comment)).trim();
+                if (name.length() > 0) {
+                    return name;
+                }
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MaxCountExceededException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.exception.util.ExceptionContext;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.IterationManager;
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * <p>
+ * This is an implementation of the MINimum RESidual method of <a
+ * href="#PAIG1975">Paige and Saunders (1975)</a> for {@link RealLinearOperator}.
+ * The linear system at hand is A &middot; x = b, and the residual is
+ * r = b - A &middot; x. A must be symmetric, but, unlike for
+ * {@link ConjugateGradient}, it may be indefinite. Compared to
+ * {@link SymmLQ}, which is designed for the same class of problems, MINRES
+ * minimizes the norm of the residual at each iteration, so this norm decreases
+ * monotonically.
+ * </p>
+ * <p>
+ * The preconditioner M, which approximates A<sup>-1</sup>, must be symmetric
+ * positive definite. Symmetry of A and M is not checked.
+ * </p>
+ * <h3><a id="stopcrit">Default stopping criterion</a></h3>
+ * <p>
+ * The iterations stop when || r ||<sub>M</sub> &le; &delta;
+ * || b ||<sub>M</sub>, where b is the right-hand side vector, r the current
+ * estimate of the residual, &delta; a user-specified tolerance and
+ * || u ||<sub>M</sub> = (u<sup>T</sup> &middot; M &middot; u)<sup>1/2</sup>.
+ * When no preconditioner is used, these are the Euclidean norms.
+ * </p>
+ * <h3>Iteration count</h3>
+ * <p>
+ * In the present context, an iteration should be understood as one evaluation
+ * of the matrix-vector product A &middot; x. The initialization phase therefore
+ * counts as one iteration. As the residual is not computed explicitly by the
+ * algorithm, the events fired by this solver do not provide it.
+ * </p>
+ * <h3><a id="context">Exception context</a></h3>
+ * <p>
+ * Besides standard {@link DimensionMismatchException}, this class might throw
+ * {@link NonPositiveDefiniteOperatorException} if the preconditioner is not
+ * positive definite. In this case, the {@link ExceptionContext} provides some
+ * more information
+ * <ul>
+ * <li>key {@code "operator"} points to the offending linear operator, say L,</li>
+ * <li>key {@code "vector"} points to the offending vector, say x, such that
+ * x<sup>T</sup> &middot; L &middot; x < 0.</li>
+ * </ul>
+ * </p>
+ * <h3>References</h3>
+ * <dl>
+ * <dt><a id="PAIG1975">Paige and Saunders (1975)</a></dt>
+ * <dd>C. C. Paige and M. A. Saunders, <a
+ * href="http://www.stanford.edu/group/SOL/software/symmlq/PS75.pdf"><em>
+ * Solution of Sparse Indefinite Systems of Linear Equations</em></a>, SIAM
+ * Journal on Numerical Analysis 12(4): 617-629, 1975</dd>
+ * </dl>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class MINRES
+    extends PreconditionedIterativeLinearSolver {
+
+    /** Key for the <a href="#context">exception context</a>. */
+    public static final String OPERATOR = "operator";
+
+    /** Key for the <a href="#context">exception context</a>. */
+    public static final String VECTOR = "vector";
+
+    /** The value of &delta;, for the default stopping criterion. */
+    private final double delta;
+
+    /**
+     * Creates a new instance of this class, with <a href="#stopcrit">default
+     * stopping criterion</a>.
+     *
+     * @param maxIterations the maximum number of iterations
+     * @param delta the &delta; parameter for the default stopping criterion
+     */
+    public MINRES(final int maxIterations, final double delta) {
+        super(maxIterations);
+        this.delta = delta;
+    }
+
+    /**
+     * Creates a new instance of this class, with <a href="#stopcrit">default
+     * stopping criterion</a> and custom iteration manager.
+     *
+     * @param manager the custom iteration manager
+     * @param delta the &delta; parameter for the default stopping criterion
+     * @throws NullArgumentException if {@code manager} is {@code null}
+     */
+    public MINRES(final IterationManager manager, final double delta)
+        throws NullArgumentException {
+        super(manager);
+        this.delta = delta;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NonPositiveDefiniteOperatorException if {@code m} is not
+     * positive definite
+     */
+    @Override
+    public RealVector solveInPlace(final RealLinearOperator a,
+                                   final RealLinearOperator m,
+                                   final RealVector b,
+                                   final RealVector x0)
+        throws NullArgumentException, NonPositiveDefiniteOperatorException,
+        NonSquareOperatorException, DimensionMismatchException,
+        MaxCountExceededException {
+        checkParameters(a, m, b, x0);
+        final IterationManager manager = getIterationManager();
+        // Initialization of default stopping criterion
+        manager.resetIterationCount();
+        final double rmax = delta * mNorm(m, b, (m == null) ? b : m.operate(b));
+        final RealVector bro = RealVector.unmodifiableRealVector(b);
+
+        // Initialization phase counts as one iteration.
+        manager.incrementIterationCount();
+        final RealVector x = x0;
+        final RealVector xro = RealVector.unmodifiableRealVector(x);
+
+        // first vector of the Lanczos process
+        RealVector r1 = b.combine(1, -1, a.operate(x));
+        RealVector y  = (m == null) ? r1 : m.operate(r1);
+        double beta   = mNorm(m, r1, y);
+        double phiBar = beta;
+        IterativeLinearSolverEvent evt;
+        evt = new DefaultIterativeLinearSolverEvent(this,
+            manager.getIterations(), xro, bro, phiBar);
+        manager.fireInitializationEvent(evt);
+        if (phiBar <= rmax) {
+            manager.fireTerminationEvent(evt);
+            return x;
+        }
+
+        RealVector r2  = r1;
+        RealVector w   = new ArrayRealVector(x.getDimension());
+        RealVector w2  = w;
+        double oldB    = 0;
+        double dBar    = 0;
+        double epsilon = 0;
+        double cs      = -1;
+        double sn      = 0;
+        while (true) {
+            manager.incrementIterationCount();
+            evt = new DefaultIterativeLinearSolverEvent(this,
+                manager.getIterations(), xro, bro, phiBar);
+            manager.fireIterationStartedEvent(evt);
+
+            // Lanczos step
+            final RealVector v = y.mapDivide(beta);
+            y = a.operate(v);
+            if (oldB != 0) {
+                y.combineToSelf(1, -beta / oldB, r1);
+            }
+            final double alpha = v.dotProduct(y);
+            y.combineToSelf(1, -alpha / beta, r2);
+            r1   = r2;
+            r2   = y;
+            y    = (m == null) ? r2 : m.operate(r2);
+            oldB = beta;
+            beta = mNorm(m, r2, y);
+
+            // apply the previous rotation, and compute the new one
+            final double oldEpsilon = epsilon;
+            final double d          = cs * dBar + sn * alpha;
+            final double gBar       = sn * dBar - cs * alpha;
+            epsilon = sn * beta;
+            dBar    = -cs * beta;
+            final double gamma = FastMath.max(FastMath.hypot(gBar, beta), Precision.EPSILON);
+            cs = gBar / gamma;
+            sn = beta / gamma;
+            final double phi = cs * phiBar;
+            phiBar = sn * phiBar;
+
+            // update the solution
+            final RealVector w1 = w2;
+            w2 = w;
+            w  = v.combine(1 / gamma, -oldEpsilon / gamma, w1);
+            w.combineToSelf(1, -d / gamma, w2);
+            x.combineToSelf(1, phi, w);
+
+            evt = new DefaultIterativeLinearSolverEvent(this,
+                manager.getIterations(), xro, bro, phiBar);
+            manager.fireIterationPerformedEvent(evt);
+            if (phiBar <= rmax || beta == 0) {
+                manager.fireTerminationEvent(evt);
+                return x;
+            }
+        }
+    }
+
+    /**
+     * Computes the norm of a vector with respect to the preconditioner.
+     *
+     * @param m the preconditioner, M (can be {@code null})
+     * @param u the vector
+     * @param mu the product M &middot; u (u itself if {@code m} is {@code null})
+     * @return (u<sup>T</sup> &middot; M &middot; u)<sup>1/2</sup>
+     * @throws NonPositiveDefiniteOperatorException if u<sup>T</sup> &middot;
+     * M &middot; u is negative
+     */
+    private static double mNorm(final RealLinearOperator m,
+                                final RealVector u, final RealVector mu)
+        throws NonPositiveDefiniteOperatorException {
+        final double uMu = u.dotProduct(mu);
+        if (uMu < 0) {
+            final NonPositiveDefiniteOperatorException e;
+            e = new NonPositiveDefiniteOperatorException();
+            final ExceptionContext context = e.getContext();
+            context.setValue(OPERATOR, m);
+            context.setValue(VECTOR, u);
+            throw e;
+        }
+        return FastMath.sqrt(uMu);
+    }
+}
@@ -58,6 +58,9 @@ public class MatrixUtils {
      */
     public static final RealMatrixFormat OCTAVE_FORMAT = new RealMatrixFormat("[", "]", "", "", "; ", ", ");
 
+    /** Backend performing the low level computations (lazily initialized). */
+    private static volatile LinearAlgebraBackend backend;
+
     /**
      * Private constructor.
      */
@@ -65,6 +68,53 @@ public class MatrixUtils {
         super();
     }
 
+    /**
+     * Get the backend performing the low level linear algebra computations.
+     * <p>
+     * On first call, the backend is looked up in the class path using the
+     * standard service provider conventions, i.e. a
+     * {@code META-INF/services/org.apache.commons.math3.linear.LinearAlgebraBackend}
+     * resource containing the fully qualified name of the implementation
+     * class, which must have a public no-argument constructor. If no provider
+     * is declared, a {@link DefaultLinearAlgebraBackend} is used.
+     * </p>
+     * @return backend in use
+     * @throws org.apache.commons.math3.exception.MathIllegalStateException
+     * if a provider is declared but cannot be instantiated
+     * @see #setLinearAlgebraBackend(LinearAlgebraBackend)
+     * @since 3.4
+     */
+    public static LinearAlgebraBackend getLinearAlgebraBackend() {
+        LinearAlgebraBackend current = backend;
+        if (current == null) {
+            synchronized (MatrixUtils.class) {
+                current = backend;
+                if (current == null) {
+                    current = LinearAlgebraBackendLoader.load();
+                    backend = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Set the backend performing the low level linear algebra computations.
+     * <p>
+     * The backend is shared by all matrices, vectors and decompositions of
+     * this package, it should be set once at application start-up.
+     * </p>
+     * @param linearAlgebraBackend backend to use
+     * @throws NullArgumentException if {@code linearAlgebraBackend} is {@code null}
+     * @see #getLinearAlgebraBackend()
+     * @since 3.4
+     */
+    public static void setLinearAlgebraBackend(final LinearAlgebraBackend linearAlgebraBackend)
+        throws NullArgumentException {
+        MathUtils.checkNotNull(linearAlgebraBackend);
+        backend = linearAlgebraBackend;
+    }
+
     /**
      * Returns a {@link RealMatrix} with specified dimensions.
      * <p>The type of matrix returned depends on the dimension. Below
@@ -374,6 +424,106 @@ public class MatrixUtils {
         return m;
     }
 
+    /**
+     * Creates a writable view of a rectangular part of a matrix.
+     * <p>
+     * Contrary to {@link RealMatrix#getSubMatrix(int, int, int, int)}, no data
+     * is copied: the returned matrix forwards all accesses to {@code m}, so its
+     * creation is O(1) and changes made through either matrix are visible in
+     * the other one. Views of views are flattened so that accesses are never
+     * forwarded through more than one level.
+     * </p>
+     *
+     * @param m underlying matrix
+     * @param startRow Initial row index (inclusive)
+     * @param endRow Final row index (inclusive)
+     * @param startColumn Initial column index (inclusive)
+     * @param endColumn Final column index (inclusive)
+     * @return a view of the specified part of {@code m}
+     * @throws OutOfRangeException if the indices are not valid.
+     * @throws NumberIsTooSmallException if {@code endRow < startRow} or
+     * {@code endColumn < startColumn}.
+     * @since 3.4
+     */
+    public static RealMatrix createSubMatrixView(final RealMatrix m,
+                                                 final int startRow, final int endRow,
+                                                 final int startColumn, final int endColumn)
+        throws OutOfRangeException, NumberIsTooSmallException {
+        checkSubMatrixIndex(m, startRow, endRow, startColumn, endColumn);
+        if (m instanceof SubMatrixView) {
+            final SubMatrixView view = (SubMatrixView) m;
+            final int rowOffset      = view.getRowOffset();
+            final int columnOffset   = view.getColumnOffset();
+            return new SubMatrixView(view.getParent(),
+                                     rowOffset + startRow, rowOffset + endRow,
+                                     columnOffset + startColumn, columnOffset + endColumn);
+        }
+        return new SubMatrixView(m, startRow, endRow, startColumn, endColumn);
+    }
+
+    /**
+     * Creates a writable lazy transpose of a matrix.
+     * <p>
+     * Contrary to {@link RealMatrix#transpose()}, no data is copied: the
+     * returned matrix forwards all accesses to {@code m} with swapped indices,
+     * so its creation is O(1) and changes made through either matrix are
+     * visible in the other one. The transposed view of a transposed view is
+     * the original matrix.
+     * </p>
+     *
+     * @param m underlying matrix
+     * @return a view of the transpose of {@code m}
+     * @since 3.4
+     */
+    public static RealMatrix createTransposedView(final RealMatrix m) {
+        if (m instanceof TransposedMatrixView) {
+            return ((TransposedMatrixView) m).getParent();
+        }
+        return new TransposedMatrixView(m);
+    }
+
+    /**
+     * Creates a writable view of a row of a matrix.
+     * <p>
+     * Contrary to {@link RealMatrix#getRowVector(int)}, no data is copied:
+     * the returned vector forwards all accesses to {@code m}, so its creation
+     * is O(1) and changes made through either object are visible in the other
+     * one.
+     * </p>
+     *
+     * @param m underlying matrix
+     * @param row Row to be viewed.
+     * @return a view of the specified row of {@code m}
+     * @throws OutOfRangeException if the specified row index is invalid.
+     * @since 3.4
+     */
+    public static RealVector createRowVectorView(final RealMatrix m, final int row)
+        throws OutOfRangeException {
+        checkRowIndex(m, row);
+        return new StridedVectorView(m, row, 0, 0, 1, m.getColumnDimension());
+    }
+
+    /**
+     * Creates a writable view of a column of a matrix.
+     * <p>
+     * Contrary to {@link RealMatrix#getColumnVector(int)}, no data is copied:
+     * the returned vector forwards all accesses to {@code m}, so its creation
+     * is O(1) and changes made through either object are visible in the other
+     * one.
+     * </p>
+     *
+     * @param m underlying matrix
+     * @param column Column to be viewed.
+     * @return a view of the specified column of {@code m}
+     * @throws OutOfRangeException if the specified column index is invalid.
+     * @since 3.4
+     */
+    public static RealVector createColumnVectorView(final RealMatrix m, final int column)
+        throws OutOfRangeException {
+        checkColumnIndex(m, column);
+        return new StridedVectorView(m, 0, column, 1, 0, m.getRowDimension());
+    }
+
     /**
      * Checks whether a matrix is symmetric, within a given relative tolerance.
      *
@@ -917,6 +1067,10 @@ public class MatrixUtils {
      * The matrix is checked that it is square and its dimensions match
      * the length of the vector.
      * </p>
+     * <p>
+     * If {@code rm} is a lower triangular {@link TriangularRealMatrix}, the
+     * substitution is performed directly on its packed storage.
+     * </p>
      * @param rm RealMatrix which is lower triangular
      * @param b  RealVector this is overwritten
      * @throws DimensionMismatchException if the matrix and vector are not
@@ -937,6 +1091,17 @@ public class MatrixUtils {
             throw new NonSquareMatrixException(rm.getRowDimension(),
                                                rm.getColumnDimension());
         }
+        if (rm instanceof TriangularRealMatrix && ((TriangularRealMatrix) rm).isLower()) {
+            // packed storage, use direct substitution
+            if (b instanceof ArrayRealVector) {
+                ((TriangularRealMatrix) rm).solveInPlace(((ArrayRealVector) b).getDataRef());
+            } else {
+                final double[] x = b.toArray();
+                ((TriangularRealMatrix) rm).solveInPlace(x);
+                b.setSubVector(0, new ArrayRealVector(x, false));
+            }
+            return;
+        }
         int rows = rm.getRowDimension();
         for( int i = 0 ; i < rows ; i++ ){
             double diag = rm.getEntry(i, i);
@@ -961,6 +1126,10 @@ public class MatrixUtils {
      * The matrix is checked that it is square and its dimensions match
      * the length of the vector.
      * </p>
+     * <p>
+     * If {@code rm} is a upper triangular {@link TriangularRealMatrix}, the
+     * substitution is performed directly on its packed storage.
+     * </p>
      * @param rm RealMatrix which is upper triangular
      * @param b  RealVector this is overwritten
      * @throws DimensionMismatchException if the matrix and vector are not
@@ -982,6 +1151,17 @@ public class MatrixUtils {
             throw new NonSquareMatrixException(rm.getRowDimension(),
                                                rm.getColumnDimension());
         }
+        if (rm instanceof TriangularRealMatrix && !((TriangularRealMatrix) rm).isLower()) {
+            // packed storage, use direct substitution
+            if (b instanceof ArrayRealVector) {
+                ((TriangularRealMatrix) rm).solveInPlace(((ArrayRealVector) b).getDataRef());
+            } else {
+                final double[] x = b.toArray();
+                ((TriangularRealMatrix) rm).solveInPlace(x);
+                b.setSubVector(0, new ArrayRealVector(x, false));
+            }
+            return;
+        }
         int rows = rm.getRowDimension();
         for( int i = rows-1 ; i >-1 ; i-- ){
             double diag = rm.getEntry(i, i);
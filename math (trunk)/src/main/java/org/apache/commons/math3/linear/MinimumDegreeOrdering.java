@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathArrays;
+
+/**
+ * Approximate minimum degree fill-reducing ordering.
+ * <p>
+ * This class orders the variables of a sparse symmetric pattern so that the
+ * Cholesky factor of the permuted matrix has few non-zero entries. It follows
+ * the approximate minimum degree algorithm of Amestoy, Davis and Duff: the
+ * elimination is simulated on a quotient graph, where the cliques created
+ * by the eliminated variables are represented by <em>elements</em> instead
+ * of explicit edges, so memory never exceeds the size of the original
+ * pattern plus one list per element. Degrees are not computed exactly,
+ * they are replaced by the AMD upper bound, and elements covered by a new
+ * element are absorbed. Supervariable detection and dense rows handling
+ * are not implemented.
+ * </p>
+ * <p>
+ * For unsymmetric matrices, the ordering is computed on the pattern of
+ * A + A<sup>T</sup>.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+final class MinimumDegreeOrdering {
+
+    /** Private constructor for utility class. */
+    private MinimumDegreeOrdering() {
+    }
+
+    /**
+     * Compute the ordering of a square matrix.
+     * @param storage compressed storage of the matrix (either compression can be
+     * used as the pattern of A + A<sup>T</sup> is considered)
+     * @return permutation, where element {@code k} is the index of the
+     * {@code k}-th variable to eliminate
+     */
+    static int[] order(final CompressedStorage storage) {
+
+        final int n = storage.getMajorDimension();
+        final int[] pointers = storage.getPointersRef();
+        final int[] indices  = storage.getIndicesRef();
+
+        // build the adjacency lists of A + A^T, without the diagonal
+        final int[] length = new int[n];
+        for (int j = 0; j < n; ++j) {
+            for (int p = pointers[j]; p < pointers[j + 1]; ++p) {
+                final int i = indices[p];
+                if (i != j) {
+                    ++length[i];
+                    ++length[j];
+                }
+            }
+        }
+        final int[][] adjacency = new int[n][];
+        for (int i = 0; i < n; ++i) {
+            adjacency[i] = new int[length[i]];
+            length[i] = 0;
+        }
+        for (int j = 0; j < n; ++j) {
+            for (int p = pointers[j]; p < pointers[j + 1]; ++p) {
+                final int i = indices[p];
+                if (i != j) {
+                    adjacency[i][length[i]++] = j;
+                    adjacency[j][length[j]++] = i;
+                }
+            }
+        }
+
+        return new QuotientGraph(adjacency, length).eliminate();
+
+    }
+
+    /** Quotient graph used to simulate the elimination. */
+    private static class QuotientGraph {
+
+        /** Number of variables. */
+        private final int n;
+
+        /** Variables adjacent to each variable (null once eliminated). */
+        private final int[][] variables;
+
+        /** Number of variables adjacent to each variable. */
+        private final int[] nVariables;
+
+        /** Elements adjacent to each variable (null once eliminated). */
+        private final int[][] elements;
+
+        /** Number of elements adjacent to each variable. */
+        private final int[] nElements;
+
+        /** Variables of each element (indexed by pivot, null if not an element). */
+        private final int[][] members;
+
+        /** Indicator for eliminated variables. */
+        private final boolean[] eliminated;
+
+        /** Indicator for absorbed elements. */
+        private final boolean[] absorbed;
+
+        /** Approximate degree of each variable. */
+        private final int[] degree;
+
+        /** First variable in each degree list. */
+        private final int[] head;
+
+        /** Next variable in degree lists. */
+        private final int[] next;
+
+        /** Previous variable in degree lists. */
+        private final int[] previous;
+
+        /** Marker for the variables of the current pivot element. */
+        private final int[] mark;
+
+        /** Marker for the external degree computations. */
+        private final int[] wMark;
+
+        /** External degrees of the elements, with respect to the pivot element. */
+        private final int[] w;
+
+        /**
+         * Simple constructor.
+         * @param adjacency adjacency lists (may contain duplicates)
+         * @param length number of used entries in each adjacency list
+         */
+        QuotientGraph(final int[][] adjacency, final int[] length) {
+
+            n          = adjacency.length;
+            variables  = adjacency;
+            nVariables = length;
+            elements   = new int[n][];
+            nElements  = new int[n];
+            members    = new int[n][];
+            eliminated = new boolean[n];
+            absorbed   = new boolean[n];
+            degree     = new int[n];
+            head       = new int[n];
+            next       = new int[n];
+            previous   = new int[n];
+            mark       = new int[n];
+            wMark      = new int[n];
+            w          = new int[n];
+
+            for (int i = 0; i < n; ++i) {
+                head[i]     = -1;
+                mark[i]     = -1;
+                wMark[i]    = -1;
+                elements[i] = new int[4];
+            }
+
+            // remove duplicates and compute initial degrees
+            for (int i = 0; i < n; ++i) {
+                final int[] vI = variables[i];
+                int size = 0;
+                for (int q = 0; q < nVariables[i]; ++q) {
+                    final int v = vI[q];
+                    if (mark[v] != i) {
+                        mark[v] = i;
+                        vI[size++] = v;
+                    }
+                }
+                nVariables[i] = size;
+                insert(i, size);
+            }
+            for (int i = 0; i < n; ++i) {
+                mark[i] = -1;
+            }
+
+        }
+
+        /**
+         * Eliminate all variables.
+         * @return elimination order
+         */
+        int[] eliminate() {
+            final int[] order = new int[n];
+            int minDegree = 0;
+            for (int k = 0; k < n; ++k) {
+                while (head[minDegree] < 0) {
+                    ++minDegree;
+                }
+                final int p = head[minDegree];
+                order[k] = p;
+                minDegree = FastMath.min(minDegree, eliminate(p, k));
+            }
+            return order;
+        }
+
+        /**
+         * Eliminate one variable.
+         * @param p variable to eliminate
+         * @param k number of variables already eliminated
+         * @return smallest updated degree
+         */
+        private int eliminate(final int p, final int k) {
+
+            remove(p);
+            eliminated[p] = true;
+
+            // build the new element, absorbing the elements adjacent to the pivot
+            int[] lp = new int[nVariables[p]];
+            int size = 0;
+            for (int q = 0; q < nVariables[p]; ++q) {
+                final int v = variables[p][q];
+                if (!eliminated[v] && mark[v] != p) {
+                    mark[v] = p;
+                    lp[size++] = v;
+                }
+            }
+            for (int q = 0; q < nElements[p]; ++q) {
+                final int e = elements[p][q];
+                if (!absorbed[e]) {
+                    for (final int v : members[e]) {
+                        if (!eliminated[v] && mark[v] != p) {
+                            if (size == lp.length) {
+                                lp = MathArrays.copyOf(lp, FastMath.max(4, 2 * size));
+                            }
+                            mark[v] = p;
+                            lp[size++] = v;
+                        }
+                    }
+                    absorbed[e] = true;
+                    members[e]  = null;
+                }
+            }
+            members[p]   = (size == lp.length) ? lp : MathArrays.copyOf(lp, size);
+            variables[p] = null;
+            elements[p]  = null;
+
+            // update the lists of the variables of the new element
+            for (final int i : members[p]) {
+                remove(i);
+
+                final int[] vI = variables[i];
+                int nV = 0;
+                for (int q = 0; q < nVariables[i]; ++q) {
+                    final int v = vI[q];
+                    if (!eliminated[v] && mark[v] != p) {
+                        // edges within the new element are now represented by the element
+                        vI[nV++] = v;
+                    }
+                }
+                nVariables[i] = nV;
+
+                int[] eI = elements[i];
+                int nE = 0;
+                for (int q = 0; q < nElements[i]; ++q) {
+                    final int e = eI[q];
+                    if (!absorbed[e]) {
+                        eI[nE++] = e;
+                    }
+                }
+                if (nE == eI.length) {
+                    eI = MathArrays.copyOf(eI, 2 * nE);
+                    elements[i] = eI;
+                }
+                eI[nE++] = p;
+                nElements[i] = nE;
+            }
+
+            // external degrees of the other elements: w(e) = |Le \ Lp|
+            for (final int i : members[p]) {
+                for (int q = 0; q < nElements[i] - 1; ++q) {
+                    final int e = elements[i][q];
+                    if (wMark[e] != p) {
+                        wMark[e] = p;
+                        w[e] = members[e].length;
+                    }
+                    --w[e];
+                }
+            }
+
+            // approximate degrees
+            final int remaining = n - k - 1;
+            int minDegree = remaining;
+            for (final int i : members[p]) {
+                int d = members[p].length - 1 + nVariables[i];
+                final int[] eI = elements[i];
+                int nE = 0;
+                for (int q = 0; q < nElements[i] - 1; ++q) {
+                    final int e = eI[q];
+                    if (w[e] == 0) {
+                        // aggressive absorption: Le is a subset of Lp
+                        absorbed[e] = true;
+                        members[e]  = null;
+                    } else if (!absorbed[e]) {
+                        d += w[e];
+                        eI[nE++] = e;
+                    }
+                }
+                eI[nE++] = p;
+                nElements[i] = nE;
+                d = FastMath.min(d, remaining - 1);
+                insert(i, d);
+                minDegree = FastMath.min(minDegree, d);
+            }
+
+            return minDegree;
+
+        }
+
+        /**
+         * Insert a variable in a degree list.
+         * @param i variable
+         * @param d degree of the variable
+         */
+        private void insert(final int i, final int d) {
+            degree[i]   = d;
+            previous[i] = -1;
+            next[i]     = head[d];
+            if (head[d] >= 0) {
+                previous[head[d]] = i;
+            }
+            head[d] = i;
+        }
+
+        /**
+         * Remove a variable from its degree list.
+         * @param i variable
+         */
+        private void remove(final int i) {
+            if (previous[i] >= 0) {
+                next[previous[i]] = next[i];
+            } else {
+                head[degree[i]] = next[i];
+            }
+            if (next[i] >= 0) {
+                previous[next[i]] = previous[i];
+            }
+        }
+
+    }
+
+}
@@ -297,6 +297,17 @@ public class OpenMapRealMatrix extends AbstractRealMatrix
         }
     }
 
+    /**
+     * Get an iterator over the stored (i.e. non-zero) entries.
+     * <p>
+     * The keys provided by the iterator are {@code row * columns + column}.
+     * </p>
+     * @return iterator over the stored entries
+     */
+    OpenIntToDoubleHashMap.Iterator storedEntriesIterator() {
+        return entries.iterator();
+    }
+
     /**
      * Compute the key to access a matrix element
      * @param row row index of the matrix element
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.math3.exception.MathIllegalStateException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+
+/**
+ * Helper running independent computation tasks on a user-supplied executor.
+ * <p>
+ * The tasks are expected to write their results into disjoint parts of a
+ * shared output, so the overall result does not depend on the scheduling
+ * and is identical to the one obtained by running the tasks sequentially.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+final class ParallelTasks {
+
+    /** Private constructor for utility class. */
+    private ParallelTasks() {
+    }
+
+    /**
+     * Run all tasks and wait for their completion.
+     * <p>
+     * Unchecked exceptions and errors thrown by the tasks are propagated as is
+     * to the caller.
+     * </p>
+     *
+     * @param executor executor to use
+     * @param tasks tasks to run
+     * @throws MathIllegalStateException if the calling thread is interrupted
+     * while waiting or if a task throws a checked exception
+     */
+    static void invokeAll(final ExecutorService executor,
+                          final List<Callable<Void>> tasks)
+        throws MathIllegalStateException {
+        try {
+            for (final Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new MathIllegalStateException(ie, LocalizedFormats.ILLEGAL_STATE);
+        } catch (ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MathIllegalStateException(cause, LocalizedFormats.ILLEGAL_STATE);
+        }
+    }
+
+}
@@ -20,7 +20,12 @@ package org.apache.commons.math3.linear;
 import java.util.Arrays;
 
 import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NumberIsTooSmallException;
+import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathArrays;
 
 
 /**
@@ -29,6 +34,11 @@ import org.apache.commons.math3.util.FastMath;
  * that satisfy: A = QR, Q is orthogonal (Q<sup>T</sup>Q = I), and R is
  * upper triangular. If A is m&times;n, Q is m&times;m and R m&times;n.</p>
  * <p>This class compute the decomposition using Householder reflectors.</p>
+ * <p>Decompositions of a matrix modified by a low-rank term or by adding
+ * or removing a row can be computed from an existing decomposition using
+ * Givens rotations, in O(m<sup>2</sup> + mn) operations instead of
+ * O(mn<sup>2</sup>). The decompositions obtained this way hold Q explicitly
+ * instead of as a product of Householder reflectors.</p>
  * <p>For efficiency purposes, the decomposition in packed form is transposed.
  * This allows inner loop to iterate inside rows, which is much more cache-efficient
  * in Java.</p>
@@ -49,6 +59,13 @@ import org.apache.commons.math3.util.FastMath;
  * @since 1.2 (changed to concrete class in 3.0)
  */
 public class QRDecomposition {
+    /**
+     * Default number of Householder reflectors per block for the blocked algorithm.
+     * @since 3.4
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+    /** Number of rows of the tiles used when applying blocks of reflectors. */
+    private static final int WY_TILE_ROWS = 512;
     /**
      * A packed TRANSPOSED representation of the QR decomposition.
      * <p>The elements BELOW the diagonal are the elements of the UPPER triangular
@@ -68,6 +85,10 @@ public class QRDecomposition {
     private RealMatrix cachedH;
     /** Singularity threshold. */
     private final double threshold;
+    /** Number of Householder reflectors accumulated in each compact WY block. */
+    private final int blockSize;
+    /** Explicit Q<sup>T</sup>, null when Q is represented by Householder reflectors. */
+    private final double[][] explicitQT;
 
     /**
      * Calculates the QR-decomposition of the given matrix.
@@ -89,7 +110,50 @@ public class QRDecomposition {
      */
     public QRDecomposition(RealMatrix matrix,
                            double threshold) {
-        this.threshold = threshold;
+        this(matrix, threshold, 1);
+    }
+
+    /**
+     * Calculates the QR-decomposition of the given matrix using a blocked algorithm.
+     * <p>
+     * The Householder reflectors are computed by panels of {@code blockSize}
+     * columns. Within a panel, they are applied one at a time to the panel
+     * columns only. Once the panel is complete, its reflectors are gathered
+     * in the compact WY representation H<sub>1</sub>&hellip;H<sub>k</sub> =
+     * I - V T V<sup>T</sup> (where V holds the reflector vectors and T is
+     * upper triangular) and applied all at once to the remaining columns as
+     * matrix-matrix products, processed by tiles which fit in the processor
+     * caches. This reduces memory traffic considerably for matrices with a
+     * large number of rows.
+     * </p>
+     * <p>
+     * The resulting decomposition is the same as the unblocked one up to
+     * round-off effects. A block size of 1 corresponds to the unblocked
+     * algorithm used by {@link #QRDecomposition(RealMatrix, double)}.
+     * </p>
+     * <p>
+     * The blocked algorithm does not call {@link
+     * #performHouseholderReflection(int, double[][])}, so subclasses
+     * overriding this method must use a block size of 1.
+     * </p>
+     *
+     * @param matrix The matrix to decompose.
+     * @param threshold Singularity threshold.
+     * @param blockSize Number of Householder reflectors in each block
+     * (a good choice is {@link #DEFAULT_BLOCK_SIZE}).
+     * @throws NotStrictlyPositiveException if {@code blockSize} is not positive.
+     * @since 3.4
+     */
+    public QRDecomposition(RealMatrix matrix,
+                           double threshold,
+                           int blockSize)
+        throws NotStrictlyPositiveException {
+        if (blockSize <= 0) {
+            throw new NotStrictlyPositiveException(blockSize);
+        }
+        this.threshold  = threshold;
+        this.blockSize  = blockSize;
+        this.explicitQT = null;
 
         final int m = matrix.getRowDimension();
         final int n = matrix.getColumnDimension();
@@ -104,13 +168,65 @@ public class QRDecomposition {
 
     }
 
+    /**
+     * Build a decomposition from explicit factors.
+     * @param qt explicit Q<sup>T</sup>, used without copying
+     * @param r upper triangular R
+     * @param threshold Singularity threshold.
+     */
+    private QRDecomposition(final double[][] qt, final double[][] r,
+                            final double threshold) {
+        this.threshold  = threshold;
+        this.blockSize  = 1;
+        this.explicitQT = qt;
+
+        final int m = r.length;
+        final int n = r[0].length;
+        qrt   = new double[n][m];
+        rDiag = new double[FastMath.min(m, n)];
+        for (int row = 0; row < rDiag.length; ++row) {
+            rDiag[row] = r[row][row];
+            for (int col = row + 1; col < n; ++col) {
+                qrt[col][row] = r[row][col];
+            }
+        }
+        cachedQ  = null;
+        cachedQT = null;
+        cachedR  = null;
+        cachedH  = null;
+    }
+
     /** Decompose matrix.
      * @param matrix transposed matrix
      * @since 3.2
      */
     protected void decompose(double[][] matrix) {
-        for (int minor = 0; minor < FastMath.min(qrt.length, qrt[0].length); minor++) {
-            performHouseholderReflection(minor, qrt);
+        if (blockSize > 1) {
+            blockedDecompose();
+        } else {
+            for (int minor = 0; minor < FastMath.min(qrt.length, qrt[0].length); minor++) {
+                performHouseholderReflection(minor, qrt);
+            }
+        }
+    }
+
+    /** Decompose matrix using compact WY blocks of Householder reflectors.
+     */
+    private void blockedDecompose() {
+        final int n = qrt.length;
+        final int kMax = FastMath.min(n, qrt[0].length);
+        for (int k0 = 0; k0 < kMax; k0 += blockSize) {
+            final int k1 = FastMath.min(k0 + blockSize, kMax);
+
+            // compute the reflectors of the panel, updating only the panel columns
+            for (int minor = k0; minor < k1; minor++) {
+                householderReflection(minor, k1);
+            }
+
+            // apply all the reflectors of the panel at once to the trailing columns
+            if (k1 < n) {
+                applyBlockReflector(k0, k1);
+            }
         }
     }
 
@@ -120,6 +236,15 @@ public class QRDecomposition {
      * @since 3.2
      */
     protected void performHouseholderReflection(int minor, double[][] matrix) {
+        householderReflection(minor, qrt.length);
+    }
+
+    /** Compute the Householder reflection for a minor A(minor, minor) of A
+     * and apply it to some of the following columns.
+     * @param minor minor index
+     * @param endColumn index after the last column to transform
+     */
+    private void householderReflection(final int minor, final int endColumn) {
 
         final double[] qrtMinor = qrt[minor];
 
@@ -130,11 +255,9 @@ public class QRDecomposition {
          * The sign of a is chosen to be opposite to the sign of the first
          * component of x. Let's find a:
          */
-        double xNormSqr = 0;
-        for (int row = minor; row < qrtMinor.length; row++) {
-            final double c = qrtMinor[row];
-            xNormSqr += c * c;
-        }
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+        final int length = qrtMinor.length - minor;
+        final double xNormSqr = backend.dot(length, qrtMinor, minor, qrtMinor, minor);
         final double a = (qrtMinor[minor] > 0) ? -FastMath.sqrt(xNormSqr) : FastMath.sqrt(xNormSqr);
         rDiag[minor] = a;
 
@@ -162,22 +285,148 @@ public class QRDecomposition {
              * |v|^2 = -2a*(qr[minor][minor]), so
              * alpha = -<x,v>/(a*qr[minor][minor])
              */
-            for (int col = minor+1; col < qrt.length; col++) {
+            for (int col = minor+1; col < endColumn; col++) {
                 final double[] qrtCol = qrt[col];
-                double alpha = 0;
-                for (int row = minor; row < qrtCol.length; row++) {
-                    alpha -= qrtCol[row] * qrtMinor[row];
-                }
+                double alpha = -backend.dot(length, qrtCol, minor, qrtMinor, minor);
                 alpha /= a * qrtMinor[minor];
 
                 // Subtract the column vector alpha*v from x.
-                for (int row = minor; row < qrtCol.length; row++) {
-                    qrtCol[row] -= alpha * qrtMinor[row];
+                backend.axpy(length, -alpha, qrtMinor, minor, qrtCol, minor);
+            }
+        }
+    }
+
+
+    /** Apply a block of Householder reflectors to the trailing columns.
+     * <p>
+     * The product H<sub>k0</sub>&hellip;H<sub>k1-1</sub> of the reflectors
+     * is written I - V T V<sup>T</sup>, where column j of V is the reflector
+     * vector stored in row k0 + j of qrt (with implicit zeros above the
+     * diagonal) and T is upper triangular. Each trailing column c is then
+     * replaced by c - V T<sup>T</sup> V<sup>T</sup> c, the two large products
+     * being delegated to the {@link LinearAlgebraBackend#gemm(double, double[][],
+     * double[][], double, double[][]) matrix multiplication kernel}.
+     * </p>
+     * @param k0 index of the first reflector of the block
+     * @param k1 index after the last reflector of the block
+     */
+    private void applyBlockReflector(final int k0, final int k1) {
+
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+        final int m  = qrt[0].length;
+        final int n  = qrt.length;
+        final int nb = k1 - k0;
+
+        // scaling factors of the reflectors: H = I - tau v v^T
+        final double[] tau = new double[nb];
+        for (int j = 0; j < nb; ++j) {
+            final int minor = k0 + j;
+            tau[j] = (rDiag[minor] == 0) ? 0 : -1.0 / (rDiag[minor] * qrt[minor][minor]);
+        }
+
+        // triangular factor of the compact WY representation
+        final double[][] t = new double[nb][nb];
+        final double[] z = new double[nb];
+        for (int j = 0; j < nb; ++j) {
+            final int minor = k0 + j;
+            for (int l = 0; l < j; ++l) {
+                z[l] = backend.dot(m - minor, qrt[k0 + l], minor, qrt[minor], minor);
+            }
+            for (int i = 0; i < j; ++i) {
+                double sum = 0;
+                for (int l = i; l < j; ++l) {
+                    sum += t[i][l] * z[l];
                 }
+                t[i][j] = -tau[j] * sum;
             }
+            t[j][j] = tau[j];
         }
+
+        // the trailing columns are processed by tiles of rows, which are copied
+        // together with the corresponding part of the reflectors so the
+        // products can be computed by the backend matrix multiplication kernel
+        final int nCols = n - k1;
+        final int tileRows = FastMath.min(WY_TILE_ROWS, m - k0);
+        final double[][] cTile = new double[nCols][tileRows];
+        final double[][] vTile = new double[nb][tileRows];
+        final double[][] vtTile = new double[tileRows][nb];
+
+        // W = C^T V
+        final double[][] w = new double[nCols][nb];
+        for (int r0 = k0; r0 < m; r0 += tileRows) {
+            final int rows = FastMath.min(tileRows, m - r0);
+            final double[][] c  = copyTile(r0, rows, k0, k1, cTile, vTile);
+            final double[][] vt = (rows == tileRows) ? vtTile : new double[rows][nb];
+            for (int j = 0; j < nb; ++j) {
+                final double[] vJ = vTile[j];
+                for (int r = 0; r < rows; ++r) {
+                    vt[r][j] = vJ[r];
+                }
+            }
+            backend.gemm(1.0, c, vt, 1.0, w);
+        }
+
+        // W = -W T
+        for (final double[] wCol : w) {
+            for (int j = nb - 1; j >= 0; --j) {
+                double sum = 0;
+                for (int i = 0; i <= j; ++i) {
+                    sum -= wCol[i] * t[i][j];
+                }
+                wCol[j] = sum;
+            }
+        }
+
+        // C = C + V W^T
+        for (int r0 = k0; r0 < m; r0 += tileRows) {
+            final int rows = FastMath.min(tileRows, m - r0);
+            final double[][] c = copyTile(r0, rows, k0, k1, cTile, vTile);
+            final double[][] v;
+            if (rows == tileRows) {
+                v = vTile;
+            } else {
+                v = new double[nb][];
+                for (int j = 0; j < nb; ++j) {
+                    v[j] = MathArrays.copyOf(vTile[j], rows);
+                }
+            }
+            backend.gemm(1.0, w, v, 1.0, c);
+            for (int col = k1; col < n; ++col) {
+                System.arraycopy(c[col - k1], 0, qrt[col], r0, rows);
+            }
+        }
+
     }
 
+    /** Copy a tile of rows of the trailing columns and of the reflectors.
+     * <p>
+     * The reflector entries above the diagonal, where qrt holds R instead,
+     * are replaced by zeros.
+     * </p>
+     * @param r0 first row of the tile
+     * @param rows number of rows of the tile
+     * @param k0 index of the first reflector of the block
+     * @param k1 index after the last reflector of the block
+     * @param cTile buffer for the trailing columns, one row per column
+     * @param vTile buffer for the reflectors, one row per reflector
+     * @return tile of the trailing columns, one row per column, each with
+     * {@code rows} elements (it is {@code cTile} itself if the tile is complete)
+     */
+    private double[][] copyTile(final int r0, final int rows, final int k0, final int k1,
+                                final double[][] cTile, final double[][] vTile) {
+        final boolean complete = rows == cTile[0].length;
+        final double[][] c = complete ? cTile : new double[cTile.length][rows];
+        for (int col = k1; col < qrt.length; ++col) {
+            System.arraycopy(qrt[col], r0, c[col - k1], 0, rows);
+        }
+        for (int j = 0; j < k1 - k0; ++j) {
+            final double[] vJ = vTile[j];
+            final int start = FastMath.max(0, FastMath.min(k0 + j - r0, rows));
+            Arrays.fill(vJ, 0, start, 0.0);
+            System.arraycopy(qrt[k0 + j], r0 + start, vJ, start, rows - start);
+        }
+        return c;
+    }
 
     /**
      * Returns the matrix R of the decomposition.
@@ -224,6 +473,9 @@ public class QRDecomposition {
      * @return the transpose of the Q matrix, Q<sup>T</sup>
      */
     public RealMatrix getQT() {
+        if (cachedQT == null && explicitQT != null) {
+            cachedQT = MatrixUtils.createRealMatrix(explicitQT);
+        }
         if (cachedQT == null) {
 
             // QT is supposed to be m x m
@@ -270,8 +522,13 @@ public class QRDecomposition {
      * each successive Householder reflector vector. This matrix is used
      * to compute Q.</p>
      * @return a matrix containing the Householder reflector vectors
+     * @throws MathUnsupportedOperationException if the decomposition was
+     * obtained by an update and holds Q explicitly
      */
-    public RealMatrix getH() {
+    public RealMatrix getH() throws MathUnsupportedOperationException {
+        if (explicitQT != null) {
+            throw new MathUnsupportedOperationException();
+        }
         if (cachedH == null) {
 
             final int n = qrt.length;
@@ -289,6 +546,268 @@ public class QRDecomposition {
         return cachedH;
     }
 
+    /**
+     * Compute the decomposition of A + u v<sup>T</sup>.
+     * <p>
+     * The decomposition is updated by Givens rotations in O(m<sup>2</sup> + mn)
+     * operations (Golub and Van Loan, Matrix Computations, section 12.5.1).
+     * The first call on a decomposition computed by Householder reflectors
+     * also builds Q explicitly. The instance is not modified. For pivoted
+     * decompositions such as {@link RRQRDecomposition}, A stands for the
+     * product QR, i.e. the permuted matrix.
+     * </p>
+     * @param u left vector of the rank-one term, with m elements
+     * @param v right vector of the rank-one term, with n elements
+     * @return decomposition of the updated matrix
+     * @throws DimensionMismatchException if the vectors dimensions do not
+     * match the matrix dimensions
+     * @since 3.4
+     */
+    public QRDecomposition update(final RealVector u, final RealVector v)
+        throws DimensionMismatchException {
+        final double[][] qt = copyQT();
+        final double[][] r  = getR().getData();
+        rankOneUpdate(qt, r, u, v);
+        return new QRDecomposition(qt, r, threshold);
+    }
+
+    /**
+     * Compute the decomposition of A + U V<sup>T</sup>.
+     * <p>
+     * The columns of U and V are applied as successive rank-one updates, in
+     * O(k (m<sup>2</sup> + mn)) operations where k is the number of columns of
+     * U and V. The instance is not modified.
+     * </p>
+     * @param u left factor of the update, with m rows
+     * @param v right factor of the update, with n rows
+     * @return decomposition of the updated matrix
+     * @throws DimensionMismatchException if the matrices dimensions do not
+     * match the matrix dimensions or the number of columns of U and V differ
+     * @see #update(RealVector, RealVector)
+     * @since 3.4
+     */
+    public QRDecomposition update(final RealMatrix u, final RealMatrix v)
+        throws DimensionMismatchException {
+        if (u.getColumnDimension() != v.getColumnDimension()) {
+            throw new DimensionMismatchException(v.getColumnDimension(), u.getColumnDimension());
+        }
+        final double[][] qt = copyQT();
+        final double[][] r  = getR().getData();
+        for (int k = 0; k < u.getColumnDimension(); ++k) {
+            rankOneUpdate(qt, r, u.getColumnVector(k), v.getColumnVector(k));
+        }
+        return new QRDecomposition(qt, r, threshold);
+    }
+
+    /**
+     * Compute the decomposition of the matrix A with one row appended.
+     * <p>
+     * The decomposition is updated by at most n Givens rotations in
+     * O(m<sup>2</sup> + n<sup>2</sup>) operations (Golub and Van Loan, Matrix
+     * Computations, section 12.5.3). The instance is not modified.
+     * </p>
+     * @param row row to append, with n elements
+     * @return decomposition of the (m+1)&times;n updated matrix
+     * @throws DimensionMismatchException if the row dimension does not
+     * match the number of columns of the matrix
+     * @since 3.4
+     */
+    public QRDecomposition addRow(final RealVector row)
+        throws DimensionMismatchException {
+
+        final int n = qrt.length;
+        final int m = qrt[0].length;
+        if (row.getDimension() != n) {
+            throw new DimensionMismatchException(row.getDimension(), n);
+        }
+
+        // embed the decomposition in the larger one
+        final double[][] oldQT = explicitQT == null ? getQT().getData() : explicitQT;
+        final double[][] qt = new double[m + 1][m + 1];
+        for (int i = 0; i < m; ++i) {
+            System.arraycopy(oldQT[i], 0, qt[i], 0, m);
+        }
+        qt[m][m] = 1.0;
+        final double[][] r = new double[m + 1][];
+        System.arraycopy(getR().getData(), 0, r, 0, m);
+        r[m] = row.toArray();
+
+        // eliminate the new row
+        for (int k = 0; k < FastMath.min(m, n); ++k) {
+            zeroWithRotation(r, qt, k, m, k);
+        }
+
+        return new QRDecomposition(qt, r, threshold);
+
+    }
+
+    /**
+     * Compute the decomposition of the matrix A with one row removed.
+     * <p>
+     * The decomposition is downdated by m - 1 Givens rotations in
+     * O(m<sup>2</sup> + mn) operations (Golub and Van Loan, Matrix
+     * Computations, section 12.5.3). The instance is not modified.
+     * </p>
+     * @param index index of the row to remove
+     * @return decomposition of the (m-1)&times;n downdated matrix
+     * @throws OutOfRangeException if the index is not valid
+     * @throws NumberIsTooSmallException if the matrix has only one row
+     * @since 3.4
+     */
+    public QRDecomposition removeRow(final int index)
+        throws OutOfRangeException, NumberIsTooSmallException {
+
+        final int n = qrt.length;
+        final int m = qrt[0].length;
+        if (m < 2) {
+            throw new NumberIsTooSmallException(m, 2, true);
+        }
+        if (index < 0 || index >= m) {
+            throw new OutOfRangeException(index, 0, m - 1);
+        }
+
+        final double[][] qt = copyQT();
+        final double[][] r  = getR().getData();
+
+        // rotate the column of QT corresponding to the removed row onto e1,
+        // which makes R upper Hessenberg
+        for (int i = m - 1; i > 0; --i) {
+            final double a = qt[i - 1][index];
+            final double b = qt[i][index];
+            if (b != 0) {
+                final double h = FastMath.hypot(a, b);
+                final double c = a / h;
+                final double s = b / h;
+                rotate(qt[i - 1], qt[i], c, s, 0, m);
+                rotate(r[i - 1],  r[i],  c, s, FastMath.min(i - 1, n), n);
+                qt[i][index] = 0;
+            }
+        }
+
+        // the first row of QT is now +/- e(index), it is dropped with the first row of R
+        final double[][] reducedQT = new double[m - 1][m - 1];
+        final double[][] reducedR  = new double[m - 1][];
+        for (int i = 1; i < m; ++i) {
+            System.arraycopy(qt[i], 0, reducedQT[i - 1], 0, index);
+            System.arraycopy(qt[i], index + 1, reducedQT[i - 1], index, m - 1 - index);
+            reducedR[i - 1] = r[i];
+        }
+
+        return new QRDecomposition(reducedQT, reducedR, threshold);
+
+    }
+
+    /**
+     * Get a copy of Q<sup>T</sup>.
+     * @return a copy of Q<sup>T</sup>
+     */
+    private double[][] copyQT() {
+        if (explicitQT == null) {
+            return getQT().getData();
+        }
+        final double[][] copy = new double[explicitQT.length][];
+        for (int i = 0; i < copy.length; ++i) {
+            copy[i] = explicitQT[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Perform in place a rank-one update of explicit factors.
+     * @param qt explicit Q<sup>T</sup>, updated in place
+     * @param r upper triangular R, updated in place
+     * @param u left vector of the rank-one term
+     * @param v right vector of the rank-one term
+     * @throws DimensionMismatchException if the vectors dimensions do not
+     * match the matrix dimensions
+     */
+    private static void rankOneUpdate(final double[][] qt, final double[][] r,
+                                      final RealVector u, final RealVector v)
+        throws DimensionMismatchException {
+
+        final int m = r.length;
+        final int n = r[0].length;
+        if (u.getDimension() != m) {
+            throw new DimensionMismatchException(u.getDimension(), m);
+        }
+        if (v.getDimension() != n) {
+            throw new DimensionMismatchException(v.getDimension(), n);
+        }
+
+        // w = QT u
+        final double[] w = new double[m];
+        final double[] uData = u.toArray();
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+        for (int i = 0; i < m; ++i) {
+            w[i] = backend.dot(m, qt[i], 0, uData, 0);
+        }
+
+        // rotate w onto e1, which makes R upper Hessenberg
+        for (int k = m - 1; k > 0; --k) {
+            if (w[k] != 0) {
+                final double h = FastMath.hypot(w[k - 1], w[k]);
+                final double c = w[k - 1] / h;
+                final double s = w[k]     / h;
+                w[k - 1] = h;
+                w[k]     = 0;
+                rotate(qt[k - 1], qt[k], c, s, 0, m);
+                rotate(r[k - 1],  r[k],  c, s, FastMath.min(k - 1, n), n);
+            }
+        }
+
+        // add the rank-one term, which now affects only the first row of R
+        backend.axpy(n, w[0], v.toArray(), 0, r[0], 0);
+
+        // restore the upper triangular shape of R
+        for (int k = 0; k < FastMath.min(m - 1, n); ++k) {
+            zeroWithRotation(r, qt, k, k + 1, k);
+        }
+
+    }
+
+    /**
+     * Zero an element of R using a Givens rotation between two rows.
+     * @param r matrix R, updated in place
+     * @param qt explicit Q<sup>T</sup>, updated in place
+     * @param pivotRow row holding the pivot, which must be zero before column k
+     * @param row row holding the element to zero, which must be zero before column k
+     * @param k column of the element to zero
+     */
+    private static void zeroWithRotation(final double[][] r, final double[][] qt,
+                                         final int pivotRow, final int row, final int k) {
+        final double a = r[pivotRow][k];
+        final double b = r[row][k];
+        if (b != 0) {
+            final double h = FastMath.hypot(a, b);
+            final double c = a / h;
+            final double s = b / h;
+            rotate(r[pivotRow], r[row], c, s, k, r[row].length);
+            rotate(qt[pivotRow], qt[row], c, s, 0, qt[row].length);
+            r[pivotRow][k] = h;
+            r[row][k]      = 0;
+        }
+    }
+
+    /**
+     * Apply a Givens rotation to two rows.
+     * @param x first row, replaced by c x + s y
+     * @param y second row, replaced by c y - s x
+     * @param c cosine of the rotation
+     * @param s sine of the rotation
+     * @param from index of the first element to rotate
+     * @param to index after the last element to rotate
+     */
+    private static void rotate(final double[] x, final double[] y,
+                               final double c, final double s,
+                               final int from, final int to) {
+        for (int j = from; j < to; ++j) {
+            final double xJ = x[j];
+            final double yJ = y[j];
+            x[j] = c * xJ + s * yJ;
+            y[j] = c * yJ - s * xJ;
+        }
+    }
+
     /**
      * Get a solver for finding the A &times; X = B solution in least square sense.
      * <p>
@@ -302,7 +821,7 @@ public class QRDecomposition {
      * @return a solver
      */
     public DecompositionSolver getSolver() {
-        return new Solver(qrt, rDiag, threshold);
+        return new Solver(qrt, rDiag, explicitQT, threshold);
     }
 
     /** Specialized solver. */
@@ -316,6 +835,8 @@ public class QRDecomposition {
         private final double[][] qrt;
         /** The diagonal elements of R. */
         private final double[] rDiag;
+        /** Explicit Q<sup>T</sup>, null when Q is represented by Householder reflectors. */
+        private final double[][] explicitQT;
         /** Singularity threshold. */
         private final double threshold;
 
@@ -324,14 +845,18 @@ public class QRDecomposition {
          *
          * @param qrt Packed TRANSPOSED representation of the QR decomposition.
          * @param rDiag Diagonal elements of R.
+         * @param explicitQT Explicit Q<sup>T</sup> (null if Q is represented
+         * by the Householder reflectors in {@code qrt}).
          * @param threshold Singularity threshold.
          */
         private Solver(final double[][] qrt,
                        final double[] rDiag,
+                       final double[][] explicitQT,
                        final double threshold) {
-            this.qrt   = qrt;
-            this.rDiag = rDiag;
-            this.threshold = threshold;
+            this.qrt        = qrt;
+            this.rDiag      = rDiag;
+            this.explicitQT = explicitQT;
+            this.threshold  = threshold;
         }
 
         /** {@inheritDoc} */
@@ -356,20 +881,26 @@ public class QRDecomposition {
             }
 
             final double[] x = new double[n];
-            final double[] y = b.toArray();
+            final double[] y;
 
-            // apply Householder transforms to solve Q.y = b
-            for (int minor = 0; minor < FastMath.min(m, n); minor++) {
+            final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+            if (explicitQT == null) {
+                // apply Householder transforms to solve Q.y = b
+                y = b.toArray();
+                for (int minor = 0; minor < FastMath.min(m, n); minor++) {
 
-                final double[] qrtMinor = qrt[minor];
-                double dotProduct = 0;
-                for (int row = minor; row < m; row++) {
-                    dotProduct += y[row] * qrtMinor[row];
-                }
-                dotProduct /= rDiag[minor] * qrtMinor[minor];
+                    final double[] qrtMinor = qrt[minor];
+                    double dotProduct = backend.dot(m - minor, y, minor, qrtMinor, minor);
+                    dotProduct /= rDiag[minor] * qrtMinor[minor];
 
-                for (int row = minor; row < m; row++) {
-                    y[row] += dotProduct * qrtMinor[row];
+                    backend.axpy(m - minor, dotProduct, qrtMinor, minor, y, minor);
+                }
+            } else {
+                // solve Q.y = b using the explicit QT
+                final double[] bData = b.toArray();
+                y = new double[m];
+                for (int row = 0; row < m; ++row) {
+                    y[row] = backend.dot(m, explicitQT[row], 0, bData, 0);
                 }
             }
 
@@ -413,28 +944,47 @@ public class QRDecomposition {
                 // get the right hand side vector
                 b.copySubMatrix(0, m - 1, kStart, kEnd - 1, y);
 
-                // apply Householder transforms to solve Q.y = b
-                for (int minor = 0; minor < FastMath.min(m, n); minor++) {
-                    final double[] qrtMinor = qrt[minor];
-                    final double factor     = 1.0 / (rDiag[minor] * qrtMinor[minor]);
-
-                    Arrays.fill(alpha, 0, kWidth, 0.0);
-                    for (int row = minor; row < m; ++row) {
-                        final double   d    = qrtMinor[row];
-                        final double[] yRow = y[row];
-                        for (int k = 0; k < kWidth; ++k) {
-                            alpha[k] += d * yRow[k];
+                if (explicitQT != null) {
+                    // solve Q.y = b using the explicit QT
+                    final double[][] qty = new double[m][kWidth];
+                    for (int row = 0; row < m; ++row) {
+                        final double[] qtRow  = explicitQT[row];
+                        final double[] qtyRow = qty[row];
+                        for (int l = 0; l < m; ++l) {
+                            final double   qtRL = qtRow[l];
+                            final double[] yL   = y[l];
+                            for (int k = 0; k < kWidth; ++k) {
+                                qtyRow[k] += qtRL * yL[k];
+                            }
                         }
                     }
-                    for (int k = 0; k < kWidth; ++k) {
-                        alpha[k] *= factor;
+                    for (int row = 0; row < m; ++row) {
+                        System.arraycopy(qty[row], 0, y[row], 0, kWidth);
                     }
+                } else {
+                    // apply Householder transforms to solve Q.y = b
+                    for (int minor = 0; minor < FastMath.min(m, n); minor++) {
+                        final double[] qrtMinor = qrt[minor];
+                        final double factor     = 1.0 / (rDiag[minor] * qrtMinor[minor]);
 
-                    for (int row = minor; row < m; ++row) {
-                        final double   d    = qrtMinor[row];
-                        final double[] yRow = y[row];
+                        Arrays.fill(alpha, 0, kWidth, 0.0);
+                        for (int row = minor; row < m; ++row) {
+                            final double   d    = qrtMinor[row];
+                            final double[] yRow = y[row];
+                            for (int k = 0; k < kWidth; ++k) {
+                                alpha[k] += d * yRow[k];
+                            }
+                        }
                         for (int k = 0; k < kWidth; ++k) {
-                            yRow[k] += alpha[k] * d;
+                            alpha[k] *= factor;
+                        }
+
+                        for (int row = minor; row < m; ++row) {
+                            final double   d    = qrtMinor[row];
+                            final double[] yRow = y[row];
+                            for (int k = 0; k < kWidth; ++k) {
+                                yRow[k] += alpha[k] * d;
+                            }
                         }
                     }
                 }
@@ -76,6 +76,30 @@ public abstract class RealLinearOperator {
     public abstract RealVector operate(final RealVector x)
         throws DimensionMismatchException;
 
+    /**
+     * Stores the result of multiplying {@code this} by the vector {@code x}
+     * into the vector {@code y}. Implementations which can compute the
+     * product directly in the storage of {@code y} do not allocate any
+     * intermediate vector, which is useful in iterative algorithms. The
+     * default implementation copies the result of
+     * {@link #operate(RealVector)} into {@code y}.
+     *
+     * @param x the vector to operate on
+     * @param y the vector in which the product should be stored (must be
+     * distinct from {@code x})
+     * @throws DimensionMismatchException if the column dimension does not match
+     * the size of {@code x}, or the row dimension does not match the size of
+     * {@code y}
+     * @since 3.4
+     */
+    public void operateInto(final RealVector x, final RealVector y)
+        throws DimensionMismatchException {
+        if (y.getDimension() != getRowDimension()) {
+            throw new DimensionMismatchException(y.getDimension(), getRowDimension());
+        }
+        y.setSubVector(0, operate(x));
+    }
+
     /**
      * Returns the result of multiplying the transpose of {@code this} operator
      * by the vector {@code x} (optional operation). The default implementation
@@ -263,6 +263,61 @@ public abstract class RealVector {
         return result;
     }
 
+    /**
+     * Add {@code v} to this vector.
+     * The instance is changed in-place.
+     *
+     * @param v Vector to be added.
+     * @return {@code this}.
+     * @throws DimensionMismatchException if {@code v} is not the same size as
+     * {@code this} vector.
+     * @since 3.4
+     */
+    public RealVector addToSelf(RealVector v) throws DimensionMismatchException {
+        return axpy(1, v);
+    }
+
+    /**
+     * Subtract {@code v} from this vector.
+     * The instance is changed in-place.
+     *
+     * @param v Vector to be subtracted.
+     * @return {@code this}.
+     * @throws DimensionMismatchException if {@code v} is not the same size as
+     * {@code this} vector.
+     * @since 3.4
+     */
+    public RealVector subtractToSelf(RealVector v) throws DimensionMismatchException {
+        return axpy(-1, v);
+    }
+
+    /**
+     * Add a multiple of {@code x} to this vector.
+     * The instance is changed in-place. This is equivalent to
+     * {@code combineToSelf(1, alpha, x)}, but only the non-zero entries of
+     * {@code x} are visited, which is faster for sparse vectors.
+     *
+     * @param alpha Multiplication factor for {@code x}.
+     * @param x Vector to be added.
+     * @return {@code this}, with components equal to
+     * {@code this[i] + alpha * x[i]} for all {@code i}.
+     * @throws DimensionMismatchException if {@code x} is not the same size as
+     * {@code this} vector.
+     * @since 3.4
+     */
+    public RealVector axpy(double alpha, RealVector x) throws DimensionMismatchException {
+        checkVectorDimensions(x);
+        if (x == this) {
+            return mapMultiplyToSelf(1 + alpha);
+        }
+        Iterator<Entry> it = x.sparseIterator();
+        while (it.hasNext()) {
+            final Entry e = it.next();
+            addToEntry(e.getIndex(), alpha * e.getValue());
+        }
+        return this;
+    }
+
     /**
      * Add a value to each entry.
      * Returns a new vector. Does not change instance data.
@@ -358,6 +413,42 @@ public abstract class RealVector {
     public abstract RealVector ebeMultiply(RealVector v)
         throws DimensionMismatchException;
 
+    /**
+     * Element-by-element division.
+     * The instance is changed in-place.
+     *
+     * @param v Vector by which instance elements must be divided.
+     * @return {@code this}.
+     * @throws DimensionMismatchException if {@code v} is not the same size as
+     * {@code this} vector.
+     * @since 3.4
+     */
+    public RealVector ebeDivideToSelf(RealVector v) throws DimensionMismatchException {
+        checkVectorDimensions(v);
+        for (int i = 0; i < getDimension(); i++) {
+            setEntry(i, getEntry(i) / v.getEntry(i));
+        }
+        return this;
+    }
+
+    /**
+     * Element-by-element multiplication.
+     * The instance is changed in-place.
+     *
+     * @param v Vector by which instance elements must be multiplied.
+     * @return {@code this}.
+     * @throws DimensionMismatchException if {@code v} is not the same size as
+     * {@code this} vector.
+     * @since 3.4
+     */
+    public RealVector ebeMultiplyToSelf(RealVector v) throws DimensionMismatchException {
+        checkVectorDimensions(v);
+        for (int i = 0; i < getDimension(); i++) {
+            setEntry(i, getEntry(i) * v.getEntry(i));
+        }
+        return this;
+    }
+
     /**
      * Distance between two vectors.
      * <p>This method computes the distance consistent with the
@@ -1593,6 +1684,66 @@ public abstract class RealVector {
                 throw new MathUnsupportedOperationException();
             }
 
+            /**
+             * {@inheritDoc}
+             *
+             * @throws MathUnsupportedOperationException in all
+             * circumstances.
+             */
+            @Override
+            public RealVector addToSelf(RealVector w)
+                throws MathUnsupportedOperationException {
+                throw new MathUnsupportedOperationException();
+            }
+
+            /**
+             * {@inheritDoc}
+             *
+             * @throws MathUnsupportedOperationException in all
+             * circumstances.
+             */
+            @Override
+            public RealVector subtractToSelf(RealVector w)
+                throws MathUnsupportedOperationException {
+                throw new MathUnsupportedOperationException();
+            }
+
+            /**
+             * {@inheritDoc}
+             *
+             * @throws MathUnsupportedOperationException in all
+             * circumstances.
+             */
+            @Override
+            public RealVector axpy(double alpha, RealVector x)
+                throws MathUnsupportedOperationException {
+                throw new MathUnsupportedOperationException();
+            }
+
+            /**
+             * {@inheritDoc}
+             *
+             * @throws MathUnsupportedOperationException in all
+             * circumstances.
+             */
+            @Override
+            public RealVector ebeMultiplyToSelf(RealVector w)
+                throws MathUnsupportedOperationException {
+                throw new MathUnsupportedOperationException();
+            }
+
+            /**
+             * {@inheritDoc}
+             *
+             * @throws MathUnsupportedOperationException in all
+             * circumstances.
+             */
+            @Override
+            public RealVector ebeDivideToSelf(RealVector w)
+                throws MathUnsupportedOperationException {
+                throw new MathUnsupportedOperationException();
+            }
+
             /** An entry in the vector. */
             class UnmodifiableEntry extends Entry {
                 /** {@inheritDoc} */
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+
+/**
+ * Symmetric Successive Over-Relaxation (SSOR) preconditioner.
+ * <p>
+ * With A = D + L + U, where D is the diagonal, L the strictly lower and U the
+ * strictly upper triangular parts of A, the preconditioner is
+ * M = P<sup>-1</sup>, where
+ * <center>
+ * P = &omega; / (2 - &omega;) &middot; (D / &omega; + L) &middot;
+ * (D / &omega;)<sup>-1</sup> &middot; (D / &omega; + U).
+ * </center>
+ * It requires no factorization and no storage besides the matrix itself, and
+ * is applied by one forward and one backward sweep over the non-zero entries
+ * of A. For &omega; = 1, this is the symmetric Gauss-Seidel preconditioner.
+ * When A is symmetric positive definite, so is M for any 0 &lt; &omega; &lt; 2,
+ * and it can be used with {@link ConjugateGradient}.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class SSORPreconditioner extends RealLinearOperator {
+
+    /** Storage of the matrix, with rows as major lines. */
+    private final CompressedStorage storage;
+
+    /** Positions of the diagonal entries in the storage. */
+    private final int[] diagonal;
+
+    /** Relaxation parameter. */
+    private final double omega;
+
+    /**
+     * Creates a new instance of this class.
+     * <p>
+     * The matrix is converted to {@link CompressedRowRealMatrix compressed
+     * row} storage first, so it can be any {@link RealMatrix}, but sparse
+     * implementations avoid the scan of all entries. If it is already a
+     * {@link CompressedRowRealMatrix}, its storage is shared.
+     * </p>
+     *
+     * @param a the matrix for which the preconditioner should be built
+     * @param omega the relaxation parameter &omega;
+     * @throws NonSquareMatrixException if the matrix is not square
+     * @throws OutOfRangeException if &omega; is not strictly between 0 and 2
+     * @throws SingularOperatorException if a diagonal entry is zero
+     */
+    public SSORPreconditioner(final RealMatrix a, final double omega)
+        throws NonSquareMatrixException, OutOfRangeException, SingularOperatorException {
+
+        if (a.getRowDimension() != a.getColumnDimension()) {
+            throw new NonSquareMatrixException(a.getRowDimension(), a.getColumnDimension());
+        }
+        if (omega <= 0 || omega >= 2) {
+            throw new OutOfRangeException(omega, 0, 2);
+        }
+        this.storage  = new CompressedRowRealMatrix(a).getStorage();
+        this.omega    = omega;
+        final int n = storage.getMajorDimension();
+        final int[] pointers  = storage.getPointersRef();
+        final int[] indices   = storage.getIndicesRef();
+        final double[] values = storage.getValuesRef();
+        diagonal = new int[n];
+        for (int i = 0; i < n; ++i) {
+            diagonal[i] = -1;
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                if (indices[p] == i) {
+                    diagonal[i] = p;
+                }
+            }
+            if (diagonal[i] < 0 || values[diagonal[i]] == 0) {
+                throw new SingularOperatorException();
+            }
+        }
+
+    }
+
+    /**
+     * Returns the relaxation parameter.
+     *
+     * @return the relaxation parameter &omega;
+     */
+    public double getOmega() {
+        return omega;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return diagonal.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return diagonal.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(final RealVector x)
+        throws DimensionMismatchException {
+        final int n = diagonal.length;
+        if (x.getDimension() != n) {
+            throw new DimensionMismatchException(x.getDimension(), n);
+        }
+        final int[] pointers  = storage.getPointersRef();
+        final int[] indices   = storage.getIndicesRef();
+        final double[] values = storage.getValuesRef();
+
+        // forward sweep: solve (D / omega + L).y = x, keeping z = (D / omega).y
+        final double[] y = new double[n];
+        final double[] z = new double[n];
+        for (int i = 0; i < n; ++i) {
+            double sum = x.getEntry(i);
+            for (int p = pointers[i]; p < diagonal[i]; ++p) {
+                sum -= values[p] * y[indices[p]];
+            }
+            z[i] = sum;
+            y[i] = omega * sum / values[diagonal[i]];
+        }
+
+        // backward sweep: solve (D / omega + U).w = z, overwriting z with w
+        for (int i = n - 1; i >= 0; --i) {
+            double sum = z[i];
+            for (int p = diagonal[i] + 1; p < pointers[i + 1]; ++p) {
+                sum -= values[p] * z[indices[p]];
+            }
+            z[i] = omega * sum / values[diagonal[i]];
+        }
+
+        final double scale = (2 - omega) / omega;
+        for (int i = 0; i < n; ++i) {
+            z[i] *= scale;
+        }
+        return new ArrayRealVector(z, false);
+    }
+
+}
@@ -0,0 +1,839 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotPositiveException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * Batch of small matrices sharing the same dimensions, stored in a single
+ * contiguous array.
+ * <p>
+ * This class is intended for workloads processing large numbers of tiny
+ * matrices (3&times;3 covariances, 6&times;6 Jacobians...), for which the
+ * overhead of one {@link RealMatrix} and one decomposition object per matrix
+ * dominates the computation. Matrix k of the batch is stored in row major
+ * order starting at index k &times; rows &times; columns of the
+ * {@link #getDataRef() data array}.
+ * </p>
+ * <p>
+ * The batch operations loop over all matrices without allocating any
+ * object per matrix. They can optionally be distributed on an executor, in
+ * which case the batch is split in chunks of {@link #CHUNK_SIZE} matrices,
+ * each chunk being processed by one task. The results do not depend on the
+ * use of an executor.
+ * </p>
+ * <p>
+ * In order to process a full batch even if a few matrices cannot be
+ * handled (singular matrices for inversion, non positive definite matrices
+ * for Cholesky decomposition), these operations do not throw exceptions for
+ * individual matrices: the corresponding results are filled with NaN and the
+ * number of such matrices is returned.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class SmallMatrixBatch {
+
+    /** Number of matrices processed by each task when an executor is used. */
+    public static final int CHUNK_SIZE = 4096;
+
+    /** Default bound to determine effective singularity in inversion. */
+    public static final double DEFAULT_SINGULARITY_THRESHOLD = 1.0e-11;
+
+    /** Maximal number of sweeps for the Jacobi eigenvalue algorithm. */
+    private static final int MAX_SWEEPS = 50;
+
+    /** Number of matrices. */
+    private final int count;
+
+    /** Number of rows of each matrix. */
+    private final int rows;
+
+    /** Number of columns of each matrix. */
+    private final int columns;
+
+    /** Entries of all matrices. */
+    private final double[] data;
+
+    /**
+     * Create a batch of zero matrices.
+     *
+     * @param count Number of matrices.
+     * @param rows Number of rows of each matrix.
+     * @param columns Number of columns of each matrix.
+     * @throws NotPositiveException if {@code count} is negative.
+     * @throws NotStrictlyPositiveException if {@code rows} or {@code columns}
+     * is not positive.
+     */
+    public SmallMatrixBatch(final int count, final int rows, final int columns)
+        throws NotPositiveException, NotStrictlyPositiveException {
+        this(count, rows, columns, null, false);
+    }
+
+    /**
+     * Create a batch of matrices using an existing array.
+     *
+     * @param count Number of matrices.
+     * @param rows Number of rows of each matrix.
+     * @param columns Number of columns of each matrix.
+     * @param data Entries of all matrices (referenced, not copied), it must
+     * hold exactly {@code count * rows * columns} elements.
+     * @throws NotPositiveException if {@code count} is negative.
+     * @throws NotStrictlyPositiveException if {@code rows} or {@code columns}
+     * is not positive.
+     * @throws NullArgumentException if {@code data} is {@code null}.
+     * @throws DimensionMismatchException if the length of {@code data} is not
+     * {@code count * rows * columns}.
+     */
+    public SmallMatrixBatch(final int count, final int rows, final int columns,
+                            final double[] data)
+        throws NotPositiveException, NotStrictlyPositiveException,
+               NullArgumentException, DimensionMismatchException {
+        this(count, rows, columns, data, true);
+    }
+
+    /**
+     * Create a batch of matrices.
+     *
+     * @param count Number of matrices.
+     * @param rows Number of rows of each matrix.
+     * @param columns Number of columns of each matrix.
+     * @param data Entries of all matrices (referenced, not copied), if null
+     * a new zero-filled array is allocated, unless {@code required} is true.
+     * @param required if true, {@code data} must not be null
+     * @throws NotPositiveException if {@code count} is negative.
+     * @throws NotStrictlyPositiveException if {@code rows} or {@code columns}
+     * is not positive.
+     * @throws NullArgumentException if {@code data} is {@code null} and
+     * {@code required} is true.
+     * @throws DimensionMismatchException if the length of {@code data} is not
+     * {@code count * rows * columns}.
+     */
+    private SmallMatrixBatch(final int count, final int rows, final int columns,
+                             final double[] data, final boolean required)
+        throws NotPositiveException, NotStrictlyPositiveException,
+               NullArgumentException, DimensionMismatchException {
+        if (count < 0) {
+            throw new NotPositiveException(count);
+        }
+        if (rows <= 0) {
+            throw new NotStrictlyPositiveException(LocalizedFormats.DIMENSION, rows);
+        }
+        if (columns <= 0) {
+            throw new NotStrictlyPositiveException(LocalizedFormats.DIMENSION, columns);
+        }
+        final int length = count * rows * columns;
+        if (data == null) {
+            if (required) {
+                throw new NullArgumentException();
+            }
+            this.data = new double[length];
+        } else {
+            if (data.length != length) {
+                throw new DimensionMismatchException(data.length, length);
+            }
+            this.data = data;
+        }
+        this.count   = count;
+        this.rows    = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Get the number of matrices.
+     * @return number of matrices in the batch
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Get the number of rows of each matrix.
+     * @return number of rows of each matrix
+     */
+    public int getRowDimension() {
+        return rows;
+    }
+
+    /**
+     * Get the number of columns of each matrix.
+     * @return number of columns of each matrix
+     */
+    public int getColumnDimension() {
+        return columns;
+    }
+
+    /**
+     * Get a reference to the underlying data array.
+     * <p>Matrix k is stored in row major order starting at index
+     * k &times; rows &times; columns.</p>
+     * @return entries of all matrices
+     */
+    public double[] getDataRef() {
+        return data;
+    }
+
+    /**
+     * Get an entry of one matrix.
+     * @param k index of the matrix in the batch
+     * @param row row index
+     * @param column column index
+     * @return entry (row, column) of matrix k
+     * @throws OutOfRangeException if an index is not valid
+     */
+    public double getEntry(final int k, final int row, final int column)
+        throws OutOfRangeException {
+        return data[index(k, row, column)];
+    }
+
+    /**
+     * Set an entry of one matrix.
+     * @param k index of the matrix in the batch
+     * @param row row index
+     * @param column column index
+     * @param value new value for entry (row, column) of matrix k
+     * @throws OutOfRangeException if an index is not valid
+     */
+    public void setEntry(final int k, final int row, final int column, final double value)
+        throws OutOfRangeException {
+        data[index(k, row, column)] = value;
+    }
+
+    /**
+     * Get a copy of one matrix.
+     * @param k index of the matrix in the batch
+     * @return a copy of matrix k
+     * @throws OutOfRangeException if the index is not valid
+     */
+    public RealMatrix getMatrix(final int k) throws OutOfRangeException {
+        final int offset = index(k, 0, 0);
+        final double[][] m = new double[rows][columns];
+        for (int i = 0; i < rows; ++i) {
+            System.arraycopy(data, offset + i * columns, m[i], 0, columns);
+        }
+        return new Array2DRowRealMatrix(m, false);
+    }
+
+    /**
+     * Copy a matrix into the batch.
+     * @param k index of the matrix in the batch
+     * @param m matrix to copy
+     * @throws OutOfRangeException if the index is not valid
+     * @throws MatrixDimensionMismatchException if the matrix dimensions do
+     * not match the batch dimensions
+     */
+    public void setMatrix(final int k, final RealMatrix m)
+        throws OutOfRangeException, MatrixDimensionMismatchException {
+        if (m.getRowDimension() != rows || m.getColumnDimension() != columns) {
+            throw new MatrixDimensionMismatchException(m.getRowDimension(), m.getColumnDimension(),
+                                                       rows, columns);
+        }
+        final int offset = index(k, 0, 0);
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                data[offset + i * columns + j] = m.getEntry(i, j);
+            }
+        }
+    }
+
+    /**
+     * Compute all the products of the matrices of this batch by the
+     * corresponding matrices of another batch.
+     * <p>
+     * The output batch must not share its data with the input batches.
+     * </p>
+     * @param m batch of right hand side matrices
+     * @param out batch where to store the products
+     * @throws DimensionMismatchException if the batches sizes or matrices
+     * dimensions are not consistent
+     */
+    public void multiply(final SmallMatrixBatch m, final SmallMatrixBatch out)
+        throws DimensionMismatchException {
+        multiply(m, out, null);
+    }
+
+    /**
+     * Compute all the products of the matrices of this batch by the
+     * corresponding matrices of another batch, distributing the work on an
+     * executor.
+     * <p>
+     * The output batch must not share its data with the input batches.
+     * </p>
+     * @param m batch of right hand side matrices
+     * @param out batch where to store the products
+     * @param executor executor to use (may be null, in which case all
+     * computations are performed in the calling thread)
+     * @throws DimensionMismatchException if the batches sizes or matrices
+     * dimensions are not consistent
+     * @throws org.apache.commons.math3.exception.MathIllegalStateException
+     * if the calling thread is interrupted while waiting for the tasks
+     */
+    public void multiply(final SmallMatrixBatch m, final SmallMatrixBatch out,
+                         final ExecutorService executor)
+        throws DimensionMismatchException {
+        checkCount(m);
+        if (m.rows != columns) {
+            throw new DimensionMismatchException(m.rows, columns);
+        }
+        checkOutput(out, rows, m.columns);
+        run(new Kernel() {
+            /** {@inheritDoc} */
+            public int apply(final int from, final int to) {
+                final int p = m.columns;
+                for (int k = from; k < to; ++k) {
+                    final int aOffset = k * rows * columns;
+                    final int bOffset = k * columns * p;
+                    final int oOffset = k * rows * p;
+                    for (int i = 0; i < rows; ++i) {
+                        for (int j = 0; j < p; ++j) {
+                            double sum = 0;
+                            for (int l = 0; l < columns; ++l) {
+                                sum += data[aOffset + i * columns + l] * m.data[bOffset + l * p + j];
+                            }
+                            out.data[oOffset + i * p + j] = sum;
+                        }
+                    }
+                }
+                return 0;
+            }
+        }, executor);
+    }
+
+    /**
+     * Invert all the matrices of the batch.
+     * <p>
+     * Each matrix is inverted by Gauss-Jordan elimination with partial
+     * pivoting. Matrices for which a pivot is smaller than the threshold
+     * in absolute value are considered singular and their inverse is filled
+     * with NaN. The output batch may be the instance itself, for in place
+     * inversion.
+     * </p>
+     * @param out batch where to store the inverses
+     * @param singularityThreshold threshold under which a pivot is
+     * considered null (a good choice is {@link #DEFAULT_SINGULARITY_THRESHOLD})
+     * @return number of singular matrices
+     * @throws NonSquareMatrixException if the matrices are not square
+     * @throws DimensionMismatchException if the output batch is not consistent
+     */
+    public int invert(final SmallMatrixBatch out, final double singularityThreshold)
+        throws NonSquareMatrixException, DimensionMismatchException {
+        return invert(out, singularityThreshold, null);
+    }
+
+    /**
+     * Invert all the matrices of the batch, distributing the work on an
+     * executor.
+     * @param out batch where to store the inverses
+     * @param singularityThreshold threshold under which a pivot is
+     * considered null (a good choice is {@link #DEFAULT_SINGULARITY_THRESHOLD})
+     * @param executor executor to use (may be null, in which case all
+     * computations are performed in the calling thread)
+     * @return number of singular matrices
+     * @throws NonSquareMatrixException if the matrices are not square
+     * @throws DimensionMismatchException if the output batch is not consistent
+     * @throws org.apache.commons.math3.exception.MathIllegalStateException
+     * if the calling thread is interrupted while waiting for the tasks
+     * @see #invert(SmallMatrixBatch, double)
+     */
+    public int invert(final SmallMatrixBatch out, final double singularityThreshold,
+                      final ExecutorService executor)
+        throws NonSquareMatrixException, DimensionMismatchException {
+        checkSquare();
+        checkOutput(out, rows, rows);
+        final int n = rows;
+        return run(new Kernel() {
+            /** {@inheritDoc} */
+            public int apply(final int from, final int to) {
+                final int[] pivot = new int[n];
+                final double[] a  = out.data;
+                int singular = 0;
+                for (int k = from; k < to; ++k) {
+                    final int offset = k * n * n;
+                    if (out != SmallMatrixBatch.this) {
+                        System.arraycopy(data, offset, a, offset, n * n);
+                    }
+                    if (!invertInPlace(a, offset, n, pivot, singularityThreshold)) {
+                        Arrays.fill(a, offset, offset + n * n, Double.NaN);
+                        ++singular;
+                    }
+                }
+                return singular;
+            }
+        }, executor);
+    }
+
+    /**
+     * Compute the Cholesky decompositions of all the matrices of the batch.
+     * <p>
+     * The matrices must be symmetric positive definite, only their lower
+     * triangular part is read. The lower triangular factors L such that
+     * A = LL<sup>T</sup> are stored in the output batch, with zeros above the
+     * diagonal. Matrices for which a diagonal element is smaller than
+     * {@link CholeskyDecomposition#DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD} are
+     * considered not positive definite and their factor is filled with NaN.
+     * The output batch may be the instance itself, for in place decomposition.
+     * </p>
+     * @param out batch where to store the lower triangular factors
+     * @return number of matrices that are not positive definite
+     * @throws NonSquareMatrixException if the matrices are not square
+     * @throws DimensionMismatchException if the output batch is not consistent
+     */
+    public int cholesky(final SmallMatrixBatch out)
+        throws NonSquareMatrixException, DimensionMismatchException {
+        return cholesky(out, null);
+    }
+
+    /**
+     * Compute the Cholesky decompositions of all the matrices of the batch,
+     * distributing the work on an executor.
+     * @param out batch where to store the lower triangular factors
+     * @param executor executor to use (may be null, in which case all
+     * computations are performed in the calling thread)
+     * @return number of matrices that are not positive definite
+     * @throws NonSquareMatrixException if the matrices are not square
+     * @throws DimensionMismatchException if the output batch is not consistent
+     * @throws org.apache.commons.math3.exception.MathIllegalStateException
+     * if the calling thread is interrupted while waiting for the tasks
+     * @see #cholesky(SmallMatrixBatch)
+     */
+    public int cholesky(final SmallMatrixBatch out, final ExecutorService executor)
+        throws NonSquareMatrixException, DimensionMismatchException {
+        checkSquare();
+        checkOutput(out, rows, rows);
+        final int n = rows;
+        final double threshold = CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD;
+        return run(new Kernel() {
+            /** {@inheritDoc} */
+            public int apply(final int from, final int to) {
+                final double[] l = out.data;
+                int failed = 0;
+                for (int k = from; k < to; ++k) {
+                    final int offset = k * n * n;
+                    boolean positiveDefinite = true;
+                    for (int i = 0; positiveDefinite && i < n; ++i) {
+                        final int iRow = offset + i * n;
+                        for (int j = 0; j <= i; ++j) {
+                            final int jRow = offset + j * n;
+                            double sum = data[iRow + j];
+                            for (int q = 0; q < j; ++q) {
+                                sum -= l[iRow + q] * l[jRow + q];
+                            }
+                            if (j < i) {
+                                l[iRow + j] = sum / l[jRow + j];
+                            } else if (sum <= threshold) {
+                                positiveDefinite = false;
+                            } else {
+                                l[iRow + i] = FastMath.sqrt(sum);
+                            }
+                        }
+                        for (int j = i + 1; j < n; ++j) {
+                            l[iRow + j] = 0;
+                        }
+                    }
+                    if (!positiveDefinite) {
+                        Arrays.fill(l, offset, offset + n * n, Double.NaN);
+                        ++failed;
+                    }
+                }
+                return failed;
+            }
+        }, executor);
+    }
+
+    /**
+     * Compute the eigen decompositions of all the matrices of the batch.
+     * <p>
+     * The matrices must be symmetric (this is not checked). They are
+     * diagonalized by the cyclic Jacobi method, which is accurate and
+     * efficient for small matrices. For matrix k, the eigenvalues are stored
+     * in decreasing order in elements k &times; n to k &times; n + n - 1 of
+     * the {@code eigenvalues} array, and the corresponding normalized
+     * eigenvectors are stored as the columns of matrix k of the
+     * {@code eigenvectors} batch.
+     * </p>
+     * @param eigenvalues array where to store the eigenvalues, it must have
+     * count &times; n elements
+     * @param eigenvectors batch where to store the eigenvectors (it must not
+     * be the instance itself)
+     * @throws NonSquareMatrixException if the matrices are not square
+     * @throws DimensionMismatchException if the output array or batch is not
+     * consistent
+     */
+    public void symmetricEigen(final double[] eigenvalues, final SmallMatrixBatch eigenvectors)
+        throws NonSquareMatrixException, DimensionMismatchException {
+        symmetricEigen(eigenvalues, eigenvectors, null);
+    }
+
+    /**
+     * Compute the eigen decompositions of all the matrices of the batch,
+     * distributing the work on an executor.
+     * @param eigenvalues array where to store the eigenvalues, it must have
+     * count &times; n elements
+     * @param eigenvectors batch where to store the eigenvectors (it must not
+     * be the instance itself)
+     * @param executor executor to use (may be null, in which case all
+     * computations are performed in the calling thread)
+     * @throws NonSquareMatrixException if the matrices are not square
+     * @throws DimensionMismatchException if the output array or batch is not
+     * consistent
+     * @throws org.apache.commons.math3.exception.MathIllegalStateException
+     * if the calling thread is interrupted while waiting for the tasks
+     * @see #symmetricEigen(double[], SmallMatrixBatch)
+     */
+    public void symmetricEigen(final double[] eigenvalues, final SmallMatrixBatch eigenvectors,
+                               final ExecutorService executor)
+        throws NonSquareMatrixException, DimensionMismatchException {
+        checkSquare();
+        checkOutput(eigenvectors, rows, rows);
+        final int n = rows;
+        if (eigenvalues.length != count * n) {
+            throw new DimensionMismatchException(eigenvalues.length, count * n);
+        }
+        run(new Kernel() {
+            /** {@inheritDoc} */
+            public int apply(final int from, final int to) {
+                final double[] w = new double[n * n];
+                for (int k = from; k < to; ++k) {
+                    System.arraycopy(data, k * n * n, w, 0, n * n);
+                    jacobi(w, eigenvectors.data, k * n * n, n);
+                    sortEigen(w, eigenvalues, k * n, eigenvectors.data, k * n * n, n);
+                }
+                return 0;
+            }
+        }, executor);
+    }
+
+    /**
+     * Invert a square matrix in place by Gauss-Jordan elimination.
+     * @param a array holding the matrix
+     * @param offset index of the first element of the matrix
+     * @param n dimension of the matrix
+     * @param pivot work array for pivot rows, with n elements
+     * @param threshold singularity threshold
+     * @return true if the matrix was inverted, false if it is singular
+     */
+    private static boolean invertInPlace(final double[] a, final int offset, final int n,
+                                         final int[] pivot, final double threshold) {
+
+        for (int c = 0; c < n; ++c) {
+
+            // select the pivot row
+            int p = c;
+            double largest = FastMath.abs(a[offset + c * n + c]);
+            for (int i = c + 1; i < n; ++i) {
+                final double abs = FastMath.abs(a[offset + i * n + c]);
+                if (abs > largest) {
+                    largest = abs;
+                    p       = i;
+                }
+            }
+            if (largest < threshold) {
+                return false;
+            }
+            pivot[c] = p;
+
+            // interchange rows
+            final int cRow = offset + c * n;
+            if (p != c) {
+                final int pRow = offset + p * n;
+                for (int j = 0; j < n; ++j) {
+                    final double tmp = a[cRow + j];
+                    a[cRow + j] = a[pRow + j];
+                    a[pRow + j] = tmp;
+                }
+            }
+
+            // normalize the pivot row
+            final double inverse = 1.0 / a[cRow + c];
+            a[cRow + c] = 1.0;
+            for (int j = 0; j < n; ++j) {
+                a[cRow + j] *= inverse;
+            }
+
+            // eliminate the pivot column from the other rows
+            for (int i = 0; i < n; ++i) {
+                if (i != c) {
+                    final int iRow = offset + i * n;
+                    final double factor = a[iRow + c];
+                    if (factor != 0) {
+                        a[iRow + c] = 0;
+                        for (int j = 0; j < n; ++j) {
+                            a[iRow + j] -= factor * a[cRow + j];
+                        }
+                    }
+                }
+            }
+
+        }
+
+        // undo the interchanges on the columns, in reverse order
+        for (int c = n - 1; c >= 0; --c) {
+            final int p = pivot[c];
+            if (p != c) {
+                for (int i = 0; i < n; ++i) {
+                    final int iRow = offset + i * n;
+                    final double tmp = a[iRow + c];
+                    a[iRow + c] = a[iRow + p];
+                    a[iRow + p] = tmp;
+                }
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Diagonalize a symmetric matrix by the cyclic Jacobi method.
+     * @param w matrix to diagonalize (n &times; n elements starting at 0),
+     * it is replaced by the diagonal matrix
+     * @param v array where to store the eigenvectors
+     * @param vOffset index of the first element of the eigenvectors matrix
+     * @param n dimension of the matrix
+     */
+    private static void jacobi(final double[] w, final double[] v, final int vOffset, final int n) {
+
+        // start from identity
+        Arrays.fill(v, vOffset, vOffset + n * n, 0.0);
+        for (int i = 0; i < n; ++i) {
+            v[vOffset + i * n + i] = 1.0;
+        }
+
+        double normSq = 0;
+        for (int i = 0; i < n * n; ++i) {
+            normSq += w[i] * w[i];
+        }
+        final double limit = Precision.EPSILON * Precision.EPSILON * normSq;
+
+        for (int sweep = 0; sweep < MAX_SWEEPS; ++sweep) {
+
+            double off = 0;
+            for (int p = 0; p < n; ++p) {
+                for (int q = p + 1; q < n; ++q) {
+                    off += w[p * n + q] * w[p * n + q];
+                }
+            }
+            if (off <= limit) {
+                return;
+            }
+
+            for (int p = 0; p < n; ++p) {
+                for (int q = p + 1; q < n; ++q) {
+                    final double wPQ = w[p * n + q];
+                    if (wPQ == 0) {
+                        continue;
+                    }
+
+                    // compute the rotation annihilating w(p, q)
+                    final double tau = (w[q * n + q] - w[p * n + p]) / (2 * wPQ);
+                    final double t   = (tau >= 0 ? 1.0 : -1.0) /
+                                       (FastMath.abs(tau) + FastMath.sqrt(1 + tau * tau));
+                    final double c   = 1.0 / FastMath.sqrt(1 + t * t);
+                    final double s   = t * c;
+
+                    // apply it on both sides of w and on the right of v
+                    for (int k = 0; k < n; ++k) {
+                        final double wKP = w[k * n + p];
+                        final double wKQ = w[k * n + q];
+                        w[k * n + p] = c * wKP - s * wKQ;
+                        w[k * n + q] = s * wKP + c * wKQ;
+                    }
+                    for (int k = 0; k < n; ++k) {
+                        final double wPK = w[p * n + k];
+                        final double wQK = w[q * n + k];
+                        w[p * n + k] = c * wPK - s * wQK;
+                        w[q * n + k] = s * wPK + c * wQK;
+                    }
+                    w[p * n + q] = 0;
+                    w[q * n + p] = 0;
+                    for (int k = 0; k < n; ++k) {
+                        final int kRow = vOffset + k * n;
+                        final double vKP = v[kRow + p];
+                        final double vKQ = v[kRow + q];
+                        v[kRow + p] = c * vKP - s * vKQ;
+                        v[kRow + q] = s * vKP + c * vKQ;
+                    }
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * Extract the eigenvalues and sort them with the eigenvectors in decreasing order.
+     * @param w diagonalized matrix
+     * @param lambda array where to store the eigenvalues
+     * @param lOffset index of the first eigenvalue
+     * @param v array holding the eigenvectors
+     * @param vOffset index of the first element of the eigenvectors matrix
+     * @param n dimension of the matrix
+     */
+    private static void sortEigen(final double[] w, final double[] lambda, final int lOffset,
+                                  final double[] v, final int vOffset, final int n) {
+        for (int i = 0; i < n; ++i) {
+            lambda[lOffset + i] = w[i * n + i];
+        }
+        // selection sort, swapping eigenvectors columns along with eigenvalues
+        for (int i = 0; i < n - 1; ++i) {
+            int largest = i;
+            for (int j = i + 1; j < n; ++j) {
+                if (lambda[lOffset + j] > lambda[lOffset + largest]) {
+                    largest = j;
+                }
+            }
+            if (largest != i) {
+                final double tmp = lambda[lOffset + i];
+                lambda[lOffset + i] = lambda[lOffset + largest];
+                lambda[lOffset + largest] = tmp;
+                for (int k = 0; k < n; ++k) {
+                    final int kRow = vOffset + k * n;
+                    final double vTmp = v[kRow + i];
+                    v[kRow + i] = v[kRow + largest];
+                    v[kRow + largest] = vTmp;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the index of an entry in the data array.
+     * @param k index of the matrix in the batch
+     * @param row row index
+     * @param column column index
+     * @return index of the entry in the data array
+     * @throws OutOfRangeException if an index is not valid
+     */
+    private int index(final int k, final int row, final int column)
+        throws OutOfRangeException {
+        if (k < 0 || k >= count) {
+            throw new OutOfRangeException(LocalizedFormats.INDEX, k, 0, count - 1);
+        }
+        if (row < 0 || row >= rows) {
+            throw new OutOfRangeException(LocalizedFormats.ROW_INDEX, row, 0, rows - 1);
+        }
+        if (column < 0 || column >= columns) {
+            throw new OutOfRangeException(LocalizedFormats.COLUMN_INDEX, column, 0, columns - 1);
+        }
+        return (k * rows + row) * columns + column;
+    }
+
+    /**
+     * Check the matrices are square.
+     * @throws NonSquareMatrixException if the matrices are not square
+     */
+    private void checkSquare() throws NonSquareMatrixException {
+        if (rows != columns) {
+            throw new NonSquareMatrixException(rows, columns);
+        }
+    }
+
+    /**
+     * Check another batch has the same number of matrices.
+     * @param other batch to check
+     * @throws DimensionMismatchException if the number of matrices differ
+     */
+    private void checkCount(final SmallMatrixBatch other)
+        throws DimensionMismatchException {
+        MathUtils.checkNotNull(other);
+        if (other.count != count) {
+            throw new DimensionMismatchException(other.count, count);
+        }
+    }
+
+    /**
+     * Check an output batch.
+     * @param out output batch to check
+     * @param expectedRows expected number of rows of each matrix
+     * @param expectedColumns expected number of columns of each matrix
+     * @throws DimensionMismatchException if the batch is not consistent
+     */
+    private void checkOutput(final SmallMatrixBatch out,
+                             final int expectedRows, final int expectedColumns)
+        throws DimensionMismatchException {
+        checkCount(out);
+        if (out.rows != expectedRows) {
+            throw new DimensionMismatchException(out.rows, expectedRows);
+        }
+        if (out.columns != expectedColumns) {
+            throw new DimensionMismatchException(out.columns, expectedColumns);
+        }
+    }
+
+    /**
+     * Run a kernel on all matrices of the batch.
+     * @param kernel kernel to run
+     * @param executor executor to use (may be null)
+     * @return sum of the values returned by the kernel on all chunks
+     */
+    private int run(final Kernel kernel, final ExecutorService executor) {
+
+        if (executor == null || count <= CHUNK_SIZE) {
+            return kernel.apply(0, count);
+        }
+
+        final int nbChunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final int[] results = new int[nbChunks];
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(nbChunks);
+        for (int chunk = 0; chunk < nbChunks; ++chunk) {
+            final int index = chunk;
+            tasks.add(new Callable<Void>() {
+                /** {@inheritDoc} */
+                public Void call() {
+                    final int from = index * CHUNK_SIZE;
+                    results[index] = kernel.apply(from, FastMath.min(from + CHUNK_SIZE, count));
+                    return null;
+                }
+            });
+        }
+        ParallelTasks.invokeAll(executor, tasks);
+
+        int sum = 0;
+        for (final int r : results) {
+            sum += r;
+        }
+        return sum;
+
+    }
+
+    /** Interface for operations applied to a range of matrices. */
+    private interface Kernel {
+        /**
+         * Apply the operation to a range of matrices.
+         * @param from index of the first matrix
+         * @param to index after the last matrix
+         * @return number of matrices for which the operation failed
+         */
+        int apply(int from, int to);
+    }
+
+}
@@ -0,0 +1,633 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathArrays;
+
+/**
+ * Calculates the Cholesky decomposition of a sparse matrix.
+ * <p>
+ * The decomposition of a sparse symmetric positive definite matrix A is
+ * P A P<sup>T</sup> = L L<sup>T</sup>, where P is a fill-reducing permutation
+ * computed by an approximate minimum degree ordering and L is a sparse lower
+ * triangular matrix. The computation is split in two phases:
+ * </p>
+ * <ul>
+ *   <li>a symbolic analysis, which depends only on the sparsity pattern of A:
+ *   ordering, elimination tree and pattern of L,</li>
+ *   <li>a left-looking numeric factorization, which computes the values of L
+ *   column by column, each column being updated only by the previous columns
+ *   that have a non-zero entry in its row.</li>
+ * </ul>
+ * <p>
+ * When several matrices sharing the same pattern must be decomposed, for
+ * example in Newton iterations or time stepping schemes, the {@link
+ * #refactor(RealMatrix) refactor} method reuses the symbolic analysis and
+ * only performs the numeric factorization.
+ * </p>
+ * <p>
+ * The matrix can be provided in any format, but it is converted to a
+ * {@link CompressedColumnRealMatrix} first, so compressed matrices and
+ * {@link OpenMapRealMatrix} are the efficient choices. As only non-zero
+ * entries are visited during conversion, dense formats should be avoided
+ * for large matrices.
+ * </p>
+ *
+ * @see CholeskyDecomposition
+ * @version $Id$
+ * @since 3.4
+ */
+public class SparseCholeskyDecomposition {
+
+    /** Symbolic analysis. */
+    private final Symbolic symbolic;
+
+    /** Values of the non-zero entries of L, in the order of the symbolic pattern. */
+    private final double[] lValues;
+
+    /** Cached value of L. */
+    private CompressedColumnRealMatrix cachedL;
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix.
+     * <p>
+     * Calling this constructor is equivalent to call {@link
+     * #SparseCholeskyDecomposition(RealMatrix, double, double)} with the
+     * thresholds set to the default values {@link
+     * CholeskyDecomposition#DEFAULT_RELATIVE_SYMMETRY_THRESHOLD} and {@link
+     * CholeskyDecomposition#DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD}
+     * </p>
+     * @param matrix the matrix to decompose
+     * @throws NonSquareMatrixException if the matrix is not square.
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric.
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     */
+    public SparseCholeskyDecomposition(final RealMatrix matrix) {
+        this(matrix,
+             CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+             CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD);
+    }
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix.
+     * @param matrix the matrix to decompose
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @throws NonSquareMatrixException if the matrix is not square.
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric.
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     */
+    public SparseCholeskyDecomposition(final RealMatrix matrix,
+                                       final double relativeSymmetryThreshold,
+                                       final double absolutePositivityThreshold) {
+        this(toCompressed(matrix, relativeSymmetryThreshold),
+             relativeSymmetryThreshold, absolutePositivityThreshold);
+    }
+
+    /**
+     * Calculates the symbolic and numeric decompositions of a matrix.
+     * @param matrix the matrix to decompose (symmetry has already been checked)
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     */
+    private SparseCholeskyDecomposition(final CompressedColumnRealMatrix matrix,
+                                        final double relativeSymmetryThreshold,
+                                        final double absolutePositivityThreshold) {
+        this.symbolic = new Symbolic(matrix, MinimumDegreeOrdering.order(matrix.getStorage()),
+                                     relativeSymmetryThreshold, absolutePositivityThreshold);
+        this.lValues  = symbolic.factor(matrix);
+    }
+
+    /**
+     * Calculates the numeric decomposition of a matrix, reusing a symbolic analysis.
+     * @param symbolic symbolic analysis of the matrix pattern
+     * @param matrix the matrix to decompose (symmetry has already been checked)
+     * @throws MathIllegalArgumentException if the matrix has non-zero entries
+     * outside of the analyzed pattern
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     */
+    private SparseCholeskyDecomposition(final Symbolic symbolic,
+                                        final CompressedColumnRealMatrix matrix) {
+        this.symbolic = symbolic;
+        this.lValues  = symbolic.factor(matrix);
+    }
+
+    /**
+     * Calculates the decomposition of a matrix with the same pattern.
+     * <p>
+     * The symbolic analysis of the instance (ordering and pattern of L) is
+     * reused, only the numeric factorization is performed. The matrix may
+     * have fewer non-zero entries than the one analyzed, but not more.
+     * </p>
+     * @param matrix the matrix to decompose
+     * @return decomposition of the matrix
+     * @throws DimensionMismatchException if the matrix does not have the same
+     * dimension as the analyzed one
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric.
+     * @throws MathIllegalArgumentException if the matrix has non-zero entries
+     * outside of the analyzed pattern
+     * @throws NonPositiveDefiniteMatrixException if the matrix is not
+     * strictly positive definite.
+     */
+    public SparseCholeskyDecomposition refactor(final RealMatrix matrix) {
+        final int n = symbolic.permutation.length;
+        if (matrix.getRowDimension() != n) {
+            throw new DimensionMismatchException(matrix.getRowDimension(), n);
+        }
+        return new SparseCholeskyDecomposition(symbolic,
+                                               toCompressed(matrix, symbolic.relativeSymmetryThreshold));
+    }
+
+    /**
+     * Convert a matrix to compressed column format and check it.
+     * @param matrix matrix to convert
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @return converted matrix
+     * @throws NonSquareMatrixException if the matrix is not square.
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric.
+     */
+    private static CompressedColumnRealMatrix toCompressed(final RealMatrix matrix,
+                                                           final double relativeSymmetryThreshold) {
+        if (!matrix.isSquare()) {
+            throw new NonSquareMatrixException(matrix.getRowDimension(), matrix.getColumnDimension());
+        }
+        final CompressedColumnRealMatrix compressed = new CompressedColumnRealMatrix(matrix);
+        final CompressedStorage storage = compressed.getStorage();
+        final int[] pointers = storage.getPointersRef();
+        final int[] indices  = storage.getIndicesRef();
+        final double[] values = storage.getValuesRef();
+        for (int j = 0; j < pointers.length - 1; ++j) {
+            for (int p = pointers[j]; p < pointers[j + 1]; ++p) {
+                final int i = indices[p];
+                if (i > j) {
+                    final double lIJ = values[p];
+                    final double lJI = storage.get(i, j);
+                    final double maxDelta =
+                        relativeSymmetryThreshold * FastMath.max(FastMath.abs(lIJ), FastMath.abs(lJI));
+                    if (FastMath.abs(lIJ - lJI) > maxDelta) {
+                        throw new NonSymmetricMatrixException(i, j, relativeSymmetryThreshold);
+                    }
+                } else if (i < j && storage.get(i, j) == 0) {
+                    // entry (i, j) has no counterpart (j, i)
+                    throw new NonSymmetricMatrixException(i, j, relativeSymmetryThreshold);
+                }
+            }
+        }
+        return compressed;
+    }
+
+    /**
+     * Returns the matrix L of the decomposition.
+     * <p>L is a lower-triangular matrix such that P A P<sup>T</sup> = L L<sup>T</sup>.</p>
+     * @return the L matrix
+     */
+    public CompressedColumnRealMatrix getL() {
+        if (cachedL == null) {
+            final int n = symbolic.permutation.length;
+            cachedL = new CompressedColumnRealMatrix(n, n,
+                                                     new CompressedStorage(symbolic.lPointers,
+                                                                           symbolic.lIndices,
+                                                                           lValues));
+        }
+        return cachedL;
+    }
+
+    /**
+     * Returns the transpose of the matrix L of the decomposition.
+     * <p>L<sup>T</sup> is an upper-triangular matrix such that
+     * P A P<sup>T</sup> = L L<sup>T</sup>.</p>
+     * @return the transpose of the matrix L of the decomposition
+     */
+    public CompressedRowRealMatrix getLT() {
+        return getL().transpose();
+    }
+
+    /**
+     * Returns the fill-reducing permutation.
+     * <p>
+     * Element {@code k} of the returned array is the index in A of the row
+     * and column that are at index {@code k} in P A P<sup>T</sup>.
+     * </p>
+     * @return the permutation
+     */
+    public int[] getPermutation() {
+        return symbolic.permutation.clone();
+    }
+
+    /**
+     * Returns the number of non-zero entries of L.
+     * @return number of non-zero entries of L (including the diagonal)
+     */
+    public int getNonZeroCount() {
+        return lValues.length;
+    }
+
+    /**
+     * Return the determinant of the matrix
+     * @return determinant of the matrix
+     */
+    public double getDeterminant() {
+        double determinant = 1.0;
+        for (int j = 0; j < symbolic.permutation.length; ++j) {
+            final double lJJ = lValues[symbolic.lPointers[j]];
+            determinant *= lJJ * lJJ;
+        }
+        return determinant;
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in least square sense.
+     * @return a solver
+     */
+    public DecompositionSolver getSolver() {
+        return new Solver(symbolic, lValues);
+    }
+
+    /** Symbolic analysis of a matrix pattern. */
+    private static class Symbolic {
+
+        /** Threshold above which off-diagonal elements are considered too different. */
+        private final double relativeSymmetryThreshold;
+
+        /** Threshold below which diagonal elements are considered null. */
+        private final double absolutePositivityThreshold;
+
+        /** Fill-reducing permutation (new index to old index). */
+        private final int[] permutation;
+
+        /** Inverse permutation (old index to new index). */
+        private final int[] inverse;
+
+        /** Start of each column of L. */
+        private final int[] lPointers;
+
+        /** Row indices of L, sorted within each column, diagonal first. */
+        private final int[] lIndices;
+
+        /**
+         * Analyze a matrix pattern.
+         * @param matrix matrix to analyze
+         * @param permutation fill-reducing permutation
+         * @param relativeSymmetryThreshold threshold above which off-diagonal
+         * elements are considered too different and matrix not symmetric
+         * @param absolutePositivityThreshold threshold below which diagonal
+         * elements are considered null and matrix not positive definite
+         */
+        Symbolic(final CompressedColumnRealMatrix matrix, final int[] permutation,
+                 final double relativeSymmetryThreshold,
+                 final double absolutePositivityThreshold) {
+
+            final int n = permutation.length;
+            this.relativeSymmetryThreshold   = relativeSymmetryThreshold;
+            this.absolutePositivityThreshold = absolutePositivityThreshold;
+            this.permutation                 = permutation;
+            this.inverse                     = new int[n];
+            for (int k = 0; k < n; ++k) {
+                inverse[permutation[k]] = k;
+            }
+
+            // pattern of the strictly upper part of the permuted matrix, by columns,
+            // i.e. for each row of the lower part, the columns before the diagonal
+            final CompressedStorage upper = permutedUpperPattern(matrix.getStorage());
+            final int[] uPointers = upper.getPointersRef();
+            final int[] uIndices  = upper.getIndicesRef();
+
+            // elimination tree (Liu's algorithm with path compression)
+            final int[] parent   = new int[n];
+            final int[] ancestor = new int[n];
+            for (int k = 0; k < n; ++k) {
+                parent[k]   = -1;
+                ancestor[k] = -1;
+                for (int p = uPointers[k]; p < uPointers[k + 1]; ++p) {
+                    int i = uIndices[p];
+                    while (i >= 0 && i < k) {
+                        final int next = ancestor[i];
+                        ancestor[i] = k;
+                        if (next < 0) {
+                            parent[i] = k;
+                        }
+                        i = next;
+                    }
+                }
+            }
+
+            // children lists
+            final int[] firstChild  = new int[n];
+            final int[] nextSibling = new int[n];
+            Arrays.fill(firstChild, -1);
+            for (int k = n - 1; k >= 0; --k) {
+                if (parent[k] >= 0) {
+                    nextSibling[k] = firstChild[parent[k]];
+                    firstChild[parent[k]] = k;
+                }
+            }
+
+            // pattern of the columns of L: struct(L_j) = {j} U struct(A_j, lower)
+            // U (struct(L_c) \ {c}) for all children c of j
+            final CompressedStorage lower = upper.transpose(n);
+            final int[] aPointers = lower.getPointersRef();
+            final int[] aIndices  = lower.getIndicesRef();
+            final int[] marker = new int[n];
+            Arrays.fill(marker, -1);
+            int[] indices = new int[FastMath.max(n, 2 * aIndices.length + n)];
+            final int[] pointers = new int[n + 1];
+            int size = 0;
+            for (int j = 0; j < n; ++j) {
+                pointers[j] = size;
+                if (size + n - j > indices.length) {
+                    indices = MathArrays.copyOf(indices, FastMath.max(2 * indices.length, size + n - j));
+                }
+                marker[j] = j;
+                indices[size++] = j;
+                for (int p = aPointers[j]; p < aPointers[j + 1]; ++p) {
+                    final int i = aIndices[p];
+                    if (marker[i] != j) {
+                        marker[i] = j;
+                        indices[size++] = i;
+                    }
+                }
+                for (int c = firstChild[j]; c >= 0; c = nextSibling[c]) {
+                    for (int p = pointers[c] + 1; p < pointers[c + 1]; ++p) {
+                        final int i = indices[p];
+                        if (marker[i] != j) {
+                            marker[i] = j;
+                            indices[size++] = i;
+                        }
+                    }
+                }
+                Arrays.sort(indices, pointers[j] + 1, size);
+            }
+            pointers[n] = size;
+
+            this.lPointers = pointers;
+            this.lIndices  = MathArrays.copyOf(indices, size);
+
+        }
+
+        /**
+         * Build the strictly upper pattern of the permuted matrix.
+         * @param storage storage of the original matrix
+         * @return pattern of the strictly upper part of P A P<sup>T</sup>, by columns
+         */
+        private CompressedStorage permutedUpperPattern(final CompressedStorage storage) {
+            final int n = permutation.length;
+            final int[] pointers = storage.getPointersRef();
+            final int[] indices  = storage.getIndicesRef();
+            final int[] count = new int[n + 1];
+            for (int j = 0; j < n; ++j) {
+                for (int p = pointers[j]; p < pointers[j + 1]; ++p) {
+                    final int i = indices[p];
+                    if (i > j) {
+                        ++count[FastMath.max(inverse[i], inverse[j]) + 1];
+                    }
+                }
+            }
+            for (int k = 0; k < n; ++k) {
+                count[k + 1] += count[k];
+            }
+            final int[] uIndices = new int[count[n]];
+            final int[] next = count.clone();
+            for (int j = 0; j < n; ++j) {
+                for (int p = pointers[j]; p < pointers[j + 1]; ++p) {
+                    final int i = indices[p];
+                    if (i > j) {
+                        final int pi = inverse[i];
+                        final int pj = inverse[j];
+                        uIndices[next[FastMath.max(pi, pj)]++] = FastMath.min(pi, pj);
+                    }
+                }
+            }
+            return new CompressedStorage(count, uIndices, new double[uIndices.length]);
+        }
+
+        /**
+         * Perform the numeric factorization.
+         * @param matrix matrix to factor, with a pattern compatible with the analysis
+         * @return values of the non-zero entries of L
+         * @throws MathIllegalArgumentException if the matrix has non-zero entries
+         * outside of the analyzed pattern
+         * @throws NonPositiveDefiniteMatrixException if the matrix is not
+         * strictly positive definite.
+         */
+        double[] factor(final CompressedColumnRealMatrix matrix) {
+
+            final int n = permutation.length;
+            final CompressedStorage storage = matrix.getStorage();
+            final int[] aPointers = storage.getPointersRef();
+            final int[] aIndices  = storage.getIndicesRef();
+            final double[] aValues = storage.getValuesRef();
+
+            final double[] lValues = new double[lIndices.length];
+            final double[] x       = new double[n];
+            final int[] marker     = new int[n];
+            final int[] head       = new int[n];
+            final int[] link       = new int[n];
+            final int[] first      = new int[n];
+            Arrays.fill(marker, -1);
+            Arrays.fill(head,   -1);
+
+            for (int j = 0; j < n; ++j) {
+
+                // scatter the lower part of the permuted column j of A
+                final int jEnd = lPointers[j + 1];
+                for (int p = lPointers[j]; p < jEnd; ++p) {
+                    marker[lIndices[p]] = j;
+                }
+                final int column = permutation[j];
+                for (int p = aPointers[column]; p < aPointers[column + 1]; ++p) {
+                    final int i = inverse[aIndices[p]];
+                    if (i >= j) {
+                        if (marker[i] != j) {
+                            throw new MathIllegalArgumentException(LocalizedFormats.SPARSITY_PATTERN_MISMATCH,
+                                                                   aIndices[p], column);
+                        }
+                        x[i] = aValues[p];
+                    }
+                }
+
+                // left-looking update by all columns k having L(j, k) != 0
+                int k = head[j];
+                while (k >= 0) {
+                    final int nextK = link[k];
+                    final int p     = first[k];
+                    final int kEnd  = lPointers[k + 1];
+                    final double lJK = lValues[p];
+                    for (int q = p; q < kEnd; ++q) {
+                        x[lIndices[q]] -= lValues[q] * lJK;
+                    }
+                    if (p + 1 < kEnd) {
+                        first[k] = p + 1;
+                        link[k]  = head[lIndices[p + 1]];
+                        head[lIndices[p + 1]] = k;
+                    }
+                    k = nextK;
+                }
+
+                // compute column j
+                final double d = x[j];
+                if (d <= absolutePositivityThreshold) {
+                    throw new NonPositiveDefiniteMatrixException(d, column, absolutePositivityThreshold);
+                }
+                final double lJJ = FastMath.sqrt(d);
+                final double inverseLJJ = 1.0 / lJJ;
+                lValues[lPointers[j]] = lJJ;
+                x[j] = 0;
+                for (int p = lPointers[j] + 1; p < jEnd; ++p) {
+                    final int i = lIndices[p];
+                    lValues[p] = x[i] * inverseLJJ;
+                    x[i] = 0;
+                }
+
+                // column j will update the column of its first off-diagonal entry
+                if (lPointers[j] + 1 < jEnd) {
+                    first[j] = lPointers[j] + 1;
+                    link[j]  = head[lIndices[first[j]]];
+                    head[lIndices[first[j]]] = j;
+                }
+
+            }
+
+            return lValues;
+
+        }
+
+    }
+
+    /** Specialized solver. */
+    private static class Solver implements DecompositionSolver {
+
+        /** Symbolic analysis. */
+        private final Symbolic symbolic;
+
+        /** Values of the non-zero entries of L. */
+        private final double[] lValues;
+
+        /**
+         * Build a solver from decomposed matrix.
+         * @param symbolic symbolic analysis
+         * @param lValues values of the non-zero entries of L
+         */
+        private Solver(final Symbolic symbolic, final double[] lValues) {
+            this.symbolic = symbolic;
+            this.lValues  = lValues;
+        }
+
+        /** {@inheritDoc} */
+        public boolean isNonSingular() {
+            // if we get this far, the matrix was positive definite, hence non-singular
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        public RealVector solve(final RealVector b) {
+            final int n = symbolic.permutation.length;
+            if (b.getDimension() != n) {
+                throw new DimensionMismatchException(b.getDimension(), n);
+            }
+            final double[] y = new double[n];
+            for (int k = 0; k < n; ++k) {
+                y[k] = b.getEntry(symbolic.permutation[k]);
+            }
+            solveInPlace(y);
+            final double[] x = new double[n];
+            for (int k = 0; k < n; ++k) {
+                x[symbolic.permutation[k]] = y[k];
+            }
+            return new ArrayRealVector(x, false);
+        }
+
+        /** {@inheritDoc} */
+        public RealMatrix solve(final RealMatrix b) {
+            final int n = symbolic.permutation.length;
+            if (b.getRowDimension() != n) {
+                throw new DimensionMismatchException(b.getRowDimension(), n);
+            }
+            final int nColB = b.getColumnDimension();
+            final double[][] x = new double[n][nColB];
+            final double[] y = new double[n];
+            for (int column = 0; column < nColB; ++column) {
+                for (int k = 0; k < n; ++k) {
+                    y[k] = b.getEntry(symbolic.permutation[k], column);
+                }
+                solveInPlace(y);
+                for (int k = 0; k < n; ++k) {
+                    x[symbolic.permutation[k]][column] = y[k];
+                }
+            }
+            return new Array2DRowRealMatrix(x, false);
+        }
+
+        /**
+         * Solve L L<sup>T</sup> y = b in place.
+         * @param y right hand side on input, solution on output
+         */
+        private void solveInPlace(final double[] y) {
+
+            final int[] pointers = symbolic.lPointers;
+            final int[] indices  = symbolic.lIndices;
+
+            // solve L z = b
+            for (int j = 0; j < y.length; ++j) {
+                final int start = pointers[j];
+                final double zJ = y[j] / lValues[start];
+                y[j] = zJ;
+                for (int p = start + 1; p < pointers[j + 1]; ++p) {
+                    y[indices[p]] -= lValues[p] * zJ;
+                }
+            }
+
+            // solve L^T y = z
+            for (int j = y.length - 1; j >= 0; --j) {
+                final int start = pointers[j];
+                double sum = y[j];
+                for (int p = start + 1; p < pointers[j + 1]; ++p) {
+                    sum -= lValues[p] * y[indices[p]];
+                }
+                y[j] = sum / lValues[start];
+            }
+
+        }
+
+        /**
+         * Get the inverse of the decomposed matrix.
+         *
+         * @return the inverse matrix.
+         */
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(symbolic.permutation.length));
+        }
+
+    }
+
+}
@@ -0,0 +1,631 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathArrays;
+
+/**
+ * Calculates the LU decomposition of a sparse matrix.
+ * <p>
+ * The decomposition of a sparse square matrix A is P A Q = L U, where Q is a
+ * fill-reducing column permutation computed by an approximate minimum degree
+ * ordering of the pattern of A + A<sup>T</sup>, P is a row permutation
+ * selected by threshold partial pivoting, L is a sparse unit lower triangular
+ * matrix and U is a sparse upper triangular matrix.
+ * </p>
+ * <p>
+ * The factorization is left-looking (Gilbert-Peierls algorithm): each
+ * column of L and U is computed by a sparse triangular solve with the
+ * previous columns of L, whose pattern is found by a depth-first search in
+ * the graph of L, so the cost is proportional to the number of floating
+ * point operations. The pivot of each column is the diagonal entry if its
+ * magnitude is at least {@code pivotThreshold} times the largest candidate,
+ * which preserves the fill-reducing ordering for matrices that do not
+ * require much pivoting, otherwise it is the largest candidate.
+ * </p>
+ * <p>
+ * When several matrices sharing the same pattern must be decomposed, the
+ * {@link #refactor(RealMatrix) refactor} method reuses the permutations and
+ * the patterns of L and U and only computes the new values, without any
+ * search. As no pivoting is performed during refactorization, it should be
+ * used only when the matrices are close enough for the original pivot
+ * sequence to remain stable.
+ * </p>
+ *
+ * @see LUDecomposition
+ * @version $Id$
+ * @since 3.4
+ */
+public class SparseLUDecomposition {
+
+    /** Default threshold for preferring diagonal pivots. */
+    public static final double DEFAULT_PIVOT_THRESHOLD = 0.1;
+
+    /** Default bound to determine effective singularity in LU decomposition. */
+    private static final double DEFAULT_TOO_SMALL = 1e-11;
+
+    /** Size of the matrix. */
+    private final int n;
+
+    /** Threshold under which a matrix is considered singular. */
+    private final double singularityThreshold;
+
+    /** Row permutation (pivot index to row index in A). */
+    private final int[] rowPermutation;
+
+    /** Inverse row permutation (row index in A to pivot index). */
+    private final int[] rowInverse;
+
+    /** Column permutation (pivot index to column index in A). */
+    private final int[] columnPermutation;
+
+    /** Storage of L, by columns, unit diagonal entries first. */
+    private final CompressedStorage lStorage;
+
+    /** Storage of U, by columns, diagonal entries last. */
+    private final CompressedStorage uStorage;
+
+    /** Singularity indicator. */
+    private final boolean singular;
+
+    /**
+     * Calculates the LU-decomposition of the given matrix.
+     * <p>
+     * This constructor uses {@link #DEFAULT_PIVOT_THRESHOLD} as the pivot
+     * threshold and 1e-11 as default value for the singularity threshold.
+     * </p>
+     * @param matrix Matrix to decompose.
+     * @throws NonSquareMatrixException if matrix is not square.
+     */
+    public SparseLUDecomposition(final RealMatrix matrix) {
+        this(matrix, DEFAULT_PIVOT_THRESHOLD, DEFAULT_TOO_SMALL);
+    }
+
+    /**
+     * Calculates the LU-decomposition of the given matrix.
+     * @param matrix Matrix to decompose.
+     * @param pivotThreshold threshold for preferring diagonal pivots, between
+     * 0 (excluded, always prefer diagonal pivots) and 1 (included, standard
+     * partial pivoting)
+     * @param singularityThreshold threshold under which a pivot is considered
+     * null and the matrix singular
+     * @throws NonSquareMatrixException if matrix is not square.
+     * @throws OutOfRangeException if the pivot threshold is not in the (0, 1] range
+     */
+    public SparseLUDecomposition(final RealMatrix matrix, final double pivotThreshold,
+                                 final double singularityThreshold) {
+
+        if (!matrix.isSquare()) {
+            throw new NonSquareMatrixException(matrix.getRowDimension(), matrix.getColumnDimension());
+        }
+        if (pivotThreshold <= 0 || pivotThreshold > 1) {
+            throw new OutOfRangeException(pivotThreshold, 0, 1);
+        }
+
+        final CompressedStorage a = new CompressedColumnRealMatrix(matrix).getStorage();
+        this.n                    = matrix.getRowDimension();
+        this.singularityThreshold = singularityThreshold;
+        this.columnPermutation    = MinimumDegreeOrdering.order(a);
+        this.rowPermutation       = new int[n];
+        this.rowInverse           = new int[n];
+
+        final int[] aPointers  = a.getPointersRef();
+        final int[] aIndices   = a.getIndicesRef();
+        final double[] aValues = a.getValuesRef();
+
+        // growable storage for L (rows indexed in A) and U (rows indexed by pivots)
+        int capacity = 2 * aIndices.length + n;
+        int[]    lPointers = new int[n + 1];
+        int[]    lIndices  = new int[capacity];
+        double[] lValues   = new double[capacity];
+        int[]    uPointers = new int[n + 1];
+        int[]    uIndices  = new int[capacity];
+        double[] uValues   = new double[capacity];
+        int lSize = 0;
+        int uSize = 0;
+
+        final double[] x        = new double[n];
+        final int[]    visited  = new int[n];
+        final int[]    reach    = new int[n];
+        final int[]    stack    = new int[n];
+        final int[]    position = new int[n];
+        Arrays.fill(rowInverse, -1);
+        Arrays.fill(visited, -1);
+
+        boolean isSingular = false;
+        for (int k = 0; k < n; ++k) {
+
+            final int column = columnPermutation[k];
+
+            // pattern of x = L \ A(:, column), in reverse topological order
+            int nReach = 0;
+            for (int p = aPointers[column]; p < aPointers[column + 1]; ++p) {
+                final int root = aIndices[p];
+                if (visited[root] == k) {
+                    continue;
+                }
+                int top = 0;
+                stack[0] = root;
+                visited[root] = k;
+                position[0] = (rowInverse[root] < 0) ? -1 : lPointers[rowInverse[root]] + 1;
+                while (top >= 0) {
+                    final int node = stack[top];
+                    final int pivot = rowInverse[node];
+                    boolean done = true;
+                    if (pivot >= 0) {
+                        final int end = lPointers[pivot + 1];
+                        while (position[top] < end) {
+                            final int child = lIndices[position[top]++];
+                            if (visited[child] != k) {
+                                visited[child] = k;
+                                ++top;
+                                stack[top]    = child;
+                                position[top] = (rowInverse[child] < 0) ? -1 : lPointers[rowInverse[child]] + 1;
+                                done = false;
+                                break;
+                            }
+                        }
+                    }
+                    if (done) {
+                        reach[nReach++] = node;
+                        --top;
+                    }
+                }
+            }
+
+            // numeric sparse triangular solve, in topological order
+            for (int p = aPointers[column]; p < aPointers[column + 1]; ++p) {
+                x[aIndices[p]] = aValues[p];
+            }
+            for (int r = nReach - 1; r >= 0; --r) {
+                final int row   = reach[r];
+                final int pivot = rowInverse[row];
+                if (pivot >= 0) {
+                    final double xRow = x[row];
+                    for (int p = lPointers[pivot] + 1; p < lPointers[pivot + 1]; ++p) {
+                        x[lIndices[p]] -= lValues[p] * xRow;
+                    }
+                }
+            }
+
+            // ensure capacity for the new columns
+            if (FastMath.max(lSize, uSize) + nReach + 1 > capacity) {
+                capacity  = FastMath.max(2 * capacity, FastMath.max(lSize, uSize) + nReach + 1);
+                lIndices  = MathArrays.copyOf(lIndices, capacity);
+                lValues   = MathArrays.copyOf(lValues,  capacity);
+                uIndices  = MathArrays.copyOf(uIndices, capacity);
+                uValues   = MathArrays.copyOf(uValues,  capacity);
+            }
+
+            // column of U and pivot selection
+            uPointers[k] = uSize;
+            int    best    = -1;
+            double bestAbs = -1;
+            for (int r = 0; r < nReach; ++r) {
+                final int row = reach[r];
+                if (rowInverse[row] >= 0) {
+                    uIndices[uSize]   = rowInverse[row];
+                    uValues[uSize++] = x[row];
+                } else if (FastMath.abs(x[row]) > bestAbs) {
+                    best    = row;
+                    bestAbs = FastMath.abs(x[row]);
+                }
+            }
+            if (best >= 0 && rowInverse[column] < 0 && visited[column] == k &&
+                FastMath.abs(x[column]) >= pivotThreshold * bestAbs) {
+                // the diagonal entry is large enough
+                best    = column;
+                bestAbs = FastMath.abs(x[column]);
+            }
+            if (best < 0 || bestAbs <= singularityThreshold) {
+                isSingular = true;
+                break;
+            }
+            final double pivotValue = x[best];
+            rowInverse[best]    = k;
+            rowPermutation[k]   = best;
+            uIndices[uSize]     = k;
+            uValues[uSize++]    = pivotValue;
+
+            // column of L, pivot row first
+            lPointers[k]      = lSize;
+            lIndices[lSize]   = best;
+            lValues[lSize++]  = 1.0;
+            for (int r = 0; r < nReach; ++r) {
+                final int row = reach[r];
+                if (rowInverse[row] < 0) {
+                    lIndices[lSize]  = row;
+                    lValues[lSize++] = x[row] / pivotValue;
+                }
+                x[row] = 0;
+            }
+            lPointers[k + 1] = lSize;
+            uPointers[k + 1] = uSize;
+
+        }
+
+        singular = isSingular;
+        if (singular) {
+            lStorage = null;
+            uStorage = null;
+        } else {
+            // renumber the rows of L by pivots
+            for (int p = 0; p < lSize; ++p) {
+                lIndices[p] = rowInverse[lIndices[p]];
+            }
+            // sort the rows within each column, by transposing twice
+            lStorage = new CompressedStorage(lPointers,
+                                             MathArrays.copyOf(lIndices, lSize),
+                                             MathArrays.copyOf(lValues, lSize)).transpose(n).transpose(n);
+            uStorage = new CompressedStorage(uPointers,
+                                             MathArrays.copyOf(uIndices, uSize),
+                                             MathArrays.copyOf(uValues, uSize)).transpose(n).transpose(n);
+        }
+
+    }
+
+    /**
+     * Calculates the numeric decomposition of a matrix, reusing the
+     * permutations and patterns of another decomposition.
+     * @param reference decomposition providing permutations and patterns
+     * @param a storage of the matrix to decompose, by columns
+     * @throws MathIllegalArgumentException if the matrix has non-zero entries
+     * outside of the analyzed pattern
+     */
+    private SparseLUDecomposition(final SparseLUDecomposition reference,
+                                  final CompressedStorage a) {
+
+        this.n                    = reference.n;
+        this.singularityThreshold = reference.singularityThreshold;
+        this.rowPermutation       = reference.rowPermutation;
+        this.rowInverse           = reference.rowInverse;
+        this.columnPermutation    = reference.columnPermutation;
+
+        final int[] lPointers = reference.lStorage.getPointersRef();
+        final int[] lIndices  = reference.lStorage.getIndicesRef();
+        final int[] uPointers = reference.uStorage.getPointersRef();
+        final int[] uIndices  = reference.uStorage.getIndicesRef();
+        final double[] lValues = new double[lIndices.length];
+        final double[] uValues = new double[uIndices.length];
+
+        final int[] aPointers  = a.getPointersRef();
+        final int[] aIndices   = a.getIndicesRef();
+        final double[] aValues = a.getValuesRef();
+
+        final double[] x    = new double[n];
+        final int[] marker  = new int[n];
+        Arrays.fill(marker, -1);
+
+        boolean isSingular = false;
+        for (int k = 0; k < n; ++k) {
+
+            // scatter the column, checking the pattern
+            for (int p = uPointers[k]; p < uPointers[k + 1]; ++p) {
+                marker[uIndices[p]] = k;
+            }
+            for (int p = lPointers[k]; p < lPointers[k + 1]; ++p) {
+                marker[lIndices[p]] = k;
+            }
+            final int column = columnPermutation[k];
+            for (int p = aPointers[column]; p < aPointers[column + 1]; ++p) {
+                final int i = rowInverse[aIndices[p]];
+                if (marker[i] != k) {
+                    throw new MathIllegalArgumentException(LocalizedFormats.SPARSITY_PATTERN_MISMATCH,
+                                                           aIndices[p], column);
+                }
+                x[i] = aValues[p];
+            }
+
+            // sparse triangular solve, rows of U are sorted
+            final int diagonal = uPointers[k + 1] - 1;
+            for (int p = uPointers[k]; p < diagonal; ++p) {
+                final int j = uIndices[p];
+                final double xJ = x[j];
+                uValues[p] = xJ;
+                x[j] = 0;
+                for (int q = lPointers[j] + 1; q < lPointers[j + 1]; ++q) {
+                    x[lIndices[q]] -= lValues[q] * xJ;
+                }
+            }
+
+            final double pivotValue = x[k];
+            if (FastMath.abs(pivotValue) <= singularityThreshold) {
+                isSingular = true;
+                break;
+            }
+            uValues[diagonal] = pivotValue;
+            lValues[lPointers[k]] = 1.0;
+            x[k] = 0;
+            for (int p = lPointers[k] + 1; p < lPointers[k + 1]; ++p) {
+                lValues[p] = x[lIndices[p]] / pivotValue;
+                x[lIndices[p]] = 0;
+            }
+
+        }
+
+        singular = isSingular;
+        if (singular) {
+            lStorage = null;
+            uStorage = null;
+        } else {
+            lStorage = new CompressedStorage(lPointers, lIndices, lValues);
+            uStorage = new CompressedStorage(uPointers, uIndices, uValues);
+        }
+
+    }
+
+    /**
+     * Calculates the decomposition of a matrix with the same pattern.
+     * <p>
+     * The permutations and the patterns of L and U of the instance are
+     * reused, only the numeric values are computed, without pivoting. The
+     * matrix may have fewer non-zero entries than the one analyzed, but not
+     * more.
+     * </p>
+     * @param matrix the matrix to decompose
+     * @return decomposition of the matrix
+     * @throws SingularMatrixException if the instance itself is singular, as
+     * its patterns are incomplete
+     * @throws DimensionMismatchException if the matrix does not have the same
+     * dimension as the analyzed one
+     * @throws NonSquareMatrixException if matrix is not square.
+     * @throws MathIllegalArgumentException if the matrix has non-zero entries
+     * outside of the analyzed pattern
+     */
+    public SparseLUDecomposition refactor(final RealMatrix matrix) {
+        if (singular) {
+            throw new SingularMatrixException();
+        }
+        if (!matrix.isSquare()) {
+            throw new NonSquareMatrixException(matrix.getRowDimension(), matrix.getColumnDimension());
+        }
+        if (matrix.getRowDimension() != n) {
+            throw new DimensionMismatchException(matrix.getRowDimension(), n);
+        }
+        return new SparseLUDecomposition(this, new CompressedColumnRealMatrix(matrix).getStorage());
+    }
+
+    /**
+     * Returns the matrix L of the decomposition.
+     * <p>L is a unit lower-triangular matrix such that P A Q = L U.</p>
+     * @return the L matrix (or null if decomposed matrix is singular)
+     */
+    public CompressedColumnRealMatrix getL() {
+        return singular ? null : new CompressedColumnRealMatrix(n, n, lStorage);
+    }
+
+    /**
+     * Returns the matrix U of the decomposition.
+     * <p>U is an upper-triangular matrix such that P A Q = L U.</p>
+     * @return the U matrix (or null if decomposed matrix is singular)
+     */
+    public CompressedColumnRealMatrix getU() {
+        return singular ? null : new CompressedColumnRealMatrix(n, n, uStorage);
+    }
+
+    /**
+     * Returns the row permutation.
+     * <p>
+     * Element {@code k} of the returned array is the index in A of the row
+     * that is at index {@code k} in P A Q.
+     * </p>
+     * @return the row permutation (or null if decomposed matrix is singular)
+     */
+    public int[] getRowPermutation() {
+        return singular ? null : rowPermutation.clone();
+    }
+
+    /**
+     * Returns the fill-reducing column permutation.
+     * <p>
+     * Element {@code k} of the returned array is the index in A of the column
+     * that is at index {@code k} in P A Q.
+     * </p>
+     * @return the column permutation
+     */
+    public int[] getColumnPermutation() {
+        return columnPermutation.clone();
+    }
+
+    /**
+     * Return the determinant of the matrix
+     * @return determinant of the matrix
+     */
+    public double getDeterminant() {
+        if (singular) {
+            return 0;
+        }
+        double determinant = isEven(rowPermutation) == isEven(columnPermutation) ? 1 : -1;
+        final int[] uPointers = uStorage.getPointersRef();
+        final double[] uValues = uStorage.getValuesRef();
+        for (int k = 0; k < n; ++k) {
+            determinant *= uValues[uPointers[k + 1] - 1];
+        }
+        return determinant;
+    }
+
+    /**
+     * Check the parity of a permutation.
+     * @param permutation permutation to check
+     * @return true if the permutation is even
+     */
+    private static boolean isEven(final int[] permutation) {
+        final boolean[] seen = new boolean[permutation.length];
+        boolean even = true;
+        for (int i = 0; i < permutation.length; ++i) {
+            if (!seen[i]) {
+                // a cycle of length l is the product of l - 1 transpositions
+                int length = 0;
+                for (int j = i; !seen[j]; j = permutation[j]) {
+                    seen[j] = true;
+                    ++length;
+                }
+                if (length % 2 == 0) {
+                    even = !even;
+                }
+            }
+        }
+        return even;
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in exact linear
+     * sense.
+     * @return a solver
+     */
+    public DecompositionSolver getSolver() {
+        return new Solver(rowPermutation, columnPermutation, lStorage, uStorage, singular);
+    }
+
+    /** Specialized solver. */
+    private static class Solver implements DecompositionSolver {
+
+        /** Row permutation. */
+        private final int[] rowPermutation;
+
+        /** Column permutation. */
+        private final int[] columnPermutation;
+
+        /** Storage of L. */
+        private final CompressedStorage lStorage;
+
+        /** Storage of U. */
+        private final CompressedStorage uStorage;
+
+        /** Singularity indicator. */
+        private final boolean singular;
+
+        /**
+         * Build a solver from decomposed matrix.
+         * @param rowPermutation row permutation
+         * @param columnPermutation column permutation
+         * @param lStorage storage of L
+         * @param uStorage storage of U
+         * @param singular singularity indicator
+         */
+        private Solver(final int[] rowPermutation, final int[] columnPermutation,
+                       final CompressedStorage lStorage, final CompressedStorage uStorage,
+                       final boolean singular) {
+            this.rowPermutation    = rowPermutation;
+            this.columnPermutation = columnPermutation;
+            this.lStorage          = lStorage;
+            this.uStorage          = uStorage;
+            this.singular          = singular;
+        }
+
+        /** {@inheritDoc} */
+        public boolean isNonSingular() {
+            return !singular;
+        }
+
+        /** {@inheritDoc} */
+        public RealVector solve(final RealVector b) {
+            final int n = rowPermutation.length;
+            if (b.getDimension() != n) {
+                throw new DimensionMismatchException(b.getDimension(), n);
+            }
+            if (singular) {
+                throw new SingularMatrixException();
+            }
+            final double[] y = new double[n];
+            for (int k = 0; k < n; ++k) {
+                y[k] = b.getEntry(rowPermutation[k]);
+            }
+            solveInPlace(y);
+            final double[] x = new double[n];
+            for (int k = 0; k < n; ++k) {
+                x[columnPermutation[k]] = y[k];
+            }
+            return new ArrayRealVector(x, false);
+        }
+
+        /** {@inheritDoc} */
+        public RealMatrix solve(final RealMatrix b) {
+            final int n = rowPermutation.length;
+            if (b.getRowDimension() != n) {
+                throw new DimensionMismatchException(b.getRowDimension(), n);
+            }
+            if (singular) {
+                throw new SingularMatrixException();
+            }
+            final int nColB = b.getColumnDimension();
+            final double[][] x = new double[n][nColB];
+            final double[] y = new double[n];
+            for (int column = 0; column < nColB; ++column) {
+                for (int k = 0; k < n; ++k) {
+                    y[k] = b.getEntry(rowPermutation[k], column);
+                }
+                solveInPlace(y);
+                for (int k = 0; k < n; ++k) {
+                    x[columnPermutation[k]][column] = y[k];
+                }
+            }
+            return new Array2DRowRealMatrix(x, false);
+        }
+
+        /**
+         * Solve L U y = b in place.
+         * @param y right hand side on input, solution on output
+         */
+        private void solveInPlace(final double[] y) {
+
+            // solve L z = b, L has a unit diagonal stored first in each column
+            final int[] lPointers  = lStorage.getPointersRef();
+            final int[] lIndices   = lStorage.getIndicesRef();
+            final double[] lValues = lStorage.getValuesRef();
+            for (int k = 0; k < y.length; ++k) {
+                final double zK = y[k];
+                if (zK != 0) {
+                    for (int p = lPointers[k] + 1; p < lPointers[k + 1]; ++p) {
+                        y[lIndices[p]] -= lValues[p] * zK;
+                    }
+                }
+            }
+
+            // solve U y = z, U has its diagonal stored last in each column
+            final int[] uPointers  = uStorage.getPointersRef();
+            final int[] uIndices   = uStorage.getIndicesRef();
+            final double[] uValues = uStorage.getValuesRef();
+            for (int k = y.length - 1; k >= 0; --k) {
+                final int diagonal = uPointers[k + 1] - 1;
+                final double yK = y[k] / uValues[diagonal];
+                y[k] = yK;
+                if (yK != 0) {
+                    for (int p = uPointers[k]; p < diagonal; ++p) {
+                        y[uIndices[p]] -= uValues[p] * yK;
+                    }
+                }
+            }
+
+        }
+
+        /** {@inheritDoc} */
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(rowPermutation.length));
+        }
+
+    }
+
+}
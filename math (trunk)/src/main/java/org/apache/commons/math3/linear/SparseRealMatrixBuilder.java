@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.MathArrays;
+import org.apache.commons.math3.util.OpenIntToDoubleHashMap;
+
+/**
+ * Builder for immutable compressed sparse matrices.
+ * <p>
+ * Entries are provided as coordinate (COO) triplets {@code (row, column, value)}
+ * in any order. Several triplets may refer to the same entry, their values are
+ * then summed, as is customary when assembling finite elements systems. Once
+ * all triplets have been added, either a {@link CompressedRowRealMatrix} or a
+ * {@link CompressedColumnRealMatrix} can be built, in time linear in the
+ * number of triplets and dimensions. The builder can still be used after a
+ * matrix has been built, the matrices already built are not affected.
+ * </p>
+ * <pre>
+ *   SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+ *   for (int i = 0; i &lt; n; ++i) {
+ *       builder.addEntry(i, i, 2.0);
+ *       if (i &gt; 0) {
+ *           builder.addEntry(i, i - 1, -1.0).addEntry(i - 1, i, -1.0);
+ *       }
+ *   }
+ *   CompressedRowRealMatrix a = builder.buildRowMatrix();
+ * </pre>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class SparseRealMatrixBuilder {
+
+    /** Initial capacity of the triplets arrays. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Number of rows of the matrix. */
+    private final int rows;
+
+    /** Number of columns of the matrix. */
+    private final int columns;
+
+    /** Row indices of the triplets. */
+    private int[] rowIndices;
+
+    /** Column indices of the triplets. */
+    private int[] columnIndices;
+
+    /** Values of the triplets. */
+    private double[] values;
+
+    /** Number of triplets. */
+    private int size;
+
+    /**
+     * Create a builder for a matrix with the supplied dimensions.
+     * @param rowDimension number of rows of the matrix
+     * @param columnDimension number of columns of the matrix
+     * @throws NotStrictlyPositiveException if row or column dimension is not
+     * positive
+     */
+    public SparseRealMatrixBuilder(final int rowDimension, final int columnDimension)
+        throws NotStrictlyPositiveException {
+        if (rowDimension < 1) {
+            throw new NotStrictlyPositiveException(rowDimension);
+        }
+        if (columnDimension < 1) {
+            throw new NotStrictlyPositiveException(columnDimension);
+        }
+        this.rows          = rowDimension;
+        this.columns       = columnDimension;
+        this.rowIndices    = new int[INITIAL_CAPACITY];
+        this.columnIndices = new int[INITIAL_CAPACITY];
+        this.values        = new double[INITIAL_CAPACITY];
+        this.size          = 0;
+    }
+
+    /**
+     * Create a builder holding the non-zero entries of a matrix.
+     * @param matrix matrix to copy
+     * @return builder holding the non-zero entries of the matrix
+     */
+    static SparseRealMatrixBuilder fromMatrix(final RealMatrix matrix) {
+        final SparseRealMatrixBuilder builder =
+            new SparseRealMatrixBuilder(matrix.getRowDimension(), matrix.getColumnDimension());
+        if (matrix instanceof OpenMapRealMatrix) {
+            // only visit the stored entries
+            final int nCols = matrix.getColumnDimension();
+            for (OpenIntToDoubleHashMap.Iterator iterator =
+                     ((OpenMapRealMatrix) matrix).storedEntriesIterator();
+                 iterator.hasNext();) {
+                iterator.advance();
+                final int row = iterator.key() / nCols;
+                builder.append(row, iterator.key() - row * nCols, iterator.value());
+            }
+            return builder;
+        }
+        matrix.walkInOptimizedOrder(new DefaultRealMatrixPreservingVisitor() {
+            /** {@inheritDoc} */
+            @Override
+            public void visit(final int row, final int column, final double value) {
+                if (value != 0.0) {
+                    builder.append(row, column, value);
+                }
+            }
+        });
+        return builder;
+    }
+
+    /**
+     * Get the number of rows of the matrix.
+     * @return number of rows
+     */
+    public int getRowDimension() {
+        return rows;
+    }
+
+    /**
+     * Get the number of columns of the matrix.
+     * @return number of columns
+     */
+    public int getColumnDimension() {
+        return columns;
+    }
+
+    /**
+     * Get the number of triplets added so far.
+     * <p>
+     * This is an upper bound of the number of non-zero entries of the
+     * built matrices, as duplicate entries are merged.
+     * </p>
+     * @return number of triplets
+     */
+    public int getTripletsCount() {
+        return size;
+    }
+
+    /**
+     * Add a triplet.
+     * <p>
+     * If a triplet has already been added for the same entry, the values
+     * are summed.
+     * </p>
+     * @param row row index of the entry
+     * @param column column index of the entry
+     * @param value value to add to the entry
+     * @return the instance, to allow chaining calls
+     * @throws OutOfRangeException if the row or column index is not valid
+     */
+    public SparseRealMatrixBuilder addEntry(final int row, final int column, final double value)
+        throws OutOfRangeException {
+        if (row < 0 || row >= rows) {
+            throw new OutOfRangeException(LocalizedFormats.ROW_INDEX, row, 0, rows - 1);
+        }
+        if (column < 0 || column >= columns) {
+            throw new OutOfRangeException(LocalizedFormats.COLUMN_INDEX, column, 0, columns - 1);
+        }
+        append(row, column, value);
+        return this;
+    }
+
+    /**
+     * Build a matrix in compressed sparse row format.
+     * @return compressed row matrix holding the sum of the triplets
+     */
+    public CompressedRowRealMatrix buildRowMatrix() {
+        return new CompressedRowRealMatrix(rows, columns, buildRowStorage());
+    }
+
+    /**
+     * Build a matrix in compressed sparse column format.
+     * @return compressed column matrix holding the sum of the triplets
+     */
+    public CompressedColumnRealMatrix buildColumnMatrix() {
+        return new CompressedColumnRealMatrix(rows, columns, buildColumnStorage());
+    }
+
+    /**
+     * Build the storage with rows as major lines.
+     * @return storage with rows as major lines
+     */
+    CompressedStorage buildRowStorage() {
+        return CompressedStorage.fromTriplets(rows, columns, rowIndices, columnIndices, values, size);
+    }
+
+    /**
+     * Build the storage with columns as major lines.
+     * @return storage with columns as major lines
+     */
+    CompressedStorage buildColumnStorage() {
+        return CompressedStorage.fromTriplets(columns, rows, columnIndices, rowIndices, values, size);
+    }
+
+    /**
+     * Append a triplet without checking the indices.
+     * @param row row index of the entry
+     * @param column column index of the entry
+     * @param value value to add to the entry
+     */
+    private void append(final int row, final int column, final double value) {
+        if (size == values.length) {
+            final int capacity = 2 * size;
+            rowIndices    = MathArrays.copyOf(rowIndices, capacity);
+            columnIndices = MathArrays.copyOf(columnIndices, capacity);
+            values        = MathArrays.copyOf(values, capacity);
+        }
+        rowIndices[size]    = row;
+        columnIndices[size] = column;
+        values[size++]      = value;
+    }
+
+}
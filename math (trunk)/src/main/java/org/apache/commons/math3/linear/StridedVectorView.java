@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotPositiveException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.MathUtils;
+
+/**
+ * Vector view on a strided sequence of entries of a matrix.
+ * <p>
+ * Entry {@code k} of the view is entry {@code (row + k * rowStride,
+ * column + k * columnStride)} of the underlying matrix, so rows are
+ * obtained with strides (0, 1) and columns with strides (1, 0). The view
+ * does not hold any data, all accesses are forwarded to the underlying
+ * matrix, so creating it is O(1) and changes made through the view are
+ * visible in the underlying matrix and vice versa.
+ * </p>
+ *
+ * @see MatrixUtils#createRowVectorView(RealMatrix, int)
+ * @see MatrixUtils#createColumnVectorView(RealMatrix, int)
+ * @version $Id$
+ * @since 3.4
+ */
+final class StridedVectorView extends RealVector {
+
+    /** Underlying matrix. */
+    private final RealMatrix parent;
+
+    /** Row index of the first entry. */
+    private final int row;
+
+    /** Column index of the first entry. */
+    private final int column;
+
+    /** Row index increment between consecutive entries. */
+    private final int rowStride;
+
+    /** Column index increment between consecutive entries. */
+    private final int columnStride;
+
+    /** Dimension of the view. */
+    private final int dimension;
+
+    /**
+     * Build a strided view.
+     * <p>
+     * The indices must have been checked by the caller.
+     * </p>
+     * @param parent underlying matrix
+     * @param row row index of the first entry
+     * @param column column index of the first entry
+     * @param rowStride row index increment between consecutive entries
+     * @param columnStride column index increment between consecutive entries
+     * @param dimension dimension of the view
+     */
+    StridedVectorView(final RealMatrix parent, final int row, final int column,
+                      final int rowStride, final int columnStride,
+                      final int dimension) {
+        this.parent       = parent;
+        this.row          = row;
+        this.column       = column;
+        this.rowStride    = rowStride;
+        this.columnStride = columnStride;
+        this.dimension    = dimension;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int index) throws OutOfRangeException {
+        checkIndex(index);
+        return parent.getEntry(row + index * rowStride, column + index * columnStride);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setEntry(final int index, final double value)
+        throws OutOfRangeException {
+        checkIndex(index);
+        parent.setEntry(row + index * rowStride, column + index * columnStride, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToEntry(final int index, final double increment)
+        throws OutOfRangeException {
+        checkIndex(index);
+        parent.addToEntry(row + index * rowStride, column + index * columnStride, increment);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector append(final RealVector v) {
+        return copy().append(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector append(final double d) {
+        return copy().append(d);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector getSubVector(final int index, final int n)
+        throws OutOfRangeException, NotPositiveException {
+        if (n < 0) {
+            throw new NotPositiveException(LocalizedFormats.NUMBER_OF_ELEMENTS_SHOULD_BE_POSITIVE, n);
+        }
+        if (n > 0) {
+            checkIndex(index);
+            checkIndex(index + n - 1);
+        }
+        final double[] out = new double[n];
+        for (int k = 0; k < n; ++k) {
+            out[k] = getEntry(index + k);
+        }
+        return new ArrayRealVector(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setSubVector(final int index, final RealVector v)
+        throws OutOfRangeException {
+        if (v.getDimension() > 0) {
+            checkIndex(index);
+            checkIndex(index + v.getDimension() - 1);
+        }
+        for (int k = 0; k < v.getDimension(); ++k) {
+            setEntry(index + k, v.getEntry(k));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isNaN() {
+        for (int k = 0; k < dimension; ++k) {
+            if (Double.isNaN(getEntry(k))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isInfinite() {
+        if (isNaN()) {
+            return false;
+        }
+        for (int k = 0; k < dimension; ++k) {
+            if (Double.isInfinite(getEntry(k))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As for {@link ArrayRealVector#equals(Object)}, the view is equal to any
+     * {@link RealVector} with the same dimension and the same entries, and
+     * all vectors containing {@code NaN} are considered equal.
+     * </p>
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof RealVector)) {
+            return false;
+        }
+
+        RealVector rhs = (RealVector) other;
+        if (dimension != rhs.getDimension()) {
+            return false;
+        }
+
+        if (rhs.isNaN()) {
+            return this.isNaN();
+        }
+
+        for (int k = 0; k < dimension; ++k) {
+            if (getEntry(k) != rhs.getEntry(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} All {@code NaN} values have the same hash code, and
+     * the hash code is the same as the one of an {@link ArrayRealVector}
+     * with the same entries.
+     */
+    @Override
+    public int hashCode() {
+        if (isNaN()) {
+            return 9;
+        }
+        return MathUtils.hash(toArray());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy is an independent {@link ArrayRealVector}, it does not
+     * share data with the underlying matrix anymore.
+     * </p>
+     */
+    @Override
+    public ArrayRealVector copy() {
+        final double[] out = new double[dimension];
+        for (int k = 0; k < dimension; ++k) {
+            out[k] = getEntry(k);
+        }
+        return new ArrayRealVector(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector ebeDivide(final RealVector v)
+        throws DimensionMismatchException {
+        return copy().ebeDivide(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector ebeMultiply(final RealVector v)
+        throws DimensionMismatchException {
+        return copy().ebeMultiply(v);
+    }
+
+}
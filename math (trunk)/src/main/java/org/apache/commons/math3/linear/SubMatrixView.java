@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NumberIsTooSmallException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+
+/**
+ * Rectangular window on another matrix.
+ * <p>
+ * The view does not hold any data, all accesses are forwarded to the
+ * underlying matrix with shifted indices, so creating it is O(1) and
+ * changes made through the view are visible in the underlying matrix
+ * and vice versa.
+ * </p>
+ *
+ * @see MatrixUtils#createSubMatrixView(RealMatrix, int, int, int, int)
+ * @version $Id$
+ * @since 3.4
+ */
+final class SubMatrixView extends AbstractRealMatrix {
+
+    /** Underlying matrix. */
+    private final RealMatrix parent;
+
+    /** Index of the first row of the window in the underlying matrix. */
+    private final int rowOffset;
+
+    /** Index of the first column of the window in the underlying matrix. */
+    private final int columnOffset;
+
+    /** Number of rows of the window. */
+    private final int rows;
+
+    /** Number of columns of the window. */
+    private final int columns;
+
+    /**
+     * Build a window on a matrix.
+     * <p>
+     * The indices must have been checked by the caller.
+     * </p>
+     * @param parent underlying matrix
+     * @param startRow initial row index (inclusive)
+     * @param endRow final row index (inclusive)
+     * @param startColumn initial column index (inclusive)
+     * @param endColumn final column index (inclusive)
+     * @throws NotStrictlyPositiveException if the window is empty
+     */
+    SubMatrixView(final RealMatrix parent,
+                  final int startRow, final int endRow,
+                  final int startColumn, final int endColumn)
+        throws NotStrictlyPositiveException {
+        super(endRow - startRow + 1, endColumn - startColumn + 1);
+        this.parent       = parent;
+        this.rowOffset    = startRow;
+        this.columnOffset = startColumn;
+        this.rows         = endRow - startRow + 1;
+        this.columns      = endColumn - startColumn + 1;
+    }
+
+    /**
+     * Get the underlying matrix.
+     * @return underlying matrix
+     */
+    RealMatrix getParent() {
+        return parent;
+    }
+
+    /**
+     * Get the index of the first row of the window in the underlying matrix.
+     * @return index of the first row of the window
+     */
+    int getRowOffset() {
+        return rowOffset;
+    }
+
+    /**
+     * Get the index of the first column of the window in the underlying matrix.
+     * @return index of the first column of the window
+     */
+    int getColumnOffset() {
+        return columnOffset;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return rows;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return columns;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix createMatrix(final int rowDimension, final int columnDimension)
+        throws NotStrictlyPositiveException {
+        return parent.createMatrix(rowDimension, columnDimension);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy is an independent matrix, it does not share data with the
+     * underlying matrix anymore.
+     * </p>
+     */
+    @Override
+    public RealMatrix copy() {
+        return parent.getSubMatrix(rowOffset, rowOffset + rows - 1,
+                                   columnOffset, columnOffset + columns - 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix getSubMatrix(final int startRow, final int endRow,
+                                   final int startColumn, final int endColumn)
+        throws OutOfRangeException, NumberIsTooSmallException {
+        MatrixUtils.checkSubMatrixIndex(this, startRow, endRow, startColumn, endColumn);
+        return parent.getSubMatrix(rowOffset + startRow, rowOffset + endRow,
+                                   columnOffset + startColumn, columnOffset + endColumn);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        return parent.getEntry(rowOffset + row, columnOffset + column);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        parent.setEntry(rowOffset + row, columnOffset + column, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToEntry(final int row, final int column, final double increment)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        parent.addToEntry(rowOffset + row, columnOffset + column, increment);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiplyEntry(final int row, final int column, final double factor)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        parent.multiplyEntry(rowOffset + row, columnOffset + column, factor);
+    }
+
+}
@@ -0,0 +1,391 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.io.Serializable;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+
+/**
+ * Implementation of a symmetric matrix in packed storage.
+ * <p>
+ * Only the upper triangle is stored, column by column, in a single array
+ * of n (n + 1) / 2 elements: entry (i, j) with i &le; j is at index
+ * i + j (j + 1) / 2. This is the packed format used by LAPACK for upper
+ * triangles. Memory and cache traffic are halved with respect to full
+ * storage, and products only go through half the entries.
+ * </p>
+ * <p>
+ * As the matrix is symmetric by construction, setting entry (i, j) also
+ * sets entry (j, i), and {@link CholeskyDecomposition} and {@link
+ * EigenDecomposition} skip their symmetry check for instances of this
+ * class.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class SymmetricRealMatrix extends AbstractRealMatrix
+    implements Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141016L;
+
+    /** Dimension of the matrix. */
+    private final int dimension;
+
+    /** Packed upper triangle. */
+    private final double[] data;
+
+    /**
+     * Creates a matrix with the supplied dimension.
+     *
+     * @param dimension Number of rows and columns in the new matrix.
+     * @throws NotStrictlyPositiveException if the dimension is
+     * not positive.
+     */
+    public SymmetricRealMatrix(final int dimension)
+        throws NotStrictlyPositiveException {
+        super(dimension, dimension);
+        this.dimension = dimension;
+        this.data      = new double[packedLength(dimension)];
+    }
+
+    /**
+     * Creates a matrix from its packed upper triangle.
+     *
+     * @param packed Upper triangle of the matrix, stored column by column.
+     * @param copyArray if {@code true}, the input array will be copied,
+     * otherwise it will be referenced.
+     * @throws NullArgumentException if {@code packed} is null.
+     * @throws DimensionMismatchException if the length of {@code packed} is
+     * not n (n + 1) / 2 for some positive n.
+     */
+    public SymmetricRealMatrix(final double[] packed, final boolean copyArray)
+        throws NullArgumentException, DimensionMismatchException {
+        MathUtils.checkNotNull(packed);
+        this.dimension = packedDimension(packed.length);
+        this.data      = copyArray ? packed.clone() : packed;
+    }
+
+    /**
+     * Creates a matrix holding the same entries as another matrix.
+     *
+     * @param matrix Matrix to copy.
+     * @param relativeTolerance Tolerance of the symmetry check.
+     * @throws NonSquareMatrixException if the matrix is not square.
+     * @throws NonSymmetricMatrixException if the matrix is not symmetric.
+     */
+    public SymmetricRealMatrix(final RealMatrix matrix, final double relativeTolerance)
+        throws NonSquareMatrixException, NonSymmetricMatrixException {
+        if (!(matrix instanceof SymmetricRealMatrix)) {
+            MatrixUtils.checkSymmetric(matrix, relativeTolerance);
+        }
+        this.dimension = matrix.getRowDimension();
+        this.data      = new double[packedLength(dimension)];
+        int k = 0;
+        for (int j = 0; j < dimension; ++j) {
+            for (int i = 0; i <= j; ++i) {
+                data[k++] = matrix.getEntry(i, j);
+            }
+        }
+    }
+
+    /**
+     * Get the number of elements of a packed triangle.
+     * @param n dimension of the matrix
+     * @return n (n + 1) / 2
+     */
+    static int packedLength(final int n) {
+        return (n * (n + 1)) / 2;
+    }
+
+    /**
+     * Get the dimension of a matrix from the number of elements of its packed triangle.
+     * @param length number of elements of the packed triangle
+     * @return dimension n such that n (n + 1) / 2 = length
+     * @throws DimensionMismatchException if no such positive n exists
+     */
+    static int packedDimension(final int length) throws DimensionMismatchException {
+        final int n = (int) FastMath.floor((FastMath.sqrt(8.0 * length + 1) - 1) / 2);
+        if (n < 1 || packedLength(n) != length) {
+            throw new DimensionMismatchException(length, packedLength(FastMath.max(n, 1)));
+        }
+        return n;
+    }
+
+    /**
+     * Get the index of an entry in the packed triangle.
+     * @param i row index
+     * @param j column index, must be at least {@code i}
+     * @return index of entry (i, j) in the packed array
+     */
+    private static int index(final int i, final int j) {
+        return i + (j * (j + 1)) / 2;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The created matrix is a general {@link Array2DRowRealMatrix}.
+     * </p>
+     */
+    @Override
+    public RealMatrix createMatrix(final int rowDimension,
+                                   final int columnDimension)
+        throws NotStrictlyPositiveException {
+        return new Array2DRowRealMatrix(rowDimension, columnDimension);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SymmetricRealMatrix copy() {
+        return new SymmetricRealMatrix(data, true);
+    }
+
+    /**
+     * Returns a reference to the packed upper triangle.
+     *
+     * @return the packed upper triangle, stored column by column.
+     */
+    public double[] getDataRef() {
+        return data;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return dimension;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return dimension;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        return (row <= column) ? data[index(row, column)] : data[index(column, row)];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The symmetric entry {@code (column, row)} is set too.
+     * </p>
+     */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        data[(row <= column) ? index(row, column) : index(column, row)] = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The symmetric entry {@code (column, row)} is changed too.
+     * </p>
+     */
+    @Override
+    public void addToEntry(final int row, final int column, final double increment)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        data[(row <= column) ? index(row, column) : index(column, row)] += increment;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The symmetric entry {@code (column, row)} is changed too.
+     * </p>
+     */
+    @Override
+    public void multiplyEntry(final int row, final int column, final double factor)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        data[(row <= column) ? index(row, column) : index(column, row)] *= factor;
+    }
+
+    /**
+     * Compute the sum of {@code this} and {@code m}.
+     *
+     * @param m Matrix to be added.
+     * @return {@code this + m}.
+     * @throws MatrixDimensionMismatchException if {@code m} is not the same
+     * size as {@code this}.
+     */
+    public SymmetricRealMatrix add(final SymmetricRealMatrix m)
+        throws MatrixDimensionMismatchException {
+        MatrixUtils.checkAdditionCompatible(this, m);
+        final double[] outData = new double[data.length];
+        for (int k = 0; k < data.length; ++k) {
+            outData[k] = data[k] + m.data[k];
+        }
+        return new SymmetricRealMatrix(outData, false);
+    }
+
+    /**
+     * Returns {@code this} minus {@code m}.
+     *
+     * @param m Matrix to be subtracted.
+     * @return {@code this - m}
+     * @throws MatrixDimensionMismatchException if {@code m} is not the same
+     * size as {@code this}.
+     */
+    public SymmetricRealMatrix subtract(final SymmetricRealMatrix m)
+        throws MatrixDimensionMismatchException {
+        MatrixUtils.checkSubtractionCompatible(this, m);
+        final double[] outData = new double[data.length];
+        for (int k = 0; k < data.length; ++k) {
+            outData[k] = data[k] - m.data[k];
+        }
+        return new SymmetricRealMatrix(outData, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix add(final RealMatrix m)
+        throws MatrixDimensionMismatchException {
+        if (m instanceof SymmetricRealMatrix) {
+            return add((SymmetricRealMatrix) m);
+        }
+        return super.add(m);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix subtract(final RealMatrix m)
+        throws MatrixDimensionMismatchException {
+        if (m instanceof SymmetricRealMatrix) {
+            return subtract((SymmetricRealMatrix) m);
+        }
+        return super.subtract(m);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SymmetricRealMatrix scalarAdd(final double d) {
+        final double[] outData = new double[data.length];
+        for (int k = 0; k < data.length; ++k) {
+            outData[k] = data[k] + d;
+        }
+        return new SymmetricRealMatrix(outData, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SymmetricRealMatrix scalarMultiply(final double d) {
+        final double[] outData = new double[data.length];
+        for (int k = 0; k < data.length; ++k) {
+            outData[k] = data[k] * d;
+        }
+        return new SymmetricRealMatrix(outData, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each stored entry is read once and used for both its position and
+     * the symmetric position.
+     * </p>
+     */
+    @Override
+    public RealMatrix multiply(final RealMatrix m)
+        throws DimensionMismatchException {
+        MatrixUtils.checkMultiplicationCompatible(this, m);
+        final int nCols = m.getColumnDimension();
+        final double[][] mData = (m instanceof Array2DRowRealMatrix) ?
+                                 ((Array2DRowRealMatrix) m).getDataRef() :
+                                 m.getData();
+        final double[][] out = new double[dimension][nCols];
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+        int k = 0;
+        for (int j = 0; j < dimension; ++j) {
+            for (int i = 0; i < j; ++i) {
+                final double a = data[k++];
+                backend.axpy(nCols, a, mData[j], 0, out[i], 0);
+                backend.axpy(nCols, a, mData[i], 0, out[j], 0);
+            }
+            backend.axpy(nCols, data[k++], mData[j], 0, out[j], 0);
+        }
+        return new Array2DRowRealMatrix(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out)
+        throws DimensionMismatchException {
+        if (v.length != dimension) {
+            throw new DimensionMismatchException(v.length, dimension);
+        }
+        if (out.length != dimension) {
+            throw new DimensionMismatchException(out.length, dimension);
+        }
+        int k = 0;
+        for (int j = 0; j < dimension; ++j) {
+            final double vj = v[j];
+            double sum = 0;
+            for (int i = 0; i < j; ++i) {
+                final double a = data[k++];
+                out[i] += a * vj;
+                sum    += a * v[i];
+            }
+            out[j] = sum + data[k++] * vj;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v)
+        throws DimensionMismatchException {
+        return operate(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector preMultiply(final RealVector v)
+        throws DimensionMismatchException {
+        return operate(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SymmetricRealMatrix transpose() {
+        return copy();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getTrace() {
+        double trace = 0;
+        for (int j = 0; j < dimension; ++j) {
+            trace += data[index(j, j)];
+        }
+        return trace;
+    }
+
+}
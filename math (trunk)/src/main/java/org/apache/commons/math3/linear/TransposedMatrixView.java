@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+
+/**
+ * Lazy transpose of another matrix.
+ * <p>
+ * The view does not hold any data, all accesses are forwarded to the
+ * underlying matrix with swapped indices, so creating it is O(1) and
+ * changes made through the view are visible in the underlying matrix
+ * and vice versa. Matrix-vector products are delegated to the transposed
+ * products of the underlying matrix, so they benefit from its storage
+ * specific implementations.
+ * </p>
+ *
+ * @see MatrixUtils#createTransposedView(RealMatrix)
+ * @version $Id$
+ * @since 3.4
+ */
+final class TransposedMatrixView extends AbstractRealMatrix {
+
+    /** Underlying matrix. */
+    private final RealMatrix parent;
+
+    /**
+     * Build a lazy transpose of a matrix.
+     * @param parent underlying matrix
+     */
+    TransposedMatrixView(final RealMatrix parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Get the underlying matrix.
+     * @return underlying matrix
+     */
+    RealMatrix getParent() {
+        return parent;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return parent.getColumnDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return parent.getRowDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix createMatrix(final int rowDimension, final int columnDimension)
+        throws NotStrictlyPositiveException {
+        return parent.createMatrix(rowDimension, columnDimension);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy is an independent matrix, it does not share data with the
+     * underlying matrix anymore.
+     * </p>
+     */
+    @Override
+    public RealMatrix copy() {
+        return parent.transpose();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix transpose() {
+        return parent.copy();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        return parent.getEntry(column, row);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        parent.setEntry(column, row, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addToEntry(final int row, final int column, final double increment)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        parent.addToEntry(column, row, increment);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiplyEntry(final int row, final int column, final double factor)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        parent.multiplyEntry(column, row, factor);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector getRowVector(final int row)
+        throws OutOfRangeException {
+        return parent.getColumnVector(row);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector getColumnVector(final int column)
+        throws OutOfRangeException {
+        return parent.getRowVector(column);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getRow(final int row)
+        throws OutOfRangeException {
+        return parent.getColumn(row);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getColumn(final int column)
+        throws OutOfRangeException {
+        return parent.getRow(column);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] operate(final double[] v)
+        throws DimensionMismatchException {
+        return parent.preMultiply(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(final RealVector v)
+        throws DimensionMismatchException {
+        return parent.preMultiply(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v)
+        throws DimensionMismatchException {
+        return parent.operate(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector preMultiply(final RealVector v)
+        throws DimensionMismatchException {
+        return parent.operate(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getTrace() {
+        return parent.getTrace();
+    }
+
+}
@@ -0,0 +1,599 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.math3.linear;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * Divide-and-conquer eigensolver for symmetric tridiagonal matrices.
+ * <p>
+ * This class implements Cuppen's divide-and-conquer algorithm. The
+ * tridiagonal matrix T is split recursively in two halves by removing
+ * a rank-one term:
+ * T = diag(T<sub>1</sub>, T<sub>2</sub>) + &rho; u u<sup>T</sup>.
+ * Small blocks are solved by the implicit QL algorithm. Two solved halves
+ * T<sub>i</sub> = Q<sub>i</sub> D<sub>i</sub> Q<sub>i</sub><sup>T</sup>
+ * are merged by solving the eigenproblem of D + &rho; z z<sup>T</sup>
+ * (with D = diag(D<sub>1</sub>, D<sub>2</sub>) and
+ * z = diag(Q<sub>1</sub>, Q<sub>2</sub>)<sup>T</sup> u), whose eigenvalues
+ * are the roots of the secular equation
+ * 1 + &rho; &sum; z<sub>i</sub><sup>2</sup> / (d<sub>i</sub> - &lambda;) = 0.
+ * The eigenvectors of the merged matrix are then obtained by a single
+ * matrix product, which is where most of the computation time is spent.
+ * </p>
+ * <p>
+ * Components of z that are negligible, or that correspond to nearly equal
+ * entries of D, are deflated beforehand. The vector z is then recomputed
+ * from the computed roots using the L&ouml;wner formula, as proposed by Gu
+ * and Eisenstat, which ensures the eigenvectors are numerically orthogonal.
+ * </p>
+ * <p>
+ * If an executor is provided, the small blocks are solved in parallel, and
+ * the matrix products of the merges are split in independent tasks.
+ * </p>
+ * <p>
+ * This class is not intended for direct use, it is an implementation
+ * helper for {@link EigenDecomposition}.
+ * </p>
+ *
+ * @see "J.J.M. Cuppen, A divide and conquer method for the symmetric
+ * tridiagonal eigenproblem, Numer. Math. 36 (1981)"
+ * @see "M. Gu and S.C. Eisenstat, A divide-and-conquer algorithm for the
+ * symmetric tridiagonal eigenproblem, SIAM J. Matrix Anal. Appl. 16 (1995)"
+ * @version $Id$
+ * @since 3.4
+ */
+class TriDiagonalEigenSolver {
+
+    /** Maximal size of the blocks solved directly by the implicit QL algorithm. */
+    private static final int LEAF_SIZE = 32;
+
+    /** Number of rows of the matrix product tasks. */
+    private static final int TASK_ROWS = 64;
+
+    /** Maximal number of iterations for the secular equation roots. */
+    private static final int MAX_SECULAR_ITERATIONS = 200;
+
+    /** Eigenvalues, in increasing order. */
+    private final double[] eigenvalues;
+
+    /** Eigenvectors, one per row, in the same order as the eigenvalues. */
+    private final double[][] eigenvectors;
+
+    /**
+     * Solve the eigenproblem of a symmetric tridiagonal matrix.
+     *
+     * @param main Main diagonal of the tridiagonal matrix.
+     * @param secondary Secondary diagonal of the tridiagonal matrix.
+     * @param maxIter Maximum number of iterations for the implicit QL
+     * algorithm on each eigenvalue.
+     * @param executor Executor running the independent tasks (may be null,
+     * in which case everything is computed in the calling thread).
+     * @throws org.apache.commons.math3.exception.MaxCountExceededException
+     * if the algorithm fails to converge.
+     */
+    TriDiagonalEigenSolver(final double[] main, final double[] secondary,
+                           final int maxIter, final ExecutorService executor) {
+
+        // build the splitting tree, removing the rank-one terms from the diagonal
+        final double[] d = main.clone();
+        final List<Node> leaves = new ArrayList<Node>();
+        final List<Node> merges = new ArrayList<Node>();
+        final Node root = split(0, d.length, d, secondary, leaves, merges);
+
+        // solve the leaves, which are all independent
+        if (executor == null) {
+            for (final Node leaf : leaves) {
+                leaf.solveLeaf(d, secondary, maxIter);
+            }
+        } else {
+            final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(leaves.size());
+            for (final Node leaf : leaves) {
+                tasks.add(new Callable<Void>() {
+                    /** {@inheritDoc} */
+                    public Void call() {
+                        leaf.solveLeaf(d, secondary, maxIter);
+                        return null;
+                    }
+                });
+            }
+            ParallelTasks.invokeAll(executor, tasks);
+        }
+
+        // merge the solved halves, children before parents
+        for (final Node node : merges) {
+            node.merge(executor);
+        }
+
+        eigenvalues  = root.values;
+        eigenvectors = root.vectors;
+
+    }
+
+    /**
+     * Get the eigenvalues.
+     * <p>Note that since this class is only intended for internal use,
+     * it returns directly a reference to its internal arrays, not a copy.</p>
+     * @return eigenvalues, in increasing order
+     */
+    double[] getEigenvaluesRef() {
+        return eigenvalues;
+    }
+
+    /**
+     * Get the eigenvectors.
+     * <p>Note that since this class is only intended for internal use,
+     * it returns directly a reference to its internal arrays, not a copy.</p>
+     * @return eigenvectors, one per row, in the same order as the eigenvalues
+     */
+    double[][] getEigenvectorsRef() {
+        return eigenvectors;
+    }
+
+    /**
+     * Compute a matrix product, splitting it in independent tasks.
+     * <p>
+     * All rows are computed by {@link GemmKernel}, whose result for one row
+     * does not depend on the other rows of the call, rather than by the
+     * backend, which selects its kernel from the dimensions of each call.
+     * The results are therefore identical whether the product is split or not.
+     * </p>
+     *
+     * @param a Left operand (row-major).
+     * @param b Right operand (row-major).
+     * @param executor Executor running the tasks (may be null, in which case
+     * the product is computed in the calling thread).
+     * @return a &times; b
+     */
+    static double[][] multiply(final double[][] a, final double[][] b,
+                               final ExecutorService executor) {
+        final double[][] product = new double[a.length][b[0].length];
+        if (executor == null) {
+            GemmKernel.multiply(a, b, product);
+        } else {
+            final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+            for (int start = 0; start < a.length; start += TASK_ROWS) {
+                final int rows = FastMath.min(TASK_ROWS, a.length - start);
+                final double[][] aPart = new double[rows][];
+                final double[][] pPart = new double[rows][];
+                System.arraycopy(a, start, aPart, 0, rows);
+                System.arraycopy(product, start, pPart, 0, rows);
+                tasks.add(new Callable<Void>() {
+                    /** {@inheritDoc} */
+                    public Void call() {
+                        GemmKernel.multiply(aPart, b, pPart);
+                        return null;
+                    }
+                });
+            }
+            ParallelTasks.invokeAll(executor, tasks);
+        }
+        return product;
+    }
+
+    /**
+     * Build the splitting tree of a block.
+     * @param start Index of the first row of the block.
+     * @param end Index after the last row of the block.
+     * @param d Main diagonal, modified in place to remove the rank-one terms.
+     * @param e Secondary diagonal.
+     * @param leaves List where leaf nodes are added.
+     * @param merges List where internal nodes are added, children first.
+     * @return node for the block
+     */
+    private static Node split(final int start, final int end,
+                              final double[] d, final double[] e,
+                              final List<Node> leaves, final List<Node> merges) {
+        final Node node = new Node(start, end);
+        if (end - start <= LEAF_SIZE) {
+            leaves.add(node);
+        } else {
+            final int middle = (start + end) / 2;
+            final double beta = e[middle - 1];
+            node.rho  = FastMath.abs(beta);
+            node.sign = (beta < 0) ? -1 : 1;
+            d[middle - 1] -= node.rho;
+            d[middle]     -= node.rho;
+            node.left  = split(start, middle, d, e, leaves, merges);
+            node.right = split(middle, end, d, e, leaves, merges);
+            merges.add(node);
+        }
+        return node;
+    }
+
+    /** Node of the splitting tree. */
+    private static class Node {
+
+        /** Index of the first row of the block. */
+        private final int start;
+
+        /** Index after the last row of the block. */
+        private final int end;
+
+        /** First half (null for leaves). */
+        private Node left;
+
+        /** Second half (null for leaves). */
+        private Node right;
+
+        /** Magnitude of the rank-one term. */
+        private double rho;
+
+        /** Sign of the coupling element. */
+        private double sign;
+
+        /** Eigenvalues of the block, in increasing order. */
+        private double[] values;
+
+        /** Eigenvectors of the block, one per row. */
+        private double[][] vectors;
+
+        /**
+         * Simple constructor.
+         * @param start Index of the first row of the block.
+         * @param end Index after the last row of the block.
+         */
+        Node(final int start, final int end) {
+            this.start = start;
+            this.end   = end;
+        }
+
+        /**
+         * Solve a leaf block with the implicit QL algorithm.
+         * @param d Main diagonal (with the rank-one terms removed).
+         * @param e Secondary diagonal.
+         * @param maxIter Maximum number of iterations for each eigenvalue.
+         */
+        void solveLeaf(final double[] d, final double[] e, final int maxIter) {
+            final int n = end - start;
+            final double[] dLeaf = new double[n];
+            final double[] eLeaf = new double[n];
+            final double[][] z = new double[n][n];
+            for (int i = 0; i < n; ++i) {
+                dLeaf[i] = d[start + i];
+                if (i < n - 1) {
+                    eLeaf[i] = e[start + i];
+                }
+                z[i][i] = 1.0;
+            }
+            EigenDecomposition.implicitQL(dLeaf, eLeaf, z, maxIter);
+
+            final double[][] v = new double[n][n];
+            for (int i = 0; i < n; ++i) {
+                for (int j = 0; j < n; ++j) {
+                    v[j][i] = z[i][j];
+                }
+            }
+            sort(dLeaf, v, n);
+        }
+
+        /**
+         * Merge the two solved halves of the block.
+         * @param executor Executor running the independent tasks (may be null).
+         */
+        void merge(final ExecutorService executor) {
+
+            final int n1 = left.end - left.start;
+            final int n  = end - start;
+
+            // eigenproblem of diag(D1, D2) + rho z z^T, in the basis of the halves eigenvectors
+            final double[]   d = new double[n];
+            final double[]   z = new double[n];
+            final double[][] q = new double[n][n];
+            for (int i = 0; i < n1; ++i) {
+                d[i] = left.values[i];
+                z[i] = left.vectors[i][n1 - 1];
+                System.arraycopy(left.vectors[i], 0, q[i], 0, n1);
+            }
+            for (int i = n1; i < n; ++i) {
+                d[i] = right.values[i - n1];
+                z[i] = sign * right.vectors[i - n1][0];
+                System.arraycopy(right.vectors[i - n1], 0, q[i], n1, n - n1);
+            }
+            left.vectors  = null;
+            right.vectors = null;
+
+            // normalize z
+            double zNorm2 = 0;
+            for (final double zI : z) {
+                zNorm2 += zI * zI;
+            }
+            final double r = rho * zNorm2;
+            final double zNorm = FastMath.sqrt(zNorm2);
+            double maxAbsD = 0;
+            for (int i = 0; i < n; ++i) {
+                z[i] /= zNorm;
+                maxAbsD = FastMath.max(maxAbsD, FastMath.abs(d[i]));
+            }
+
+            // the halves eigenvalues are sorted, merge them
+            final int[] order = new int[n];
+            for (int i = 0, i1 = 0, i2 = n1; i < n; ++i) {
+                order[i] = (i2 >= n || (i1 < n1 && d[i1] <= d[i2])) ? i1++ : i2++;
+            }
+
+            // deflation
+            final double tol = 8 * Precision.EPSILON * FastMath.max(maxAbsD, r);
+            final double[]   keptD   = new double[n];
+            final double[]   keptZ   = new double[n];
+            final double[][] keptV   = new double[n][];
+            final double[]   finalD  = new double[n];
+            final double[][] finalV  = new double[n][];
+            int k = 0;
+            int deflated = 0;
+            for (final int i : order) {
+                if (r * FastMath.abs(z[i]) <= tol) {
+                    // negligible coupling, the eigenpair is already known
+                    finalD[deflated]   = d[i];
+                    finalV[deflated++] = q[i];
+                } else if (k > 0) {
+                    final int p = k - 1;
+                    final double h = FastMath.hypot(keptZ[p], z[i]);
+                    final double c = z[i] / h;
+                    final double s = keptZ[p] / h;
+                    if (FastMath.abs(c * s * (d[i] - keptD[p])) <= tol) {
+                        // nearly equal diagonal entries, a rotation decouples one of them
+                        final double[] vP = keptV[p];
+                        final double[] vI = q[i];
+                        final double[] decoupled = new double[n];
+                        final double[] coupled   = new double[n];
+                        for (int l = 0; l < n; ++l) {
+                            decoupled[l] = c * vP[l] - s * vI[l];
+                            coupled[l]   = s * vP[l] + c * vI[l];
+                        }
+                        finalD[deflated]   = c * c * keptD[p] + s * s * d[i];
+                        finalV[deflated++] = decoupled;
+                        keptD[p] = s * s * keptD[p] + c * c * d[i];
+                        keptZ[p] = h;
+                        keptV[p] = coupled;
+                    } else {
+                        keptD[k]   = d[i];
+                        keptZ[k]   = z[i];
+                        keptV[k++] = q[i];
+                    }
+                } else {
+                    keptD[k]   = d[i];
+                    keptZ[k]   = z[i];
+                    keptV[k++] = q[i];
+                }
+            }
+
+            if (k > 0) {
+                // roots of the secular equation
+                final double[][] delta = new double[k][];
+                for (int j = 0; j < k; ++j) {
+                    delta[j] = new double[k];
+                    finalD[deflated + j] = secularRoot(j, k, keptD, keptZ, r, delta[j]);
+                }
+
+                // eigenvectors of the rank-one modified diagonal matrix
+                final double[] zHat = loewner(k, keptD, keptZ, r, delta);
+                final double[][] u = new double[k][k];
+                for (int j = 0; j < k; ++j) {
+                    final double[] uJ = u[j];
+                    double norm2 = 0;
+                    for (int i = 0; i < k; ++i) {
+                        uJ[i] = zHat[i] / delta[j][i];
+                        norm2 += uJ[i] * uJ[i];
+                    }
+                    final double inv = 1.0 / FastMath.sqrt(norm2);
+                    for (int i = 0; i < k; ++i) {
+                        uJ[i] *= inv;
+                    }
+                }
+
+                // back to the basis of the block
+                final double[][] v = new double[k][];
+                System.arraycopy(keptV, 0, v, 0, k);
+                System.arraycopy(multiply(u, v, executor), 0, finalV, deflated, k);
+            }
+
+            left.values  = null;
+            right.values = null;
+            sort(finalD, finalV, n);
+
+        }
+
+        /**
+         * Sort the eigenpairs of the node.
+         * @param d Eigenvalues.
+         * @param v Eigenvectors, one per row.
+         * @param n Number of eigenpairs.
+         */
+        private void sort(final double[] d, final double[][] v, final int n) {
+            final Integer[] index = new Integer[n];
+            for (int i = 0; i < n; ++i) {
+                index[i] = i;
+            }
+            Arrays.sort(index, new Comparator<Integer>() {
+                /** {@inheritDoc} */
+                public int compare(final Integer i1, final Integer i2) {
+                    return Double.compare(d[i1], d[i2]);
+                }
+            });
+            values  = new double[n];
+            vectors = new double[n][];
+            for (int i = 0; i < n; ++i) {
+                values[i]  = d[index[i]];
+                vectors[i] = v[index[i]];
+            }
+        }
+
+    }
+
+    /**
+     * Find a root of the secular equation
+     * 1 + &rho; &sum; z<sub>i</sub><sup>2</sup> / (d<sub>i</sub> - &lambda;) = 0.
+     * <p>
+     * The root is searched as an offset from the closest pole, so that the
+     * differences d<sub>i</sub> - &lambda; are computed accurately. Each
+     * iteration approximates the function by a rational model having the
+     * same poles as the two sides of the bracketing interval, and falls back
+     * to bisection when the model step leaves the bracketing interval.
+     * </p>
+     * @param j Index of the root (the root lies between d<sub>j</sub> and
+     * d<sub>j+1</sub>, or above d<sub>k-1</sub> for the last one).
+     * @param k Number of terms in the sum.
+     * @param d Poles, in increasing order.
+     * @param z Weights.
+     * @param rho Rank-one term magnitude.
+     * @param delta Placeholder for the differences d<sub>i</sub> - &lambda;.
+     * @return the root
+     */
+    private static double secularRoot(final int j, final int k,
+                                      final double[] d, final double[] z,
+                                      final double rho, final double[] delta) {
+
+        final boolean last = j == k - 1;
+
+        // select the closest pole as the origin
+        final int origin;
+        double lo;
+        double hi;
+        if (last) {
+            double zNorm2 = 0;
+            for (int i = 0; i < k; ++i) {
+                zNorm2 += z[i] * z[i];
+            }
+            origin = j;
+            lo = 0;
+            hi = rho * zNorm2;
+        } else {
+            final double half = 0.5 * (d[j + 1] - d[j]);
+            double f = 1;
+            for (int i = 0; i < k; ++i) {
+                f += rho * z[i] * z[i] / ((d[i] - d[j]) - half);
+            }
+            if (f >= 0) {
+                origin = j;
+                lo = 0;
+                hi = half;
+            } else {
+                origin = j + 1;
+                lo = -half;
+                hi = 0;
+            }
+        }
+
+        final double[] diff = new double[k];
+        for (int i = 0; i < k; ++i) {
+            diff[i] = d[i] - d[origin];
+        }
+
+        double tau = 0.5 * (lo + hi);
+        for (int iteration = 0; iteration < MAX_SECULAR_ITERATIONS; ++iteration) {
+
+            double psi  = 0;
+            double dPsi = 0;
+            double phi  = 0;
+            double dPhi = 0;
+            double errorBound = 0;
+            for (int i = 0; i < k; ++i) {
+                delta[i] = diff[i] - tau;
+                final double t = rho * z[i] / delta[i];
+                if (i <= j) {
+                    psi  += z[i] * t;
+                    dPsi += t * t / rho;
+                } else {
+                    phi  += z[i] * t;
+                    dPhi += t * t / rho;
+                }
+                errorBound += FastMath.abs(z[i] * t);
+            }
+            final double f = 1 + psi + phi;
+
+            if (FastMath.abs(f) <= 8 * k * Precision.EPSILON * (1 + errorBound)) {
+                break;
+            }
+            if (f > 0) {
+                hi = tau;
+            } else {
+                lo = tau;
+            }
+            if (hi - lo <= 2 * Precision.EPSILON * FastMath.max(FastMath.abs(lo), FastMath.abs(hi))) {
+                break;
+            }
+
+            // rational model with the poles at both ends of the interval
+            final double s1 = dPsi * delta[j] * delta[j];
+            double eta;
+            if (last) {
+                final double c = 1 + psi - dPsi * delta[j];
+                eta = delta[j] + s1 / c;
+            } else {
+                final double s2 = dPhi * delta[j + 1] * delta[j + 1];
+                final double c  = 1 + psi - dPsi * delta[j] + phi - dPhi * delta[j + 1];
+                final double a  = c;
+                final double b  = -(c * (delta[j] + delta[j + 1]) + s1 + s2);
+                final double cc = c * delta[j] * delta[j + 1] + s1 * delta[j + 1] + s2 * delta[j];
+                final double discriminant = FastMath.sqrt(FastMath.max(0, b * b - 4 * a * cc));
+                final double qq = -0.5 * (b + FastMath.copySign(discriminant, b));
+                final double r1 = qq / a;
+                final double r2 = cc / qq;
+                eta = (r1 > delta[j] && r1 < delta[j + 1]) ? r1 : r2;
+            }
+
+            final double next = tau + eta;
+            tau = (next > lo && next < hi) ? next : 0.5 * (lo + hi);
+
+        }
+
+        for (int i = 0; i < k; ++i) {
+            delta[i] = diff[i] - tau;
+        }
+        return d[origin] + tau;
+
+    }
+
+    /**
+     * Recompute the weights of the secular equation from its roots.
+     * <p>
+     * This uses the L&ouml;wner formula, which gives the weights for which
+     * the computed roots are exact. Using these weights rather than the
+     * original ones in the eigenvectors ensures their orthogonality.
+     * </p>
+     * @param k Number of terms in the sum.
+     * @param d Poles, in increasing order.
+     * @param z Original weights (only their signs are used).
+     * @param rho Rank-one term magnitude.
+     * @param delta Differences d<sub>i</sub> - &lambda;<sub>j</sub>, indexed as delta[j][i].
+     * @return recomputed weights
+     */
+    private static double[] loewner(final int k, final double[] d, final double[] z,
+                                    final double rho, final double[][] delta) {
+        final double[] zHat = new double[k];
+        for (int i = 0; i < k; ++i) {
+            double product = -delta[k - 1][i] / rho;
+            for (int j = 0; j < k - 1; ++j) {
+                final double pole = (j < i) ? d[j] : d[j + 1];
+                product *= -delta[j][i] / (pole - d[i]);
+            }
+            zHat[i] = FastMath.copySign(FastMath.sqrt(FastMath.abs(product)), z[i]);
+        }
+        return zHat;
+    }
+
+}
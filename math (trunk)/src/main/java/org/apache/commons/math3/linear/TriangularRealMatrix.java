@@ -0,0 +1,541 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.io.Serializable;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathArithmeticException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * Implementation of a lower or upper triangular matrix in packed storage.
+ * <p>
+ * Only the non-zero triangle is stored, in a single array of n (n + 1) / 2
+ * elements. Lower triangles are stored row by row (entry (i, j) with j &le; i
+ * is at index j + i (i + 1) / 2) and upper triangles are stored column by
+ * column (entry (i, j) with i &le; j is at index i + j (j + 1) / 2), so the
+ * packed array of a triangular matrix is also the packed array of its
+ * transpose, and lines of the matrix are always contiguous in the direction
+ * used by substitution.
+ * </p>
+ * <p>
+ * Attempts to set a non-zero value outside of the stored triangle trigger
+ * a {@link NumberIsTooLargeException}.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class TriangularRealMatrix extends AbstractRealMatrix
+    implements Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141016L;
+
+    /** Dimension of the matrix. */
+    private final int dimension;
+
+    /** Indicator for lower triangular matrices. */
+    private final boolean lower;
+
+    /** Packed triangle. */
+    private final double[] data;
+
+    /**
+     * Creates a matrix with the supplied dimension.
+     *
+     * @param dimension Number of rows and columns in the new matrix.
+     * @param lower if {@code true}, the matrix is lower triangular,
+     * otherwise it is upper triangular
+     * @throws NotStrictlyPositiveException if the dimension is
+     * not positive.
+     */
+    public TriangularRealMatrix(final int dimension, final boolean lower)
+        throws NotStrictlyPositiveException {
+        super(dimension, dimension);
+        this.dimension = dimension;
+        this.lower     = lower;
+        this.data      = new double[SymmetricRealMatrix.packedLength(dimension)];
+    }
+
+    /**
+     * Creates a matrix from its packed triangle.
+     *
+     * @param packed Non-zero triangle of the matrix, stored row by row for
+     * lower triangular matrices and column by column for upper triangular
+     * matrices.
+     * @param lower if {@code true}, the matrix is lower triangular,
+     * otherwise it is upper triangular
+     * @param copyArray if {@code true}, the input array will be copied,
+     * otherwise it will be referenced.
+     * @throws NullArgumentException if {@code packed} is null.
+     * @throws DimensionMismatchException if the length of {@code packed} is
+     * not n (n + 1) / 2 for some positive n.
+     */
+    public TriangularRealMatrix(final double[] packed, final boolean lower,
+                                final boolean copyArray)
+        throws NullArgumentException, DimensionMismatchException {
+        MathUtils.checkNotNull(packed);
+        this.dimension = SymmetricRealMatrix.packedDimension(packed.length);
+        this.lower     = lower;
+        this.data      = copyArray ? packed.clone() : packed;
+    }
+
+    /**
+     * Creates a matrix holding a triangle of another matrix.
+     * <p>
+     * The entries of {@code matrix} outside of the selected triangle are
+     * ignored.
+     * </p>
+     *
+     * @param matrix Matrix to copy.
+     * @param lower if {@code true}, the lower triangle of {@code matrix} is
+     * copied, otherwise its upper triangle is copied
+     * @throws NonSquareMatrixException if the matrix is not square.
+     */
+    public TriangularRealMatrix(final RealMatrix matrix, final boolean lower)
+        throws NonSquareMatrixException {
+        if (!matrix.isSquare()) {
+            throw new NonSquareMatrixException(matrix.getRowDimension(),
+                                               matrix.getColumnDimension());
+        }
+        this.dimension = matrix.getRowDimension();
+        this.lower     = lower;
+        this.data      = new double[SymmetricRealMatrix.packedLength(dimension)];
+        int k = 0;
+        for (int p = 0; p < dimension; ++p) {
+            for (int q = 0; q <= p; ++q) {
+                data[k++] = lower ? matrix.getEntry(p, q) : matrix.getEntry(q, p);
+            }
+        }
+    }
+
+    /**
+     * Creates a matrix holding the upper triangle of a row-oriented array.
+     * <p>
+     * This is used by decompositions which compute their triangular
+     * factors in full arrays.
+     * </p>
+     * @param upper row-oriented array whose upper triangle should be copied
+     * @param lower if {@code true}, the matrix is the transpose of the upper
+     * triangle, i.e. a lower triangular matrix
+     * @return packed triangular matrix
+     */
+    static TriangularRealMatrix fromUpperRows(final double[][] upper, final boolean lower) {
+        final int n = upper.length;
+        final double[] packed = new double[SymmetricRealMatrix.packedLength(n)];
+        int k = 0;
+        for (int j = 0; j < n; ++j) {
+            for (int i = 0; i <= j; ++i) {
+                packed[k++] = upper[i][j];
+            }
+        }
+        return new TriangularRealMatrix(packed, lower, false);
+    }
+
+    /**
+     * Get the index of an entry in the packed triangle.
+     * @param p larger index of the entry
+     * @param q smaller index of the entry
+     * @return index of the entry in the packed array
+     */
+    private static int index(final int p, final int q) {
+        return q + (p * (p + 1)) / 2;
+    }
+
+    /**
+     * Check if the matrix is lower triangular.
+     *
+     * @return {@code true} if the matrix is lower triangular, {@code false}
+     * if it is upper triangular
+     */
+    public boolean isLower() {
+        return lower;
+    }
+
+    /**
+     * Returns a reference to the packed triangle.
+     *
+     * @return the packed triangle, stored row by row for lower triangular
+     * matrices and column by column for upper triangular matrices.
+     */
+    public double[] getDataRef() {
+        return data;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The created matrix is a general {@link Array2DRowRealMatrix}.
+     * </p>
+     */
+    @Override
+    public RealMatrix createMatrix(final int rowDimension,
+                                   final int columnDimension)
+        throws NotStrictlyPositiveException {
+        return new Array2DRowRealMatrix(rowDimension, columnDimension);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TriangularRealMatrix copy() {
+        return new TriangularRealMatrix(data, lower, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return dimension;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return dimension;
+    }
+
+    /**
+     * Check if an entry belongs to the stored triangle.
+     * @param row row index
+     * @param column column index
+     * @return true if the entry belongs to the stored triangle
+     */
+    private boolean isStored(final int row, final int column) {
+        return lower ? (column <= row) : (row <= column);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        if (!isStored(row, column)) {
+            return 0;
+        }
+        return lower ? data[index(row, column)] : data[index(column, row)];
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws NumberIsTooLargeException if the entry is outside of the stored
+     * triangle and {@code value} is not zero.
+     */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws OutOfRangeException, NumberIsTooLargeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        if (isStored(row, column)) {
+            data[lower ? index(row, column) : index(column, row)] = value;
+        } else {
+            ensureZero(value);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws NumberIsTooLargeException if the entry is outside of the stored
+     * triangle and {@code increment} is not zero.
+     */
+    @Override
+    public void addToEntry(final int row, final int column, final double increment)
+        throws OutOfRangeException, NumberIsTooLargeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        if (isStored(row, column)) {
+            data[lower ? index(row, column) : index(column, row)] += increment;
+        } else {
+            ensureZero(increment);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiplyEntry(final int row, final int column, final double factor)
+        throws OutOfRangeException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        if (isStored(row, column)) {
+            data[lower ? index(row, column) : index(column, row)] *= factor;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The transpose shares no data with the instance, but its packed array
+     * is a plain copy of the instance packed array.
+     * </p>
+     */
+    @Override
+    public TriangularRealMatrix transpose() {
+        return new TriangularRealMatrix(data, !lower, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TriangularRealMatrix scalarMultiply(final double d) {
+        final double[] outData = new double[data.length];
+        for (int k = 0; k < data.length; ++k) {
+            outData[k] = data[k] * d;
+        }
+        return new TriangularRealMatrix(outData, lower, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the stored triangle is read, each of its entries scaling a whole
+     * row of {@code m}, so the product costs half the operations of a general
+     * product. The result is a general {@link Array2DRowRealMatrix}.
+     * </p>
+     */
+    @Override
+    public RealMatrix multiply(final RealMatrix m)
+        throws DimensionMismatchException {
+        MatrixUtils.checkMultiplicationCompatible(this, m);
+        final double[][] b   = m.getData();
+        final int nCols      = m.getColumnDimension();
+        final double[][] out = new double[dimension][nCols];
+        int k = 0;
+        if (lower) {
+            // row i of the product combines rows 0 to i of m
+            for (int i = 0; i < dimension; ++i) {
+                final double[] outI = out[i];
+                for (int j = 0; j <= i; ++j) {
+                    final double t  = data[k++];
+                    final double[] bJ = b[j];
+                    for (int c = 0; c < nCols; ++c) {
+                        outI[c] += t * bJ[c];
+                    }
+                }
+            }
+        } else {
+            // row j of m contributes to rows 0 to j of the product
+            for (int j = 0; j < dimension; ++j) {
+                final double[] bJ = b[j];
+                for (int i = 0; i <= j; ++i) {
+                    final double t  = data[k++];
+                    final double[] outI = out[i];
+                    for (int c = 0; c < nCols; ++c) {
+                        outI[c] += t * bJ[c];
+                    }
+                }
+            }
+        }
+        return new Array2DRowRealMatrix(out, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void operateInto(final double[] v, final double[] out)
+        throws DimensionMismatchException {
+        checkDimensions(v, out);
+        multiply(lower, v, out);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v)
+        throws DimensionMismatchException {
+        final double[] out = new double[dimension];
+        checkDimensions(v, out);
+        multiply(!lower, v, out);
+        return out;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector preMultiply(final RealVector v)
+        throws DimensionMismatchException {
+        if (v instanceof ArrayRealVector) {
+            return new ArrayRealVector(preMultiply(((ArrayRealVector) v).getDataRef()), false);
+        }
+        return new ArrayRealVector(preMultiply(v.toArray()), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getTrace() {
+        double trace = 0;
+        for (int i = 0; i < dimension; ++i) {
+            trace += data[index(i, i)];
+        }
+        return trace;
+    }
+
+    /**
+     * Compute the determinant of the matrix.
+     *
+     * @return product of the diagonal elements
+     */
+    public double getDeterminant() {
+        double determinant = 1;
+        for (int i = 0; i < dimension; ++i) {
+            determinant *= data[index(i, i)];
+        }
+        return determinant;
+    }
+
+    /**
+     * Solve the linear system {@code this x = b} by substitution.
+     *
+     * @param b right hand side of the system
+     * @return solution {@code x}
+     * @throws DimensionMismatchException if the length of {@code b} does
+     * not match the dimension of the matrix
+     * @throws MathArithmeticException if a diagonal element is zero
+     */
+    public double[] solve(final double[] b)
+        throws DimensionMismatchException, MathArithmeticException {
+        if (b.length != dimension) {
+            throw new DimensionMismatchException(b.length, dimension);
+        }
+        final double[] x = b.clone();
+        solveInPlace(x);
+        return x;
+    }
+
+    /**
+     * Solve the linear system {@code this x = b} by substitution.
+     *
+     * @param b right hand side of the system
+     * @return solution {@code x}
+     * @throws DimensionMismatchException if the dimension of {@code b} does
+     * not match the dimension of the matrix
+     * @throws MathArithmeticException if a diagonal element is zero
+     */
+    public RealVector solve(final RealVector b)
+        throws DimensionMismatchException, MathArithmeticException {
+        if (b.getDimension() != dimension) {
+            throw new DimensionMismatchException(b.getDimension(), dimension);
+        }
+        final double[] x = b.toArray();
+        solveInPlace(x);
+        return new ArrayRealVector(x, false);
+    }
+
+    /**
+     * Solve the linear system {@code this x = b} by substitution, overwriting
+     * the right hand side with the solution.
+     * <p>
+     * The dimension of {@code x} must have been checked by the caller.
+     * </p>
+     *
+     * @param x right hand side of the system on input, solution on output
+     * @throws MathArithmeticException if a diagonal element is zero
+     */
+    void solveInPlace(final double[] x) throws MathArithmeticException {
+        if (lower) {
+            // forward substitution, rows are contiguous
+            int k = 0;
+            for (int i = 0; i < dimension; ++i) {
+                double sum = x[i];
+                for (int j = 0; j < i; ++j) {
+                    sum -= data[k++] * x[j];
+                }
+                x[i] = sum / checkedDiagonal(data[k++]);
+            }
+        } else {
+            // backward substitution, columns are contiguous
+            for (int j = dimension - 1; j >= 0; --j) {
+                final int start = index(j, 0);
+                final double xj = x[j] / checkedDiagonal(data[start + j]);
+                x[j] = xj;
+                for (int i = 0; i < j; ++i) {
+                    x[i] -= data[start + i] * xj;
+                }
+            }
+        }
+    }
+
+    /**
+     * Check a diagonal element can be used as a divisor.
+     * @param d diagonal element
+     * @return d
+     * @throws MathArithmeticException if {@code d} is zero
+     */
+    private static double checkedDiagonal(final double d) throws MathArithmeticException {
+        if (FastMath.abs(d) < Precision.SAFE_MIN) {
+            throw new MathArithmeticException(LocalizedFormats.ZERO_DENOMINATOR);
+        }
+        return d;
+    }
+
+    /**
+     * Multiply a vector by the stored triangle.
+     * @param asLower if true, the packed triangle is used as the lower triangle
+     * stored row by row, otherwise it is used as the upper triangle stored
+     * column by column
+     * @param v vector to multiply
+     * @param out array where to store the product
+     */
+    private void multiply(final boolean asLower, final double[] v, final double[] out) {
+        int k = 0;
+        if (asLower) {
+            for (int i = 0; i < dimension; ++i) {
+                double sum = 0;
+                for (int j = 0; j <= i; ++j) {
+                    sum += data[k++] * v[j];
+                }
+                out[i] = sum;
+            }
+        } else {
+            for (int j = 0; j < dimension; ++j) {
+                final double vj = v[j];
+                for (int i = 0; i < j; ++i) {
+                    out[i] += data[k++] * vj;
+                }
+                out[j] = data[k++] * vj;
+            }
+        }
+    }
+
+    /**
+     * Check the dimensions of a product operands.
+     * @param v vector to multiply
+     * @param out array where to store the product
+     * @throws DimensionMismatchException if the dimensions do not match
+     */
+    private void checkDimensions(final double[] v, final double[] out)
+        throws DimensionMismatchException {
+        if (v.length != dimension) {
+            throw new DimensionMismatchException(v.length, dimension);
+        }
+        if (out.length != dimension) {
+            throw new DimensionMismatchException(out.length, dimension);
+        }
+    }
+
+    /**
+     * Ensure a value is zero.
+     *
+     * @param value Value to check.
+     * @exception NumberIsTooLargeException if {@code value} is not zero.
+     */
+    private void ensureZero(final double value) throws NumberIsTooLargeException {
+        if (!Precision.equals(0.0, value, 1)) {
+            throw new NumberIsTooLargeException(FastMath.abs(value), 0, true);
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.util.MathUtils;
+
+/**
+ * Implementation of a tridiagonal matrix.
+ * <p>
+ * This is a {@link BandedRealMatrix} with one sub-diagonal and one
+ * super-diagonal. Such matrices arise for example in cubic splines
+ * interpolation or in finite differences discretizations of one-dimensional
+ * problems. Linear systems can be solved in O(n) operations using
+ * {@link BandedLUDecomposition} or {@link BandedCholeskyDecomposition}.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class TridiagonalRealMatrix extends BandedRealMatrix {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141017L;
+
+    /**
+     * Creates a matrix with the supplied dimension.
+     *
+     * @param dimension Number of rows and columns in the new matrix.
+     * @throws NotStrictlyPositiveException if the dimension is not positive.
+     */
+    public TridiagonalRealMatrix(final int dimension)
+        throws NotStrictlyPositiveException {
+        super(dimension, 1, 1);
+    }
+
+    /**
+     * Creates a matrix from its three diagonals.
+     * <p>
+     * The arrays are copied.
+     * </p>
+     *
+     * @param subDiagonal Sub-diagonal, entry k is entry (k + 1, k) of the matrix.
+     * @param diagonal Main diagonal.
+     * @param superDiagonal Super-diagonal, entry k is entry (k, k + 1) of the matrix.
+     * @throws NullArgumentException if one of the arrays is null.
+     * @throws NotStrictlyPositiveException if the main diagonal is empty.
+     * @throws DimensionMismatchException if the length of the sub-diagonal or
+     * the super-diagonal is not one less than the length of the main diagonal.
+     */
+    public TridiagonalRealMatrix(final double[] subDiagonal, final double[] diagonal,
+                                 final double[] superDiagonal)
+        throws NullArgumentException, NotStrictlyPositiveException, DimensionMismatchException {
+        this(checkDiagonals(subDiagonal, diagonal, superDiagonal));
+        final double[] data = getDataRef();
+        for (int k = 0; k < diagonal.length; ++k) {
+            if (k > 0) {
+                data[3 * k] = subDiagonal[k - 1];
+            }
+            data[3 * k + 1] = diagonal[k];
+            if (k < diagonal.length - 1) {
+                data[3 * k + 2] = superDiagonal[k];
+            }
+        }
+    }
+
+    /**
+     * Check the diagonals dimensions.
+     * @param subDiagonal sub-diagonal
+     * @param diagonal main diagonal
+     * @param superDiagonal super-diagonal
+     * @return dimension of the matrix
+     * @throws NullArgumentException if one of the arrays is null.
+     * @throws DimensionMismatchException if the length of the sub-diagonal or
+     * the super-diagonal is not one less than the length of the main diagonal.
+     */
+    private static int checkDiagonals(final double[] subDiagonal, final double[] diagonal,
+                                      final double[] superDiagonal)
+        throws NullArgumentException, DimensionMismatchException {
+        MathUtils.checkNotNull(subDiagonal);
+        MathUtils.checkNotNull(diagonal);
+        MathUtils.checkNotNull(superDiagonal);
+        final int offDiagonal = diagonal.length == 0 ? 0 : diagonal.length - 1;
+        if (subDiagonal.length != offDiagonal) {
+            throw new DimensionMismatchException(subDiagonal.length, offDiagonal);
+        }
+        if (superDiagonal.length != offDiagonal) {
+            throw new DimensionMismatchException(superDiagonal.length, offDiagonal);
+        }
+        return diagonal.length;
+    }
+
+    /**
+     * Get the sub-diagonal.
+     * @return a copy of the sub-diagonal, entry k is entry (k + 1, k) of the matrix
+     */
+    public double[] getSubDiagonal() {
+        final double[] data = getDataRef();
+        final double[] sub  = new double[getRowDimension() - 1];
+        for (int k = 0; k < sub.length; ++k) {
+            sub[k] = data[3 * k + 3];
+        }
+        return sub;
+    }
+
+    /**
+     * Get the main diagonal.
+     * @return a copy of the main diagonal
+     */
+    public double[] getDiagonal() {
+        final double[] data     = getDataRef();
+        final double[] diagonal = new double[getRowDimension()];
+        for (int k = 0; k < diagonal.length; ++k) {
+            diagonal[k] = data[3 * k + 1];
+        }
+        return diagonal;
+    }
+
+    /**
+     * Get the super-diagonal.
+     * @return a copy of the super-diagonal, entry k is entry (k, k + 1) of the matrix
+     */
+    public double[] getSuperDiagonal() {
+        final double[] data  = getDataRef();
+        final double[] upper = new double[getRowDimension() - 1];
+        for (int k = 0; k < upper.length; ++k) {
+            upper[k] = data[3 * k + 2];
+        }
+        return upper;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TridiagonalRealMatrix copy() {
+        return (TridiagonalRealMatrix) super.copy();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TridiagonalRealMatrix transpose() {
+        return (TridiagonalRealMatrix) super.transpose();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected BandedRealMatrix createBanded(final int lower, final int upper) {
+        if (lower == 1 && upper == 1) {
+            return new TridiagonalRealMatrix(getRowDimension());
+        }
+        return super.createBanded(lower, upper);
+    }
+
+}
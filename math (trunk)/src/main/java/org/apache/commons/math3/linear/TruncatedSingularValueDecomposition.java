@@ -0,0 +1,543 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
+import org.apache.commons.math3.exception.MaxCountExceededException;
+import org.apache.commons.math3.exception.NotPositiveException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.exception.NumberIsTooSmallException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.Precision;
+
+/**
+ * Calculates the k largest singular triplets of a linear operator.
+ * <p>
+ * For a m &times; n operator A, the truncated Singular Value Decomposition
+ * is the set of three matrices U<sub>k</sub>, &Sigma;<sub>k</sub> and
+ * V<sub>k</sub> such that U<sub>k</sub> &times; &Sigma;<sub>k</sub> &times;
+ * V<sub>k</sub><sup>T</sup> is the best rank k approximation of A, where
+ * U<sub>k</sub> is a m &times; k matrix with orthonormal columns,
+ * &Sigma;<sub>k</sub> is a k &times; k diagonal matrix holding the k largest
+ * singular values of A and V<sub>k</sub> is a n &times; k matrix with
+ * orthonormal columns.
+ * </p>
+ * <p>
+ * Contrary to {@link SingularValueDecomposition}, the operator is only
+ * accessed through products by vectors (or by blocks of vectors if it is
+ * a {@link RealMatrix}), and the memory used is proportional to
+ * (m + n) &times; k rather than m &times; n. This makes it suitable for
+ * very large or sparse operators when only a few components are needed.
+ * The operator must either be a matrix or support products by its
+ * transpose, see {@link RealLinearOperator#isTransposable()}.
+ * </p>
+ * <p>
+ * Two algorithms are available, selected by the constructor used:
+ * </p>
+ * <ul>
+ *   <li>a randomized range finder (Halko, Martinsson and Tropp, 2011): the
+ *   range of A is sampled by applying it to a few more random vectors than
+ *   the number of components needed, optionally refined by power iterations,
+ *   and A is then projected on the sampled range where a small dense
+ *   decomposition is computed. The number of passes over the operator is
+ *   fixed and small, the accuracy depends on the decay of the singular
+ *   values and on the number of power iterations,</li>
+ *   <li>a Golub-Kahan-Lanczos bidiagonalization with full
+ *   reorthogonalization: the operator is reduced progressively to a small
+ *   bidiagonal matrix, until the k largest singular triplets of this matrix
+ *   satisfy the convergence criterion. This is generally more accurate but
+ *   requires one product by A and one product by A<sup>T</sup> per basis
+ *   vector.</li>
+ * </ul>
+ *
+ * @see SingularValueDecomposition
+ * @see "N. Halko, P.G. Martinsson and J.A. Tropp, Finding structure with
+ * randomness: probabilistic algorithms for constructing approximate matrix
+ * decompositions, SIAM Review 53 (2011)"
+ * @version $Id$
+ * @since 3.4
+ */
+public class TruncatedSingularValueDecomposition {
+
+    /** Seed of the generator for the Lanczos start vector. */
+    private static final long LANCZOS_SEED = 0x5a17c3e9b2d4f681l;
+
+    /** Number of rows of the operator. */
+    private final int m;
+
+    /** Number of columns of the operator. */
+    private final int n;
+
+    /** Computed singular values. */
+    private final double[] singularValues;
+
+    /** Left singular vectors (one per array). */
+    private final double[][] uColumns;
+
+    /** Right singular vectors (one per array). */
+    private final double[][] vColumns;
+
+    /** Cached value of U matrix. */
+    private RealMatrix cachedU;
+
+    /** Cached value of transposed U matrix. */
+    private RealMatrix cachedUt;
+
+    /** Cached value of S (diagonal) matrix. */
+    private RealMatrix cachedS;
+
+    /** Cached value of V matrix. */
+    private RealMatrix cachedV;
+
+    /** Cached value of transposed V matrix. */
+    private RealMatrix cachedVt;
+
+    /**
+     * Calculates the truncated Singular Value Decomposition using a
+     * randomized range finder.
+     * <p>
+     * A reasonable choice for the oversampling is 5 to 10. Each power
+     * iteration requires two more passes over the operator but improves
+     * the accuracy significantly when the singular values decay slowly;
+     * 1 or 2 iterations are usually enough.
+     * </p>
+     *
+     * @param operator Operator to decompose.
+     * @param k Number of singular triplets to compute.
+     * @param oversampling Number of additional random vectors used to sample
+     * the range of the operator.
+     * @param powerIterations Number of power iterations.
+     * @param random Generator for the random sampling vectors.
+     * @throws NotStrictlyPositiveException if {@code k} is not strictly positive.
+     * @throws NumberIsTooLargeException if {@code k} is larger than the
+     * smallest dimension of the operator.
+     * @throws NotPositiveException if {@code oversampling} or
+     * {@code powerIterations} is negative.
+     * @throws MathUnsupportedOperationException if the operator is neither
+     * a matrix nor supports products by its transpose.
+     */
+    public TruncatedSingularValueDecomposition(final RealLinearOperator operator, final int k,
+                                               final int oversampling, final int powerIterations,
+                                               final RandomGenerator random)
+        throws NotStrictlyPositiveException, NumberIsTooLargeException,
+               NotPositiveException, MathUnsupportedOperationException {
+
+        m = operator.getRowDimension();
+        n = operator.getColumnDimension();
+        checkParameters(operator, k);
+        if (oversampling < 0) {
+            throw new NotPositiveException(oversampling);
+        }
+        if (powerIterations < 0) {
+            throw new NotPositiveException(powerIterations);
+        }
+
+        final int l = FastMath.min(k + oversampling, FastMath.min(m, n));
+
+        // sample the range of the operator
+        final double[][] omega = new double[l][n];
+        for (final double[] column : omega) {
+            for (int i = 0; i < n; ++i) {
+                column[i] = random.nextGaussian();
+            }
+        }
+        double[][] q = orthonormalize(operate(operator, omega, false));
+
+        // refine the sampled range by power iterations on A A^T
+        for (int iteration = 0; iteration < powerIterations; ++iteration) {
+            final double[][] z = orthonormalize(operate(operator, q, true));
+            q = orthonormalize(operate(operator, z, false));
+        }
+
+        // decompose the projection B = Q^T A (whose rows are the columns of A^T Q)
+        final double[][] b = operate(operator, q, true);
+        final SingularValueDecomposition svd =
+            new SingularValueDecomposition(new Array2DRowRealMatrix(b, false));
+        final double[] s = svd.getSingularValues();
+        final RealMatrix ub = svd.getU();
+        final RealMatrix vb = svd.getV();
+
+        singularValues = new double[k];
+        uColumns = new double[k][];
+        vColumns = new double[k][];
+        for (int j = 0; j < k; ++j) {
+            singularValues[j] = s[j];
+            uColumns[j] = combine(q, ub.getColumn(j), m);
+            vColumns[j] = vb.getColumn(j);
+        }
+
+    }
+
+    /**
+     * Calculates the truncated Singular Value Decomposition using a
+     * Golub-Kahan-Lanczos bidiagonalization.
+     * <p>
+     * The bidiagonalization is stopped as soon as the residual norms of
+     * the k largest Ritz triplets are all smaller than {@code tolerance}
+     * times the largest Ritz value. The memory used is bounded by the
+     * storage of {@code maxBasisSize} vectors of each dimension.
+     * </p>
+     *
+     * @param operator Operator to decompose.
+     * @param k Number of singular triplets to compute.
+     * @param maxBasisSize Maximal number of Lanczos vectors (a good choice
+     * is a few times {@code k}).
+     * @param tolerance Relative convergence threshold on the residuals.
+     * @throws NotStrictlyPositiveException if {@code k} is not strictly positive.
+     * @throws NumberIsTooLargeException if {@code k} is larger than the
+     * smallest dimension of the operator.
+     * @throws NumberIsTooSmallException if {@code maxBasisSize} is smaller
+     * than {@code k}.
+     * @throws MathUnsupportedOperationException if the operator is neither
+     * a matrix nor supports products by its transpose.
+     * @throws MaxCountExceededException if the triplets have not converged
+     * when the basis reaches its maximal size.
+     */
+    public TruncatedSingularValueDecomposition(final RealLinearOperator operator, final int k,
+                                               final int maxBasisSize, final double tolerance)
+        throws NotStrictlyPositiveException, NumberIsTooLargeException,
+               NumberIsTooSmallException, MathUnsupportedOperationException,
+               MaxCountExceededException {
+
+        m = operator.getRowDimension();
+        n = operator.getColumnDimension();
+        checkParameters(operator, k);
+        if (maxBasisSize < k) {
+            throw new NumberIsTooSmallException(maxBasisSize, k, true);
+        }
+
+        final int maxSize = FastMath.min(maxBasisSize, FastMath.min(m, n));
+        final RandomGenerator random = new Well19937c(LANCZOS_SEED);
+        final double[][] u = new double[maxSize][];
+        final double[][] v = new double[maxSize + 1][];
+        final double[] alpha = new double[maxSize];
+        final double[] beta  = new double[maxSize];
+
+        v[0] = randomUnitVector(random, n, v, 0);
+        SingularValueDecomposition svd = null;
+        int size = 0;
+        while (svd == null) {
+
+            final int j = size++;
+
+            // u_j = A v_j - beta_{j-1} u_{j-1}, orthogonalized against all previous u
+            double[] uJ = operate(operator, v[j], false);
+            alpha[j] = reorthogonalize(uJ, u, j);
+            if (alpha[j] == 0) {
+                // invariant subspace found, restart in an orthogonal direction
+                uJ = randomUnitVector(random, m, u, j);
+            }
+            u[j] = uJ;
+
+            // v_{j+1} = A^T u_j - alpha_j v_j, orthogonalized against all previous v
+            double[] vNext = operate(operator, uJ, true);
+            beta[j] = reorthogonalize(vNext, v, j + 1);
+            if (beta[j] == 0 && size < FastMath.min(m, n)) {
+                vNext = randomUnitVector(random, n, v, j + 1);
+            }
+            v[j + 1] = vNext;
+
+            if (size >= k) {
+                // Ritz triplets of the bidiagonal matrix
+                final double[][] b = new double[size][size];
+                for (int i = 0; i < size; ++i) {
+                    b[i][i] = alpha[i];
+                    if (i + 1 < size) {
+                        b[i][i + 1] = beta[i];
+                    }
+                }
+                final SingularValueDecomposition current =
+                    new SingularValueDecomposition(new Array2DRowRealMatrix(b, false));
+
+                // residuals: ||A^T u - sigma v|| = beta_{size-1} |last component of left vector|
+                final double threshold = tolerance * current.getSingularValues()[0];
+                final RealMatrix pb = current.getU();
+                boolean converged = true;
+                for (int i = 0; i < k && converged; ++i) {
+                    converged = FastMath.abs(beta[size - 1] * pb.getEntry(size - 1, i)) <= threshold;
+                }
+
+                if (converged || size == FastMath.min(m, n)) {
+                    svd = current;
+                } else if (size == maxSize) {
+                    throw new MaxCountExceededException(maxBasisSize);
+                }
+            }
+        }
+
+        final double[] s = svd.getSingularValues();
+        final RealMatrix pb = svd.getU();
+        final RealMatrix qb = svd.getV();
+        final double[][] uBasis = new double[size][];
+        final double[][] vBasis = new double[size][];
+        System.arraycopy(u, 0, uBasis, 0, size);
+        System.arraycopy(v, 0, vBasis, 0, size);
+        singularValues = new double[k];
+        uColumns = new double[k][];
+        vColumns = new double[k][];
+        for (int j = 0; j < k; ++j) {
+            singularValues[j] = s[j];
+            uColumns[j] = combine(uBasis, pb.getColumn(j), m);
+            vColumns[j] = combine(vBasis, qb.getColumn(j), n);
+        }
+
+    }
+
+    /**
+     * Returns the matrix U of the decomposition.
+     * <p>U has orthonormal columns, which are the left singular vectors.</p>
+     * @return the U matrix (m &times; k)
+     * @see #getUT()
+     */
+    public RealMatrix getU() {
+        if (cachedU == null) {
+            cachedU = getUT().transpose();
+        }
+        return cachedU;
+    }
+
+    /**
+     * Returns the transpose of the matrix U of the decomposition.
+     * @return the U<sup>T</sup> matrix (k &times; m)
+     * @see #getU()
+     */
+    public RealMatrix getUT() {
+        if (cachedUt == null) {
+            cachedUt = MatrixUtils.createRealMatrix(uColumns);
+        }
+        return cachedUt;
+    }
+
+    /**
+     * Returns the diagonal matrix &Sigma; of the decomposition.
+     * <p>The singular values are provided in non-increasing order.</p>
+     * @return the &Sigma; matrix (k &times; k)
+     */
+    public RealMatrix getS() {
+        if (cachedS == null) {
+            cachedS = MatrixUtils.createRealDiagonalMatrix(singularValues);
+        }
+        return cachedS;
+    }
+
+    /**
+     * Returns the k largest singular values.
+     * <p>The singular values are provided in non-increasing order.</p>
+     * @return the diagonal elements of the &Sigma; matrix
+     */
+    public double[] getSingularValues() {
+        return singularValues.clone();
+    }
+
+    /**
+     * Returns the matrix V of the decomposition.
+     * <p>V has orthonormal columns, which are the right singular vectors.</p>
+     * @return the V matrix (n &times; k)
+     * @see #getVT()
+     */
+    public RealMatrix getV() {
+        if (cachedV == null) {
+            cachedV = getVT().transpose();
+        }
+        return cachedV;
+    }
+
+    /**
+     * Returns the transpose of the matrix V of the decomposition.
+     * @return the V<sup>T</sup> matrix (k &times; n)
+     * @see #getV()
+     */
+    public RealMatrix getVT() {
+        if (cachedVt == null) {
+            cachedVt = MatrixUtils.createRealMatrix(vColumns);
+        }
+        return cachedVt;
+    }
+
+    /**
+     * Check the parameters common to both algorithms.
+     * @param operator Operator to decompose.
+     * @param k Number of singular triplets to compute.
+     * @throws NotStrictlyPositiveException if {@code k} is not strictly positive.
+     * @throws NumberIsTooLargeException if {@code k} is larger than the
+     * smallest dimension of the operator.
+     * @throws MathUnsupportedOperationException if the operator is neither
+     * a matrix nor supports products by its transpose.
+     */
+    private void checkParameters(final RealLinearOperator operator, final int k)
+        throws NotStrictlyPositiveException, NumberIsTooLargeException,
+               MathUnsupportedOperationException {
+        if (k <= 0) {
+            throw new NotStrictlyPositiveException(k);
+        }
+        if (k > FastMath.min(m, n)) {
+            throw new NumberIsTooLargeException(k, FastMath.min(m, n), true);
+        }
+        if (!(operator instanceof RealMatrix || operator.isTransposable())) {
+            throw new MathUnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Apply the operator (or its transpose) to a block of vectors.
+     * <p>
+     * If the operator is a matrix, a single matrix product is used,
+     * otherwise the operator is applied to each vector in turn.
+     * </p>
+     * @param operator Operator to apply.
+     * @param x Vectors to operate on (one per array).
+     * @param transpose If true, the transpose of the operator is applied.
+     * @return the transformed vectors (one per array)
+     */
+    private static double[][] operate(final RealLinearOperator operator, final double[][] x,
+                                      final boolean transpose) {
+        if (operator instanceof RealMatrix) {
+            final RealMatrix matrix = (RealMatrix) operator;
+            final RealMatrix xT = new Array2DRowRealMatrix(x, false);
+            if (transpose) {
+                // rows of X^T A are the columns of A^T X
+                return xT.multiply(matrix).getData();
+            } else {
+                return matrix.multiply(xT.transpose()).transpose().getData();
+            }
+        }
+        final double[][] y = new double[x.length][];
+        for (int j = 0; j < x.length; ++j) {
+            y[j] = operate(operator, x[j], transpose);
+        }
+        return y;
+    }
+
+    /**
+     * Apply the operator (or its transpose) to a vector.
+     * @param operator Operator to apply.
+     * @param x Vector to operate on.
+     * @param transpose If true, the transpose of the operator is applied.
+     * @return the transformed vector
+     */
+    private static double[] operate(final RealLinearOperator operator, final double[] x,
+                                    final boolean transpose) {
+        final RealVector xVector = new ArrayRealVector(x, false);
+        final RealVector y;
+        if (!transpose) {
+            y = operator.operate(xVector);
+        } else if (operator instanceof RealMatrix) {
+            y = ((RealMatrix) operator).preMultiply(xVector);
+        } else {
+            y = operator.operateTranspose(xVector);
+        }
+        return (y instanceof ArrayRealVector) ? ((ArrayRealVector) y).getDataRef() : y.toArray();
+    }
+
+    /**
+     * Orthonormalize a block of vectors in place.
+     * <p>
+     * Vectors that are linearly dependent on the previous ones are replaced
+     * by zero vectors.
+     * </p>
+     * @param x Vectors to orthonormalize (one per array).
+     * @return x
+     */
+    private static double[][] orthonormalize(final double[][] x) {
+        for (int j = 0; j < x.length; ++j) {
+            final double norm = reorthogonalize(x[j], x, j);
+            if (norm == 0) {
+                Arrays.fill(x[j], 0.0);
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Orthogonalize a vector against previous orthonormal vectors and normalize it.
+     * <p>
+     * The classical Gram-Schmidt process is applied twice, which is enough
+     * to ensure orthogonality to working precision. Null vectors in the
+     * basis are ignored.
+     * </p>
+     * @param x Vector to orthogonalize (modified in place).
+     * @param basis Orthonormal vectors.
+     * @param count Number of basis vectors to use.
+     * @return norm of the orthogonalized vector before normalization (0 if
+     * the vector is numerically in the span of the basis vectors, in which
+     * case it is left unnormalized)
+     */
+    private static double reorthogonalize(final double[] x, final double[][] basis, final int count) {
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+        final double initial = FastMath.sqrt(backend.dot(x.length, x, 0, x, 0));
+        final double[] coefficients = new double[count];
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int i = 0; i < count; ++i) {
+                coefficients[i] = backend.dot(x.length, basis[i], 0, x, 0);
+            }
+            for (int i = 0; i < count; ++i) {
+                backend.axpy(x.length, -coefficients[i], basis[i], 0, x, 0);
+            }
+        }
+        final double norm = FastMath.sqrt(backend.dot(x.length, x, 0, x, 0));
+        if (norm <= 4 * Precision.EPSILON * FastMath.sqrt(x.length) * initial) {
+            return 0;
+        }
+        final double inv = 1.0 / norm;
+        for (int i = 0; i < x.length; ++i) {
+            x[i] *= inv;
+        }
+        return norm;
+    }
+
+    /**
+     * Build a random unit vector orthogonal to previous orthonormal vectors.
+     * @param random Random generator.
+     * @param size Dimension of the vector.
+     * @param basis Orthonormal vectors.
+     * @param count Number of basis vectors to use.
+     * @return random unit vector orthogonal to the basis vectors
+     */
+    private static double[] randomUnitVector(final RandomGenerator random, final int size,
+                                             final double[][] basis, final int count) {
+        final double[] x = new double[size];
+        do {
+            for (int i = 0; i < size; ++i) {
+                x[i] = random.nextGaussian();
+            }
+        } while (reorthogonalize(x, basis, count) == 0);
+        return x;
+    }
+
+    /**
+     * Compute a linear combination of vectors.
+     * @param basis Vectors to combine (one per array).
+     * @param coefficients Combination coefficients.
+     * @param size Dimension of the vectors.
+     * @return &sum; coefficients[i] basis[i]
+     */
+    private static double[] combine(final double[][] basis, final double[] coefficients,
+                                    final int size) {
+        final LinearAlgebraBackend backend = MatrixUtils.getLinearAlgebraBackend();
+        final double[] result = new double[size];
+        for (int i = 0; i < coefficients.length; ++i) {
+            backend.axpy(size, coefficients[i], basis[i], 0, result, 0);
+        }
+        return result;
+    }
+
+}
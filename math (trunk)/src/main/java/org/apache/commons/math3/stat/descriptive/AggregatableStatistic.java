@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.stat.descriptive;
+
+import org.apache.commons.math3.exception.NullArgumentException;
+
+/**
+ * An interface for statistics that can aggregate results.
+ * <p>
+ * Aggregation allows to compute a statistic on separate partitions of a
+ * dataset (for example in different threads) and to combine the partial
+ * results afterwards, the combined statistic being the same as if all
+ * values had been added to a single instance, up to rounding errors.
+ * </p>
+ *
+ * @param <T> the type of statistic that can be aggregated
+ * @version $Id$
+ * @since 3.4
+ */
+public interface AggregatableStatistic<T> {
+
+    /**
+     * Aggregates the provided instance into this instance.
+     * <p>
+     * This method can be used to combine statistics computed over partitions
+     * or subsamples - i.e., the value of this instance after this operation
+     * should be the same as if all the values had been added to this instance.
+     * The other instance is not modified.
+     * </p>
+     *
+     * @param other the other instance to aggregate into this instance
+     * @throws NullArgumentException if the input is null
+     */
+    void aggregate(T other) throws NullArgumentException;
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.stat.descriptive;
+
+import java.io.Serializable;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+
+/**
+ * Summary statistics that can be updated concurrently by many threads with
+ * low contention.
+ * <p>
+ * {@link SynchronizedSummaryStatistics} serializes all calls to
+ * {@link SynchronizedSummaryStatistics#addValue(double) addValue} on a single
+ * monitor, which becomes a bottleneck when many threads record values at a
+ * high rate (for example request latencies). This class instead spreads
+ * the values among several independent {@link SummaryStatistics} stripes,
+ * each one guarded by its own lock. A thread first tries the stripe selected
+ * by its identifier, and moves to the next stripes if that one is busy, so
+ * concurrent writers rarely wait for each other.
+ * </p>
+ * <p>
+ * The stripes are {@link SummaryStatistics#merge(SummaryStatistics) merged}
+ * lazily when statistics are read, so reads cost O(number of stripes) and
+ * should be much less frequent than writes. A read taken while values are
+ * being added is not an atomic snapshot: it includes all values added
+ * before the read started and may include some values added concurrently.
+ * Use {@link #getSnapshot()} to compute several statistics from a single
+ * consistent merge.
+ * </p>
+ *
+ * @see SynchronizedSummaryStatistics
+ * @version $Id$
+ * @since 3.4
+ */
+public class ConcurrentSummaryStatistics implements StatisticalSummary, Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141019L;
+
+    /** Stripes. */
+    private final SummaryStatistics[] stripes;
+
+    /** Locks guarding the stripes. */
+    private final ReentrantLock[] locks;
+
+    /** Mask for stripe indices. */
+    private final int mask;
+
+    /**
+     * Create an instance with a number of stripes adapted to the number of
+     * available processors.
+     */
+    public ConcurrentSummaryStatistics() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create an instance with a specified number of stripes.
+     * @param nbStripes number of stripes (rounded up to the next power of 2)
+     * @throws NotStrictlyPositiveException if {@code nbStripes} is not positive
+     */
+    public ConcurrentSummaryStatistics(final int nbStripes)
+        throws NotStrictlyPositiveException {
+        if (nbStripes <= 0) {
+            throw new NotStrictlyPositiveException(LocalizedFormats.NUMBER_OF_ELEMENTS_SHOULD_BE_POSITIVE,
+                                                   nbStripes);
+        }
+        int size = 1;
+        while (size < nbStripes) {
+            size <<= 1;
+        }
+        stripes = new SummaryStatistics[size];
+        locks   = new ReentrantLock[size];
+        for (int i = 0; i < size; ++i) {
+            stripes[i] = new SummaryStatistics();
+            locks[i]   = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Get the number of stripes.
+     * @return number of stripes
+     */
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Add a value to the data.
+     * <p>This method can be called concurrently from any number of threads.</p>
+     * @param value the value to add
+     */
+    public void addValue(final double value) {
+
+        final long id = Thread.currentThread().getId();
+        final int  start = ((int) (id ^ (id >>> 32)) * 0x9E3779B9) >>> 16;
+
+        // look for a stripe that is not used by another thread
+        for (int i = 0; i <= mask; ++i) {
+            final int index = (start + i) & mask;
+            final ReentrantLock lock = locks[index];
+            if (lock.tryLock()) {
+                try {
+                    stripes[index].addValue(value);
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+
+        // all stripes are busy, wait for the preferred one
+        final int index = start & mask;
+        final ReentrantLock lock = locks[index];
+        lock.lock();
+        try {
+            stripes[index].addValue(value);
+        } finally {
+            lock.unlock();
+        }
+
+    }
+
+    /**
+     * Merge all stripes into a new {@link SummaryStatistics} instance.
+     * <p>
+     * Each stripe is locked only while it is merged, so writers are not
+     * blocked during the whole operation. The returned instance is
+     * independent of this object.
+     * </p>
+     * @return merged statistics of all values added so far
+     */
+    public SummaryStatistics getSnapshot() {
+        final SummaryStatistics snapshot = new SummaryStatistics();
+        for (int i = 0; i < stripes.length; ++i) {
+            locks[i].lock();
+            try {
+                snapshot.merge(stripes[i]);
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Return a {@link StatisticalSummaryValues} instance reporting current
+     * statistics.
+     * @return Current values of statistics
+     */
+    public StatisticalSummary getSummary() {
+        return getSnapshot().getSummary();
+    }
+
+    /**
+     * Resets all statistics.
+     * <p>
+     * Values added concurrently with this call may or may not be discarded.
+     * </p>
+     */
+    public void clear() {
+        for (int i = 0; i < stripes.length; ++i) {
+            locks[i].lock();
+            try {
+                stripes[i].clear();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    public long getN() {
+        long n = 0;
+        for (int i = 0; i < stripes.length; ++i) {
+            locks[i].lock();
+            try {
+                n += stripes[i].getN();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return n;
+    }
+
+    /** {@inheritDoc} */
+    public double getMean() {
+        return getSnapshot().getMean();
+    }
+
+    /** {@inheritDoc} */
+    public double getVariance() {
+        return getSnapshot().getVariance();
+    }
+
+    /**
+     * Returns the <a href="http://en.wikibooks.org/wiki/Statistics/Summary/Variance">
+     * population variance</a> of the values that have been added.
+     * @return the population variance
+     * @see SummaryStatistics#getPopulationVariance()
+     */
+    public double getPopulationVariance() {
+        return getSnapshot().getPopulationVariance();
+    }
+
+    /** {@inheritDoc} */
+    public double getStandardDeviation() {
+        return getSnapshot().getStandardDeviation();
+    }
+
+    /** {@inheritDoc} */
+    public double getMax() {
+        return getSnapshot().getMax();
+    }
+
+    /** {@inheritDoc} */
+    public double getMin() {
+        return getSnapshot().getMin();
+    }
+
+    /** {@inheritDoc} */
+    public double getSum() {
+        return getSnapshot().getSum();
+    }
+
+    /**
+     * Returns the sum of the squares of the values that have been added.
+     * @return The sum of squares
+     */
+    public double getSumsq() {
+        return getSnapshot().getSumsq();
+    }
+
+    /**
+     * Returns the geometric mean of the values that have been added.
+     * @return the geometric mean
+     */
+    public double getGeometricMean() {
+        return getSnapshot().getGeometricMean();
+    }
+
+    /**
+     * Returns the sum of the logs of the values that have been added.
+     * @return the sum of logs
+     */
+    public double getSumOfLogs() {
+        return getSnapshot().getSumOfLogs();
+    }
+
+    /**
+     * Returns a statistic related to the Second Central Moment.
+     * @return second central moment statistic
+     * @see SummaryStatistics#getSecondMoment()
+     */
+    public double getSecondMoment() {
+        return getSnapshot().getSecondMoment();
+    }
+
+    /**
+     * Generates a text report displaying summary statistics from values that
+     * have been added.
+     * @return String with line feeds displaying statistics
+     */
+    @Override
+    public String toString() {
+        return getSnapshot().toString();
+    }
+
+}
@@ -50,7 +50,10 @@ import org.apache.commons.math3.util.FastMath;
  * instead of this class. If <code>windowSize</code> is not INFINITE_WINDOW and
  * more values are added than can be stored in the dataset, new values are
  * added in a "rolling" manner, with new values replacing the "oldest" values
- * in the dataset.
+ * in the dataset. Statistics are recomputed from the whole dataset each time
+ * they are requested; when a rolling window is polled frequently,
+ * {@link SlidingWindowStatistics}, which updates its statistics as values
+ * enter and leave the window, should be used instead.
  *
  * <p>Note: this class is not threadsafe.  Use
  * {@link SynchronizedDescriptiveStatistics} if concurrent access from multiple
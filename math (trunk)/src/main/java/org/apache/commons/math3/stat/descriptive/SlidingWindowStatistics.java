@@ -0,0 +1,677 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.stat.descriptive;
+
+import java.io.Serializable;
+
+import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathUtils;
+
+/**
+ * Descriptive statistics of the most recent values of a stream, updated
+ * incrementally as values enter and leave a fixed size window.
+ * <p>
+ * {@link DescriptiveStatistics} with a {@link
+ * DescriptiveStatistics#setWindowSize(int) window size} stores the same
+ * values, but computes each statistic from scratch over the whole window
+ * every time it is requested, which costs O(n) for moments and extrema and
+ * more for percentiles. This class maintains the moments with add/remove
+ * updates in O(1) and keeps the window in an order statistic tree (an AVL
+ * tree whose nodes know their subtree size), so adding a value costs
+ * O(log n) and the min, max, median and any percentile are available in
+ * O(log n) whatever the polling rate.
+ * </p>
+ * <p>
+ * Removing values from running moments accumulates rounding errors, so the
+ * moments are recomputed from the window after each full rotation of the
+ * window (and after a non finite value left it) the next time they are
+ * requested. This keeps their accuracy close to the one of a direct
+ * computation for an amortized O(1) cost per value.
+ * </p>
+ * <p>
+ * Percentiles are estimated as {@link
+ * org.apache.commons.math3.stat.descriptive.rank.Percentile Percentile} does
+ * with its default estimation type, so for the same window this class gives
+ * the same results as {@link DescriptiveStatistics#getPercentile(double)}
+ * with default implementations. As the default {@link
+ * org.apache.commons.math3.stat.descriptive.rank.Percentile Percentile}
+ * removes NaN values before estimating, and as {@link
+ * org.apache.commons.math3.stat.descriptive.rank.Max Max} and {@link
+ * org.apache.commons.math3.stat.descriptive.rank.Min Min} ignore them, NaN
+ * values are not inserted in the order statistic tree: they count in
+ * {@link #getN()} and in the moments (which become NaN), but the min, max
+ * and percentiles only consider the other values of the window.
+ * </p>
+ * <p>Note: this class is not thread-safe.</p>
+ *
+ * @see DescriptiveStatistics
+ * @version $Id$
+ * @since 3.4
+ */
+public class SlidingWindowStatistics implements StatisticalSummary, Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141020L;
+
+    /** Maximum number of values in the window. */
+    private final int windowSize;
+
+    /** Values in the window, as a circular buffer. */
+    private final double[] values;
+
+    /** Slot of the oldest value. */
+    private int head;
+
+    /** Number of values in the window. */
+    private int n;
+
+    /** Slot of the tree root (-1 for an empty tree). */
+    private int root;
+
+    /** Left child of each slot in the tree (-1 for none). */
+    private final int[] left;
+
+    /** Right child of each slot in the tree (-1 for none). */
+    private final int[] right;
+
+    /** Number of nodes in the subtree rooted at each slot. */
+    private final int[] size;
+
+    /** Height of the subtree rooted at each slot. */
+    private final int[] height;
+
+    /** Sum of the values in the window. */
+    private double sum;
+
+    /** Sum of the squares of the values in the window. */
+    private double sumsq;
+
+    /** Mean of the values in the window. */
+    private double mean;
+
+    /** Sum of the squared deviations from the mean. */
+    private double m2;
+
+    /** Number of removals since the moments were last recomputed. */
+    private int removals;
+
+    /** Indicator for moments that must be recomputed from the window. */
+    private boolean dirty;
+
+    /**
+     * Construct an empty instance.
+     * @param windowSize maximum number of values in the window
+     * @throws MathIllegalArgumentException if window size is less than 1
+     */
+    public SlidingWindowStatistics(final int windowSize)
+        throws MathIllegalArgumentException {
+        if (windowSize < 1) {
+            throw new MathIllegalArgumentException(
+                    LocalizedFormats.NOT_POSITIVE_WINDOW_SIZE, windowSize);
+        }
+        this.windowSize = windowSize;
+        this.values     = new double[windowSize];
+        this.left       = new int[windowSize];
+        this.right      = new int[windowSize];
+        this.size       = new int[windowSize];
+        this.height     = new int[windowSize];
+        clear();
+    }
+
+    /**
+     * Copy constructor.
+     * @param original instance to copy
+     * @throws NullArgumentException if original is null
+     */
+    public SlidingWindowStatistics(final SlidingWindowStatistics original)
+        throws NullArgumentException {
+        MathUtils.checkNotNull(original);
+        this.windowSize = original.windowSize;
+        this.values     = original.values.clone();
+        this.head       = original.head;
+        this.n          = original.n;
+        this.root       = original.root;
+        this.left       = original.left.clone();
+        this.right      = original.right.clone();
+        this.size       = original.size.clone();
+        this.height     = original.height.clone();
+        this.sum        = original.sum;
+        this.sumsq      = original.sumsq;
+        this.mean       = original.mean;
+        this.m2         = original.m2;
+        this.removals   = original.removals;
+        this.dirty      = original.dirty;
+    }
+
+    /**
+     * Adds a value to the window. If the window is full, the oldest value
+     * is discarded to make room for the new one.
+     * @param v the value to add
+     */
+    public void addValue(final double v) {
+
+        if (n == windowSize) {
+            // discard the oldest value
+            final double old = values[head];
+            if (!Double.isNaN(old)) {
+                root = delete(root, head);
+            }
+            head = (head + 1) % windowSize;
+            --n;
+            decrement(old);
+        }
+
+        final int slot = (head + n) % windowSize;
+        values[slot] = v;
+        left[slot]   = -1;
+        right[slot]  = -1;
+        size[slot]   = 1;
+        height[slot] = 1;
+        if (!Double.isNaN(v)) {
+            root = insert(root, slot);
+        }
+        ++n;
+        increment(v);
+
+    }
+
+    /**
+     * Resets all statistics and storage.
+     */
+    public void clear() {
+        head     = 0;
+        n        = 0;
+        root     = -1;
+        sum      = 0;
+        sumsq    = 0;
+        mean     = 0;
+        m2       = 0;
+        removals = 0;
+        dirty    = false;
+    }
+
+    /**
+     * Returns the maximum number of values in the window.
+     * @return window size
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Returns the number of values in the window.
+     * @return the number of values in the window
+     */
+    public long getN() {
+        return n;
+    }
+
+    /**
+     * Returns the mean of the values in the window.
+     * @return the mean, or Double.NaN if the window is empty
+     */
+    public double getMean() {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        updateMoments();
+        return mean;
+    }
+
+    /**
+     * Returns the (sample) variance of the values in the window.
+     * <p>This method returns the bias-corrected sample variance (using
+     * {@code n - 1} in the denominator). Use {@link #getPopulationVariance()}
+     * for the non-bias-corrected population variance.</p>
+     * @return the variance, Double.NaN if the window is empty or 0.0 if it
+     * contains a single value
+     */
+    public double getVariance() {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (n == 1) {
+            return 0.0;
+        }
+        updateMoments();
+        return FastMath.max(0.0, m2) / (n - 1);
+    }
+
+    /**
+     * Returns the population variance of the values in the window.
+     * @return the population variance, Double.NaN if the window is empty
+     * or 0.0 if it contains a single value
+     */
+    public double getPopulationVariance() {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        updateMoments();
+        return FastMath.max(0.0, m2) / n;
+    }
+
+    /**
+     * Returns the standard deviation of the values in the window.
+     * @return the standard deviation, Double.NaN if the window is empty
+     * or 0.0 if it contains a single value
+     */
+    public double getStandardDeviation() {
+        return FastMath.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the sum of the values in the window.
+     * @return the sum of the values
+     */
+    public double getSum() {
+        updateMoments();
+        return sum;
+    }
+
+    /**
+     * Returns the sum of the squares of the values in the window.
+     * @return the sum of the squares of the values
+     */
+    public double getSumsq() {
+        updateMoments();
+        return sumsq;
+    }
+
+    /**
+     * Returns the maximum of the values in the window.
+     * <p>NaN values are ignored.</p>
+     * @return the maximum, or Double.NaN if the window is empty or contains
+     * only NaN values
+     */
+    public double getMax() {
+        final int ranked = getRankedCount();
+        return ranked == 0 ? Double.NaN : select(ranked - 1);
+    }
+
+    /**
+     * Returns the minimum of the values in the window.
+     * <p>NaN values are ignored.</p>
+     * @return the minimum, or Double.NaN if the window is empty or contains
+     * only NaN values
+     */
+    public double getMin() {
+        return getRankedCount() == 0 ? Double.NaN : select(0);
+    }
+
+    /**
+     * Returns the median of the values in the window.
+     * @return the median, or Double.NaN if the window is empty
+     */
+    public double getMedian() {
+        return getPercentile(50.0);
+    }
+
+    /**
+     * Returns an estimate of the p<sup>th</sup> percentile of the values in
+     * the window.
+     * <p>
+     * The estimate is the same as the one computed by {@link
+     * DescriptiveStatistics#getPercentile(double)} with the default
+     * implementation, NaN values being removed. It requires at most two order
+     * statistics, each one found in O(log n).
+     * </p>
+     * @param p the requested percentile (scaled from 0 - 100)
+     * @return an estimate of the p<sup>th</sup> percentile, or Double.NaN if
+     * the window is empty or contains only NaN values
+     * @throws OutOfRangeException if p is not in the range (0, 100]
+     */
+    public double getPercentile(final double p) throws OutOfRangeException {
+        if (p > 100 || p <= 0) {
+            throw new OutOfRangeException(LocalizedFormats.OUT_OF_BOUNDS_QUANTILE_VALUE,
+                                          p, 0, 100);
+        }
+        final int ranked = getRankedCount();
+        if (ranked == 0) {
+            return Double.NaN;
+        }
+        final double pos  = (p / 100) * (ranked + 1);
+        final double fpos = FastMath.floor(pos);
+        final int intPos  = (int) fpos;
+        final double dif  = pos - fpos;
+        if (pos < 1) {
+            return select(0);
+        }
+        if (pos >= ranked) {
+            return select(ranked - 1);
+        }
+        final double lower = select(intPos - 1);
+        final double upper = select(intPos);
+        return lower + dif * (upper - lower);
+    }
+
+    /**
+     * Returns the values in the window, in the order in which they were added.
+     * @return a fresh copy of the values in the window
+     */
+    public double[] getValues() {
+        final double[] copy = new double[n];
+        final int firstPart = FastMath.min(n, windowSize - head);
+        System.arraycopy(values, head, copy, 0, firstPart);
+        System.arraycopy(values, 0, copy, firstPart, n - firstPart);
+        return copy;
+    }
+
+    /**
+     * Returns the values in the window, sorted in ascending order.
+     * <p>The values are read from the tree in O(n), without sorting. As
+     * with {@link java.util.Arrays#sort(double[])}, NaN values are put last.</p>
+     * @return a fresh copy of the values in the window, sorted
+     */
+    public double[] getSortedValues() {
+        final double[] sorted = new double[n];
+        final int[] stack = new int[root < 0 ? 0 : height[root]];
+        int top = 0;
+        int index = 0;
+        int node = root;
+        while (node >= 0 || top > 0) {
+            while (node >= 0) {
+                stack[top++] = node;
+                node = left[node];
+            }
+            node = stack[--top];
+            sorted[index++] = values[node];
+            node = right[node];
+        }
+        while (index < n) {
+            sorted[index++] = Double.NaN;
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns a copy of this instance with the same internal state.
+     * @return a copy of this
+     */
+    public SlidingWindowStatistics copy() {
+        return new SlidingWindowStatistics(this);
+    }
+
+    /**
+     * Generates a text report displaying statistics of the values in the
+     * window. Each statistic is displayed on a separate line.
+     * @return String with line feeds displaying statistics
+     */
+    @Override
+    public String toString() {
+        StringBuilder outBuffer = new StringBuilder();
+        String endl = "\n";
+        outBuffer.append("SlidingWindowStatistics:").append(endl);
+        outBuffer.append("window size: ").append(getWindowSize()).append(endl);
+        outBuffer.append("n: ").append(getN()).append(endl);
+        outBuffer.append("min: ").append(getMin()).append(endl);
+        outBuffer.append("max: ").append(getMax()).append(endl);
+        outBuffer.append("mean: ").append(getMean()).append(endl);
+        outBuffer.append("std dev: ").append(getStandardDeviation())
+            .append(endl);
+        outBuffer.append("median: ").append(getMedian()).append(endl);
+        return outBuffer.toString();
+    }
+
+    /**
+     * Get the number of values in the order statistic tree.
+     * @return number of non-NaN values in the window
+     */
+    private int getRankedCount() {
+        return root < 0 ? 0 : size[root];
+    }
+
+    /**
+     * Update the running moments for an added value.
+     * <p>The count must already include the value.</p>
+     * @param x added value
+     */
+    private void increment(final double x) {
+        sum   += x;
+        sumsq += x * x;
+        final double dev = x - mean;
+        mean += dev / n;
+        m2   += dev * (x - mean);
+    }
+
+    /**
+     * Update the running moments for a removed value.
+     * <p>The count must already exclude the value.</p>
+     * @param x removed value
+     */
+    private void decrement(final double x) {
+        if (Double.isNaN(x) || Double.isInfinite(x)) {
+            // the running moments cannot recover, they must be recomputed
+            dirty = true;
+        } else if (n == 0) {
+            sum   = 0;
+            sumsq = 0;
+            mean  = 0;
+            m2    = 0;
+        } else {
+            sum   -= x;
+            sumsq -= x * x;
+            final double dev = x - mean;
+            mean -= dev / n;
+            m2   -= dev * (x - mean);
+        }
+        if (++removals >= windowSize) {
+            // prevent rounding errors from building up
+            dirty = true;
+        }
+    }
+
+    /**
+     * Recompute the moments from the window if needed.
+     */
+    private void updateMoments() {
+        if (dirty) {
+            sum   = 0;
+            sumsq = 0;
+            for (int i = 0; i < n; ++i) {
+                final double x = values[(head + i) % windowSize];
+                sum   += x;
+                sumsq += x * x;
+            }
+            mean = n == 0 ? 0 : sum / n;
+            m2   = 0;
+            for (int i = 0; i < n; ++i) {
+                final double dev = values[(head + i) % windowSize] - mean;
+                m2 += dev * dev;
+            }
+            removals = 0;
+            dirty    = false;
+        }
+    }
+
+    /**
+     * Find the value with a given rank in the window.
+     * @param k rank of the value (0 for the smallest one)
+     * @return value with rank k
+     */
+    private double select(final int k) {
+        int node = root;
+        int rank = k;
+        while (true) {
+            final int leftSize = sizeOf(left[node]);
+            if (rank < leftSize) {
+                node = left[node];
+            } else if (rank == leftSize) {
+                return values[node];
+            } else {
+                rank -= leftSize + 1;
+                node  = right[node];
+            }
+        }
+    }
+
+    /**
+     * Compare two slots.
+     * <p>Slots are ordered by value, and by position for equal values.</p>
+     * @param a first slot
+     * @param b second slot
+     * @return a negative integer, zero, or a positive integer as slot a is
+     * before, is equal to, or is after slot b
+     */
+    private int compare(final int a, final int b) {
+        final int c = Double.compare(values[a], values[b]);
+        return c != 0 ? c : a - b;
+    }
+
+    /**
+     * Insert a slot in a subtree.
+     * @param node root of the subtree (-1 for an empty subtree)
+     * @param slot slot to insert
+     * @return new root of the subtree
+     */
+    private int insert(final int node, final int slot) {
+        if (node < 0) {
+            return slot;
+        }
+        if (compare(slot, node) < 0) {
+            left[node] = insert(left[node], slot);
+        } else {
+            right[node] = insert(right[node], slot);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Delete a slot from a subtree.
+     * @param node root of the subtree, which must contain the slot
+     * @param slot slot to delete
+     * @return new root of the subtree
+     */
+    private int delete(final int node, final int slot) {
+        final int c = compare(slot, node);
+        if (c < 0) {
+            left[node] = delete(left[node], slot);
+        } else if (c > 0) {
+            right[node] = delete(right[node], slot);
+        } else {
+            if (left[node] < 0) {
+                return right[node];
+            }
+            if (right[node] < 0) {
+                return left[node];
+            }
+            // replace the node by its successor
+            int successor = right[node];
+            while (left[successor] >= 0) {
+                successor = left[successor];
+            }
+            right[successor] = deleteMin(right[node]);
+            left[successor]  = left[node];
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Delete the smallest slot of a subtree.
+     * @param node root of the subtree
+     * @return new root of the subtree
+     */
+    private int deleteMin(final int node) {
+        if (left[node] < 0) {
+            return right[node];
+        }
+        left[node] = deleteMin(left[node]);
+        return balance(node);
+    }
+
+    /**
+     * Restore the balance of a subtree whose children are balanced.
+     * @param node root of the subtree
+     * @return new root of the subtree
+     */
+    private int balance(final int node) {
+        update(node);
+        final int factor = heightOf(left[node]) - heightOf(right[node]);
+        if (factor > 1) {
+            if (heightOf(left[left[node]]) < heightOf(right[left[node]])) {
+                left[node] = rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        } else if (factor < -1) {
+            if (heightOf(right[right[node]]) < heightOf(left[right[node]])) {
+                right[node] = rotateRight(right[node]);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotate a subtree to the right.
+     * @param node root of the subtree
+     * @return new root of the subtree
+     */
+    private int rotateRight(final int node) {
+        final int pivot = left[node];
+        left[node]   = right[pivot];
+        right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotate a subtree to the left.
+     * @param node root of the subtree
+     * @return new root of the subtree
+     */
+    private int rotateLeft(final int node) {
+        final int pivot = right[node];
+        right[node]  = left[pivot];
+        left[pivot]  = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Update the size and height of a node from its children.
+     * @param node node to update
+     */
+    private void update(final int node) {
+        size[node]   = 1 + sizeOf(left[node]) + sizeOf(right[node]);
+        height[node] = 1 + FastMath.max(heightOf(left[node]), heightOf(right[node]));
+    }
+
+    /**
+     * Get the size of a subtree.
+     * @param node root of the subtree (-1 for an empty subtree)
+     * @return number of nodes in the subtree
+     */
+    private int sizeOf(final int node) {
+        return node < 0 ? 0 : size[node];
+    }
+
+    /**
+     * Get the height of a subtree.
+     * @param node root of the subtree (-1 for an empty subtree)
+     * @return height of the subtree
+     */
+    private int heightOf(final int node) {
+        return node < 0 ? 0 : height[node];
+    }
+
+}
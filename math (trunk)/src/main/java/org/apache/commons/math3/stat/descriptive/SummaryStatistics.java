@@ -17,8 +17,10 @@
 package org.apache.commons.math3.stat.descriptive;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 import org.apache.commons.math3.exception.MathIllegalStateException;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
 import org.apache.commons.math3.exception.NullArgumentException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
 import org.apache.commons.math3.stat.descriptive.moment.GeometricMean;
@@ -52,6 +54,11 @@ import org.apache.commons.math3.util.FastMath;
  * provided implementations.
  * </p>
  * <p>
+ * Statistics computed on separate partitions of a data set, for example in
+ * different threads, can be combined using {@link #merge(SummaryStatistics)}
+ * or {@link #merge(Collection)}, without accessing the data again.
+ * </p>
+ * <p>
  * Note: This class is not thread-safe. Use
  * {@link SynchronizedSummaryStatistics} if concurrent access from multiple
  * threads is required.
@@ -117,6 +124,9 @@ public class SummaryStatistics implements StatisticalSummary, Serializable {
     /** Variance statistic implementation - can be reset by setter. */
     private StorelessUnivariateStatistic varianceImpl = variance;
 
+    /** Quantile statistic implementation - null unless set by setter. */
+    private StorelessUnivariateStatistic quantileImpl = null;
+
     /**
      * Construct a SummaryStatistics instance
      */
@@ -165,6 +175,9 @@ public class SummaryStatistics implements StatisticalSummary, Serializable {
         if (geoMeanImpl != geoMean) {
             geoMeanImpl.increment(value);
         }
+        if (quantileImpl != null) {
+            quantileImpl.increment(value);
+        }
         n++;
     }
 
@@ -314,6 +327,23 @@ public class SummaryStatistics implements StatisticalSummary, Serializable {
         return secondMoment.getResult();
     }
 
+    /**
+     * Returns the quantile computed by the configured quantile implementation.
+     * <p>
+     * No quantile is tracked by default, as a quantile cannot be computed
+     * exactly without storing the values. A streaming estimator such as
+     * {@link org.apache.commons.math3.stat.descriptive.rank.TDigest TDigest}
+     * must be configured with {@link #setQuantileImpl(StorelessUnivariateStatistic)}
+     * before values are added.
+     * </p>
+     * @return the quantile, or Double.NaN if no quantile implementation has
+     * been configured or no values have been added
+     * @since 3.4
+     */
+    public double getQuantile() {
+        return (quantileImpl == null) ? Double.NaN : quantileImpl.getResult();
+    }
+
     /**
      * Generates a text report displaying summary statistics from values that
      * have been added.
@@ -357,6 +387,109 @@ public class SummaryStatistics implements StatisticalSummary, Serializable {
         if (varianceImpl != variance) {
             varianceImpl.clear();
         }
+        if (quantileImpl != null) {
+            quantileImpl.clear();
+        }
+    }
+
+    /**
+     * Merges the statistics of another instance into this instance.
+     * <p>
+     * After this method returns, this instance holds the statistics of the
+     * union of the values added to both instances, as if all values had been
+     * added to this instance. Moments are combined using the pairwise formulas
+     * from Chan, Golub and LeVeque, so merging is an O(1) operation that does
+     * not lose accuracy with respect to sequential updates. The other
+     * instance is not modified.
+     * </p>
+     * <p>
+     * Merging is supported only if both instances use the default statistics
+     * implementations (or subclasses of {@link Sum}, {@link SumOfSquares},
+     * {@link Min}, {@link Max} and {@link SumOfLogs} for the corresponding
+     * statistics). If a quantile implementation has been configured, it
+     * must implement {@link AggregatableStatistic} and both instances must
+     * use the same class; an empty instance without quantile implementation
+     * adopts a copy of the quantile implementation of the other instance.
+     * </p>
+     *
+     * @param other statistics to merge into this instance
+     * @throws NullArgumentException if other is null
+     * @throws MathUnsupportedOperationException if one of the instances
+     * uses statistics implementations that cannot be merged
+     * @since 3.4
+     */
+    @SuppressWarnings("unchecked")
+    public void merge(SummaryStatistics other)
+        throws NullArgumentException, MathUnsupportedOperationException {
+        MathUtils.checkNotNull(other);
+        if (!isMergeable() || !other.isMergeable()) {
+            throw new MathUnsupportedOperationException();
+        }
+        final boolean adoptQuantile = quantileImpl == null && n == 0 && other.quantileImpl != null;
+        if (!adoptQuantile && other.n > 0) {
+            final boolean compatible = (quantileImpl == null) ?
+                                       other.quantileImpl == null :
+                                       quantileImpl instanceof AggregatableStatistic &&
+                                       other.quantileImpl != null &&
+                                       quantileImpl.getClass() == other.quantileImpl.getClass();
+            if (!compatible) {
+                throw new MathUnsupportedOperationException();
+            }
+        }
+        final SummaryStatistics source = (other == this) ? other.copy() : other;
+        if (adoptQuantile) {
+            quantileImpl = source.quantileImpl.copy();
+        } else if (quantileImpl != null && source.n > 0) {
+            ((AggregatableStatistic<StorelessUnivariateStatistic>) quantileImpl).aggregate(source.quantileImpl);
+        }
+        ((Sum) sumImpl).aggregate((Sum) source.sumImpl);
+        ((SumOfSquares) sumsqImpl).aggregate((SumOfSquares) source.sumsqImpl);
+        ((Min) minImpl).aggregate((Min) source.minImpl);
+        ((Max) maxImpl).aggregate((Max) source.maxImpl);
+        ((SumOfLogs) sumLogImpl).aggregate((SumOfLogs) source.sumLogImpl);
+        secondMoment.aggregate(source.secondMoment);
+        n += source.n;
+    }
+
+    /**
+     * Merges a collection of statistics into a new instance.
+     * <p>
+     * This method is the combining step of a parallel aggregation: each
+     * partition of the data set is accumulated into its own instance
+     * without any synchronization, and the partial results are combined
+     * afterwards, in O(1) per partition.
+     * </p>
+     *
+     * @param statistics statistics to merge
+     * @return a new instance holding the statistics of the union of all
+     * values added to the instances of the collection (empty if the
+     * collection is empty)
+     * @throws NullArgumentException if the collection or one of its elements
+     * is null
+     * @throws MathUnsupportedOperationException if one of the instances
+     * uses statistics implementations that cannot be merged
+     * @see #merge(SummaryStatistics)
+     * @since 3.4
+     */
+    public static SummaryStatistics merge(Collection<? extends SummaryStatistics> statistics)
+        throws NullArgumentException, MathUnsupportedOperationException {
+        MathUtils.checkNotNull(statistics);
+        final SummaryStatistics result = new SummaryStatistics();
+        for (final SummaryStatistics s : statistics) {
+            result.merge(s);
+        }
+        return result;
+    }
+
+    /**
+     * Check if the statistics implementations of this instance can be merged.
+     * @return true if the statistics implementations support merging
+     */
+    private boolean isMergeable() {
+        return sumImpl instanceof Sum && sumsqImpl instanceof SumOfSquares &&
+               minImpl instanceof Min && maxImpl instanceof Max &&
+               sumLogImpl instanceof SumOfLogs && geoMeanImpl == geoMean &&
+               meanImpl == mean && varianceImpl == variance;
     }
 
     /**
@@ -645,6 +778,37 @@ public class SummaryStatistics implements StatisticalSummary, Serializable {
         this.varianceImpl = varianceImpl;
     }
 
+    /**
+     * Returns the currently configured quantile implementation
+     * @return the StorelessUnivariateStatistic implementing the quantile,
+     * null if no quantile is computed
+     * @since 3.4
+     */
+    public StorelessUnivariateStatistic getQuantileImpl() {
+        return quantileImpl;
+    }
+
+    /**
+     * <p>
+     * Sets the implementation for the quantile.
+     * </p>
+     * <p>
+     * This method cannot be activated after data has been added - i.e.,
+     * after {@link #addValue(double) addValue} has been used to add data.
+     * If it is activated after data has been added, an IllegalStateException
+     * will be thrown.
+     * </p>
+     * @param quantileImpl the StorelessUnivariateStatistic instance to use for
+     *        computing the quantile (null to disable quantile computation)
+     * @throws MathIllegalStateException if data has already been added (i.e if n > 0)
+     * @since 3.4
+     */
+    public void setQuantileImpl(StorelessUnivariateStatistic quantileImpl)
+    throws MathIllegalStateException {
+        checkEmpty();
+        this.quantileImpl = quantileImpl;
+    }
+
     /**
      * Throws IllegalStateException if n > 0.
      * @throws MathIllegalStateException if data has been added
@@ -686,6 +850,7 @@ public class SummaryStatistics implements StatisticalSummary, Serializable {
         dest.sumLogImpl = source.sumLogImpl.copy();
         dest.sumsqImpl = source.sumsqImpl.copy();
         dest.secondMoment = source.secondMoment.copy();
+        dest.quantileImpl = (source.quantileImpl == null) ? null : source.quantileImpl.copy();
         dest.n = source.n;
 
         // Keep commons-math supplied statistics with embedded moments in synch
@@ -17,6 +17,7 @@
 package org.apache.commons.math3.stat.descriptive;
 
 import org.apache.commons.math3.exception.MathIllegalStateException;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
 import org.apache.commons.math3.exception.NullArgumentException;
 import org.apache.commons.math3.util.MathUtils;
 
@@ -168,6 +169,23 @@ public class SynchronizedSummaryStatistics extends SummaryStatistics {
         super.clear();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A snapshot of {@code other} is taken before acquiring the lock on this
+     * instance, so the two locks are never held at the same time.
+     * </p>
+     */
+    @Override
+    public void merge(SummaryStatistics other)
+        throws NullArgumentException, MathUnsupportedOperationException {
+        MathUtils.checkNotNull(other);
+        final SummaryStatistics snapshot = other.copy();
+        synchronized (this) {
+            super.merge(snapshot);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -320,6 +338,31 @@ public class SynchronizedSummaryStatistics extends SummaryStatistics {
         super.setVarianceImpl(varianceImpl);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized double getQuantile() {
+        return super.getQuantile();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized StorelessUnivariateStatistic getQuantileImpl() {
+        return super.getQuantileImpl();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void setQuantileImpl(StorelessUnivariateStatistic quantileImpl)
+    throws MathIllegalStateException {
+        super.setQuantileImpl(quantileImpl);
+    }
+
     /**
      * Returns a copy of this SynchronizedSummaryStatistics instance with the
      * same internal state.
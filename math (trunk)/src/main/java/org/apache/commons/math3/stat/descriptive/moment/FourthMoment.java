@@ -18,6 +18,7 @@ package org.apache.commons.math3.stat.descriptive.moment;
 
 import java.io.Serializable;
 
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
 import org.apache.commons.math3.exception.NullArgumentException;
 import org.apache.commons.math3.util.MathUtils;
 
@@ -121,6 +122,41 @@ class FourthMoment extends ThirdMoment implements Serializable{
         m4 = Double.NaN;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The fourth moment can only be aggregated with another fourth moment.
+     * </p>
+     * @throws MathUnsupportedOperationException if {@code other} is not a
+     * {@code FourthMoment}
+     * @since 3.4
+     */
+    @Override
+    public void aggregate(final SecondMoment other)
+        throws NullArgumentException, MathUnsupportedOperationException {
+        MathUtils.checkNotNull(other);
+        if (!(other instanceof FourthMoment)) {
+            throw new MathUnsupportedOperationException();
+        }
+        final FourthMoment o = (FourthMoment) other;
+        if (o.n > 0) {
+            if (n == 0) {
+                m4 = o.m4;
+            } else {
+                final double na      = n;
+                final double nb      = o.n;
+                final double nab     = na + nb;
+                final double delta   = o.m1 - m1;
+                final double delta2  = delta * delta;
+                m4 += o.m4 +
+                      delta2 * delta2 * na * nb * (na * na - na * nb + nb * nb) / (nab * nab * nab) +
+                      6.0 * delta2 * (na * na * o.m2 + nb * nb * m2) / (nab * nab) +
+                      4.0 * delta * (na * o.m3 - nb * m3) / nab;
+            }
+        }
+        super.aggregate(other);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -19,6 +19,7 @@ package org.apache.commons.math3.stat.descriptive.moment;
 import java.io.Serializable;
 
 import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.stat.descriptive.AggregatableStatistic;
 import org.apache.commons.math3.util.MathUtils;
 
 /**
@@ -45,7 +46,8 @@ import org.apache.commons.math3.util.MathUtils;
  *
  * @version $Id: SecondMoment.java 1416643 2012-12-03 19:37:14Z tn $
  */
-public class SecondMoment extends FirstMoment implements Serializable {
+public class SecondMoment extends FirstMoment
+    implements AggregatableStatistic<SecondMoment>, Serializable {
 
     /** Serializable version identifier */
     private static final long serialVersionUID = 3942403127395076445L;
@@ -103,6 +105,36 @@ public class SecondMoment extends FirstMoment implements Serializable {
         return m2;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The moments are combined using the pairwise formulas from Chan, Golub
+     * and LeVeque, which are as accurate as the updating formula used by
+     * {@link #increment(double)}.
+     * </p>
+     * @since 3.4
+     */
+    public void aggregate(final SecondMoment other) throws NullArgumentException {
+        MathUtils.checkNotNull(other);
+        if (other.n == 0) {
+            return;
+        }
+        if (n == 0) {
+            m1 = other.m1;
+            m2 = other.m2;
+        } else {
+            final double na    = n;
+            final double nb    = other.n;
+            final double nab   = na + nb;
+            final double delta = other.m1 - m1;
+            m1 += delta * nb / nab;
+            m2 += other.m2 + delta * delta * na * nb / nab;
+        }
+        n   += other.n;
+        dev  = Double.NaN;
+        nDev = Double.NaN;
+    }
+
     /**
      * {@inheritDoc}
      */
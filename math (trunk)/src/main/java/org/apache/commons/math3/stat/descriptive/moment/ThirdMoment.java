@@ -18,6 +18,7 @@ package org.apache.commons.math3.stat.descriptive.moment;
 
 import java.io.Serializable;
 
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
 import org.apache.commons.math3.exception.NullArgumentException;
 import org.apache.commons.math3.util.MathUtils;
 
@@ -116,6 +117,40 @@ class ThirdMoment extends SecondMoment implements Serializable {
         nDevSq = Double.NaN;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The third moment can only be aggregated with another third (or higher)
+     * moment.
+     * </p>
+     * @throws MathUnsupportedOperationException if {@code other} is not a
+     * {@code ThirdMoment}
+     * @since 3.4
+     */
+    @Override
+    public void aggregate(final SecondMoment other)
+        throws NullArgumentException, MathUnsupportedOperationException {
+        MathUtils.checkNotNull(other);
+        if (!(other instanceof ThirdMoment)) {
+            throw new MathUnsupportedOperationException();
+        }
+        final ThirdMoment o = (ThirdMoment) other;
+        if (o.n > 0) {
+            if (n == 0) {
+                m3 = o.m3;
+            } else {
+                final double na    = n;
+                final double nb    = o.n;
+                final double nab   = na + nb;
+                final double delta = o.m1 - m1;
+                m3 += o.m3 + delta * delta * delta * na * nb * (na - nb) / (nab * nab) +
+                      3.0 * delta * (na * o.m2 - nb * m2) / nab;
+            }
+        }
+        super.aggregate(other);
+        nDevSq = Double.NaN;
+    }
+
     /**
      * {@inheritDoc}
      */
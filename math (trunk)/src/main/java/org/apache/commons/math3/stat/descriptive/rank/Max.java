@@ -21,6 +21,7 @@ import java.io.Serializable;
 import org.apache.commons.math3.exception.MathIllegalArgumentException;
 import org.apache.commons.math3.exception.NullArgumentException;
 import org.apache.commons.math3.stat.descriptive.AbstractStorelessUnivariateStatistic;
+import org.apache.commons.math3.stat.descriptive.AggregatableStatistic;
 import org.apache.commons.math3.util.MathUtils;
 
 /**
@@ -40,7 +41,8 @@ import org.apache.commons.math3.util.MathUtils;
  *
  * @version $Id: Max.java 1416643 2012-12-03 19:37:14Z tn $
  */
-public class Max extends AbstractStorelessUnivariateStatistic implements Serializable {
+public class Max extends AbstractStorelessUnivariateStatistic
+    implements AggregatableStatistic<Max>, Serializable {
 
     /** Serializable version identifier */
     private static final long serialVersionUID = -5593383832225844641L;
@@ -142,6 +144,20 @@ public class Max extends AbstractStorelessUnivariateStatistic implements Seriali
         return max;
     }
 
+    /**
+     * {@inheritDoc}
+     * @since 3.4
+     */
+    public void aggregate(final Max other) throws NullArgumentException {
+        MathUtils.checkNotNull(other);
+        if (other.n > 0) {
+            if (other.value > value || Double.isNaN(value)) {
+                value = other.value;
+            }
+            n += other.n;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -21,6 +21,7 @@ import java.io.Serializable;
 import org.apache.commons.math3.exception.MathIllegalArgumentException;
 import org.apache.commons.math3.exception.NullArgumentException;
 import org.apache.commons.math3.stat.descriptive.AbstractStorelessUnivariateStatistic;
+import org.apache.commons.math3.stat.descriptive.AggregatableStatistic;
 import org.apache.commons.math3.util.MathUtils;
 
 /**
@@ -40,7 +41,8 @@ import org.apache.commons.math3.util.MathUtils;
  *
  * @version $Id: Min.java 1416643 2012-12-03 19:37:14Z tn $
  */
-public class Min extends AbstractStorelessUnivariateStatistic implements Serializable {
+public class Min extends AbstractStorelessUnivariateStatistic
+    implements AggregatableStatistic<Min>, Serializable {
 
     /** Serializable version identifier */
     private static final long serialVersionUID = -2941995784909003131L;
@@ -142,6 +144,20 @@ public class Min extends AbstractStorelessUnivariateStatistic implements Seriali
         return min;
     }
 
+    /**
+     * {@inheritDoc}
+     * @since 3.4
+     */
+    public void aggregate(final Min other) throws NullArgumentException {
+        MathUtils.checkNotNull(other);
+        if (other.n > 0) {
+            if (other.value < value || Double.isNaN(value)) {
+                value = other.value;
+            }
+            n += other.n;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
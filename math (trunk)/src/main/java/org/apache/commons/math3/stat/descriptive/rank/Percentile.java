@@ -19,6 +19,7 @@ package org.apache.commons.math3.stat.descriptive.rank;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.math3.exception.MathIllegalArgumentException;
 import org.apache.commons.math3.exception.MathUnsupportedOperationException;
@@ -355,6 +356,165 @@ public class Percentile extends AbstractUnivariateStatistic implements Serializa
                     estimationType.evaluate(work, pivotsHeap, p, kthSelector);
     }
 
+    /**
+     * Returns estimates of several percentiles of the values in the
+     * {@code values} array.
+     * <p>
+     * Calling this method is equivalent to call {@link
+     * #evaluate(double[], int, int, double[], ExecutorService)
+     * evaluate(values, 0, values.length, ps, null)}.
+     * </p>
+     *
+     * @param values input array of values
+     * @param ps the percentiles to compute
+     * @return the percentile values, in the same order as {@code ps}
+     * @throws MathIllegalArgumentException if {@code values} or {@code ps} is
+     * null or if some percentile is not in the range (0, 100]
+     * @since 3.4
+     */
+    public double[] evaluate(final double[] values, final double[] ps)
+        throws MathIllegalArgumentException {
+        test(values, 0, 0);
+        return evaluate(values, 0, values.length, ps, null);
+    }
+
+    /**
+     * Returns estimates of several percentiles of the values in the
+     * {@code values} array, distributing the work on an executor.
+     * <p>
+     * Calling this method is equivalent to call {@link
+     * #evaluate(double[], int, int, double[], ExecutorService)
+     * evaluate(values, 0, values.length, ps, executor)}.
+     * </p>
+     *
+     * @param values input array of values
+     * @param ps the percentiles to compute
+     * @param executor executor to use (may be null, in which case all
+     * computations are performed in the calling thread)
+     * @return the percentile values, in the same order as {@code ps}
+     * @throws MathIllegalArgumentException if {@code values} or {@code ps} is
+     * null or if some percentile is not in the range (0, 100]
+     * @since 3.4
+     */
+    public double[] evaluate(final double[] values, final double[] ps,
+                             final ExecutorService executor)
+        throws MathIllegalArgumentException {
+        test(values, 0, 0);
+        return evaluate(values, 0, values.length, ps, executor);
+    }
+
+    /**
+     * Returns estimates of several percentiles of the values in the
+     * {@code values} array, starting with the element in (0-based)
+     * position {@code begin} in the array and including {@code length}
+     * values.
+     * <p>
+     * Calling this method is equivalent to call {@link
+     * #evaluate(double[], int, int, double[], ExecutorService)
+     * evaluate(values, begin, length, ps, null)}.
+     * </p>
+     *
+     * @param values input array of values
+     * @param begin the first (0-based) element to include in the computation
+     * @param length the number of array elements to include
+     * @param ps the percentiles to compute
+     * @return the percentile values, in the same order as {@code ps}
+     * @throws MathIllegalArgumentException if the parameters are not valid or
+     * the input array is null
+     * @since 3.4
+     */
+    public double[] evaluate(final double[] values, final int begin,
+                             final int length, final double[] ps)
+        throws MathIllegalArgumentException {
+        return evaluate(values, begin, length, ps, null);
+    }
+
+    /**
+     * Returns estimates of several percentiles of the values in the
+     * {@code values} array, starting with the element in (0-based)
+     * position {@code begin} in the array and including {@code length}
+     * values.
+     * <p>
+     * The order statistics needed by all the percentiles are gathered first
+     * and then selected together, using {@link KthSelector#select(double[],
+     * int[]) multiple selection} or, if an executor is provided, {@link
+     * KthSelector#select(double[], int[], ExecutorService) parallel
+     * selection}. This is much faster than calling {@link
+     * #evaluate(double[], int, int, double)} once for each percentile, since
+     * the input array is copied and partitioned only once. The results are
+     * the same as those of the single percentile method, except when the
+     * {@link NaNStrategy#FIXED FIXED} NaN strategy is used with values
+     * containing NaN, for which the ordering is not defined.
+     * </p>
+     * <p>
+     * The input array is not modified, even when it is the
+     * {@link #setData(double[]) stored data}.
+     * </p>
+     *
+     * @param values input array of values
+     * @param begin the first (0-based) element to include in the computation
+     * @param length the number of array elements to include
+     * @param ps the percentiles to compute
+     * @param executor executor to use (may be null, in which case all
+     * computations are performed in the calling thread)
+     * @return the percentile values, in the same order as {@code ps}
+     * @throws MathIllegalArgumentException if the parameters are not valid,
+     * the input array is null or some percentile is not in the range (0, 100]
+     * @since 3.4
+     */
+    public double[] evaluate(final double[] values, final int begin,
+                             final int length, final double[] ps,
+                             final ExecutorService executor)
+        throws MathIllegalArgumentException {
+
+        test(values, begin, length);
+        MathUtils.checkNotNull(ps);
+        for (final double p : ps) {
+            if (p > 100 || p <= 0) {
+                throw new OutOfRangeException(
+                        LocalizedFormats.OUT_OF_BOUNDS_QUANTILE_VALUE, p, 0, 100);
+            }
+        }
+
+        final double[] results = new double[ps.length];
+        if (length == 0) {
+            Arrays.fill(results, Double.NaN);
+            return results;
+        }
+        if (length == 1) {
+            Arrays.fill(results, values[begin]); // always return single value for n = 1
+            return results;
+        }
+
+        double[] work = getWorkArray(values, begin, length);
+        if (work.length == 0) {
+            Arrays.fill(results, Double.NaN);
+            return results;
+        }
+        if (work == getDataRef()) {
+            // don't reorder stored data, as this would invalidate cached pivots
+            work = work.clone();
+        }
+
+        // first pass: record the order statistics needed by all percentiles
+        final RecordingSelector recorder = new RecordingSelector();
+        for (final double p : ps) {
+            estimationType.evaluate(work, null, p, recorder);
+        }
+
+        // select all these order statistics at once
+        final int[] ks = recorder.getIndices();
+        final double[] selected = kthSelector.select(work, ks, executor);
+
+        // second pass: estimate the percentiles from the selected values
+        final SelectedValues lookup = new SelectedValues(ks, selected);
+        for (int i = 0; i < ps.length; ++i) {
+            results[i] = estimationType.evaluate(work, null, ps[i], lookup);
+        }
+        return results;
+
+    }
+
     /** Select a pivot index as the median of three
      * <p>
      * <b>Note:</b> With the effect of allowing {@link KthSelector} to be set on
@@ -548,6 +708,103 @@ public class Percentile extends AbstractUnivariateStatistic implements Serializa
         return temp;
     }
 
+    /**
+     * Selector that only records the requested indices.
+     * <p>
+     * This class is used to find out which order statistics an {@link
+     * EstimationType estimation type} needs, before selecting them all
+     * at once.
+     * </p>
+     */
+    private static class RecordingSelector extends KthSelector {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20141020L;
+
+        /** Recorded indices. */
+        private int[] indices;
+
+        /** Number of recorded indices. */
+        private int size;
+
+        /** Simple constructor. */
+        RecordingSelector() {
+            indices = new int[8];
+            size    = 0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double select(final double[] work, final int[] pivotsHeap, final int k) {
+            if (size == indices.length) {
+                indices = copyOf(indices, 2 * size);
+            }
+            indices[size++] = k;
+            return 0;
+        }
+
+        /**
+         * Get the recorded indices.
+         * @return sorted recorded indices, without duplicates
+         */
+        public int[] getIndices() {
+            final int[] sorted = copyOf(indices, size);
+            Arrays.sort(sorted);
+            int n = 0;
+            for (int i = 0; i < sorted.length; ++i) {
+                if (n == 0 || sorted[n - 1] != sorted[i]) {
+                    sorted[n++] = sorted[i];
+                }
+            }
+            return copyOf(sorted, n);
+        }
+
+        /**
+         * Copy the beginning of an array.
+         * @param array array to copy
+         * @param length number of elements in the copy
+         * @return copied array
+         */
+        private static int[] copyOf(final int[] array, final int length) {
+            final int[] copy = new int[length];
+            System.arraycopy(array, 0, copy, 0, FastMath.min(length, array.length));
+            return copy;
+        }
+
+    }
+
+    /**
+     * Selector returning values that have already been selected.
+     */
+    private static class SelectedValues extends KthSelector {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 20141020L;
+
+        /** Sorted indices. */
+        private final int[] indices;
+
+        /** Values at the sorted indices. */
+        private final double[] values;
+
+        /**
+         * Simple constructor.
+         * @param indices sorted indices
+         * @param values values at the sorted indices
+         */
+        SelectedValues(final int[] indices, final double[] values) {
+            this.indices = indices;
+            this.values  = values;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double select(final double[] work, final int[] pivotsHeap, final int k) {
+            return values[Arrays.binarySearch(indices, k)];
+        }
+
+    }
+
     /**
      * Get pivots which is either cached or a newly created one
      *
@@ -0,0 +1,472 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.stat.descriptive.rank;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.apache.commons.math3.stat.descriptive.AbstractStorelessUnivariateStatistic;
+import org.apache.commons.math3.stat.descriptive.AggregatableStatistic;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.MathArrays;
+import org.apache.commons.math3.util.MathUtils;
+
+/**
+ * A {@link org.apache.commons.math3.stat.descriptive.StorelessUnivariateStatistic
+ * StorelessUnivariateStatistic} estimating percentiles with the
+ * <a href="https://github.com/tdunning/t-digest">t-digest</a> sketch of
+ * Ted Dunning and Otmar Ertl.
+ * <p>
+ * The data set is summarized by a bounded number of centroids (a mean and a
+ * weight), which are small near the extreme percentiles and larger near the
+ * median. This gives an accurate estimate of any percentile, with a relative
+ * accuracy in the tails much better than {@link PSquarePercentile}, using a
+ * memory size which depends on the compression parameter and grows only
+ * logarithmically with the number of values: for large data sets, the number
+ * of centroids is typically between one half and three quarters of the
+ * compression (50 to 70 centroids with the default compression).
+ * </p>
+ * <p>
+ * A single instance answers any percentile with {@link #getResult(double)},
+ * {@link #getResult()} returning the percentile configured at construction.
+ * Digests computed on separate partitions of a data set can be combined
+ * using {@link #aggregate(TDigest)}. Exact minimum and maximum are retained.
+ * NaN values are ignored. Infinite values are supported, they are only merged
+ * in centroids with equal values.
+ * </p>
+ * <p>
+ * Incoming values are buffered and merged with the centroids when the buffer
+ * is full or when a result is requested. For small samples, where data can be
+ * stored and processed in memory, {@link Percentile} should be used.
+ * </p>
+ * <p>
+ * <strong>Note that this implementation is not synchronized.</strong> If
+ * multiple threads access an instance of this class concurrently, it must be
+ * synchronized externally.
+ * </p>
+ *
+ * @version $Id$
+ * @since 3.4
+ */
+public class TDigest extends AbstractStorelessUnivariateStatistic
+    implements AggregatableStatistic<TDigest>, Serializable {
+
+    /** Default compression. */
+    public static final double DEFAULT_COMPRESSION = 100.0;
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20141019L;
+
+    /** Ratio between buffer size and compression. */
+    private static final int BUFFER_FACTOR = 5;
+
+    /** Percentile returned by {@link #getResult()}. */
+    private final double quantile;
+
+    /** Compression parameter. */
+    private final double compression;
+
+    /** Number of values added. */
+    private long n;
+
+    /** Smallest value added. */
+    private double min;
+
+    /** Largest value added. */
+    private double max;
+
+    /** Number of centroids. */
+    private transient int count;
+
+    /** Means of the centroids, sorted in increasing order. */
+    private transient double[] means;
+
+    /** Weights of the centroids. */
+    private transient double[] weights;
+
+    /** Number of buffered points. */
+    private transient int bufferCount;
+
+    /** Means of the buffered points. */
+    private transient double[] bufferMeans;
+
+    /** Weights of the buffered points. */
+    private transient double[] bufferWeights;
+
+    /**
+     * Build a digest for the median with the {@link #DEFAULT_COMPRESSION
+     * default compression}.
+     */
+    public TDigest() {
+        this(50.0);
+    }
+
+    /**
+     * Build a digest with the {@link #DEFAULT_COMPRESSION default compression}.
+     * @param p percentile returned by {@link #getResult()}
+     * @throws OutOfRangeException if p is not in [0, 100]
+     */
+    public TDigest(final double p) throws OutOfRangeException {
+        this(p, DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Build a digest.
+     * <p>
+     * The number of centroids is proportional to the compression, and the
+     * estimation error in the tails is roughly inversely proportional to its
+     * square. Values between 100 and 1000 are typical.
+     * </p>
+     * @param p percentile returned by {@link #getResult()}
+     * @param compression compression parameter
+     * @throws OutOfRangeException if p is not in [0, 100]
+     * @throws NotStrictlyPositiveException if compression is not positive
+     */
+    public TDigest(final double p, final double compression)
+        throws OutOfRangeException, NotStrictlyPositiveException {
+        if (p > 100 || p < 0) {
+            throw new OutOfRangeException(LocalizedFormats.OUT_OF_RANGE, p, 0, 100);
+        }
+        if (compression <= 0) {
+            throw new NotStrictlyPositiveException(compression);
+        }
+        this.quantile    = p / 100.0;
+        this.compression = compression;
+        allocate();
+        clear();
+    }
+
+    /**
+     * Copy constructor, creates a new {@code TDigest} identical
+     * to the {@code original}.
+     *
+     * @param original the {@code TDigest} instance to copy
+     * @throws NullArgumentException if original is null
+     */
+    public TDigest(final TDigest original) throws NullArgumentException {
+        MathUtils.checkNotNull(original);
+        this.quantile    = original.quantile;
+        this.compression = original.compression;
+        allocate();
+        copy(original, this);
+    }
+
+    /** Allocate the centroids and buffer arrays. */
+    private void allocate() {
+        final int capacity = (int) FastMath.ceil(2 * compression) + 10;
+        means         = new double[capacity];
+        weights       = new double[capacity];
+        bufferMeans   = new double[BUFFER_FACTOR * capacity];
+        bufferWeights = new double[BUFFER_FACTOR * capacity];
+    }
+
+    /**
+     * Get the compression parameter.
+     * @return compression parameter
+     */
+    public double getCompression() {
+        return compression;
+    }
+
+    /**
+     * Get the number of centroids.
+     * @return number of centroids currently used to summarize the data
+     */
+    public int getCentroidsCount() {
+        flush();
+        return count;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void increment(final double d) {
+        if (Double.isNaN(d)) {
+            return;
+        }
+        if (n == 0 || d < min) {
+            min = d;
+        }
+        if (n == 0 || d > max) {
+            max = d;
+        }
+        ++n;
+        addToBuffer(d, 1.0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The centroids of the other digest are merged into this one, so the
+     * result is a digest of the union of both data sets, with the same
+     * memory bound. The compression of this instance is retained.
+     * </p>
+     */
+    public void aggregate(final TDigest other) throws NullArgumentException {
+        MathUtils.checkNotNull(other);
+        if (other.n == 0) {
+            return;
+        }
+        final TDigest source = (other == this) ? copy() : other;
+        source.flush();
+        min = (n == 0) ? source.min : FastMath.min(min, source.min);
+        max = (n == 0) ? source.max : FastMath.max(max, source.max);
+        n  += source.n;
+        for (int i = 0; i < source.count; ++i) {
+            addToBuffer(source.means[i], source.weights[i]);
+        }
+    }
+
+    /**
+     * Add a weighted point to the buffer, merging it if it is full.
+     * @param mean mean of the point
+     * @param weight weight of the point
+     */
+    private void addToBuffer(final double mean, final double weight) {
+        if (bufferCount == bufferMeans.length) {
+            flush();
+        }
+        bufferMeans[bufferCount]   = mean;
+        bufferWeights[bufferCount] = weight;
+        ++bufferCount;
+    }
+
+    /** Merge the buffered points into the centroids. */
+    private void flush() {
+
+        if (bufferCount == 0) {
+            return;
+        }
+
+        // sort centroids and buffered points together
+        final int m = count + bufferCount;
+        final double[] x = new double[m];
+        final double[] w = new double[m];
+        System.arraycopy(means,         0, x, 0,     count);
+        System.arraycopy(weights,       0, w, 0,     count);
+        System.arraycopy(bufferMeans,   0, x, count, bufferCount);
+        System.arraycopy(bufferWeights, 0, w, count, bufferCount);
+        MathArrays.sortInPlace(x, w);
+
+        // merge neighbors as long as the scale function allows it; this uses
+        // k(q) = delta / Z ln(q / (1 - q)), with Z = 4 ln(n / delta) + 24,
+        // each centroid spanning at most one unit of k, so centroid starting at
+        // quantile q can extend up to q g / (1 - q + q g), with g = exp(Z / delta)
+        double total = 0;
+        for (int i = 0; i < m; ++i) {
+            total += w[i];
+        }
+        final double growth = FastMath.exp((4 * FastMath.log(FastMath.max(1.0, total / compression)) + 24) /
+                                           compression);
+        int    k           = 0;
+        double weightSoFar = 0;
+        double limit       = 0;
+        for (int i = 1; i < m; ++i) {
+            final double proposed = w[k] + w[i];
+            // infinite values are only merged with equal values, as a
+            // weighted mean involving them would be infinite or NaN
+            final boolean mergeable = x[i] == x[k] ||
+                                      !(Double.isInfinite(x[i]) || Double.isInfinite(x[k]));
+            if (mergeable && weightSoFar + proposed <= limit) {
+                if (x[i] != x[k]) {
+                    x[k] += (x[i] - x[k]) * w[i] / proposed;
+                }
+                w[k]  = proposed;
+            } else {
+                weightSoFar += w[k];
+                final double q = weightSoFar / total;
+                limit = total * q * growth / (1 - q + q * growth);
+                ++k;
+                x[k] = x[i];
+                w[k] = w[i];
+            }
+        }
+        count = k + 1;
+        if (count > means.length) {
+            means   = new double[count];
+            weights = new double[count];
+        }
+        System.arraycopy(x, 0, means,   0, count);
+        System.arraycopy(w, 0, weights, 0, count);
+        bufferCount = 0;
+
+    }
+
+    /**
+     * Returns the estimate of the percentile configured at construction.
+     * @return estimated percentile, or {@code Double.NaN} if no values
+     * have been added
+     */
+    @Override
+    public double getResult() {
+        return getResult(quantile * 100.0);
+    }
+
+    /**
+     * Returns an estimate of any percentile.
+     * @param p percentile to estimate
+     * @return estimated percentile, or {@code Double.NaN} if no values
+     * have been added
+     * @throws OutOfRangeException if p is not in [0, 100]
+     */
+    public double getResult(final double p) throws OutOfRangeException {
+
+        if (p > 100 || p < 0) {
+            throw new OutOfRangeException(LocalizedFormats.OUT_OF_RANGE, p, 0, 100);
+        }
+        if (n == 0) {
+            return Double.NaN;
+        }
+        flush();
+
+        // centroids are interpolated between their centers,
+        // the first and last ones being extended to the exact extrema
+        final double index = p / 100.0 * n;
+        double half = weights[0] / 2;
+        if (index <= half) {
+            return interpolate(min, means[0], index / half);
+        }
+        double weightSoFar = half;
+        for (int i = 0; i < count - 1; ++i) {
+            final double delta = (weights[i] + weights[i + 1]) / 2;
+            if (weightSoFar + delta > index) {
+                return interpolate(means[i], means[i + 1], (index - weightSoFar) / delta);
+            }
+            weightSoFar += delta;
+        }
+        half = weights[count - 1] / 2;
+        return interpolate(means[count - 1], max, (index - weightSoFar) / half);
+
+    }
+
+    /**
+     * Interpolate linearly between two values.
+     * <p>
+     * The end points are returned exactly, and an infinite end point is
+     * returned for all interior points, so infinite values never produce NaN.
+     * </p>
+     * @param a value at z = 0
+     * @param b value at z = 1
+     * @param z interpolation parameter, clipped to [0, 1]
+     * @return interpolated value
+     */
+    private static double interpolate(final double a, final double b, final double z) {
+        if (z <= 0 || a == b) {
+            return a;
+        } else if (z >= 1) {
+            return b;
+        } else if (Double.isInfinite(a)) {
+            return a;
+        } else if (Double.isInfinite(b)) {
+            return b;
+        }
+        return a + z * (b - a);
+    }
+
+    /** {@inheritDoc} */
+    public long getN() {
+        return n;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        n           = 0;
+        min         = Double.NaN;
+        max         = Double.NaN;
+        count       = 0;
+        bufferCount = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TDigest copy() {
+        final TDigest result = new TDigest(quantile * 100.0, compression);
+        copy(this, result);
+        return result;
+    }
+
+    /**
+     * Copies source to dest.
+     * <p>Neither source nor dest can be null. The compression and percentile
+     * of the destination are not changed.</p>
+     *
+     * @param source TDigest to copy
+     * @param dest TDigest to copy to
+     * @throws NullArgumentException if either source or dest is null
+     */
+    public static void copy(final TDigest source, final TDigest dest)
+        throws NullArgumentException {
+        MathUtils.checkNotNull(source);
+        MathUtils.checkNotNull(dest);
+        source.flush();
+        dest.setData(source.getDataRef());
+        dest.clear();
+        if (source.n > 0) {
+            dest.n   = source.n;
+            dest.min = source.min;
+            dest.max = source.max;
+            for (int i = 0; i < source.count; ++i) {
+                dest.addToBuffer(source.means[i], source.weights[i]);
+            }
+            dest.flush();
+        }
+    }
+
+    /**
+     * Serialize the centroids only.
+     * @param out stream where to write the instance
+     * @throws IOException if the object cannot be written
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        flush();
+        out.defaultWriteObject();
+        out.writeInt(count);
+        for (int i = 0; i < count; ++i) {
+            out.writeDouble(means[i]);
+            out.writeDouble(weights[i]);
+        }
+    }
+
+    /**
+     * Deserialize the centroids.
+     * @param in stream from which the instance is read
+     * @throws IOException if the object cannot be read
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    private void readObject(final ObjectInputStream in)
+        throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        allocate();
+        count = in.readInt();
+        if (count > means.length) {
+            means   = new double[count];
+            weights = new double[count];
+        }
+        for (int i = 0; i < count; ++i) {
+            means[i]   = in.readDouble();
+            weights[i] = in.readDouble();
+        }
+        bufferCount = 0;
+    }
+
+}
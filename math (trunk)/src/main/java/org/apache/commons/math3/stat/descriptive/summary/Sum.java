@@ -21,6 +21,7 @@ import java.io.Serializable;
 import org.apache.commons.math3.exception.MathIllegalArgumentException;
 import org.apache.commons.math3.exception.NullArgumentException;
 import org.apache.commons.math3.stat.descriptive.AbstractStorelessUnivariateStatistic;
+import org.apache.commons.math3.stat.descriptive.AggregatableStatistic;
 import org.apache.commons.math3.util.MathUtils;
 
 
@@ -38,7 +39,8 @@ import org.apache.commons.math3.util.MathUtils;
  *
  * @version $Id: Sum.java 1416643 2012-12-03 19:37:14Z tn $
  */
-public class Sum extends AbstractStorelessUnivariateStatistic implements Serializable {
+public class Sum extends AbstractStorelessUnivariateStatistic
+    implements AggregatableStatistic<Sum>, Serializable {
 
     /** Serializable version identifier */
     private static final long serialVersionUID = -8231831954703408316L;
@@ -196,6 +198,18 @@ public class Sum extends AbstractStorelessUnivariateStatistic implements Seriali
         return evaluate(values, weights, 0, values.length);
     }
 
+    /**
+     * {@inheritDoc}
+     * @since 3.4
+     */
+    public void aggregate(final Sum other) throws NullArgumentException {
+        MathUtils.checkNotNull(other);
+        if (other.n > 0) {
+            n     += other.n;
+            value += other.value;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
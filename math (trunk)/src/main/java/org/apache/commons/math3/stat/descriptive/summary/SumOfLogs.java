@@ -21,6 +21,7 @@ import java.io.Serializable;
 import org.apache.commons.math3.exception.MathIllegalArgumentException;
 import org.apache.commons.math3.exception.NullArgumentException;
 import org.apache.commons.math3.stat.descriptive.AbstractStorelessUnivariateStatistic;
+import org.apache.commons.math3.stat.descriptive.AggregatableStatistic;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.MathUtils;
 
@@ -46,7 +47,8 @@ import org.apache.commons.math3.util.MathUtils;
  *
  * @version $Id: SumOfLogs.java 1416643 2012-12-03 19:37:14Z tn $
  */
-public class SumOfLogs extends AbstractStorelessUnivariateStatistic implements Serializable {
+public class SumOfLogs extends AbstractStorelessUnivariateStatistic
+    implements AggregatableStatistic<SumOfLogs>, Serializable {
 
     /** Serializable version identifier */
     private static final long serialVersionUID = -370076995648386763L;
@@ -141,6 +143,18 @@ public class SumOfLogs extends AbstractStorelessUnivariateStatistic implements S
         return sumLog;
     }
 
+    /**
+     * {@inheritDoc}
+     * @since 3.4
+     */
+    public void aggregate(final SumOfLogs other) throws NullArgumentException {
+        MathUtils.checkNotNull(other);
+        if (other.n > 0) {
+            n     += other.n;
+            value += other.value;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
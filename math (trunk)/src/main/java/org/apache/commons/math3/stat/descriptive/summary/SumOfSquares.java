@@ -21,6 +21,7 @@ import java.io.Serializable;
 import org.apache.commons.math3.exception.MathIllegalArgumentException;
 import org.apache.commons.math3.exception.NullArgumentException;
 import org.apache.commons.math3.stat.descriptive.AbstractStorelessUnivariateStatistic;
+import org.apache.commons.math3.stat.descriptive.AggregatableStatistic;
 import org.apache.commons.math3.util.MathUtils;
 
 /**
@@ -37,7 +38,8 @@ import org.apache.commons.math3.util.MathUtils;
  *
  * @version $Id: SumOfSquares.java 1416643 2012-12-03 19:37:14Z tn $
  */
-public class SumOfSquares extends AbstractStorelessUnivariateStatistic implements Serializable {
+public class SumOfSquares extends AbstractStorelessUnivariateStatistic
+    implements AggregatableStatistic<SumOfSquares>, Serializable {
 
     /** Serializable version identifier */
     private static final long serialVersionUID = 1460986908574398008L;
@@ -129,6 +131,18 @@ public class SumOfSquares extends AbstractStorelessUnivariateStatistic implement
         return sumSq;
     }
 
+    /**
+     * {@inheritDoc}
+     * @since 3.4
+     */
+    public void aggregate(final SumOfSquares other) throws NullArgumentException {
+        MathUtils.checkNotNull(other);
+        if (other.n > 0) {
+            n     += other.n;
+            value += other.value;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
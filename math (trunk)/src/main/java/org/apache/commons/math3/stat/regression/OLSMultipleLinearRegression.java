@@ -17,6 +17,7 @@
 package org.apache.commons.math3.stat.regression;
 
 import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.LUDecomposition;
 import org.apache.commons.math3.linear.QRDecomposition;
@@ -60,6 +61,9 @@ public class OLSMultipleLinearRegression extends AbstractMultipleLinearRegressio
     /** Singularity threshold for QR decomposition */
     private final double threshold;
 
+    /** Block size for QR decomposition */
+    private final int qrBlockSize;
+
     /**
      * Create an empty OLSMultipleLinearRegression instance.
      */
@@ -75,7 +79,33 @@ public class OLSMultipleLinearRegression extends AbstractMultipleLinearRegressio
      * @since 3.3
      */
     public OLSMultipleLinearRegression(final double threshold) {
-        this.threshold = threshold;
+        this.threshold   = threshold;
+        this.qrBlockSize = 1;
+    }
+
+    /**
+     * Create an empty OLSMultipleLinearRegression instance, using the given
+     * singularity threshold and the blocked algorithm for the QR decomposition.
+     * <p>
+     * The {@link QRDecomposition#QRDecomposition(RealMatrix, double, int)
+     * blocked QR decomposition} reduces memory traffic for design matrices
+     * with many observations. A block size of 1 corresponds to the default
+     * unblocked decomposition.
+     * </p>
+     *
+     * @param threshold the singularity threshold
+     * @param qrBlockSize number of Householder reflectors in each block of the
+     * QR decomposition (a good choice is {@link QRDecomposition#DEFAULT_BLOCK_SIZE})
+     * @throws NotStrictlyPositiveException if {@code qrBlockSize} is not positive
+     * @since 3.4
+     */
+    public OLSMultipleLinearRegression(final double threshold, final int qrBlockSize)
+        throws NotStrictlyPositiveException {
+        if (qrBlockSize < 1) {
+            throw new NotStrictlyPositiveException(qrBlockSize);
+        }
+        this.threshold   = threshold;
+        this.qrBlockSize = qrBlockSize;
     }
 
     /**
@@ -100,7 +130,7 @@ public class OLSMultipleLinearRegression extends AbstractMultipleLinearRegressio
     @Override
     public void newSampleData(double[] data, int nobs, int nvars) {
         super.newSampleData(data, nobs, nvars);
-        qr = new QRDecomposition(getX(), threshold);
+        qr = new QRDecomposition(getX(), threshold, qrBlockSize);
     }
 
     /**
@@ -234,7 +264,7 @@ public class OLSMultipleLinearRegression extends AbstractMultipleLinearRegressio
     @Override
     protected void newXSampleData(double[][] x) {
         super.newXSampleData(x);
-        qr = new QRDecomposition(getX());
+        qr = new QRDecomposition(getX(), 0d, qrBlockSize);
     }
 
     /**
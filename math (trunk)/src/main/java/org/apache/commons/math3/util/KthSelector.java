@@ -17,9 +17,18 @@
 package org.apache.commons.math3.util;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.apache.commons.math3.exception.MathIllegalStateException;
 import org.apache.commons.math3.exception.NullArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.exception.util.LocalizedFormats;
 
 
 /**
@@ -37,6 +46,21 @@ public class KthSelector implements Serializable {
     /** Minimum selection size for insertion sort rather than selection. */
     private static final int MIN_SELECT_SIZE = 15;
 
+    /** Minimum array size for parallel selection. */
+    private static final int MIN_PARALLEL_SIZE = 1 << 17;
+
+    /** Number of elements scanned by each task in parallel selection. */
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 16;
+
+    /** Size of the sample used to bracket the selected values in parallel selection. */
+    private static final int SAMPLE_SIZE = 1 << 14;
+
+    /**
+     * Inverse of the maximal fraction of a chunk gathered for one bracket in parallel
+     * selection (brackets are expected to hold one sixteenth of the elements).
+     */
+    private static final int MAX_GATHERED_RATIO = 4;
+
     /** A {@link PivotingStrategy} used for pivoting  */
     private final PivotingStrategyInterface pivotingStrategy;
 
@@ -115,6 +139,319 @@ public class KthSelector implements Serializable {
         return work[k];
     }
 
+    /**
+     * Select several K<sup>th</sup> values in the array in a single pass.
+     * <p>
+     * This is a multiple selection: the array is recursively partitioned
+     * only in the parts containing some of the requested indices, so
+     * selecting m order statistics costs much less than m independent calls
+     * to {@link #select(double[], int[], int)}. On exit, the work array is
+     * reordered and each requested element is at its sorted position.
+     * </p>
+     *
+     * @param work work array to use to find out the K<sup>th</sup> values
+     * @param ks indices whose values in the sorted array are of interest
+     * (they need not be sorted and may contain duplicates)
+     * @return K<sup>th</sup> values, in the same order as {@code ks}
+     * @throws NullArgumentException if {@code work} or {@code ks} is null
+     * @throws OutOfRangeException if an index is out of the array range
+     * @since 3.4
+     */
+    public double[] select(final double[] work, final int[] ks)
+        throws NullArgumentException, OutOfRangeException {
+
+        final int[] sorted = sortedIndices(work, ks);
+
+        // stack of (begin, end, first index, last index + 1) ranges,
+        // the ranges are disjoint and each one contains at least one index
+        final int[] stack = new int[4 * sorted.length];
+        int top = 0;
+        if (sorted.length > 0) {
+            stack[top++] = 0;
+            stack[top++] = work.length;
+            stack[top++] = 0;
+            stack[top++] = sorted.length;
+        }
+
+        while (top > 0) {
+            final int to    = stack[--top];
+            final int from  = stack[--top];
+            final int end   = stack[--top];
+            final int begin = stack[--top];
+
+            if (end - begin <= MIN_SELECT_SIZE) {
+                Arrays.sort(work, begin, end);
+                continue;
+            }
+
+            final int pivot = partition(work, begin, end, pivotingStrategy.pivotIndex(work, begin, end));
+
+            // distribute the indices between the two partitions
+            int split = from;
+            while (split < to && sorted[split] < pivot) {
+                ++split;
+            }
+            if (split > from) {
+                stack[top++] = begin;
+                stack[top++] = pivot;
+                stack[top++] = from;
+                stack[top++] = split;
+            }
+            if (split < to && sorted[split] == pivot) {
+                // the pivot is already at its sorted position
+                ++split;
+            }
+            if (split < to) {
+                stack[top++] = pivot + 1;
+                stack[top++] = end;
+                stack[top++] = split;
+                stack[top++] = to;
+            }
+        }
+
+        final double[] values = new double[ks.length];
+        for (int i = 0; i < ks.length; ++i) {
+            values[i] = work[ks[i]];
+        }
+        return values;
+
+    }
+
+    /**
+     * Select several K<sup>th</sup> values in the array, distributing the
+     * work on an executor.
+     * <p>
+     * For large arrays, a sorted sample of the array is used to compute
+     * narrow brackets around each requested value, then the array is scanned
+     * in parallel to count the elements below each bracket or equal to its
+     * bounds and gather the elements strictly inside it, and the values are
+     * finally selected within the small gathered sets. This algorithm (a
+     * parallel version of Floyd and Rivest selection) reads the work array
+     * without reordering it. When a bracket misses its target (which is
+     * unlikely), when the array contains NaN or when heavily tied data make
+     * the gathered sets too large, the values are selected sequentially using
+     * {@link #select(double[], int[])}, so the results are always exact.
+     * </p>
+     *
+     * @param work work array to use to find out the K<sup>th</sup> values
+     * (it may be reordered)
+     * @param ks indices whose values in the sorted array are of interest
+     * (they need not be sorted and may contain duplicates)
+     * @param executor executor to use (may be null, in which case all
+     * computations are performed in the calling thread)
+     * @return K<sup>th</sup> values, in the same order as {@code ks}
+     * @throws NullArgumentException if {@code work} or {@code ks} is null
+     * @throws OutOfRangeException if an index is out of the array range
+     * @throws MathIllegalStateException if the calling thread is interrupted
+     * while waiting for the tasks
+     * @since 3.4
+     */
+    public double[] select(final double[] work, final int[] ks, final ExecutorService executor)
+        throws NullArgumentException, OutOfRangeException, MathIllegalStateException {
+
+        final int n = work.length;
+        if (executor == null || n < MIN_PARALLEL_SIZE) {
+            return select(work, ks);
+        }
+        final int[] sorted = sortedIndices(work, ks);
+        final int   m      = sorted.length;
+
+        // bracket each requested value using a sorted regular sample
+        final double[] sample = new double[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; ++i) {
+            sample[i] = work[(int) (((long) i * n) / SAMPLE_SIZE)];
+        }
+        Arrays.sort(sample);
+        final int margin = 4 * (int) FastMath.sqrt(SAMPLE_SIZE);
+        final double[] lower = new double[m];
+        final double[] upper = new double[m];
+        for (int j = 0; j < m; ++j) {
+            final int center = (int) (((long) sorted[j] * SAMPLE_SIZE) / n);
+            lower[j] = center - margin < 0 ?
+                       Double.NEGATIVE_INFINITY : sample[center - margin];
+            upper[j] = center + margin >= SAMPLE_SIZE ?
+                       Double.POSITIVE_INFINITY : sample[center + margin];
+        }
+
+        // count and gather elements in parallel
+        final int nbChunks = (n + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        final long[][]   below      = new long[nbChunks][m];
+        final long[][]   equalLower = new long[nbChunks][m];
+        final long[][]   equalUpper = new long[nbChunks][m];
+        final int[][]    sizes      = new int[nbChunks][m];
+        final double[][][] inside   = new double[nbChunks][m][];
+        final boolean[]  fallback   = new boolean[nbChunks];
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(nbChunks);
+        for (int c = 0; c < nbChunks; ++c) {
+            final int chunk = c;
+            tasks.add(new Callable<Void>() {
+                /** {@inheritDoc} */
+                public Void call() {
+                    final int begin = chunk * PARALLEL_CHUNK_SIZE;
+                    final int end   = FastMath.min(begin + PARALLEL_CHUNK_SIZE, n);
+                    final int maxGathered = (end - begin) / MAX_GATHERED_RATIO;
+                    final long[]     b  = below[chunk];
+                    final long[]     el = equalLower[chunk];
+                    final long[]     eu = equalUpper[chunk];
+                    final int[]      s  = sizes[chunk];
+                    final double[][] g  = inside[chunk];
+                    for (int j = 0; j < m; ++j) {
+                        g[j] = new double[16];
+                    }
+                    for (int i = begin; i < end; ++i) {
+                        final double x = work[i];
+                        if (Double.isNaN(x)) {
+                            fallback[chunk] = true;
+                            return null;
+                        }
+                        for (int j = 0; j < m; ++j) {
+                            if (x < lower[j]) {
+                                ++b[j];
+                            } else if (x == lower[j]) {
+                                ++el[j];
+                            } else if (x == upper[j]) {
+                                ++eu[j];
+                            } else if (x < upper[j]) {
+                                if (s[j] == maxGathered) {
+                                    // the sample was not representative, probably due to ties
+                                    fallback[chunk] = true;
+                                    return null;
+                                }
+                                if (s[j] == g[j].length) {
+                                    final double[] grown = new double[FastMath.min(2 * s[j], maxGathered)];
+                                    System.arraycopy(g[j], 0, grown, 0, s[j]);
+                                    g[j] = grown;
+                                }
+                                g[j][s[j]++] = x;
+                            }
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+        invokeAll(executor, tasks);
+        for (int c = 0; c < nbChunks; ++c) {
+            if (fallback[c]) {
+                return select(work, ks);
+            }
+        }
+
+        // select the values within the gathered elements
+        final double[] selected = new double[m];
+        int nbMissed = 0;
+        final int[] missed = new int[m];
+        for (int j = 0; j < m; ++j) {
+            long count = 0;
+            long lowerCount = 0;
+            long upperCount = 0;
+            int  size  = 0;
+            for (int c = 0; c < nbChunks; ++c) {
+                count      += below[c][j];
+                lowerCount += equalLower[c][j];
+                upperCount += equalUpper[c][j];
+                size       += sizes[c][j];
+            }
+            final long rank = sorted[j] - count - lowerCount;
+            if (rank >= -lowerCount && rank < 0) {
+                selected[j] = lower[j];
+            } else if (rank >= size && rank < size + upperCount) {
+                selected[j] = upper[j];
+            } else if (rank >= 0 && rank < size) {
+                final double[] gathered = new double[size];
+                int index = 0;
+                for (int c = 0; c < nbChunks; ++c) {
+                    System.arraycopy(inside[c][j], 0, gathered, index, sizes[c][j]);
+                    index += sizes[c][j];
+                }
+                selected[j] = select(gathered, null, (int) rank);
+            } else {
+                missed[nbMissed++] = j;
+            }
+        }
+
+        // fall back to sequential selection for the missed brackets
+        if (nbMissed > 0) {
+            final int[] remaining = new int[nbMissed];
+            for (int i = 0; i < nbMissed; ++i) {
+                remaining[i] = sorted[missed[i]];
+            }
+            final double[] values = select(work, remaining);
+            for (int i = 0; i < nbMissed; ++i) {
+                selected[missed[i]] = values[i];
+            }
+        }
+
+        final double[] values = new double[ks.length];
+        for (int i = 0; i < ks.length; ++i) {
+            values[i] = selected[Arrays.binarySearch(sorted, ks[i])];
+        }
+        return values;
+
+    }
+
+    /**
+     * Check and sort indices, removing duplicates.
+     * @param work work array
+     * @param ks indices to check
+     * @return sorted indices without duplicates
+     * @throws NullArgumentException if {@code work} or {@code ks} is null
+     * @throws OutOfRangeException if an index is out of the array range
+     */
+    private static int[] sortedIndices(final double[] work, final int[] ks)
+        throws NullArgumentException, OutOfRangeException {
+        MathUtils.checkNotNull(work);
+        MathUtils.checkNotNull(ks);
+        final int[] sorted = ks.clone();
+        Arrays.sort(sorted);
+        int m = 0;
+        for (int i = 0; i < sorted.length; ++i) {
+            final int k = sorted[i];
+            if (k < 0 || k >= work.length) {
+                throw new OutOfRangeException(LocalizedFormats.INDEX, k, 0, work.length - 1);
+            }
+            if (m == 0 || sorted[m - 1] != k) {
+                sorted[m++] = k;
+            }
+        }
+        final int[] distinct = new int[m];
+        System.arraycopy(sorted, 0, distinct, 0, m);
+        return distinct;
+    }
+
+    /**
+     * Run all tasks and wait for their completion.
+     * <p>
+     * This mirrors the package-private helper used by the parallel algorithms
+     * of the {@code linear} package, which is not part of the public API.
+     * </p>
+     * @param executor executor to use
+     * @param tasks tasks to run
+     * @throws MathIllegalStateException if the calling thread is interrupted
+     * while waiting or if a task throws a checked exception
+     */
+    private static void invokeAll(final ExecutorService executor,
+                                  final List<Callable<Void>> tasks)
+        throws MathIllegalStateException {
+        try {
+            for (final Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new MathIllegalStateException(ie, LocalizedFormats.ILLEGAL_STATE);
+        } catch (ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MathIllegalStateException(cause, LocalizedFormats.ILLEGAL_STATE);
+        }
+    }
+
     /**
      * Partition an array slice around a pivot.Partitioning exchanges array
      * elements such that all elements smaller than pivot are before it and
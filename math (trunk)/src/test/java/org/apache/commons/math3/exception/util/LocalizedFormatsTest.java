@@ -30,7 +30,7 @@ public class LocalizedFormatsTest {
 
     @Test
     public void testMessageNumber() {
-        Assert.assertEquals(319, LocalizedFormats.values().length);
+        Assert.assertEquals(321, LocalizedFormats.values().length);
     }
 
     @Test
@@ -223,6 +223,41 @@ public final class Array2DRowRealMatrixTest {
        TestUtils.assertEquals("m3*m4=m5", m3.multiply(m4), m5, entryTolerance);
    }
 
+    @Test
+    public void testMultiplyLarge() {
+        // dimensions chosen to span several packed panels and partial tiles
+        final int p = 131;
+        final int q = 270;
+        final int r = 1031;
+        final double[][] a = new double[p][q];
+        final double[][] b = new double[q][r];
+        for (int i = 0; i < p; ++i) {
+            for (int j = 0; j < q; ++j) {
+                a[i][j] = (i * 7 + j * 3) % 11 - 5;
+            }
+        }
+        for (int i = 0; i < q; ++i) {
+            for (int j = 0; j < r; ++j) {
+                b[i][j] = (i * 5 + j * 13) % 17 - 8;
+            }
+        }
+
+        final RealMatrix product = new Array2DRowRealMatrix(a).multiply(new Array2DRowRealMatrix(b));
+        Assert.assertTrue(product instanceof Array2DRowRealMatrix);
+        Assert.assertEquals(p, product.getRowDimension());
+        Assert.assertEquals(r, product.getColumnDimension());
+        for (int i = 0; i < p; ++i) {
+            for (int j = 0; j < r; ++j) {
+                double sum = 0;
+                for (int k = 0; k < q; ++k) {
+                    sum += a[i][k] * b[k][j];
+                }
+                // all entries are small integers, so sums are exact
+                Assert.assertEquals(sum, product.getEntry(i, j), 0);
+            }
+        }
+    }
+
     @Test
     public void testPower() {
         Array2DRowRealMatrix m = new Array2DRowRealMatrix(testData);
@@ -316,6 +351,26 @@ public final class Array2DRowRealMatrixTest {
         }
     }
 
+    @Test
+    public void testOperateInto() {
+        final Array2DRowRealMatrix m = new Array2DRowRealMatrix(testData);
+        final double[] out = { Double.NaN, Double.NaN, Double.NaN };
+        m.operateInto(testVector, out);
+        TestUtils.assertEquals(m.operate(testVector), out, 0);
+        final RealVector outVector = new ArrayRealVector(3);
+        m.operateInto(new ArrayRealVector(testVector), outVector);
+        TestUtils.assertEquals(m.operate(testVector), outVector.toArray(), 0);
+        final RealVector sparseOut = new OpenMapRealVector(3);
+        m.operateInto(new OpenMapRealVector(testVector), sparseOut);
+        TestUtils.assertEquals(m.operate(testVector), sparseOut.toArray(), 0);
+        try {
+            m.operateInto(testVector, new double[2]);
+            Assert.fail("an exception should have been thrown");
+        } catch (DimensionMismatchException dme) {
+            // expected
+        }
+    }
+
     /** test issue MATH-209 */
     @Test
     public void testMath209() {
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BandedCholeskyDecompositionTest {
+
+    @Test
+    public void testAgainstDense() {
+        for (int p = 0; p < 5; ++p) {
+            final BandedRealMatrix b = createSpd(25, p, 0x5c4d3e2f1a0b9c8dl + p);
+            final RealMatrix dense = new Array2DRowRealMatrix(b.getData());
+            final CholeskyDecomposition cholesky = new CholeskyDecomposition(dense);
+            final BandedCholeskyDecomposition banded = new BandedCholeskyDecomposition(b);
+            Assert.assertEquals(p, banded.getL().getLowerBandwidth());
+            Assert.assertEquals(0, banded.getL().getUpperBandwidth());
+            TestUtils.assertEquals("L",  cholesky.getL(),  banded.getL(),  1.0e-13);
+            TestUtils.assertEquals("LT", cholesky.getLT(), banded.getLT(), 1.0e-13);
+            TestUtils.assertEquals("LLT", dense, banded.getL().multiply(banded.getLT()), 1.0e-12);
+            Assert.assertEquals(cholesky.getDeterminant(), banded.getDeterminant(),
+                                1.0e-12 * cholesky.getDeterminant());
+            final RealMatrix identity = MatrixUtils.createRealIdentityMatrix(25);
+            TestUtils.assertEquals("inverse", identity,
+                                   dense.multiply(banded.getSolver().getInverse()), 1.0e-12);
+            final RealVector rhs = dense.getColumnVector(3);
+            TestUtils.assertEquals(identity.getColumn(3),
+                                   banded.getSolver().solve(rhs).toArray(), 1.0e-12);
+        }
+    }
+
+    @Test(expected=NonSymmetricMatrixException.class)
+    public void testNotSymmetric() {
+        final BandedRealMatrix b = createSpd(6, 2, 0x1a2b3c4d5e6f7a8bl);
+        b.addToEntry(1, 3, 0.5);
+        new BandedCholeskyDecomposition(b);
+    }
+
+    @Test(expected=NonSymmetricMatrixException.class)
+    public void testDifferentBandwidths() {
+        final BandedRealMatrix b = new BandedRealMatrix(4, 0, 1);
+        for (int i = 0; i < 4; ++i) {
+            b.setEntry(i, i, 2);
+        }
+        b.setEntry(1, 2, 1);
+        new BandedCholeskyDecomposition(b);
+    }
+
+    @Test(expected=NonPositiveDefiniteMatrixException.class)
+    public void testNotPositiveDefinite() {
+        final TridiagonalRealMatrix t =
+            new TridiagonalRealMatrix(new double[] { 2, 2 }, new double[] { 1, 1, 1 }, new double[] { 2, 2 });
+        new BandedCholeskyDecomposition(t);
+    }
+
+    private BandedRealMatrix createSpd(final int n, final int p, final long seed) {
+        // diagonally dominant symmetric matrices are positive definite
+        final BandedRealMatrix random = BandedRealMatrixTest.createRandom(n, p, p, seed);
+        final BandedRealMatrix b = new BandedRealMatrix(n, p, p);
+        for (int i = 0; i < n; ++i) {
+            for (int j = Math.max(0, i - p); j < i; ++j) {
+                b.setEntry(i, j, random.getEntry(i, j));
+                b.setEntry(j, i, random.getEntry(i, j));
+            }
+            b.setEntry(i, i, 2 * p + 1);
+        }
+        return b;
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BandedLUDecompositionTest {
+
+    @Test
+    public void testAgainstDense() {
+        for (int kl = 0; kl < 4; ++kl) {
+            for (int ku = 0; ku < 4; ++ku) {
+                final BandedRealMatrix b =
+                    BandedRealMatrixTest.createRandom(30, kl, ku, 0x1e2d3c4b5a697887l + 17 * kl + ku);
+                // keep the matrices away from singularity, pivoting still occurs
+                for (int i = 0; i < 30; ++i) {
+                    b.addToEntry(i, i, 0.6);
+                }
+                final RealMatrix dense = new Array2DRowRealMatrix(b.getData());
+                final LUDecomposition lu = new LUDecomposition(dense);
+                final BandedLUDecomposition blu = new BandedLUDecomposition(b);
+                Assert.assertEquals(lu.getDeterminant(), blu.getDeterminant(),
+                                    1.0e-12 * Math.abs(lu.getDeterminant()));
+                final RealMatrix rhs = createRhs(30, 3, 0x6b5a4f3e2d1c0b9al);
+                final RealMatrix expected = lu.getSolver().solve(rhs);
+                final double tol = 1.0e-13 * expected.getNorm();
+                TestUtils.assertEquals("solution", expected, blu.getSolver().solve(rhs), tol);
+                TestUtils.assertEquals(expected.getColumn(0),
+                                       blu.getSolver().solve(rhs.getColumnVector(0)).toArray(),
+                                       tol);
+            }
+        }
+    }
+
+    @Test
+    public void testU() {
+        final BandedRealMatrix b = BandedRealMatrixTest.createRandom(20, 2, 1, 0x2f6e1b9c4d7a3e58l);
+        final BandedRealMatrix u = new BandedLUDecomposition(b).getU();
+        Assert.assertEquals(0, u.getLowerBandwidth());
+        Assert.assertEquals(3, u.getUpperBandwidth());
+        final LUDecomposition lu = new LUDecomposition(new Array2DRowRealMatrix(b.getData()));
+        TestUtils.assertEquals("U", lu.getU(), u, 1.0e-12);
+    }
+
+    @Test
+    public void testPivoting() {
+        // the first pivot is null, a row interchange is needed
+        final BandedRealMatrix b = new BandedRealMatrix(new Array2DRowRealMatrix(new double[][] {
+            { 0, 1, 0 },
+            { 2, 1, 3 },
+            { 0, 4, 1 }
+        }), 1, 1);
+        final BandedLUDecomposition lu = new BandedLUDecomposition(b);
+        Assert.assertEquals(1, lu.getPivot()[0]);
+        Assert.assertEquals(-2, lu.getDeterminant(), 1.0e-14);
+        final RealVector x = lu.getSolver().solve(new ArrayRealVector(new double[] { 1, 6, 5 }));
+        TestUtils.assertEquals(new double[] { 1, 1, 1 }, x.toArray(), 1.0e-14);
+        TestUtils.assertEquals("inverse",
+                               MatrixUtils.createRealIdentityMatrix(3),
+                               b.multiply(lu.getSolver().getInverse()), 1.0e-14);
+    }
+
+    @Test
+    public void testSingular() {
+        final BandedRealMatrix b = new BandedRealMatrix(new Array2DRowRealMatrix(new double[][] {
+            { 1, 2, 0 },
+            { 2, 4, 0 },
+            { 0, 3, 1 }
+        }), 1, 1);
+        final BandedLUDecomposition lu = new BandedLUDecomposition(b);
+        Assert.assertFalse(lu.getSolver().isNonSingular());
+        Assert.assertEquals(0, lu.getDeterminant(), 0);
+        try {
+            lu.getSolver().solve(new ArrayRealVector(3));
+            Assert.fail("an exception should have been thrown");
+        } catch (SingularMatrixException sme) {
+            // expected
+        }
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testDimensionMismatch() {
+        final BandedRealMatrix b = BandedRealMatrixTest.createRandom(5, 1, 1, 0x4a3b2c1d0e9f8a7bl);
+        new BandedLUDecomposition(b).getSolver().solve(new ArrayRealVector(4));
+    }
+
+    private RealMatrix createRhs(final int rows, final int columns, final long seed) {
+        final RandomGenerator random = new Well1024a(seed);
+        final RealMatrix rhs = new Array2DRowRealMatrix(rows, columns);
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                rhs.setEntry(i, j, random.nextDouble() - 0.5);
+            }
+        }
+        return rhs;
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.NotPositiveException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BandedRealMatrixTest {
+
+    private final double[][] fullData = {
+        { 1, 2, 0, 0 },
+        { 3, 4, 5, 0 },
+        { 6, 7, 8, 9 },
+        { 0, 1, 2, 3 }
+    };
+
+    @Test
+    public void testEntries() {
+        final BandedRealMatrix b = new BandedRealMatrix(new Array2DRowRealMatrix(fullData), 2, 1);
+        Assert.assertEquals(2, b.getLowerBandwidth());
+        Assert.assertEquals(1, b.getUpperBandwidth());
+        Assert.assertEquals(16, b.getDataRef().length);
+        TestUtils.assertEquals("band", new Array2DRowRealMatrix(fullData), b, 1.0e-15);
+        Assert.assertTrue(b.isInBand(2, 0));
+        Assert.assertFalse(b.isInBand(3, 0));
+        Assert.assertFalse(b.isInBand(0, 2));
+        Assert.assertEquals(16, b.getTrace(), 0);
+    }
+
+    @Test
+    public void testOutsideBandIgnored() {
+        final BandedRealMatrix b = new BandedRealMatrix(new Array2DRowRealMatrix(fullData), 1, 0);
+        Assert.assertEquals(0, b.getEntry(0, 1), 0);
+        Assert.assertEquals(0, b.getEntry(2, 0), 0);
+        Assert.assertEquals(7, b.getEntry(2, 1), 0);
+    }
+
+    @Test
+    public void testSetEntry() {
+        final BandedRealMatrix b = new BandedRealMatrix(5, 1, 2);
+        b.setEntry(1, 3, 4);
+        b.addToEntry(1, 3, 1);
+        b.multiplyEntry(1, 3, 2);
+        b.setEntry(4, 0, 0);
+        b.addToEntry(0, 4, 0);
+        b.multiplyEntry(4, 0, 3);
+        Assert.assertEquals(10, b.getEntry(1, 3), 0);
+        Assert.assertEquals(0, b.getEntry(4, 0), 0);
+    }
+
+    @Test(expected=NumberIsTooLargeException.class)
+    public void testSetEntryOutsideBand() {
+        new BandedRealMatrix(5, 1, 2).setEntry(3, 1, 1);
+    }
+
+    @Test(expected=NumberIsTooLargeException.class)
+    public void testAddToEntryOutsideBand() {
+        new BandedRealMatrix(5, 1, 2).addToEntry(0, 3, 1);
+    }
+
+    @Test(expected=NotPositiveException.class)
+    public void testNegativeBandwidth() {
+        new BandedRealMatrix(5, -1, 2);
+    }
+
+    @Test(expected=NonSquareMatrixException.class)
+    public void testNonSquare() {
+        new BandedRealMatrix(new Array2DRowRealMatrix(3, 4), 1, 1);
+    }
+
+    @Test
+    public void testCopyAndTranspose() {
+        final BandedRealMatrix b = createRandom(7, 2, 3, 0x51ab4a2fe9c4e6d4l);
+        final BandedRealMatrix copy = b.copy();
+        Assert.assertNotSame(b.getDataRef(), copy.getDataRef());
+        TestUtils.assertEquals(b.getDataRef(), copy.getDataRef(), 0);
+
+        final BandedRealMatrix t = b.transpose();
+        Assert.assertEquals(3, t.getLowerBandwidth());
+        Assert.assertEquals(2, t.getUpperBandwidth());
+        TestUtils.assertEquals("transpose", new Array2DRowRealMatrix(b.getData()).transpose(), t, 1.0e-15);
+    }
+
+    @Test
+    public void testProducts() {
+        final BandedRealMatrix b = createRandom(40, 3, 5, 0x3d5e6c8b6e1c7f0al);
+        final RealMatrix dense = new Array2DRowRealMatrix(b.getData());
+        final RandomGenerator random = new Well1024a(0x0a9c1f6b1e35d8e2l);
+        final double[] v = new double[40];
+        for (int i = 0; i < v.length; ++i) {
+            v[i] = random.nextDouble() - 0.5;
+        }
+        TestUtils.assertEquals(dense.operate(v), b.operate(v), 1.0e-14);
+        final double[] out = new double[40];
+        b.operateInto(v, out);
+        TestUtils.assertEquals(dense.operate(v), out, 1.0e-14);
+        TestUtils.assertEquals(dense.preMultiply(v), b.preMultiply(v), 1.0e-14);
+        TestUtils.assertEquals(dense.preMultiply(new ArrayRealVector(v)).toArray(),
+                               b.preMultiply(new ArrayRealVector(v)).toArray(), 1.0e-14);
+        TestUtils.assertEquals("product", dense.multiply(dense), b.multiply(b), 1.0e-13);
+    }
+
+    @Test
+    public void testSerial() {
+        final BandedRealMatrix b = createRandom(6, 1, 2, 0x7e51d4b2a86c3f19l);
+        Assert.assertEquals(b, TestUtils.serializeAndRecover(b));
+    }
+
+    static BandedRealMatrix createRandom(final int n, final int kl, final int ku, final long seed) {
+        final RandomGenerator random = new Well1024a(seed);
+        final BandedRealMatrix b = new BandedRealMatrix(n, kl, ku);
+        for (int i = 0; i < n; ++i) {
+            for (int j = Math.max(0, i - kl); j <= Math.min(n - 1, i + ku); ++j) {
+                b.setEntry(i, j, random.nextDouble() - 0.5);
+            }
+        }
+        return b;
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MaxCountExceededException;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.IterationEvent;
+import org.apache.commons.math3.util.IterationListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BiCGSTABTest {
+
+    @Test(expected = NonSquareOperatorException.class)
+    public void testNonSquareOperator() {
+        new BiCGSTAB(10, 0.).solve(new Array2DRowRealMatrix(2, 3), new ArrayRealVector(2), new ArrayRealVector(3));
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testDimensionMismatchSolution() {
+        new BiCGSTAB(10, 0.).solve(new Array2DRowRealMatrix(3, 3), new ArrayRealVector(3), new ArrayRealVector(2));
+    }
+
+    @Test
+    public void testUnpreconditionedSolution() {
+        final CompressedRowRealMatrix a = SparseTestMatrices.convectionDiffusion2D(30, 2.0, 0.5);
+        final RealVector x = solution(a.getRowDimension());
+        final RealVector b = a.operate(x);
+        final RealVector actual = new BiCGSTAB(1000, 1.0e-12).solve(a, b);
+        Assert.assertEquals(0, a.operate(actual).subtract(b).getNorm(), 1.0e-11 * b.getNorm());
+        Assert.assertEquals(0, actual.subtract(x).getLInfNorm(), 1.0e-9);
+    }
+
+    @Test
+    public void testPreconditionedSolution() {
+        final CompressedRowRealMatrix a = SparseTestMatrices.convectionDiffusion2D(30, 8.0, 4.0);
+        final RealVector x = solution(a.getRowDimension());
+        final RealVector b = a.operate(x);
+        final BiCGSTAB solver = new BiCGSTAB(1000, 1.0e-11);
+        final RealVector actual = solver.solve(a, JacobiPreconditioner.create(a), b);
+        Assert.assertEquals(0, actual.subtract(x).getLInfNorm(), 1.0e-8);
+    }
+
+    @Test
+    public void testSmallDense() {
+        final Array2DRowRealMatrix a = new Array2DRowRealMatrix(new double[][] {
+            { 4, -1, 0, 2 },
+            { 1,  5, 2, 0 },
+            { 0, -2, 6, 1 },
+            { 3,  0, 1, 7 }
+        });
+        final RealVector b = new ArrayRealVector(new double[] { 1, 2, 3, 4 });
+        final RealVector expected = new LUDecomposition(a).getSolver().solve(b);
+        final RealVector x0 = new ArrayRealVector(4, 1.0);
+        final RealVector actual = new BiCGSTAB(100, 1.0e-14).solve(a, null, b, x0);
+        Assert.assertEquals(0, actual.subtract(expected).getLInfNorm(), 1.0e-13);
+        Assert.assertEquals(1.0, x0.getEntry(0), 0);
+    }
+
+    @Test(expected = SingularOperatorException.class)
+    public void testSkewSymmetric() {
+        // r^T A r = 0 for all r, no progress is possible
+        final Array2DRowRealMatrix a = new Array2DRowRealMatrix(new double[][] {
+            {  0, 1 },
+            { -1, 0 }
+        });
+        new BiCGSTAB(100, 1.0e-14).solve(a, new ArrayRealVector(new double[] { 1, 0 }));
+    }
+
+    @Test(expected = MaxCountExceededException.class)
+    public void testMaxIterations() {
+        final CompressedRowRealMatrix a = SparseTestMatrices.convectionDiffusion2D(30, 2.0, 0.5);
+        new BiCGSTAB(5, 1.0e-12).solve(a, a.operate(solution(a.getRowDimension())));
+    }
+
+    @Test
+    public void testEventManagement() {
+        final CompressedRowRealMatrix a = SparseTestMatrices.convectionDiffusion2D(10, 1.0, 3.0);
+        final RealVector b = a.operate(solution(a.getRowDimension()));
+        final int[] count = new int[4];
+        final BiCGSTAB solver = new BiCGSTAB(500, 1.0e-10);
+        solver.getIterationManager().addIterationListener(new IterationListener() {
+            public void initializationPerformed(final IterationEvent e) {
+                ++count[0];
+            }
+
+            public void iterationStarted(final IterationEvent e) {
+                ++count[1];
+                Assert.assertEquals(count[1], e.getIterations() - 1);
+            }
+
+            public void iterationPerformed(final IterationEvent e) {
+                ++count[2];
+                Assert.assertEquals(count[2], e.getIterations() - 1);
+                final IterativeLinearSolverEvent evt = (IterativeLinearSolverEvent) e;
+                Assert.assertEquals(evt.getResidual().getNorm(), evt.getNormOfResidual(), 0);
+                try {
+                    evt.getSolution().set(0.0);
+                    Assert.fail("x is modifiable");
+                } catch (UnsupportedOperationException exc) {
+                    // Expected behavior
+                }
+            }
+
+            public void terminationPerformed(final IterationEvent e) {
+                ++count[3];
+                final IterativeLinearSolverEvent evt = (IterativeLinearSolverEvent) e;
+                final RealVector r = b.subtract(a.operate(evt.getSolution()));
+                Assert.assertEquals(0, evt.getResidual().subtract(r).getNorm(), 1.0e-12 * b.getNorm());
+            }
+        });
+        solver.solve(a, b);
+        Assert.assertEquals(1, count[0]);
+        Assert.assertEquals(count[1], count[2]);
+        Assert.assertEquals(1, count[3]);
+    }
+
+    private static RealVector solution(final int n) {
+        final RealVector x = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            x.setEntry(i, FastMath.cos(0.7 * i));
+        }
+        return x;
+    }
+
+}
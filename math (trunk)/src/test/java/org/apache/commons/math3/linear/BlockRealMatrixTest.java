@@ -18,6 +18,8 @@ package org.apache.commons.math3.linear;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 import org.junit.Assert;
@@ -288,6 +290,39 @@ public final class BlockRealMatrixTest {
 
     }
 
+    @Test
+    public void testMultiplyParallel() {
+        Random r = new Random(0x3c8f2bd1a64e9077l);
+        BlockRealMatrix m1 = createRandomMatrix(r, 183, 127);
+        BlockRealMatrix m2 = createRandomMatrix(r, 127, 211);
+        BlockRealMatrix serial = m1.multiply(m2);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BlockRealMatrix parallel = m1.multiply(m2, executor);
+            Assert.assertEquals(serial.getRowDimension(), parallel.getRowDimension());
+            Assert.assertEquals(serial.getColumnDimension(), parallel.getColumnDimension());
+            for (int i = 0; i < serial.getRowDimension(); ++i) {
+                for (int j = 0; j < serial.getColumnDimension(); ++j) {
+                    Assert.assertEquals(serial.getEntry(i, j), parallel.getEntry(i, j), 0);
+                }
+            }
+            try {
+                m1.multiply(m1, executor);
+                Assert.fail("Expecting MathIllegalArgumentException");
+            } catch (MathIllegalArgumentException ex) {
+                // expected
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected=NullArgumentException.class)
+    public void testMultiplyParallelNullExecutor() {
+        BlockRealMatrix m = new BlockRealMatrix(testData);
+        m.multiply(m, null);
+    }
+
     //Additional Test for BlockRealMatrixTest.testMultiply
 
     private double[][] d3 = new double[][] {{1,2,3,4},{5,6,7,8}};
@@ -352,6 +387,28 @@ public final class BlockRealMatrixTest {
         }
     }
 
+    @Test
+    public void testOperateIntoLarge() {
+        int p = (7 * BlockRealMatrix.BLOCK_SIZE) / 2;
+        int q = (5 * BlockRealMatrix.BLOCK_SIZE) / 2;
+        Random random = new Random(0x54ab1f0d6c23e987l);
+        BlockRealMatrix m = createRandomMatrix(random, p, q);
+        double[] v = createRandomMatrix(random, 1, q).getRow(0);
+        double[] out = new double[p];
+        Arrays.fill(out, Double.NaN);
+        m.operateInto(v, out);
+        checkArrays(m.operate(v), out);
+        // reuse of the output array
+        m.operateInto(v, out);
+        checkArrays(m.operate(v), out);
+        try {
+            m.operateInto(out, v);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            // expected
+        }
+    }
+
     @Test
     public void testOperatePremultiplyLarge() {
         int p = (7 * BlockRealMatrix.BLOCK_SIZE) / 2;
@@ -17,6 +17,12 @@
 
 package org.apache.commons.math3.linear;
 
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.util.FastMath;
 import org.junit.Test;
 import org.junit.Assert;
 
@@ -135,4 +141,171 @@ public class CholeskyDecompositionTest {
         Assert.assertTrue(l  == llt.getL());
         Assert.assertTrue(lt == llt.getLT());
     }
+
+    /** test blocked algorithm against unblocked one */
+    @Test
+    public void testBlocked() {
+        final int n = 3 * CholeskyDecomposition.BLOCK_SIZE + 29;
+        final RealMatrix matrix = createSPDMatrix(new Random(0x5b3e19c07fa2d846l), n);
+
+        final CholeskyDecomposition reference =
+            new CholeskyDecomposition(matrix,
+                                      CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+                                      CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD);
+        final CholeskyDecomposition blocked =
+            new CholeskyDecomposition(matrix,
+                                      CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+                                      CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD,
+                                      null);
+        Assert.assertEquals(0, reference.getL().subtract(blocked.getL()).getNorm(), 1.0e-12);
+        Assert.assertEquals(0, blocked.getL().multiply(blocked.getLT()).subtract(matrix).getNorm(),
+                            1.0e-12 * matrix.getNorm());
+
+        // many right hand sides at once
+        final RealMatrix b = createSPDMatrix(new Random(0x0e7d24a9c3b8f615l), n).getSubMatrix(0, n - 1, 0, n / 2);
+        final RealMatrix x = blocked.getSolver().solve(b);
+        Assert.assertEquals(0, matrix.multiply(x).subtract(b).getNorm(), 1.0e-10 * b.getNorm());
+    }
+
+    /** test parallel blocked algorithm gives the same result as serial one */
+    @Test
+    public void testBlockedParallel() {
+        final int n = 2 * CholeskyDecomposition.BLOCK_SIZE + 37;
+        final RealMatrix matrix = createSPDMatrix(new Random(0x2c9f6e1d48b0a573l), n);
+
+        final CholeskyDecomposition serial =
+            new CholeskyDecomposition(matrix,
+                                      CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+                                      CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD,
+                                      null);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final CholeskyDecomposition parallel =
+                new CholeskyDecomposition(matrix,
+                                          CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+                                          CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD,
+                                          executor);
+            Assert.assertEquals(0, serial.getL().subtract(parallel.getL()).getNorm(), 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** test non positive definite matrix with blocked algorithm */
+    @Test(expected = NonPositiveDefiniteMatrixException.class)
+    public void testBlockedNotPositiveDefinite() {
+        final int n = CholeskyDecomposition.BLOCK_SIZE + 10;
+        final RealMatrix matrix = createSPDMatrix(new Random(0x61a0f83e2d7c95b4l), n);
+        matrix.setEntry(n - 2, n - 2, -1.0);
+        new CholeskyDecomposition(matrix,
+                                  CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+                                  CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD,
+                                  null);
+    }
+
+    @Test
+    public void testUpdateDowndate() {
+        final int n = 40;
+        final Random random = new Random(0x3e8a1c5d72b9f604l);
+        final RealMatrix matrix = createSPDMatrix(random, n);
+        final RealVector x = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            x.setEntry(i, 2 * random.nextDouble() - 1);
+        }
+        final CholeskyDecomposition llt = new CholeskyDecomposition(matrix);
+
+        final RealMatrix updatedMatrix = matrix.add(x.outerProduct(x));
+        final CholeskyDecomposition updated = llt.update(x);
+        final CholeskyDecomposition reference = new CholeskyDecomposition(updatedMatrix);
+        Assert.assertEquals(0, updated.getL().subtract(reference.getL()).getNorm(), 1.0e-12);
+        Assert.assertEquals(0, updated.getL().multiply(updated.getLT()).subtract(updatedMatrix).getNorm(),
+                            1.0e-12 * updatedMatrix.getNorm());
+
+        // the original decomposition is not modified
+        Assert.assertEquals(0, llt.getL().multiply(llt.getLT()).subtract(matrix).getNorm(),
+                            1.0e-12 * matrix.getNorm());
+
+        final CholeskyDecomposition downdated = updated.downdate(x);
+        Assert.assertEquals(0, downdated.getL().subtract(llt.getL()).getNorm(), 1.0e-12);
+        Assert.assertEquals(llt.getDeterminant(), downdated.getDeterminant(),
+                            1.0e-10 * llt.getDeterminant());
+    }
+
+    @Test
+    public void testRankKUpdateDowndate() {
+        final int n = 30;
+        final Random random = new Random(0x7d92b0e4c1a6385fl);
+        final RealMatrix matrix = createSPDMatrix(random, n);
+        final RealMatrix x = MatrixUtils.createRealMatrix(n, 4);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < 4; ++j) {
+                x.setEntry(i, j, 2 * random.nextDouble() - 1);
+            }
+        }
+        final CholeskyDecomposition llt = new CholeskyDecomposition(matrix);
+        final RealMatrix updatedMatrix = matrix.add(x.multiply(x.transpose()));
+        final CholeskyDecomposition updated = llt.update(x);
+        Assert.assertEquals(0,
+                            updated.getL().subtract(new CholeskyDecomposition(updatedMatrix).getL()).getNorm(),
+                            1.0e-12);
+        final RealVector b = updatedMatrix.getColumnVector(5);
+        Assert.assertEquals(0,
+                            updated.getSolver().solve(b).subtract(MatrixUtils.createRealIdentityMatrix(n).getColumnVector(5)).getNorm(),
+                            1.0e-12);
+        Assert.assertEquals(0, updated.downdate(x).getL().subtract(llt.getL()).getNorm(), 1.0e-12);
+    }
+
+    @Test(expected = NonPositiveDefiniteMatrixException.class)
+    public void testDowndateNotPositiveDefinite() {
+        final RealMatrix matrix = MatrixUtils.createRealMatrix(testData);
+        new CholeskyDecomposition(matrix).downdate(new ArrayRealVector(new double[] { 0, 0, 7, 0, 0 }));
+    }
+
+    @Test
+    public void testUpdateDowndateCustomThreshold() {
+        final RealMatrix matrix = MatrixUtils.createRealDiagonalMatrix(new double[] { 1.0e-12, 1.0 });
+        final CholeskyDecomposition llt = new CholeskyDecomposition(matrix, 1.0e-15, 1.0e-20);
+
+        // the small diagonal element is below the default threshold, but not below the instance one
+        final RealVector x = new ArrayRealVector(new double[] { 0.0, 0.5 });
+        final CholeskyDecomposition updated = llt.update(x);
+        Assert.assertEquals(1.0e-6, updated.getLT().getEntry(0, 0), 1.0e-20);
+        Assert.assertEquals(FastMath.sqrt(1.25), updated.getLT().getEntry(1, 1), 1.0e-15);
+
+        // the threshold is propagated to the new decompositions
+        final RealVector y = new ArrayRealVector(new double[] { 1.0e-7, 0.0 });
+        final CholeskyDecomposition downdated = updated.downdate(y);
+        Assert.assertEquals(FastMath.sqrt(0.99e-12), downdated.getLT().getEntry(0, 0), 1.0e-20);
+        try {
+            final double l00 = downdated.getLT().getEntry(0, 0);
+            downdated.downdate(new ArrayRealVector(new double[] { l00, 0.0 }));
+            Assert.fail("an exception should have been thrown");
+        } catch (NonPositiveDefiniteMatrixException npdme) {
+            Assert.assertEquals(1.0e-20, npdme.getThreshold(), 0.0);
+        }
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testUpdateDimensionMismatch() {
+        final RealMatrix matrix = MatrixUtils.createRealMatrix(testData);
+        new CholeskyDecomposition(matrix).update(new ArrayRealVector(4));
+    }
+
+    private RealMatrix createSPDMatrix(final Random random, final int n) {
+        final RealMatrix a = MatrixUtils.createRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                a.setEntry(i, j, 2 * random.nextDouble() - 1);
+            }
+        }
+        final RealMatrix spd = a.transpose().multiply(a);
+        for (int i = 0; i < n; ++i) {
+            spd.addToEntry(i, i, n);
+            for (int j = 0; j < i; ++j) {
+                // enforce exact symmetry
+                spd.setEntry(i, j, spd.getEntry(j, i));
+            }
+        }
+        return spd;
+    }
 }
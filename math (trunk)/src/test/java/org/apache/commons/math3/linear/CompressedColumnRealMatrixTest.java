@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedColumnRealMatrixTest {
+
+    private final double[][] data = {
+        { 1, 0, 5 },
+        { 0, 0, 6 },
+        { 0, 3, 0 },
+        { 2, 0, 0 }
+    };
+
+    @Test
+    public void testEntries() {
+        final CompressedColumnRealMatrix m = new CompressedColumnRealMatrix(new Array2DRowRealMatrix(data));
+        Assert.assertEquals(4, m.getRowDimension());
+        Assert.assertEquals(3, m.getColumnDimension());
+        Assert.assertEquals(5, m.getNonZeroCount());
+        for (int i = 0; i < data.length; ++i) {
+            for (int j = 0; j < data[i].length; ++j) {
+                Assert.assertEquals(data[i][j], m.getEntry(i, j), 0);
+            }
+        }
+        Assert.assertEquals(new Array2DRowRealMatrix(data), m);
+        Assert.assertEquals(new Array2DRowRealMatrix(data).getFrobeniusNorm(), m.getFrobeniusNorm(), 1.0e-15);
+    }
+
+    @Test(expected=MathUnsupportedOperationException.class)
+    public void testImmutable() {
+        new CompressedColumnRealMatrix(new Array2DRowRealMatrix(data)).addToEntry(0, 0, 1);
+    }
+
+    @Test
+    public void testProducts() {
+        final RandomGenerator random = new Well1024a(0x1e7c3f5a90b2d846l);
+        final RealMatrix dense = randomSparse(random, 29, 41, 0.15);
+        final CompressedColumnRealMatrix m = new CompressedColumnRealMatrix(dense);
+        final double[] x = new double[41];
+        final double[] y = new double[29];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = random.nextGaussian();
+        }
+        for (int i = 0; i < y.length; ++i) {
+            y[i] = random.nextGaussian();
+        }
+        TestUtils.assertEquals(dense.operate(x), m.operate(x), 1.0e-14);
+        TestUtils.assertEquals(dense.preMultiply(y), m.preMultiply(y), 1.0e-14);
+        TestUtils.assertEquals(dense.preMultiply(new ArrayRealVector(y)).toArray(),
+                               m.operateTranspose(new ArrayRealVector(y)).toArray(), 1.0e-14);
+        final RealMatrix b = randomSparse(random, 41, 7, 1.0);
+        TestUtils.assertEquals("product", dense.multiply(b), m.multiply(b), 1.0e-14);
+    }
+
+    @Test
+    public void testSparseProduct() {
+        final RandomGenerator random = new Well1024a(0x71c9e3a05b28d4f6l);
+        final RealMatrix a = randomSparse(random, 41, 29, 0.1);
+        final RealMatrix b = randomSparse(random, 29, 17, 0.15);
+        final CompressedColumnRealMatrix m = new CompressedColumnRealMatrix(a);
+        final RealMatrix expected = a.multiply(b);
+        for (final RealMatrix operand : new RealMatrix[] {
+            new CompressedColumnRealMatrix(b), new CompressedRowRealMatrix(b), new OpenMapRealMatrix(b.getRowDimension(), b.getColumnDimension()).add(b)
+        }) {
+            final RealMatrix product = m.multiply(operand);
+            Assert.assertTrue(product instanceof CompressedColumnRealMatrix);
+            TestUtils.assertEquals("sparse product", expected, product, 1.0e-14);
+        }
+
+        // exact cancellations are not stored
+        final RealMatrix c = new CompressedColumnRealMatrix(new Array2DRowRealMatrix(new double[][] {
+            { 1, 1 }, { 1, 0 }
+        }));
+        final RealMatrix d = new CompressedColumnRealMatrix(new Array2DRowRealMatrix(new double[][] {
+            { 1, 0 }, { -1, 2 }
+        }));
+        final CompressedColumnRealMatrix cd = (CompressedColumnRealMatrix) c.multiply(d);
+        Assert.assertEquals(2, cd.getNonZeroCount());
+        Assert.assertEquals(new Array2DRowRealMatrix(new double[][] {
+            { 0, 2 }, { 1, 0 }
+        }), cd);
+    }
+
+    @Test
+    public void testOperateInto() {
+        final RealMatrix dense = randomSparse(new Well1024a(0x0d95e2b7f3a4c168l), 23, 17, 0.2);
+        final CompressedColumnRealMatrix m = new CompressedColumnRealMatrix(dense);
+        final double[] x = new double[17];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = i - 8;
+        }
+        final double[] out = new double[23];
+        Arrays.fill(out, Double.NaN);
+        m.operateInto(x, out);
+        TestUtils.assertEquals(dense.operate(x), out, 1.0e-14);
+        final RealVector outVector = new ArrayRealVector(23);
+        m.operateInto(new OpenMapRealVector(x), outVector);
+        TestUtils.assertEquals(dense.operate(x), outVector.toArray(), 1.0e-14);
+        final RealVector sparseOut = new OpenMapRealVector(23);
+        m.operateInto(new ArrayRealVector(x), sparseOut);
+        TestUtils.assertEquals(dense.operate(x), sparseOut.toArray(), 1.0e-14);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testOperateIntoWrongDimension() {
+        new CompressedColumnRealMatrix(new Array2DRowRealMatrix(data)).operateInto(new double[4], new double[4]);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testPreMultiplyWrongDimension() {
+        new CompressedColumnRealMatrix(new Array2DRowRealMatrix(data)).preMultiply(new double[3]);
+    }
+
+    @Test
+    public void testTranspose() {
+        final CompressedColumnRealMatrix m = new CompressedColumnRealMatrix(new Array2DRowRealMatrix(data));
+        final CompressedRowRealMatrix t = m.transpose();
+        TestUtils.assertEquals("transpose", new Array2DRowRealMatrix(data).transpose(), t, 1.0e-15);
+        Assert.assertSame(m.getStorage(), t.getStorage());
+    }
+
+    @Test
+    public void testSymmLQ() {
+        // symmetric indefinite tridiagonal system
+        final int n = 500;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < n; ++i) {
+            builder.addEntry(i, i, (i % 2 == 0) ? 3.0 : -3.0);
+            if (i > 0) {
+                builder.addEntry(i, i - 1, 1.0).addEntry(i - 1, i, 1.0);
+            }
+        }
+        final CompressedColumnRealMatrix a = builder.buildColumnMatrix();
+        final RealVector x = new ArrayRealVector(n, 1.0);
+        final RealVector solution = new SymmLQ(1000, 1.0e-14, false).solve(a, a.operate(x));
+        Assert.assertEquals(0, solution.subtract(x).getLInfNorm(), 1.0e-10);
+    }
+
+    private static RealMatrix randomSparse(final RandomGenerator random, final int rows, final int columns,
+                                           final double density) {
+        final RealMatrix m = new Array2DRowRealMatrix(rows, columns);
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                if (random.nextDouble() < density) {
+                    m.setEntry(i, j, random.nextGaussian());
+                }
+            }
+        }
+        return m;
+    }
+
+}
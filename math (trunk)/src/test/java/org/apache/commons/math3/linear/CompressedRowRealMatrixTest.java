@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedRowRealMatrixTest {
+
+    private final double[][] data = {
+        { 1, 0, 0, 2 },
+        { 0, 0, 0, 0 },
+        { 0, 3, 4, 0 }
+    };
+
+    @Test
+    public void testEntries() {
+        final CompressedRowRealMatrix m = new CompressedRowRealMatrix(new Array2DRowRealMatrix(data));
+        Assert.assertEquals(3, m.getRowDimension());
+        Assert.assertEquals(4, m.getColumnDimension());
+        Assert.assertEquals(4, m.getNonZeroCount());
+        for (int i = 0; i < data.length; ++i) {
+            for (int j = 0; j < data[i].length; ++j) {
+                Assert.assertEquals(data[i][j], m.getEntry(i, j), 0);
+            }
+        }
+        Assert.assertEquals(new Array2DRowRealMatrix(data), m);
+        TestUtils.assertEquals("copy", new Array2DRowRealMatrix(data), m.copy(), 1.0e-15);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testEntryOutOfRange() {
+        new CompressedRowRealMatrix(new Array2DRowRealMatrix(data)).getEntry(1, 4);
+    }
+
+    @Test(expected=MathUnsupportedOperationException.class)
+    public void testImmutable() {
+        new CompressedRowRealMatrix(new Array2DRowRealMatrix(data)).setEntry(0, 0, 1);
+    }
+
+    @Test
+    public void testCreateMatrix() {
+        final RealMatrix created = new CompressedRowRealMatrix(new Array2DRowRealMatrix(data)).createMatrix(5, 6);
+        Assert.assertTrue(created instanceof OpenMapRealMatrix);
+        created.setEntry(4, 5, 1.0);
+    }
+
+    @Test
+    public void testProducts() {
+        final RandomGenerator random = new Well1024a(0x4b1f6a90e2c3d758l);
+        final RealMatrix dense = randomSparse(random, 37, 23, 0.1);
+        final CompressedRowRealMatrix m = new CompressedRowRealMatrix(dense);
+        final double[] x = new double[23];
+        final double[] y = new double[37];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = random.nextGaussian();
+        }
+        for (int i = 0; i < y.length; ++i) {
+            y[i] = random.nextGaussian();
+        }
+        TestUtils.assertEquals(dense.operate(x), m.operate(x), 1.0e-14);
+        TestUtils.assertEquals(dense.preMultiply(y), m.preMultiply(y), 1.0e-14);
+        TestUtils.assertEquals(dense.operate(new ArrayRealVector(x)).toArray(),
+                               m.operate(new OpenMapRealVector(x)).toArray(), 1.0e-14);
+        TestUtils.assertEquals(dense.preMultiply(new ArrayRealVector(y)).toArray(),
+                               m.operateTranspose(new ArrayRealVector(y)).toArray(), 1.0e-14);
+        Assert.assertTrue(m.isTransposable());
+        final RealMatrix b = randomSparse(random, 23, 5, 1.0);
+        TestUtils.assertEquals("product", dense.multiply(b), m.multiply(b), 1.0e-14);
+    }
+
+    @Test
+    public void testSparseProduct() {
+        final RandomGenerator random = new Well1024a(0x2d6c1e8f4a93b705l);
+        final RealMatrix a = randomSparse(random, 41, 29, 0.1);
+        final RealMatrix b = randomSparse(random, 29, 17, 0.15);
+        final CompressedRowRealMatrix m = new CompressedRowRealMatrix(a);
+        final RealMatrix expected = a.multiply(b);
+        for (final RealMatrix operand : new RealMatrix[] {
+            new CompressedRowRealMatrix(b), new CompressedColumnRealMatrix(b), new OpenMapRealMatrix(b.getRowDimension(), b.getColumnDimension()).add(b)
+        }) {
+            final RealMatrix product = m.multiply(operand);
+            Assert.assertTrue(product instanceof CompressedRowRealMatrix);
+            TestUtils.assertEquals("sparse product", expected, product, 1.0e-14);
+        }
+
+        // exact cancellations are not stored
+        final RealMatrix c = new CompressedRowRealMatrix(new Array2DRowRealMatrix(new double[][] {
+            { 1, 1 }, { 1, 0 }
+        }));
+        final RealMatrix d = new CompressedRowRealMatrix(new Array2DRowRealMatrix(new double[][] {
+            { 1, 0 }, { -1, 2 }
+        }));
+        final CompressedRowRealMatrix cd = (CompressedRowRealMatrix) c.multiply(d);
+        Assert.assertEquals(2, cd.getNonZeroCount());
+        Assert.assertEquals(new Array2DRowRealMatrix(new double[][] {
+            { 0, 2 }, { 1, 0 }
+        }), cd);
+    }
+
+    @Test
+    public void testOperateInto() {
+        final RealMatrix dense = randomSparse(new Well1024a(0x0d95e2b7f3a4c168l), 23, 17, 0.2);
+        final CompressedRowRealMatrix m = new CompressedRowRealMatrix(dense);
+        final double[] x = new double[17];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = i - 8;
+        }
+        final double[] out = new double[23];
+        Arrays.fill(out, Double.NaN);
+        m.operateInto(x, out);
+        TestUtils.assertEquals(dense.operate(x), out, 1.0e-14);
+        final RealVector outVector = new ArrayRealVector(23);
+        m.operateInto(new OpenMapRealVector(x), outVector);
+        TestUtils.assertEquals(dense.operate(x), outVector.toArray(), 1.0e-14);
+        final RealVector sparseOut = new OpenMapRealVector(23);
+        m.operateInto(new ArrayRealVector(x), sparseOut);
+        TestUtils.assertEquals(dense.operate(x), sparseOut.toArray(), 1.0e-14);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testOperateIntoWrongDimension() {
+        new CompressedRowRealMatrix(new Array2DRowRealMatrix(data)).operateInto(new double[4], new double[4]);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testOperateWrongDimension() {
+        new CompressedRowRealMatrix(new Array2DRowRealMatrix(data)).operate(new double[3]);
+    }
+
+    @Test
+    public void testTranspose() {
+        final CompressedRowRealMatrix m = new CompressedRowRealMatrix(new Array2DRowRealMatrix(data));
+        final CompressedColumnRealMatrix t = m.transpose();
+        TestUtils.assertEquals("transpose", new Array2DRowRealMatrix(data).transpose(), t, 1.0e-15);
+        Assert.assertSame(m.getStorage(), t.getStorage());
+        TestUtils.assertEquals("transpose of transpose", m, t.transpose(), 1.0e-15);
+    }
+
+    @Test
+    public void testConversions() {
+        final RealMatrix dense = randomSparse(new Well1024a(0x93c2e05d7a4f1b68l), 19, 31, 0.2);
+        final CompressedColumnRealMatrix csc = new CompressedColumnRealMatrix(dense);
+        final CompressedRowRealMatrix fromCsc = new CompressedRowRealMatrix(csc);
+        TestUtils.assertEquals("from CSC", dense, fromCsc, 1.0e-15);
+        Assert.assertEquals(csc.getNonZeroCount(), fromCsc.getNonZeroCount());
+        final OpenMapRealMatrix open = new OpenMapRealMatrix(19, 31);
+        open.setEntry(3, 7, 2.5);
+        open.setEntry(18, 30, -1.0);
+        final CompressedRowRealMatrix fromOpen = new CompressedRowRealMatrix(open);
+        Assert.assertEquals(2, fromOpen.getNonZeroCount());
+        TestUtils.assertEquals("from open map", open, fromOpen, 1.0e-15);
+        Assert.assertSame(fromCsc.getStorage(), new CompressedRowRealMatrix(fromCsc).getStorage());
+    }
+
+    @Test
+    public void testConjugateGradient() {
+        // 2D Laplacian on a 40x40 grid
+        final int p = 40;
+        final int n = p * p;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < p; ++i) {
+            for (int j = 0; j < p; ++j) {
+                final int k = i * p + j;
+                builder.addEntry(k, k, 4);
+                if (i > 0) {
+                    builder.addEntry(k, k - p, -1);
+                }
+                if (i < p - 1) {
+                    builder.addEntry(k, k + p, -1);
+                }
+                if (j > 0) {
+                    builder.addEntry(k, k - 1, -1);
+                }
+                if (j < p - 1) {
+                    builder.addEntry(k, k + 1, -1);
+                }
+            }
+        }
+        final CompressedRowRealMatrix a = builder.buildRowMatrix();
+        Assert.assertEquals(5 * n - 4 * p, a.getNonZeroCount());
+        final double[] x = new double[n];
+        for (int k = 0; k < n; ++k) {
+            x[k] = FastMath.sin(k);
+        }
+        final RealVector b = a.operate(new ArrayRealVector(x, false));
+        final RealVector solution =
+            new ConjugateGradient(1000, 1.0e-12, false).solve(a, b);
+        Assert.assertEquals(0, solution.subtract(new ArrayRealVector(x, false)).getLInfNorm(), 1.0e-9);
+    }
+
+    private static RealMatrix randomSparse(final RandomGenerator random, final int rows, final int columns,
+                                           final double density) {
+        final RealMatrix m = new Array2DRowRealMatrix(rows, columns);
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                if (random.nextDouble() < density) {
+                    m.setEntry(i, j, random.nextGaussian());
+                }
+            }
+        }
+        return m;
+    }
+
+}
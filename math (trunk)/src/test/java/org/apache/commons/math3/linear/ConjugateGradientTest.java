@@ -98,6 +98,46 @@ public class ConjugateGradientTest {
         }
     }
 
+    @Test
+    public void testUnpreconditionedSolutionReadOnlyOperatorResult() {
+        final int n = 5;
+        final int maxIterations = 100;
+        final RealLinearOperator hilbert = new HilbertMatrix(n);
+        final RealLinearOperator a = new RealLinearOperator() {
+
+            @Override
+            public RealVector operate(final RealVector x) {
+                return RealVector.unmodifiableRealVector(hilbert.operate(x));
+            }
+
+            @Override
+            public int getRowDimension() {
+                return n;
+            }
+
+            @Override
+            public int getColumnDimension() {
+                return n;
+            }
+        };
+        final InverseHilbertMatrix ainv = new InverseHilbertMatrix(n);
+        final IterativeLinearSolver solver;
+        solver = new ConjugateGradient(maxIterations, 1E-10, true);
+        final RealVector b = new ArrayRealVector(n);
+        for (int j = 0; j < n; j++) {
+            b.set(0.);
+            b.setEntry(j, 1.);
+            final RealVector x = solver.solve(a, b);
+            for (int i = 0; i < n; i++) {
+                final double actual = x.getEntry(i);
+                final double expected = ainv.getEntry(i, j);
+                final double delta = 1E-10 * FastMath.abs(expected);
+                final String msg = String.format("entry[%d][%d]", i, j);
+                Assert.assertEquals(msg, expected, actual, delta);
+            }
+        }
+    }
+
     @Test
     public void testUnpreconditionedInPlaceSolutionWithInitialGuess() {
         final int n = 5;
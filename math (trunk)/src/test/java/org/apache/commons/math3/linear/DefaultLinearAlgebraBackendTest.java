@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.Random;
+
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DefaultLinearAlgebraBackendTest {
+
+    private final LinearAlgebraBackend backend = new DefaultLinearAlgebraBackend();
+
+    @Test
+    public void testGemmSmall() {
+        checkGemm(7, 5, 9, 2.5, 0.0);
+        checkGemm(7, 5, 9, 1.0, 1.0);
+        checkGemm(3, 11, 4, -1.5, 0.5);
+    }
+
+    @Test
+    public void testGemmLarge() {
+        checkGemm(93, 70, 301, 1.0, 0.0);
+        checkGemm(65, 130, 67, 2.0, -1.0);
+    }
+
+    @Test
+    public void testGemmFlat() {
+        final Random random = new Random(0x6e2b4e9d1a07c5f3l);
+        final int m = 5;
+        final int n = 6;
+        final int k = 7;
+        // embed the operands in larger arrays to check offsets and leading dimensions
+        final double[] a = randomArray(random, 2 + m * (k + 3));
+        final double[] b = randomArray(random, 1 + k * (n + 2));
+        final double[] c = randomArray(random, 4 + m * (n + 1));
+        final double[] ref = c.clone();
+        backend.gemm(m, n, k, 1.5, a, 2, k + 3, b, 1, n + 2, 0.5, c, 4, n + 1);
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j) {
+                double sum = 0;
+                for (int l = 0; l < k; ++l) {
+                    sum += a[2 + i * (k + 3) + l] * b[1 + l * (n + 2) + j];
+                }
+                final int index = 4 + i * (n + 1) + j;
+                ref[index] = 0.5 * ref[index] + 1.5 * sum;
+            }
+        }
+        for (int i = 0; i < c.length; ++i) {
+            Assert.assertEquals(ref[i], c[i], 1.0e-13);
+        }
+    }
+
+    @Test
+    public void testGemv() {
+        final Random random = new Random(0x1d6a3c0f2e5b8a47l);
+        final double[][] a = randomMatrix(random, 6, 4);
+        final double[] x = randomArray(random, 4);
+        final double[] y = randomArray(random, 6);
+        final double[] ref = y.clone();
+        backend.gemv(-2.0, a, x, 3.0, y);
+        for (int i = 0; i < ref.length; ++i) {
+            double sum = 0;
+            for (int j = 0; j < x.length; ++j) {
+                sum += a[i][j] * x[j];
+            }
+            Assert.assertEquals(3.0 * ref[i] - 2.0 * sum, y[i], 1.0e-13);
+        }
+    }
+
+    @Test
+    public void testAxpyAndDot() {
+        final double[] x = { 1, 2, 3, 4, 5 };
+        final double[] y = { 10, 20, 30, 40, 50 };
+        backend.axpy(3, 2.0, x, 1, y, 2);
+        Assert.assertArrayEquals(new double[] { 10, 20, 34, 46, 58 }, y, 0);
+        Assert.assertEquals(2 * 46 + 3 * 58, backend.dot(2, x, 1, y, 3), 0);
+    }
+
+    @Test
+    public void testTrsm() {
+        final Random random = new Random(0x3f81c2d7e6a9b054l);
+        for (final boolean upper : new boolean[] { true, false }) {
+            for (final boolean transpose : new boolean[] { true, false }) {
+                for (final boolean unit : new boolean[] { true, false }) {
+                    // garbage in the unused triangle must be ignored
+                    final double[][] t = randomMatrix(random, 8, 8);
+                    for (int i = 0; i < t.length; ++i) {
+                        t[i][i] += 10;
+                    }
+                    final double[][] op = new double[8][8];
+                    for (int i = 0; i < 8; ++i) {
+                        for (int j = 0; j < 8; ++j) {
+                            final int r = transpose ? j : i;
+                            final int c = transpose ? i : j;
+                            final boolean inTriangle = upper ? (c >= r) : (c <= r);
+                            op[i][j] = (r == c && unit) ? 1 : (inTriangle ? t[r][c] : 0);
+                        }
+                    }
+                    final double[][] b = randomMatrix(random, 8, 3);
+                    final double[][] x = new double[8][];
+                    for (int i = 0; i < b.length; ++i) {
+                        x[i] = b[i].clone();
+                    }
+                    backend.trsm(upper, transpose, unit, t, x);
+                    final RealMatrix residual =
+                        new Array2DRowRealMatrix(op).multiply(new Array2DRowRealMatrix(x)).
+                        subtract(new Array2DRowRealMatrix(b));
+                    Assert.assertEquals(0, residual.getNorm(), 1.0e-13);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSyrk() {
+        checkSyrk(5, 3, 2, 0.5);
+    }
+
+    @Test
+    public void testSyrkBlocked() {
+        checkSyrk(80, 64, -1, 1);
+        checkSyrk(97, 70, 0.25, 0);
+    }
+
+    private void checkSyrk(final int n, final int k,
+                           final double alpha, final double beta) {
+        final Random random = new Random(0x52c79e1b30d4fa86l + n * 1009l + k);
+        final double[][] a = randomMatrix(random, n, k);
+        final double[][] c = randomMatrix(random, n, n);
+        final double[][] ref = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                double sum = 0;
+                for (int l = 0; l < k; ++l) {
+                    sum += a[i][l] * a[j][l];
+                }
+                ref[i][j] = beta * c[FastMath.max(i, j)][FastMath.min(i, j)] + alpha * sum;
+            }
+        }
+        // only the lower triangle of c is used as input
+        for (int i = 0; i < n; ++i) {
+            for (int j = i + 1; j < n; ++j) {
+                c[i][j] = Double.NaN;
+            }
+        }
+        backend.syrk(alpha, a, beta, c);
+        for (int i = 0; i < n; ++i) {
+            Assert.assertArrayEquals(ref[i], c[i], 1.0e-12 * k);
+            for (int j = 0; j < i; ++j) {
+                Assert.assertEquals(c[i][j], c[j][i], 0.0);
+            }
+        }
+    }
+
+    private void checkGemm(final int m, final int n, final int k,
+                           final double alpha, final double beta) {
+        final Random random = new Random(m * 1000003l + n * 1009l + k);
+        final double[][] a = randomMatrix(random, m, k);
+        final double[][] b = randomMatrix(random, k, n);
+        final double[][] c = randomMatrix(random, m, n);
+        final double[][] ref = new double[m][n];
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j) {
+                double sum = 0;
+                for (int l = 0; l < k; ++l) {
+                    sum += a[i][l] * b[l][j];
+                }
+                ref[i][j] = beta * c[i][j] + alpha * sum;
+            }
+        }
+        backend.gemm(alpha, a, b, beta, c);
+        for (int i = 0; i < m; ++i) {
+            Assert.assertArrayEquals(ref[i], c[i], 1.0e-12);
+        }
+    }
+
+    private static double[] randomArray(final Random random, final int n) {
+        final double[] array = new double[n];
+        for (int i = 0; i < n; ++i) {
+            array[i] = 2 * random.nextDouble() - 1;
+        }
+        return array;
+    }
+
+    private static double[][] randomMatrix(final Random random, final int rows, final int columns) {
+        final double[][] matrix = new double[rows][];
+        for (int i = 0; i < rows; ++i) {
+            matrix[i] = randomArray(random, columns);
+        }
+        return matrix;
+    }
+
+}
@@ -245,6 +245,20 @@ public class DiagonalMatrixTest {
         TestUtils.assertEquals(diagResult, denseResult, 0d);
     }
 
+    @Test
+    public void testOperateInto() {
+        final DiagonalMatrix diag = new DiagonalMatrix(new double[] { -1.2, 3.4, 5 });
+        final double[] v = { 6.7, 890.1, 23.4 };
+        final double[] out = new double[3];
+        diag.operateInto(v, out);
+        TestUtils.assertEquals(diag.operate(v), out, 0d);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testOperateIntoDimensionMismatch() {
+        new DiagonalMatrix(new double[] { -1.2, 3.4, 5 }).operateInto(new double[3], new double[2]);
+    }
+
     @Test
     public void testPreMultiply() {
         final double[] data = { -1.2, 3.4, 5 };
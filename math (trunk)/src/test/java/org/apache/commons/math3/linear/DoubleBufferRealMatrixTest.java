@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoubleBufferRealMatrixTest {
+
+    private final double[][] data = {
+        { 1, 2, 3 },
+        { 2, 5, 3 },
+        { 1, 0, 8 }
+    };
+
+    @Test
+    public void testEntries() {
+        for (final DoubleBufferRealMatrix.Layout layout : DoubleBufferRealMatrix.Layout.values()) {
+            final DoubleBufferRealMatrix m = new DoubleBufferRealMatrix(3, 3, layout);
+            Assert.assertEquals(layout, m.getLayout());
+            m.setSubMatrix(data, 0, 0);
+            TestUtils.assertEquals("entries", new Array2DRowRealMatrix(data), m, 1.0e-15);
+            m.addToEntry(1, 2, 0.5);
+            m.multiplyEntry(2, 0, 4);
+            Assert.assertEquals(3.5, m.getEntry(1, 2), 0);
+            Assert.assertEquals(4, m.getEntry(2, 0), 0);
+        }
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testEntryOutOfRange() {
+        new DoubleBufferRealMatrix(3, 3).getEntry(3, 0);
+    }
+
+    @Test
+    public void testBlocksLayoutCompatibility() {
+        final int rows    = 2 * BlockRealMatrix.BLOCK_SIZE + 7;
+        final int columns = BlockRealMatrix.BLOCK_SIZE + 11;
+        final RealMatrix reference = createRandomMatrix(new Well1024a(0x2f9b64c1d08e3a57l), rows, columns);
+        final double[][] blocks = BlockRealMatrix.toBlocksLayout(reference.getData());
+        final DoubleBuffer buffer = DoubleBuffer.allocate(rows * columns + 5);
+        buffer.put(new double[] { -1, -2, -3, -4, -5 });
+        final int start = buffer.position();
+        for (final double[] block : blocks) {
+            buffer.put(block);
+        }
+        buffer.position(start);
+        final DoubleBufferRealMatrix m =
+            new DoubleBufferRealMatrix(rows, columns, DoubleBufferRealMatrix.Layout.BLOCKS, buffer);
+        TestUtils.assertEquals("blocks layout", reference, m, 1.0e-15);
+
+        // the buffer is shared
+        m.setEntry(rows - 1, columns - 1, 1000);
+        Assert.assertEquals(1000, buffer.get(start + rows * columns - 1), 0);
+        Assert.assertEquals(start, buffer.position());
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testBufferTooSmall() {
+        new DoubleBufferRealMatrix(3, 4, DoubleBufferRealMatrix.Layout.ROW_MAJOR, DoubleBuffer.allocate(11));
+    }
+
+    @Test
+    public void testSegments() {
+        final RandomGenerator random = new Well1024a(0x7c3e1a9b52d04f86l);
+        final int rows    = 3 * BlockRealMatrix.BLOCK_SIZE + 5;
+        final int columns = 60;
+        final RealMatrix reference = createRandomMatrix(random, rows, columns);
+        for (final DoubleBufferRealMatrix.Layout layout : DoubleBufferRealMatrix.Layout.values()) {
+            final DoubleBufferRealMatrix m =
+                new DoubleBufferRealMatrix(rows, columns, layout, BlockRealMatrix.BLOCK_SIZE * columns);
+            m.setSubMatrix(reference.getData(), 0, 0);
+            TestUtils.assertEquals("segments", reference, m, 1.0e-15);
+            TestUtils.assertEquals("copy", reference, m.copy(), 1.0e-15);
+            checkProducts(random, reference, m);
+        }
+    }
+
+    @Test(expected=NumberIsTooLargeException.class)
+    public void testRowTooLargeForSegment() {
+        new DoubleBufferRealMatrix(100, 20, DoubleBufferRealMatrix.Layout.BLOCKS, 1000);
+    }
+
+    @Test
+    public void testProducts() {
+        final RandomGenerator random = new Well1024a(0x19d4e7b2a6c03f58l);
+        final RealMatrix reference = createRandomMatrix(random, 71, 113);
+        for (final DoubleBufferRealMatrix.Layout layout : DoubleBufferRealMatrix.Layout.values()) {
+            final DoubleBufferRealMatrix m = new DoubleBufferRealMatrix(71, 113, layout);
+            m.setSubMatrix(reference.getData(), 0, 0);
+            checkProducts(random, reference, m);
+        }
+    }
+
+    @Test
+    public void testWalks() {
+        final RealMatrix reference = createRandomMatrix(new Well1024a(0xa41c09f3e85b2d67l), 60, 55);
+        for (final DoubleBufferRealMatrix.Layout layout : DoubleBufferRealMatrix.Layout.values()) {
+            final DoubleBufferRealMatrix m = new DoubleBufferRealMatrix(60, 55, layout);
+            m.walkInOptimizedOrder(new DefaultRealMatrixChangingVisitor() {
+                @Override
+                public double visit(int row, int column, double value) {
+                    return row * 1000 + column;
+                }
+            });
+            m.walkInRowOrder(new DefaultRealMatrixPreservingVisitor() {
+                @Override
+                public void visit(int row, int column, double value) {
+                    Assert.assertEquals(row * 1000 + column, value, 0);
+                }
+            });
+            final double[] sum = new double[1];
+            m.walkInOptimizedOrder(new DefaultRealMatrixPreservingVisitor() {
+                @Override
+                public void visit(int row, int column, double value) {
+                    Assert.assertEquals(row * 1000 + column, value, 0);
+                    sum[0] += value;
+                }
+            });
+            Assert.assertEquals(55 * (1000 * 59 * 60 / 2) + 60 * (54 * 55 / 2), sum[0], 0);
+            m.setSubMatrix(reference.getData(), 0, 0);
+            Assert.assertEquals(reference.getFrobeniusNorm(), m.getFrobeniusNorm(), 1.0e-12);
+        }
+    }
+
+    @Test
+    public void testDecomposition() {
+        final DoubleBufferRealMatrix m = new DoubleBufferRealMatrix(3, 3);
+        m.setSubMatrix(data, 0, 0);
+        final RealMatrix inverse = new LUDecomposition(m).getSolver().getInverse();
+        TestUtils.assertEquals("inverse",
+                               new LUDecomposition(new Array2DRowRealMatrix(data)).getSolver().getInverse(),
+                               inverse, 1.0e-14);
+    }
+
+    @Test
+    public void testMapped() throws IOException {
+        final RandomGenerator random = new Well1024a(0x5e08b3d7c19f24a6l);
+        final int rows    = BlockRealMatrix.BLOCK_SIZE + 3;
+        final int columns = 2 * BlockRealMatrix.BLOCK_SIZE + 1;
+        final RealMatrix reference = createRandomMatrix(random, rows, columns);
+        final File file = File.createTempFile("mapped-matrix", ".bin");
+        file.deleteOnExit();
+        try {
+            for (final DoubleBufferRealMatrix.Layout layout : DoubleBufferRealMatrix.Layout.values()) {
+                final long header = 16;
+                RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                try {
+                    final DoubleBufferRealMatrix m =
+                        DoubleBufferRealMatrix.map(raf.getChannel(), FileChannel.MapMode.READ_WRITE,
+                                                   header, rows, columns, layout,
+                                                   BlockRealMatrix.BLOCK_SIZE * columns);
+                    m.setSubMatrix(reference.getData(), 0, 0);
+                    m.force();
+                } finally {
+                    raf.close();
+                }
+                Assert.assertEquals(header + 8l * rows * columns, file.length());
+
+                // the file content follows the layout
+                raf = new RandomAccessFile(file, "r");
+                try {
+                    final ByteBuffer bytes = ByteBuffer.allocate(8 * rows * columns);
+                    raf.getChannel().read(bytes, header);
+                    bytes.flip();
+                    final DoubleBufferRealMatrix wrapped =
+                        new DoubleBufferRealMatrix(rows, columns, layout, bytes.asDoubleBuffer());
+                    TestUtils.assertEquals("file", reference, wrapped, 1.0e-15);
+
+                    final DoubleBufferRealMatrix readOnly =
+                        DoubleBufferRealMatrix.map(raf.getChannel(), FileChannel.MapMode.READ_ONLY,
+                                                   header, rows, columns, layout);
+                    TestUtils.assertEquals("read-only", reference, readOnly, 1.0e-15);
+                    checkProducts(random, reference, readOnly);
+                    try {
+                        readOnly.setEntry(0, 0, 1);
+                        Assert.fail("an exception should have been thrown");
+                    } catch (MathUnsupportedOperationException muoe) {
+                        // expected
+                    }
+                } finally {
+                    raf.close();
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private void checkProducts(final RandomGenerator random,
+                               final RealMatrix reference, final RealMatrix m) {
+        final double[] x = new double[reference.getColumnDimension()];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = random.nextGaussian();
+        }
+        final double[] y = new double[reference.getRowDimension()];
+        for (int i = 0; i < y.length; ++i) {
+            y[i] = random.nextGaussian();
+        }
+        TestUtils.assertEquals(reference.operate(x), m.operate(x), 1.0e-12);
+        TestUtils.assertEquals(reference.preMultiply(y), m.preMultiply(y), 1.0e-12);
+        TestUtils.assertEquals(reference.operate(new ArrayRealVector(x)).toArray(),
+                               m.operate(new ArrayRealVector(x)).toArray(), 1.0e-12);
+    }
+
+    private static RealMatrix createRandomMatrix(final RandomGenerator random,
+                                                 final int rows, final int columns) {
+        final RealMatrix m = new Array2DRowRealMatrix(rows, columns);
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                m.setEntry(i, j, 2 * random.nextDouble() - 1);
+            }
+        }
+        return m;
+    }
+
+}
@@ -19,6 +19,8 @@ package org.apache.commons.math3.linear;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 import org.apache.commons.math3.distribution.NormalDistribution;
@@ -319,6 +321,125 @@ public class EigenDecompositionTest {
         }
     }
 
+    @Test
+    public void testDivideAndConquer() {
+        Random r = new Random(0x4c2e7f9a1b83d605l);
+        double[] values = new double[300];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = 2 * r.nextDouble() - 1;
+        }
+        checkDivideAndConquer(createTestMatrix(r, values), null);
+    }
+
+    @Test
+    public void testDivideAndConquerClustered() {
+        // multiple and very close eigenvalues trigger deflation
+        Random r = new Random(0x19d5a3e07c6b2f84l);
+        double[] values = new double[150];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = (i % 3 == 0) ? 1.0 : ((i % 3 == 1) ? -2.0 + 1.0e-13 * i : 0.001 * i);
+        }
+        checkDivideAndConquer(createTestMatrix(r, values), null);
+    }
+
+    @Test
+    public void testDivideAndConquerTridiagonal() {
+        // Wilkinson matrix W+ has pairs of extremely close eigenvalues
+        final int n = 101;
+        final double[][] data = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            data[i][i] = FastMath.abs(i - n / 2);
+            if (i > 0) {
+                data[i][i - 1] = 1;
+                data[i - 1][i] = 1;
+            }
+        }
+        checkDivideAndConquer(MatrixUtils.createRealMatrix(data), null);
+
+        // decoupled blocks and a zero matrix
+        final double[][] blocks = new double[80][80];
+        for (int i = 0; i < 80; ++i) {
+            blocks[i][i] = i % 7;
+            if (i > 0 && i % 40 != 0) {
+                blocks[i][i - 1] = 0.5;
+                blocks[i - 1][i] = 0.5;
+            }
+        }
+        checkDivideAndConquer(MatrixUtils.createRealMatrix(blocks), null);
+        checkDivideAndConquer(MatrixUtils.createRealMatrix(70, 70), null);
+    }
+
+    @Test
+    public void testDivideAndConquerParallel() {
+        Random r = new Random(0x7b0f6d2c93e1a458l);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (final int n : new int[] { 70, 100, 130, 170, 250, 250, 250 }) {
+                double[] values = new double[n];
+                for (int i = 0; i < values.length; ++i) {
+                    values[i] = r.nextGaussian();
+                }
+                final RealMatrix m = createTestMatrix(r, values);
+                final EigenDecomposition parallel = new EigenDecomposition(m, executor);
+                final EigenDecomposition serial   = new EigenDecomposition(m, (ExecutorService) null);
+                Assert.assertArrayEquals(serial.getRealEigenvalues(), parallel.getRealEigenvalues(), 0);
+                Assert.assertEquals(0, serial.getV().subtract(parallel.getV()).getNorm(), 0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDivideAndConquerSmall() {
+        final EigenDecomposition ed = new EigenDecomposition(matrix, (ExecutorService) null);
+        checkEigenValues(refValues, ed, 1.0e-14);
+        final RealMatrix one = MatrixUtils.createRealMatrix(new double[][] { { 1.5 } });
+        Assert.assertEquals(1.5, new EigenDecomposition(one, (ExecutorService) null).getRealEigenvalue(0), 0);
+    }
+
+    private void checkDivideAndConquer(final RealMatrix m, final ExecutorService executor) {
+        final int n = m.getRowDimension();
+        final EigenDecomposition reference = new EigenDecomposition(m);
+        final EigenDecomposition ed = new EigenDecomposition(m, executor);
+        final double scale = FastMath.max(1.0, m.getNorm());
+        Assert.assertArrayEquals(reference.getRealEigenvalues(), ed.getRealEigenvalues(), 1.0e-13 * n * scale);
+        final RealMatrix v = ed.getV();
+        Assert.assertEquals(0,
+                            v.multiply(ed.getD()).multiply(ed.getVT()).subtract(m).getNorm(),
+                            1.0e-13 * n * scale);
+        Assert.assertEquals(0,
+                            v.transpose().multiply(v).subtract(MatrixUtils.createRealIdentityMatrix(n)).getNorm(),
+                            1.0e-13 * n);
+    }
+
+    @Test
+    public void testSymmetricEigenvalues() {
+        Random r = new Random(0x2a6e91d4f05c7b38l);
+        double[] values = new double[200];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = 2 * r.nextDouble() - 1;
+        }
+        final RealMatrix m = createTestMatrix(r, values);
+        final double[] reference = new EigenDecomposition(m).getRealEigenvalues();
+        final double[] computed = EigenDecomposition.computeSymmetricEigenvalues(m);
+        Assert.assertArrayEquals(reference, computed, 1.0e-14);
+        Arrays.sort(values);
+        for (int i = 0; i < values.length; ++i) {
+            Assert.assertEquals(values[values.length - 1 - i], computed[i], 2.0e-14);
+        }
+        Assert.assertArrayEquals(new double[] { 2.5 },
+                                 EigenDecomposition.computeSymmetricEigenvalues(MatrixUtils.createRealMatrix(new double[][] { { 2.5 } })),
+                                 0);
+    }
+
+    @Test(expected=NonSymmetricMatrixException.class)
+    public void testSymmetricEigenvaluesNonSymmetric() {
+        EigenDecomposition.computeSymmetricEigenvalues(MatrixUtils.createRealMatrix(new double[][] {
+            { 1, 2 }, { 3, 4 }
+        }));
+    }
+
     @Test
     public void testSymmetric() {
         RealMatrix symmetric = MatrixUtils.createRealMatrix(new double[][] {
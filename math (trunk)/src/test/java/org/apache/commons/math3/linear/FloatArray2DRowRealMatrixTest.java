@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.Random;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FloatArray2DRowRealMatrixTest {
+
+    @Test
+    public void testEntries() {
+        final FloatArray2DRowRealMatrix m = new FloatArray2DRowRealMatrix(new double[][] { { 0.1, 2 }, { 3, 1.0 / 3.0 } });
+        Assert.assertEquals(2, m.getRowDimension());
+        Assert.assertEquals(2, m.getColumnDimension());
+        Assert.assertEquals((float) 0.1, m.getEntry(0, 0), 0);
+        Assert.assertEquals((float) (1.0 / 3.0), m.getEntry(1, 1), 0);
+        m.setEntry(0, 1, 0.7);
+        Assert.assertEquals(0.7f, m.getEntry(0, 1), 0);
+        m.addToEntry(1, 0, 0.1);
+        Assert.assertEquals((float) (3 + 0.1), m.getEntry(1, 0), 0);
+        m.multiplyEntry(1, 0, 2);
+        Assert.assertEquals(2 * (float) (3 + 0.1), m.getEntry(1, 0), 0);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testOutOfRange() {
+        new FloatArray2DRowRealMatrix(3, 4).getEntry(3, 0);
+    }
+
+    @Test
+    public void testCopy() {
+        final RealMatrix reference = createRandom(new Random(0x4b1c7e93d20a5f68l), 150, 80);
+        final FloatArray2DRowRealMatrix m = new FloatArray2DRowRealMatrix(reference);
+        final FloatArray2DRowRealMatrix copy = m.copy();
+        TestUtils.assertEquals("copy", m, copy, Double.MIN_VALUE);
+        copy.setEntry(0, 0, 5);
+        Assert.assertFalse(m.getEntry(0, 0) == 5);
+        Assert.assertTrue(m.createMatrix(3, 3) instanceof FloatArray2DRowRealMatrix);
+    }
+
+    @Test
+    public void testProducts() {
+        final Random random = new Random(0x61f0a3d9c5b2e847l);
+        final RealMatrix a = createRandom(random, 160, 90);
+        final RealMatrix b = createRandom(random, 90, 75);
+        final FloatArray2DRowRealMatrix fa = new FloatArray2DRowRealMatrix(a);
+        final FloatArray2DRowRealMatrix fb = new FloatArray2DRowRealMatrix(b);
+
+        // reference computed in double precision from the rounded entries
+        final RealMatrix ra = new Array2DRowRealMatrix(fa.getData());
+        final RealMatrix rb = new Array2DRowRealMatrix(fb.getData());
+
+        final RealMatrix product = fa.multiply(fb);
+        Assert.assertTrue(product instanceof FloatArray2DRowRealMatrix);
+        TestUtils.assertEquals("product", ra.multiply(rb), product, 1.0e-4);
+
+        final double[] v = b.getColumn(3);
+        TestUtils.assertEquals(ra.operate(v), fa.operate(v), 1.0e-13);
+        final double[] out = new double[160];
+        fa.operateInto(v, out);
+        TestUtils.assertEquals(ra.operate(v), out, 1.0e-13);
+        final double[] w = a.getColumn(5);
+        TestUtils.assertEquals(ra.preMultiply(w), fa.preMultiply(w), 1.0e-13);
+
+        // mixed product with a double precision matrix
+        TestUtils.assertEquals("mixed", ra.multiply(b), fa.multiply(b), 1.0e-4);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testOperateDimensionMismatch() {
+        new FloatArray2DRowRealMatrix(3, 4).operate(new double[3]);
+    }
+
+    @Test
+    public void testSerial() {
+        final FloatArray2DRowRealMatrix m = new FloatArray2DRowRealMatrix(createRandom(new Random(0x2d8e5f1b7a4c3906l), 80, 100));
+        Assert.assertEquals(m, TestUtils.serializeAndRecover(m));
+    }
+
+    private RealMatrix createRandom(final Random random, final int rows, final int columns) {
+        final RealMatrix m = new Array2DRowRealMatrix(rows, columns);
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                m.setEntry(i, j, 2 * random.nextDouble() - 1);
+            }
+        }
+        return m;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FloatArrayRealVectorTest {
+
+    @Test
+    public void testRounding() {
+        final FloatArrayRealVector v = new FloatArrayRealVector(new double[] { 0.1, 1.0 / 3.0, 2.5 });
+        Assert.assertEquals((float) 0.1, v.getEntry(0), 0);
+        Assert.assertEquals((float) (1.0 / 3.0), v.getEntry(1), 0);
+        Assert.assertEquals(2.5, v.getEntry(2), 0);
+        v.setEntry(1, 0.7);
+        Assert.assertEquals(0.7f, v.getEntry(1), 0);
+        v.addToEntry(2, 0.1);
+        Assert.assertEquals((float) (2.5f + 0.1), v.getEntry(2), 0);
+        Assert.assertEquals(3, v.getDataRef().length);
+    }
+
+    @Test
+    public void testConstructors() {
+        final float[] data = { 1, 2, 3 };
+        Assert.assertSame(data, new FloatArrayRealVector(data, false).getDataRef());
+        Assert.assertNotSame(data, new FloatArrayRealVector(data, true).getDataRef());
+        final RealVector copy = new FloatArrayRealVector(new ArrayRealVector(new double[] { 1, 2, 3 }));
+        Assert.assertEquals(new FloatArrayRealVector(data, false), copy);
+        Assert.assertEquals(new ArrayRealVector(new double[] { 1, 2, 3 }), copy);
+        Assert.assertEquals(5, new FloatArrayRealVector(5).getDimension());
+    }
+
+    @Test
+    public void testSubVectors() {
+        final FloatArrayRealVector v = new FloatArrayRealVector(new double[] { 1, 2, 3, 4 });
+        TestUtils.assertEquals(new double[] { 2, 3 }, v.getSubVector(1, 2).toArray(), 0);
+        v.setSubVector(2, new ArrayRealVector(new double[] { 7, 8 }));
+        TestUtils.assertEquals(new double[] { 1, 2, 7, 8 }, v.toArray(), 0);
+        TestUtils.assertEquals(new double[] { 1, 2, 7, 8, 9 }, v.append(9).toArray(), 0);
+        TestUtils.assertEquals(new double[] { 1, 2, 7, 8, 5, 6 },
+                               v.append(new ArrayRealVector(new double[] { 5, 6 })).toArray(), 0);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testOutOfRange() {
+        new FloatArrayRealVector(3).getEntry(3);
+    }
+
+    @Test
+    public void testOperations() {
+        final FloatArrayRealVector v = new FloatArrayRealVector(new double[] { 1, -2, 3 });
+        final RealVector w = new ArrayRealVector(new double[] { 4, 5, 6 });
+        Assert.assertEquals(12, v.dotProduct(w), 0);
+        Assert.assertEquals(12, v.dotProduct(new FloatArrayRealVector(w)), 0);
+        Assert.assertEquals(FastMath.sqrt(14), v.getNorm(), 1.0e-15);
+        Assert.assertEquals(6, v.getL1Norm(), 0);
+        Assert.assertEquals(3, v.getLInfNorm(), 0);
+        TestUtils.assertEquals(new double[] { 4, -10, 18 }, v.ebeMultiply(w).toArray(), 0);
+        TestUtils.assertEquals(new double[] { 0.25, -0.4f, 0.5 }, v.ebeDivide(w).toArray(), 0);
+        TestUtils.assertEquals(new double[] { 5, 3, 9 }, v.add(w).toArray(), 0);
+        Assert.assertTrue(v.copy() instanceof FloatArrayRealVector);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testDimensionMismatch() {
+        new FloatArrayRealVector(3).dotProduct(new ArrayRealVector(4));
+    }
+
+    @Test
+    public void testNaNInfinite() {
+        final FloatArrayRealVector v = new FloatArrayRealVector(3);
+        Assert.assertFalse(v.isNaN());
+        v.setEntry(1, Double.POSITIVE_INFINITY);
+        Assert.assertTrue(v.isInfinite());
+        v.setEntry(0, Double.NaN);
+        Assert.assertTrue(v.isNaN());
+        Assert.assertFalse(v.isInfinite());
+    }
+
+    @Test
+    public void testSerial() {
+        final FloatArrayRealVector v = new FloatArrayRealVector(new double[] { 1.5, 2.25, -3 });
+        Assert.assertEquals(v, TestUtils.serializeAndRecover(v));
+    }
+
+}
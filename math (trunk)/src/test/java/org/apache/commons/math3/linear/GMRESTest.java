@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MaxCountExceededException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.IterationEvent;
+import org.apache.commons.math3.util.IterationListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GMRESTest {
+
+    @Test(expected = NonSquareOperatorException.class)
+    public void testNonSquareOperator() {
+        new GMRES(10, 5, 0.).solve(new Array2DRowRealMatrix(2, 3), new ArrayRealVector(2), new ArrayRealVector(3));
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testDimensionMismatchRightHandSide() {
+        new GMRES(10, 5, 0.).solve(new Array2DRowRealMatrix(3, 3), new ArrayRealVector(2));
+    }
+
+    @Test(expected = NotStrictlyPositiveException.class)
+    public void testWrongRestart() {
+        new GMRES(10, 0, 1.0e-10);
+    }
+
+    @Test
+    public void testUnpreconditionedSolution() {
+        final CompressedRowRealMatrix a = SparseTestMatrices.convectionDiffusion2D(20, 2.0, 0.5);
+        final RealVector x = solution(a.getRowDimension());
+        final RealVector b = a.operate(x);
+        final GMRES solver = new GMRES(2000, 30, 1.0e-12);
+        Assert.assertEquals(30, solver.getRestart());
+        final RealVector actual = solver.solve(a, b);
+        Assert.assertEquals(0, a.operate(actual).subtract(b).getNorm(), 1.0e-12 * b.getNorm());
+        Assert.assertEquals(0, actual.subtract(x).getLInfNorm(), 1.0e-9);
+    }
+
+    @Test
+    public void testFullOrthogonalizationIsExact() {
+        // without restarts, GMRES converges in at most n iterations
+        final Array2DRowRealMatrix a = new Array2DRowRealMatrix(new double[][] {
+            { 1, 2, 0, 0, 3 },
+            { 0, 4, 1, 0, 0 },
+            { 5, 0, 2, 1, 0 },
+            { 0, 0, 3, 1, 1 },
+            { 1, 0, 0, 2, 6 }
+        });
+        final RealVector b = new ArrayRealVector(new double[] { 1, -1, 2, 0, 3 });
+        final GMRES solver = new GMRES(20, 5, 1.0e-14);
+        final RealVector actual = solver.solve(a, b);
+        final RealVector expected = new LUDecomposition(a).getSolver().solve(b);
+        Assert.assertEquals(0, actual.subtract(expected).getLInfNorm(), 1.0e-13);
+        Assert.assertTrue(solver.getIterationManager().getIterations() <= 6);
+    }
+
+    @Test
+    public void testPreconditionedSolution() {
+        // badly scaled rows, which the Jacobi preconditioner compensates
+        final CompressedRowRealMatrix unscaled = SparseTestMatrices.convectionDiffusion2D(20, 8.0, 4.0);
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(400, 400);
+        final int[] pointers = unscaled.getStorage().getPointersRef();
+        final int[] indices  = unscaled.getStorage().getIndicesRef();
+        final double[] values = unscaled.getStorage().getValuesRef();
+        for (int i = 0; i < 400; ++i) {
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                builder.addEntry(i, indices[p], (1 + 50 * (i % 7)) * values[p]);
+            }
+        }
+        final CompressedRowRealMatrix a = builder.buildRowMatrix();
+        final RealVector x = solution(a.getRowDimension());
+        final RealVector b = a.operate(x);
+
+        final GMRES plain = new GMRES(2000, 20, 1.0e-11);
+        plain.solve(a, b);
+        final int plainIterations = plain.getIterationManager().getIterations();
+
+        final GMRES preconditioned = new GMRES(2000, 20, 1.0e-11);
+        final RealVector actual = preconditioned.solve(a, JacobiPreconditioner.create(a), b);
+        Assert.assertEquals(0, actual.subtract(x).getLInfNorm(), 1.0e-8);
+        Assert.assertTrue(preconditioned.getIterationManager().getIterations() < plainIterations);
+    }
+
+    @Test
+    public void testInitialGuess() {
+        final CompressedRowRealMatrix a = SparseTestMatrices.convectionDiffusion2D(5, 1.0, 1.0);
+        final RealVector x = solution(a.getRowDimension());
+        final GMRES solver = new GMRES(10, 5, 1.0e-10);
+        final RealVector x0 = x.copy();
+        final RealVector actual = solver.solveInPlace(a, null, a.operate(x), x0);
+        Assert.assertSame(x0, actual);
+        Assert.assertEquals(1, solver.getIterationManager().getIterations());
+    }
+
+    @Test(expected = MaxCountExceededException.class)
+    public void testMaxIterations() {
+        final CompressedRowRealMatrix a = SparseTestMatrices.convectionDiffusion2D(20, 2.0, 0.5);
+        new GMRES(10, 5, 1.0e-12).solve(a, a.operate(solution(a.getRowDimension())));
+    }
+
+    @Test
+    public void testEventManagement() {
+        final CompressedRowRealMatrix a = SparseTestMatrices.convectionDiffusion2D(10, 1.0, 3.0);
+        final RealVector b = a.operate(solution(a.getRowDimension()));
+        final int[] count = new int[4];
+        final double[] lastNorm = new double[1];
+        final GMRES solver = new GMRES(500, 7, 1.0e-10);
+        solver.getIterationManager().addIterationListener(new IterationListener() {
+            public void initializationPerformed(final IterationEvent e) {
+                ++count[0];
+                Assert.assertTrue(((IterativeLinearSolverEvent) e).providesResidual());
+            }
+
+            public void iterationStarted(final IterationEvent e) {
+                ++count[1];
+                Assert.assertEquals(count[1], e.getIterations() - 1);
+            }
+
+            public void iterationPerformed(final IterationEvent e) {
+                ++count[2];
+                Assert.assertEquals(count[2], e.getIterations() - 1);
+                lastNorm[0] = ((IterativeLinearSolverEvent) e).getNormOfResidual();
+            }
+
+            public void terminationPerformed(final IterationEvent e) {
+                ++count[3];
+                final IterativeLinearSolverEvent evt = (IterativeLinearSolverEvent) e;
+                final RealVector r = b.subtract(a.operate(evt.getSolution()));
+                Assert.assertEquals(r.getNorm(), evt.getNormOfResidual(), 1.0e-15 * b.getNorm());
+                Assert.assertEquals(0, evt.getResidual().subtract(r).getNorm(), 1.0e-15 * b.getNorm());
+            }
+        });
+        solver.solve(a, b);
+        Assert.assertEquals(1, count[0]);
+        Assert.assertEquals(count[1], count[2]);
+        Assert.assertTrue(count[2] > 7);
+        Assert.assertEquals(1, count[3]);
+        Assert.assertTrue(lastNorm[0] <= 1.0e-10 * b.getNorm());
+    }
+
+    private static RealVector solution(final int n) {
+        final RealVector x = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            x.setEntry(i, FastMath.sin(0.3 * i) + 0.5);
+        }
+        return x;
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IncompleteCholeskyPreconditionerTest {
+
+    @Test
+    public void testExactForTridiagonal() {
+        final int n = 15;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < n; ++i) {
+            builder.addEntry(i, i, 2.5);
+            if (i > 0) {
+                builder.addEntry(i, i - 1, -1.0).addEntry(i - 1, i, -1.0);
+            }
+        }
+        final CompressedColumnRealMatrix a = builder.buildColumnMatrix();
+        final IncompleteCholeskyPreconditioner m = new IncompleteCholeskyPreconditioner(a);
+        final RealVector x = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            x.setEntry(i, FastMath.cos(i));
+        }
+        Assert.assertEquals(0, m.operate(a.operate(x)).subtract(x).getLInfNorm(), 1.0e-14);
+    }
+
+    @Test
+    public void testSymmetric() {
+        final CompressedColumnRealMatrix a = SparseTestMatrices.laplacian2D(6);
+        final IncompleteCholeskyPreconditioner m = new IncompleteCholeskyPreconditioner(a);
+        final RealVector u = new ArrayRealVector(36);
+        final RealVector v = new ArrayRealVector(36);
+        for (int i = 0; i < 36; ++i) {
+            u.setEntry(i, FastMath.sin(i));
+            v.setEntry(i, FastMath.cos(3 * i));
+        }
+        Assert.assertEquals(u.dotProduct(m.operate(v)), v.dotProduct(m.operate(u)), 1.0e-14);
+        Assert.assertTrue(u.dotProduct(m.operate(u)) > 0);
+    }
+
+    @Test
+    public void testConjugateGradientIterations() {
+        final CompressedColumnRealMatrix a = SparseTestMatrices.laplacian2D(40);
+        final RealVector b = new ArrayRealVector(a.getRowDimension(), 1.0);
+
+        final ConjugateGradient solver = new ConjugateGradient(5000, 1.0e-10, true);
+        solver.solve(a, JacobiPreconditioner.create(a), b);
+        final int jacobiIterations = solver.getIterationManager().getIterations();
+
+        final RealVector x = solver.solve(a, new IncompleteCholeskyPreconditioner(a), b);
+        final int icIterations = solver.getIterationManager().getIterations();
+        Assert.assertEquals(0, a.operate(x).subtract(b).getNorm(), 1.0e-10 * b.getNorm());
+        Assert.assertTrue(3 * icIterations < 2 * jacobiIterations);
+    }
+
+    @Test
+    public void testShift() {
+        // indefinite 2x2 block, the shift makes the diagonal dominant
+        final Array2DRowRealMatrix a = new Array2DRowRealMatrix(new double[][] {
+            { 1, 2 },
+            { 2, 1 }
+        });
+        try {
+            new IncompleteCholeskyPreconditioner(a);
+            Assert.fail("an exception should have been thrown");
+        } catch (NonPositiveDefiniteMatrixException npdme) {
+            // expected
+        }
+        final IncompleteCholeskyPreconditioner m = new IncompleteCholeskyPreconditioner(a, 1.5);
+        final RealVector x = new ArrayRealVector(new double[] { 1, -1 });
+        final RealVector shifted = new Array2DRowRealMatrix(new double[][] {
+            { 2.5, 2 },
+            { 2, 2.5 }
+        }).operate(x);
+        Assert.assertEquals(0, m.operate(shifted).subtract(x).getLInfNorm(), 1.0e-15);
+    }
+
+    @Test(expected = NonPositiveDefiniteMatrixException.class)
+    public void testMissingDiagonal() {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(2, 2);
+        builder.addEntry(0, 0, 1.0).addEntry(0, 1, 0.5).addEntry(1, 0, 0.5);
+        new IncompleteCholeskyPreconditioner(builder.buildColumnMatrix());
+    }
+
+    @Test(expected = NonSquareMatrixException.class)
+    public void testNonSquare() {
+        new IncompleteCholeskyPreconditioner(new OpenMapRealMatrix(3, 2));
+    }
+
+}
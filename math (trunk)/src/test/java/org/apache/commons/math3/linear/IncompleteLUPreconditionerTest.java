@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IncompleteLUPreconditionerTest {
+
+    @Test
+    public void testExactForTridiagonal() {
+        // no fill-in is created by tridiagonal matrices, the factorization is complete
+        final int n = 12;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < n; ++i) {
+            builder.addEntry(i, i, 3 + 0.1 * i);
+            if (i > 0) {
+                builder.addEntry(i, i - 1, -1.0).addEntry(i - 1, i, -0.5 * i);
+            }
+        }
+        final CompressedRowRealMatrix a = builder.buildRowMatrix();
+        final IncompleteLUPreconditioner m = new IncompleteLUPreconditioner(a);
+        Assert.assertEquals(n, m.getRowDimension());
+        Assert.assertEquals(n, m.getColumnDimension());
+        final RealVector x = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            x.setEntry(i, FastMath.sin(i));
+        }
+        Assert.assertEquals(0, m.operate(a.operate(x)).subtract(x).getLInfNorm(), 1.0e-13);
+    }
+
+    @Test
+    public void testDenseInput() {
+        // for a dense pattern, ILU(0) is the complete LU decomposition
+        final Array2DRowRealMatrix a = new Array2DRowRealMatrix(new double[][] {
+            { 4, 1, 2 },
+            { 1, 5, 1 },
+            { 3, 2, 6 }
+        });
+        final RealVector b = new ArrayRealVector(new double[] { 1, 2, 3 });
+        final RealVector expected = new LUDecomposition(a).getSolver().solve(b);
+        Assert.assertEquals(0, new IncompleteLUPreconditioner(a).operate(b).subtract(expected).getLInfNorm(), 1.0e-15);
+    }
+
+    @Test
+    public void testGMRESIterations() {
+        final CompressedRowRealMatrix a = SparseTestMatrices.convectionDiffusion2D(30, 4.0, 2.0);
+        final RealVector b = new ArrayRealVector(a.getRowDimension(), 1.0);
+
+        final GMRES solver = new GMRES(5000, 20, 1.0e-10);
+        solver.solve(a, b);
+        final int plainIterations = solver.getIterationManager().getIterations();
+
+        final RealVector x = solver.solve(a, new IncompleteLUPreconditioner(a), b);
+        final int iluIterations = solver.getIterationManager().getIterations();
+        Assert.assertEquals(0, a.operate(x).subtract(b).getNorm(), 1.0e-10 * b.getNorm());
+        Assert.assertTrue(3 * iluIterations < plainIterations);
+    }
+
+    @Test(expected = SingularOperatorException.class)
+    public void testMissingDiagonal() {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(2, 2);
+        builder.addEntry(0, 1, 1.0).addEntry(1, 0, 1.0);
+        new IncompleteLUPreconditioner(builder.buildRowMatrix());
+    }
+
+    @Test(expected = SingularOperatorException.class)
+    public void testZeroPivot() {
+        new IncompleteLUPreconditioner(new Array2DRowRealMatrix(new double[][] {
+            { 1, 2 },
+            { 2, 4 }
+        }));
+    }
+
+    @Test(expected = NonSquareMatrixException.class)
+    public void testNonSquare() {
+        new IncompleteLUPreconditioner(new OpenMapRealMatrix(2, 3));
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testWrongDimension() {
+        new IncompleteLUPreconditioner(MatrixUtils.createRealIdentityMatrix(3)).operate(new ArrayRealVector(2));
+    }
+
+}
@@ -17,6 +17,13 @@
 
 package org.apache.commons.math3.linear;
 
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NotPositiveException;
+import org.apache.commons.math3.util.FastMath;
 import org.junit.Test;
 import org.junit.Assert;
 
@@ -288,4 +295,125 @@ public class LUDecompositionTest {
         Assert.assertTrue(u == lu.getU());
         Assert.assertTrue(p == lu.getP());
     }
+
+    /** test blocked algorithm against unblocked one */
+    @Test
+    public void testBlocked() {
+        final int n = 3 * LUDecomposition.BLOCK_SIZE + 17;
+        final RealMatrix matrix = createRandomMatrix(new Random(0x7c25e0a4b1f6d893l), n);
+
+        final LUDecomposition reference = new LUDecomposition(matrix, 1.0e-11);
+        final LUDecomposition blocked   = new LUDecomposition(matrix, 1.0e-11, null);
+        Assert.assertTrue(blocked.getSolver().isNonSingular());
+        Assert.assertArrayEquals(reference.getPivot(), blocked.getPivot());
+        Assert.assertEquals(reference.getDeterminant(), blocked.getDeterminant(),
+                            1.0e-12 * FastMath.abs(reference.getDeterminant()));
+
+        final RealMatrix pa = blocked.getP().multiply(matrix);
+        final RealMatrix lu = blocked.getL().multiply(blocked.getU());
+        Assert.assertEquals(0, pa.subtract(lu).getNorm(), 1.0e-12 * matrix.getNorm());
+
+        final RealMatrix identity = MatrixUtils.createRealIdentityMatrix(n);
+        Assert.assertEquals(0,
+                            matrix.multiply(blocked.getSolver().getInverse()).subtract(identity).getNorm(),
+                            1.0e-10);
+    }
+
+    /** test parallel blocked algorithm gives the same result as serial one */
+    @Test
+    public void testBlockedParallel() {
+        final int n = 2 * LUDecomposition.BLOCK_SIZE + 45;
+        final RealMatrix matrix = createRandomMatrix(new Random(0x19e84a3dc5b07f26l), n);
+
+        final LUDecomposition serial = new LUDecomposition(matrix, 1.0e-11, null);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final LUDecomposition parallel = new LUDecomposition(matrix, 1.0e-11, executor);
+            Assert.assertArrayEquals(serial.getPivot(), parallel.getPivot());
+            Assert.assertEquals(0, serial.getL().subtract(parallel.getL()).getNorm(), 0);
+            Assert.assertEquals(0, serial.getU().subtract(parallel.getU()).getNorm(), 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** test singularity detection with blocked algorithm */
+    @Test
+    public void testBlockedSingular() {
+        Assert.assertTrue(new LUDecomposition(MatrixUtils.createRealMatrix(testData), 1.0e-11, null).getSolver().isNonSingular());
+        Assert.assertFalse(new LUDecomposition(MatrixUtils.createRealMatrix(singular), 1.0e-11, null).getSolver().isNonSingular());
+        Assert.assertFalse(new LUDecomposition(MatrixUtils.createRealMatrix(bigSingular), 1.0e-11, null).getSolver().isNonSingular());
+
+        // a large matrix whose last row is a combination of two others
+        final int n = LUDecomposition.BLOCK_SIZE + 20;
+        final RealMatrix matrix = createRandomMatrix(new Random(0x4a1f0d7b63e2c958l), n);
+        matrix.setRow(n - 1, matrix.getRowVector(3).add(matrix.getRowVector(70)).toArray());
+        Assert.assertFalse(new LUDecomposition(matrix, 1.0e-11, null).getSolver().isNonSingular());
+    }
+
+    /** test mixed-precision iterative refinement */
+    @Test
+    public void testRefinedSolverMixedPrecision() {
+        final int n = 120;
+        final RealMatrix matrix = createRandomMatrix(new Random(0x7b3e0c9a51d6f284l), n);
+        for (int i = 0; i < n; ++i) {
+            matrix.addToEntry(i, i, 4.0);
+        }
+        final RealVector x = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            x.setEntry(i, FastMath.sin(i));
+        }
+        final RealVector b = matrix.operate(x);
+
+        // without iterations, the single precision factors are only float-accurate
+        final DecompositionSolver raw = LUDecomposition.createRefinedSolver(matrix, 0);
+        final double rawError = raw.solve(b).subtract(x).getLInfNorm();
+        Assert.assertTrue(rawError > 1.0e-9);
+        Assert.assertTrue(rawError < 1.0e-3);
+
+        // refinement against the double precision matrix recovers full accuracy
+        final DecompositionSolver refined = LUDecomposition.createRefinedSolver(matrix, 10);
+        Assert.assertTrue(refined.isNonSingular());
+        Assert.assertEquals(0, refined.solve(b).subtract(x).getLInfNorm(), 1.0e-13);
+        final RealMatrix bm = new Array2DRowRealMatrix(n, 2);
+        bm.setColumnVector(0, b);
+        bm.setColumnVector(1, b.mapMultiply(2));
+        final RealMatrix xm = refined.solve(bm);
+        Assert.assertEquals(0, xm.getColumnVector(0).subtract(x).getLInfNorm(), 1.0e-13);
+        Assert.assertEquals(0, xm.getColumnVector(1).subtract(x.mapMultiply(2)).getLInfNorm(), 1.0e-13);
+        Assert.assertEquals(0,
+                            matrix.multiply(refined.getInverse()).subtract(MatrixUtils.createRealIdentityMatrix(n)).getNorm(),
+                            1.0e-11);
+    }
+
+    @Test(expected=NonSquareMatrixException.class)
+    public void testRefinedSolverNonSquare() {
+        LUDecomposition.createRefinedSolver(MatrixUtils.createRealMatrix(new double[2][3]), 5);
+    }
+
+    @Test(expected=NotPositiveException.class)
+    public void testRefinedSolverNegativeIterations() {
+        LUDecomposition.createRefinedSolver(MatrixUtils.createRealMatrix(testData), -1);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testRefinedSolverDimensionMismatch() {
+        LUDecomposition.createRefinedSolver(MatrixUtils.createRealMatrix(testData), 5).solve(new ArrayRealVector(4));
+    }
+
+    @Test(expected=SingularMatrixException.class)
+    public void testRefinedSolverSingular() {
+        final RealMatrix matrix = MatrixUtils.createRealMatrix(singular);
+        LUDecomposition.createRefinedSolver(matrix, 5).solve(new ArrayRealVector(matrix.getRowDimension()));
+    }
+
+    private RealMatrix createRandomMatrix(final Random random, final int n) {
+        final RealMatrix matrix = MatrixUtils.createRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                matrix.setEntry(i, j, 2 * random.nextDouble() - 1);
+            }
+        }
+        return matrix;
+    }
 }
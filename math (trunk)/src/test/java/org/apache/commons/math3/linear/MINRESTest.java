@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.IterationEvent;
+import org.apache.commons.math3.util.IterationListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MINRESTest {
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testDimensionMismatchRightHandSide() {
+        new MINRES(10, 0.).solve(new Array2DRowRealMatrix(3, 3), new ArrayRealVector(2));
+    }
+
+    @Test
+    public void testPositiveDefinite() {
+        final CompressedColumnRealMatrix a = SparseTestMatrices.laplacian2D(20);
+        final RealVector x = solution(a.getRowDimension());
+        final RealVector b = a.operate(x);
+        final RealVector actual = new MINRES(1000, 1.0e-12).solve(a, b);
+        Assert.assertEquals(0, a.operate(actual).subtract(b).getNorm(), 1.0e-11 * b.getNorm());
+        Assert.assertEquals(0, actual.subtract(x).getLInfNorm(), 1.0e-9);
+    }
+
+    @Test
+    public void testIndefinite() {
+        // shifted Laplacian, with both positive and negative eigenvalues
+        final int p = 15;
+        final OpenMapRealMatrix a = new OpenMapRealMatrix(p * p, p * p);
+        final RealMatrix laplacian = SparseTestMatrices.laplacian2D(p);
+        for (int i = 0; i < a.getRowDimension(); ++i) {
+            for (int j = 0; j < a.getColumnDimension(); ++j) {
+                a.setEntry(i, j, laplacian.getEntry(i, j) - ((i == j) ? 3.3 : 0));
+            }
+        }
+        final RealVector x = solution(a.getRowDimension());
+        final RealVector b = a.operate(x);
+        final RealVector actual = new MINRES(2000, 1.0e-12).solve(a, b);
+        Assert.assertEquals(0, actual.subtract(x).getLInfNorm(), 1.0e-8);
+    }
+
+    @Test
+    public void testPreconditioned() {
+        final int n = 50;
+        final Array2DRowRealMatrix a = new Array2DRowRealMatrix(n, n);
+        final double[] diag = new double[n];
+        for (int i = 0; i < n; ++i) {
+            // strongly varying diagonal, with alternating signs
+            a.setEntry(i, i, (i % 2 == 0 ? 1 : -1) * (1 + i * i));
+            diag[i] = FastMath.abs(a.getEntry(i, i));
+            if (i > 0) {
+                a.setEntry(i, i - 1, 0.5);
+                a.setEntry(i - 1, i, 0.5);
+            }
+        }
+        final RealVector x = solution(n);
+        final RealVector b = a.operate(x);
+        final MINRES solver = new MINRES(500, 1.0e-13);
+        solver.solve(a, b);
+        final int plainIterations = solver.getIterationManager().getIterations();
+        final RealVector actual =
+            solver.solve(a, JacobiPreconditioner.create(new DiagonalMatrix(diag)), b);
+        Assert.assertEquals(0, actual.subtract(x).getLInfNorm(), 1.0e-10);
+        Assert.assertTrue(solver.getIterationManager().getIterations() < plainIterations);
+    }
+
+    @Test(expected = NonPositiveDefiniteOperatorException.class)
+    public void testNonPositiveDefinitePreconditioner() {
+        final CompressedColumnRealMatrix a = SparseTestMatrices.laplacian2D(3);
+        final double[] minusOne = new double[9];
+        Arrays.fill(minusOne, -1.0);
+        final DiagonalMatrix m = new DiagonalMatrix(minusOne);
+        new MINRES(100, 1.0e-10).solve(a, m, new ArrayRealVector(9, 1.0));
+    }
+
+    @Test
+    public void testMonotonicResidual() {
+        final CompressedColumnRealMatrix a = SparseTestMatrices.laplacian2D(10);
+        final RealVector b = a.operate(solution(a.getRowDimension()));
+        final double[] previous = new double[] { Double.POSITIVE_INFINITY };
+        final int[] count = new int[4];
+        final MINRES solver = new MINRES(500, 1.0e-10);
+        solver.getIterationManager().addIterationListener(new IterationListener() {
+            public void initializationPerformed(final IterationEvent e) {
+                ++count[0];
+            }
+
+            public void iterationStarted(final IterationEvent e) {
+                ++count[1];
+            }
+
+            public void iterationPerformed(final IterationEvent e) {
+                ++count[2];
+                Assert.assertEquals(count[2], e.getIterations() - 1);
+                final IterativeLinearSolverEvent evt = (IterativeLinearSolverEvent) e;
+                Assert.assertFalse(evt.providesResidual());
+                // without preconditioner, the estimate is the true residual norm
+                final double trueNorm = b.subtract(a.operate(evt.getSolution())).getNorm();
+                Assert.assertEquals(trueNorm, evt.getNormOfResidual(), 1.0e-10 * b.getNorm());
+                Assert.assertTrue(evt.getNormOfResidual() <= previous[0]);
+                previous[0] = evt.getNormOfResidual();
+            }
+
+            public void terminationPerformed(final IterationEvent e) {
+                ++count[3];
+            }
+        });
+        solver.solve(a, b);
+        Assert.assertEquals(1, count[0]);
+        Assert.assertEquals(count[1], count[2]);
+        Assert.assertEquals(1, count[3]);
+    }
+
+    private static RealVector solution(final int n) {
+        final RealVector x = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            x.setEntry(i, 1 + FastMath.sin(i));
+        }
+        return x;
+    }
+
+}
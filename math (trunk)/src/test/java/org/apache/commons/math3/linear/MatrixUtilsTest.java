@@ -482,4 +482,37 @@ public final class MatrixUtilsTest {
                 MatrixUtils.createRealIdentityMatrix(testData.length), result, 1e-12);
     }
 
+    @Test
+    public void testLinearAlgebraBackend() {
+        final LinearAlgebraBackend original = MatrixUtils.getLinearAlgebraBackend();
+        Assert.assertNotNull(original);
+        Assert.assertSame(original, MatrixUtils.getLinearAlgebraBackend());
+
+        final int[] gemmCalls = new int[1];
+        MatrixUtils.setLinearAlgebraBackend(new DefaultLinearAlgebraBackend() {
+            @Override
+            public void gemm(double alpha, double[][] a, double[][] b, double beta, double[][] c) {
+                ++gemmCalls[0];
+                super.gemm(alpha, a, b, beta, c);
+            }
+        });
+        try {
+            RealMatrix m = new Array2DRowRealMatrix(testData);
+            RealMatrix product = m.multiply(m.copy());
+            TestUtils.assertEquals("wrong product",
+                                   new Array2DRowRealMatrix(new double[][] {
+                                       { 8, 12, 33 }, { 15, 29, 45 }, { 9, 2, 67 }
+                                   }), product, 1e-12);
+            Assert.assertEquals(1, gemmCalls[0]);
+        } finally {
+            MatrixUtils.setLinearAlgebraBackend(original);
+        }
+        Assert.assertSame(original, MatrixUtils.getLinearAlgebraBackend());
+    }
+
+    @Test(expected=NullArgumentException.class)
+    public void testNullLinearAlgebraBackend() {
+        MatrixUtils.setLinearAlgebraBackend(null);
+    }
+
 }
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MinimumDegreeOrderingTest {
+
+    @Test
+    public void testPermutation() {
+        final CompressedColumnRealMatrix a = SparseTestMatrices.laplacian2D(17);
+        final int[] order = MinimumDegreeOrdering.order(a.getStorage());
+        final boolean[] seen = new boolean[order.length];
+        for (final int i : order) {
+            Assert.assertFalse(seen[i]);
+            seen[i] = true;
+        }
+        Assert.assertEquals(17 * 17, order.length);
+    }
+
+    @Test
+    public void testArrowEliminatedLast() {
+        // the hub of an arrow matrix has maximal degree, it must not be eliminated
+        // before the leaves (it ties with the last leaf once all others are gone)
+        final int n = 50;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < n; ++i) {
+            builder.addEntry(i, i, n);
+            if (i != 7) {
+                builder.addEntry(i, 7, 1).addEntry(7, i, 1);
+            }
+        }
+        final int[] order = MinimumDegreeOrdering.order(builder.buildColumnMatrix().getStorage());
+        Assert.assertTrue(order[n - 1] == 7 || order[n - 2] == 7);
+    }
+
+    @Test
+    public void testFillReduction() {
+        // the natural ordering of a 2D grid creates a fill proportional to n^1.5,
+        // the minimum degree ordering must do much better
+        final int p = 30;
+        final CompressedColumnRealMatrix a = SparseTestMatrices.laplacian2D(p);
+        final int natural = SparseTestMatrices.choleskyFill(a, SparseTestMatrices.identity(p * p));
+        final int ordered = SparseTestMatrices.choleskyFill(a, MinimumDegreeOrdering.order(a.getStorage()));
+        Assert.assertTrue(ordered < natural / 2);
+    }
+
+    @Test
+    public void testUnsymmetricPattern() {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(4, 4);
+        builder.addEntry(0, 3, 1).addEntry(1, 2, 1).addEntry(2, 2, 1).addEntry(3, 0, 1).addEntry(3, 1, 1);
+        final int[] order = MinimumDegreeOrdering.order(builder.buildColumnMatrix().getStorage());
+        Assert.assertEquals(4, order.length);
+    }
+
+}
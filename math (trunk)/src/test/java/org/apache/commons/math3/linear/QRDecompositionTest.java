@@ -18,6 +18,9 @@
 package org.apache.commons.math3.linear;
 
 import java.util.Random;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NumberIsTooSmallException;
 import org.apache.commons.math3.linear.SingularMatrixException;
 
 import org.junit.Assert;
@@ -283,4 +286,155 @@ public class QRDecompositionTest {
         new QRDecomposition(a, 1.0e-15).getSolver().solve(b);
     }
 
+    @Test
+    public void testBlocked() {
+        Random r = new Random(0x2f4a8d61c3e5b907l);
+        checkBlocked(createTestMatrix(r, 300, 70), 16);
+        checkBlocked(createTestMatrix(r, 70, 300), 16);
+        checkBlocked(createTestMatrix(r, 157, 157), QRDecomposition.DEFAULT_BLOCK_SIZE);
+        checkBlocked(createTestMatrix(r, 1100, 45), 7);
+        checkBlocked(MatrixUtils.createRealMatrix(testData4x3), 2);
+        checkBlocked(MatrixUtils.createRealMatrix(testData3x4), 2);
+    }
+
+    private void checkBlocked(RealMatrix m, int blockSize) {
+        QRDecomposition reference = new QRDecomposition(m);
+        QRDecomposition blocked   = new QRDecomposition(m, 0, blockSize);
+        double scale = m.getNorm();
+        Assert.assertEquals(0, blocked.getR().subtract(reference.getR()).getNorm(), 1.0e-13 * scale);
+        Assert.assertEquals(0, blocked.getQ().subtract(reference.getQ()).getNorm(), 1.0e-12);
+        Assert.assertEquals(0, blocked.getH().subtract(reference.getH()).getNorm(), 1.0e-13 * scale);
+        checkBlockedFactors(m, blocked);
+    }
+
+    private void checkBlockedFactors(RealMatrix m, QRDecomposition blocked) {
+        RealMatrix q = blocked.getQ();
+        Assert.assertEquals(0,
+                            q.transpose().multiply(q).subtract(MatrixUtils.createRealIdentityMatrix(q.getRowDimension())).getNorm(),
+                            1.0e-12);
+        checkUpperTriangular(blocked.getR());
+        Assert.assertEquals(0, q.multiply(blocked.getR()).subtract(m).getNorm(), 1.0e-13 * m.getNorm());
+    }
+
+    @Test
+    public void testBlockedLeastSquares() {
+        Random r = new Random(0x51d93e7a0b6c28f4l);
+        RealMatrix a = createTestMatrix(r, 400, 50);
+        RealMatrix b = createTestMatrix(r, 400, 3);
+        RealMatrix x = new QRDecomposition(a, 0, QRDecomposition.DEFAULT_BLOCK_SIZE).getSolver().solve(b);
+        // the residual of a least squares solution is orthogonal to the columns of a
+        RealMatrix normal = a.transpose().multiply(a.multiply(x).subtract(b));
+        Assert.assertEquals(0, normal.getNorm(), 1.0e-11);
+        Assert.assertEquals(0, x.subtract(new QRDecomposition(a).getSolver().solve(b)).getNorm(), 1.0e-12);
+    }
+
+    @Test
+    public void testBlockedSingular() {
+        Random r = new Random(0x7c0e2b95a4d31f68l);
+        RealMatrix a = createTestMatrix(r, 60, 60);
+        // make the last columns linear combinations of the first ones
+        for (int j = 40; j < 60; ++j) {
+            a.setColumnVector(j, a.getColumnVector(j - 40).mapMultiply(2.0).add(a.getColumnVector(j - 39)));
+        }
+        // and the first column zero, so one reflector is skipped
+        a.setColumnVector(0, new ArrayRealVector(60));
+        // the reflectors built from round-off residuals of the dependent columns
+        // are arbitrary, so only the factorization itself is checked here
+        checkBlockedFactors(a, new QRDecomposition(a, 0, 8));
+        Assert.assertFalse(new QRDecomposition(a, 1.0e-10, 8).getSolver().isNonSingular());
+    }
+
+    @Test
+    public void testRankOneUpdate() {
+        Random r = new Random(0x4c7b19e3a05d62f8l);
+        checkRankOneUpdate(r, 20, 20);
+        checkRankOneUpdate(r, 30, 12);
+        checkRankOneUpdate(r, 12, 30);
+    }
+
+    private void checkRankOneUpdate(Random r, int rows, int columns) {
+        RealMatrix a = createTestMatrix(r, rows, columns);
+        RealVector u1 = createTestMatrix(r, rows, 1).getColumnVector(0);
+        RealVector v1 = createTestMatrix(r, columns, 1).getColumnVector(0);
+        QRDecomposition updated = new QRDecomposition(a).update(u1, v1);
+        RealMatrix expected = a.add(u1.outerProduct(v1));
+        checkBlockedFactors(expected, updated);
+
+        // a second update starts from the explicit Q
+        RealVector u2 = createTestMatrix(r, rows, 1).getColumnVector(0);
+        RealVector v2 = createTestMatrix(r, columns, 1).getColumnVector(0);
+        checkBlockedFactors(expected.add(u2.outerProduct(v2)), updated.update(u2, v2));
+    }
+
+    @Test
+    public void testRankKUpdateSolve() {
+        Random r = new Random(0x19ad5e7c04b3f862l);
+        RealMatrix a = createTestMatrix(r, 25, 25);
+        RealMatrix u = createTestMatrix(r, 25, 3);
+        RealMatrix v = createTestMatrix(r, 25, 3);
+        RealMatrix updatedMatrix = a.add(u.multiply(v.transpose()));
+        QRDecomposition updated = new QRDecomposition(a).update(u, v);
+        checkBlockedFactors(updatedMatrix, updated);
+        RealMatrix b = createTestMatrix(r, 25, 2);
+        RealMatrix reference = new QRDecomposition(updatedMatrix).getSolver().solve(b);
+        Assert.assertEquals(0, updated.getSolver().solve(b).subtract(reference).getNorm(), 1.0e-10);
+        Assert.assertEquals(0,
+                            updated.getSolver().solve(b.getColumnVector(1)).subtract(reference.getColumnVector(1)).getNorm(),
+                            1.0e-10);
+    }
+
+    @Test
+    public void testAddRemoveRows() {
+        Random r = new Random(0x6f02c9d8b1e4a375l);
+        RealMatrix a = createTestMatrix(r, 40, 8);
+        RealMatrix b = createTestMatrix(r, 40, 1);
+        QRDecomposition qr = new QRDecomposition(a.getSubMatrix(0, 9, 0, 7));
+        for (int i = 10; i < 40; ++i) {
+            qr = qr.addRow(a.getRowVector(i));
+        }
+        checkBlockedFactors(a, qr);
+
+        // least squares solution of the grown problem
+        RealMatrix reference = new QRDecomposition(a).getSolver().solve(b);
+        Assert.assertEquals(0, qr.getSolver().solve(b).subtract(reference).getNorm(), 1.0e-12);
+
+        // remove rows from the middle and from both ends
+        QRDecomposition removed = qr.removeRow(17).removeRow(0).removeRow(37);
+        RealMatrix remaining = MatrixUtils.createRealMatrix(37, 8);
+        int k = 0;
+        for (int i = 0; i < 40; ++i) {
+            if (i != 0 && i != 17 && i != 39) {
+                remaining.setRowVector(k++, a.getRowVector(i));
+            }
+        }
+        checkBlockedFactors(remaining, removed);
+    }
+
+    @Test
+    public void testAddRowShortWide() {
+        RealMatrix a = MatrixUtils.createRealMatrix(testData3x4);
+        RealVector row = new ArrayRealVector(new double[] { 1, -2, 3, 4 });
+        QRDecomposition qr = new QRDecomposition(a).addRow(row);
+        RealMatrix expected = MatrixUtils.createRealMatrix(4, 4);
+        expected.setSubMatrix(testData3x4, 0, 0);
+        expected.setRowVector(3, row);
+        checkBlockedFactors(expected, qr);
+    }
+
+    @Test(expected=NumberIsTooSmallException.class)
+    public void testRemoveLastRow() {
+        new QRDecomposition(MatrixUtils.createRealMatrix(new double[][] { { 1, 2 } })).removeRow(0);
+    }
+
+    @Test(expected=MathUnsupportedOperationException.class)
+    public void testUpdatedH() {
+        RealMatrix a = MatrixUtils.createRealMatrix(testData3x3NonSingular);
+        new QRDecomposition(a).addRow(new ArrayRealVector(3)).getH();
+    }
+
+    @Test(expected=NotStrictlyPositiveException.class)
+    public void testBlockedWrongSize() {
+        new QRDecomposition(MatrixUtils.createRealMatrix(testData3x3NonSingular), 0, 0);
+    }
+
 }
@@ -515,6 +515,103 @@ public abstract class RealVectorAbstractTest {
         }
     }
 
+    protected void doTestEbeBinaryOperationToSelf(final BinaryOperation op, final boolean mixed, boolean ignoreSpecial) {
+        final double[] data1 = new double[values.length * values.length];
+        final double[] data2 = new double[values.length * values.length];
+        int k = 0;
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < values.length; j++) {
+                data1[k] = values[i];
+                data2[k] = values[j];
+                ++k;
+            }
+        }
+        final RealVector v1 = create(data1);
+        final RealVector v2 = mixed ? createAlien(data2) : create(data2);
+        final RealVector actual;
+        switch (op) {
+            case ADD:
+                actual = v1.addToSelf(v2);
+                break;
+            case SUB:
+                actual = v1.subtractToSelf(v2);
+                break;
+            case MUL:
+                actual = v1.ebeMultiplyToSelf(v2);
+                break;
+            case DIV:
+                actual = v1.ebeDivideToSelf(v2);
+                break;
+            default:
+                throw new AssertionError("unexpected value");
+        }
+        Assert.assertSame(v1, actual);
+        for (int i = 0; i < data1.length; i++) {
+            final double expected;
+            switch (op) {
+                case ADD:
+                    expected = data1[i] + data2[i];
+                    break;
+                case SUB:
+                    expected = data1[i] - data2[i];
+                    break;
+                case MUL:
+                    expected = data1[i] * data2[i];
+                    break;
+                case DIV:
+                    expected = data1[i] / data2[i];
+                    break;
+                default:
+                    throw new AssertionError("unexpected value");
+            }
+            boolean isSpecial = Double.isNaN(expected) || Double.isInfinite(expected);
+            if (!(isSpecial && ignoreSpecial)) {
+                final String msg = "entry #"+i+", left = "+data1[i]+", right = " + data2[i];
+                Assert.assertEquals(msg, expected, actual.getEntry(i), 0.0);
+                Assert.assertEquals(msg, data2[i], v2.getEntry(i), 0.0);
+            }
+        }
+    }
+
+    private void doTestAxpy(final boolean mixed) {
+        final double x = getPreferredEntryValue();
+        final double[] data1 = new double[] { x, x, 1d, x, 2d, x, x, 3d, x };
+        final double[] data2 = new double[] { 4d, x, x, 5d, 6d, 7d, x, x, 8d };
+        final double alpha = -1.5;
+        final RealVector v1 = create(data1);
+        final RealVector v2 = mixed ? createAlien(data2) : create(data2);
+        final RealVector actual = v1.axpy(alpha, v2);
+        Assert.assertSame(v1, actual);
+        for (int i = 0; i < data1.length; i++) {
+            Assert.assertEquals("entry #" + i, data1[i] + alpha * data2[i], actual.getEntry(i), 0d);
+            Assert.assertEquals("entry #" + i, data2[i], v2.getEntry(i), 0d);
+        }
+    }
+
+    @Test
+    public void testAxpySameType() {
+        doTestAxpy(false);
+    }
+
+    @Test
+    public void testAxpyMixedTypes() {
+        doTestAxpy(true);
+    }
+
+    @Test
+    public void testAxpySelf() {
+        final RealVector v = create(new double[] { 1d, 2d, 3d });
+        v.axpy(-1d, v);
+        for (int i = 0; i < v.getDimension(); i++) {
+            Assert.assertEquals("entry #" + i, 0d, v.getEntry(i), 0d);
+        }
+    }
+
+    @Test(expected = DimensionMismatchException.class)
+    public void testAxpyDimensionMismatch() {
+        create(new double[4]).axpy(2d, createAlien(new double[5]));
+    }
+
     private void doTestEbeBinaryOperationDimensionMismatch(final BinaryOperation op) {
         final int n = 10;
         switch (op) {
@@ -595,6 +692,46 @@ public abstract class RealVectorAbstractTest {
         doTestEbeBinaryOperationDimensionMismatch(BinaryOperation.DIV);
     }
 
+    @Test
+    public void testAddToSelfSameType() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.ADD, false, false);
+    }
+
+    @Test
+    public void testAddToSelfMixedTypes() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.ADD, true, false);
+    }
+
+    @Test
+    public void testSubtractToSelfSameType() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.SUB, false, false);
+    }
+
+    @Test
+    public void testSubtractToSelfMixedTypes() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.SUB, true, false);
+    }
+
+    @Test
+    public void testEbeMultiplyToSelfSameType() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.MUL, false, false);
+    }
+
+    @Test
+    public void testEbeMultiplyToSelfMixedTypes() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.MUL, true, false);
+    }
+
+    @Test
+    public void testEbeDivideToSelfSameType() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.DIV, false, false);
+    }
+
+    @Test
+    public void testEbeDivideToSelfMixedTypes() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.DIV, true, false);
+    }
+
     private void doTestGetDistance(final boolean mixed) {
         final double x = getPreferredEntryValue();
         final double[] data1 = new double[] { x, x, 1d, x, 2d, x, x, 3d, x };
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SSORPreconditionerTest {
+
+    @Test
+    public void testDefinition() {
+        final Array2DRowRealMatrix a = new Array2DRowRealMatrix(new double[][] {
+            { 4, 1, 0 },
+            { 2, 5, 1 },
+            { 0, 3, 6 }
+        });
+        final double omega = 1.3;
+        final RealMatrix d = MatrixUtils.createRealDiagonalMatrix(new double[] { 4 / omega, 5 / omega, 6 / omega });
+        final RealMatrix lower = d.add(new Array2DRowRealMatrix(new double[][] {
+            { 0, 0, 0 },
+            { 2, 0, 0 },
+            { 0, 3, 0 }
+        }));
+        final RealMatrix upper = d.add(new Array2DRowRealMatrix(new double[][] {
+            { 0, 1, 0 },
+            { 0, 0, 1 },
+            { 0, 0, 0 }
+        }));
+        final RealMatrix p = lower.multiply(MatrixUtils.inverse(d)).multiply(upper).scalarMultiply(omega / (2 - omega));
+        final RealVector b = new ArrayRealVector(new double[] { 1, -2, 0.5 });
+        final RealVector expected = new LUDecomposition(p).getSolver().solve(b);
+        final SSORPreconditioner m = new SSORPreconditioner(a, omega);
+        Assert.assertEquals(omega, m.getOmega(), 0);
+        Assert.assertEquals(0, m.operate(b).subtract(expected).getLInfNorm(), 1.0e-15);
+    }
+
+    @Test
+    public void testSymmetric() {
+        final CompressedColumnRealMatrix a = SparseTestMatrices.laplacian2D(5);
+        final SSORPreconditioner m = new SSORPreconditioner(a, 1.5);
+        final RealVector u = new ArrayRealVector(25);
+        final RealVector v = new ArrayRealVector(25);
+        for (int i = 0; i < 25; ++i) {
+            u.setEntry(i, FastMath.sin(i));
+            v.setEntry(i, FastMath.cos(2 * i));
+        }
+        Assert.assertEquals(u.dotProduct(m.operate(v)), v.dotProduct(m.operate(u)), 1.0e-14);
+    }
+
+    @Test
+    public void testConjugateGradientIterations() {
+        final CompressedRowRealMatrix a = new CompressedRowRealMatrix(SparseTestMatrices.laplacian2D(40));
+        final RealVector b = new ArrayRealVector(a.getRowDimension(), 1.0);
+
+        final ConjugateGradient solver = new ConjugateGradient(5000, 1.0e-10, true);
+        solver.solve(a, JacobiPreconditioner.create(a), b);
+        final int jacobiIterations = solver.getIterationManager().getIterations();
+
+        final RealVector x = solver.solve(a, new SSORPreconditioner(a, 1.7), b);
+        final int ssorIterations = solver.getIterationManager().getIterations();
+        Assert.assertEquals(0, a.operate(x).subtract(b).getNorm(), 1.0e-10 * b.getNorm());
+        Assert.assertTrue(2 * ssorIterations < jacobiIterations);
+    }
+
+    @Test(expected = OutOfRangeException.class)
+    public void testOmegaTooLarge() {
+        new SSORPreconditioner(MatrixUtils.createRealIdentityMatrix(2), 2.0);
+    }
+
+    @Test(expected = SingularOperatorException.class)
+    public void testZeroDiagonal() {
+        new SSORPreconditioner(new Array2DRowRealMatrix(new double[][] { { 0, 1 }, { 1, 0 } }), 1.0);
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SmallMatrixBatchTest {
+
+    @Test
+    public void testLayout() {
+        SmallMatrixBatch batch = new SmallMatrixBatch(3, 2, 4);
+        Assert.assertEquals(3, batch.getCount());
+        Assert.assertEquals(2, batch.getRowDimension());
+        Assert.assertEquals(4, batch.getColumnDimension());
+        Assert.assertEquals(24, batch.getDataRef().length);
+        batch.setEntry(2, 1, 3, 7.5);
+        Assert.assertEquals(7.5, batch.getDataRef()[23], 0.0);
+        Assert.assertEquals(7.5, batch.getMatrix(2).getEntry(1, 3), 0.0);
+        RealMatrix m = MatrixUtils.createRealMatrix(new double[][] {
+            { 1, 2, 3, 4 }, { 5, 6, 7, 8 }
+        });
+        batch.setMatrix(1, m);
+        Assert.assertEquals(5.0, batch.getDataRef()[12], 0.0);
+        Assert.assertEquals(6.0, batch.getEntry(1, 1, 1), 0.0);
+        TestUtils.assertEquals("", m, batch.getMatrix(1), 1.0e-15);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testWrongDataLength() {
+        new SmallMatrixBatch(3, 2, 2, new double[11]);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testWrongIndex() {
+        new SmallMatrixBatch(3, 2, 2).getEntry(3, 0, 0);
+    }
+
+    @Test(expected=MatrixDimensionMismatchException.class)
+    public void testWrongMatrix() {
+        new SmallMatrixBatch(3, 2, 2).setMatrix(0, MatrixUtils.createRealIdentityMatrix(3));
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testMultiplyWrongDimensions() {
+        new SmallMatrixBatch(3, 2, 3).multiply(new SmallMatrixBatch(3, 2, 3), new SmallMatrixBatch(3, 2, 3));
+    }
+
+    @Test(expected=NonSquareMatrixException.class)
+    public void testInvertNonSquare() {
+        final SmallMatrixBatch batch = new SmallMatrixBatch(3, 2, 3);
+        batch.invert(batch, SmallMatrixBatch.DEFAULT_SINGULARITY_THRESHOLD);
+    }
+
+    @Test
+    public void testMultiply() {
+        final SmallMatrixBatch a = createRandom(500, 3, 4, 0x3b6e1f2dl);
+        final SmallMatrixBatch b = createRandom(500, 4, 2, 0x7a9d0c14l);
+        final SmallMatrixBatch p = new SmallMatrixBatch(500, 3, 2);
+        a.multiply(b, p);
+        for (int k = 0; k < a.getCount(); ++k) {
+            TestUtils.assertEquals("", a.getMatrix(k).multiply(b.getMatrix(k)), p.getMatrix(k), 1.0e-14);
+        }
+    }
+
+    @Test
+    public void testInvert() {
+        for (int n = 2; n <= 6; ++n) {
+            final SmallMatrixBatch a = createRandom(500, n, n, 0x21f8c6a3l + n);
+            final SmallMatrixBatch inverse = new SmallMatrixBatch(500, n, n);
+            Assert.assertEquals(0, a.invert(inverse, SmallMatrixBatch.DEFAULT_SINGULARITY_THRESHOLD));
+            for (int k = 0; k < a.getCount(); ++k) {
+                final RealMatrix reference = new LUDecomposition(a.getMatrix(k)).getSolver().getInverse();
+                final double tol = 1.0e-12 * reference.getNorm();
+                TestUtils.assertEquals("", reference, inverse.getMatrix(k), tol);
+            }
+        }
+    }
+
+    @Test
+    public void testInvertInPlaceWithSingular() {
+        final SmallMatrixBatch a = createRandom(10, 3, 3, 0x5e4d3c2bl);
+        // make matrix 4 singular: third row is the sum of the first two
+        for (int j = 0; j < 3; ++j) {
+            a.setEntry(4, 2, j, a.getEntry(4, 0, j) + a.getEntry(4, 1, j));
+        }
+        final SmallMatrixBatch copy = new SmallMatrixBatch(10, 3, 3, a.getDataRef().clone());
+        Assert.assertEquals(1, a.invert(a, SmallMatrixBatch.DEFAULT_SINGULARITY_THRESHOLD));
+        for (int k = 0; k < a.getCount(); ++k) {
+            if (k == 4) {
+                for (int i = 0; i < 3; ++i) {
+                    for (int j = 0; j < 3; ++j) {
+                        Assert.assertTrue(Double.isNaN(a.getEntry(k, i, j)));
+                    }
+                }
+            } else {
+                final RealMatrix product = copy.getMatrix(k).multiply(a.getMatrix(k));
+                TestUtils.assertEquals("", MatrixUtils.createRealIdentityMatrix(3), product, 1.0e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testCholesky() {
+        final SmallMatrixBatch a = createRandomSPD(500, 4, 0x6c1f0e93l);
+        // make matrix 7 not positive definite
+        a.setEntry(7, 2, 2, -1.0);
+        final SmallMatrixBatch l = new SmallMatrixBatch(500, 4, 4);
+        Assert.assertEquals(1, a.cholesky(l));
+        for (int k = 0; k < a.getCount(); ++k) {
+            if (k == 7) {
+                Assert.assertTrue(Double.isNaN(l.getEntry(k, 0, 0)));
+            } else {
+                final RealMatrix reference = new CholeskyDecomposition(a.getMatrix(k)).getL();
+                TestUtils.assertEquals("", reference, l.getMatrix(k), 1.0e-13);
+            }
+        }
+
+        // in place decomposition gives the same factors
+        Assert.assertEquals(1, a.cholesky(a));
+        for (int k = 0; k < a.getCount(); ++k) {
+            if (k != 7) {
+                TestUtils.assertEquals(l.getMatrix(k).getData()[3], a.getMatrix(k).getData()[3], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testSymmetricEigen() {
+        for (int n = 2; n <= 6; ++n) {
+            final SmallMatrixBatch a = createRandomSymmetric(300, n, 0x0b71c5e9l + n);
+            final double[] eigenvalues = new double[300 * n];
+            final SmallMatrixBatch eigenvectors = new SmallMatrixBatch(300, n, n);
+            a.symmetricEigen(eigenvalues, eigenvectors);
+            for (int k = 0; k < a.getCount(); ++k) {
+                final RealMatrix m = a.getMatrix(k);
+                final double[] reference = new EigenDecomposition(m).getRealEigenvalues();
+                final RealMatrix v = eigenvectors.getMatrix(k);
+                final double tol = 1.0e-13 * m.getNorm();
+                for (int i = 0; i < n; ++i) {
+                    Assert.assertEquals(reference[i], eigenvalues[k * n + i], tol);
+                    if (i > 0) {
+                        Assert.assertTrue(eigenvalues[k * n + i] <= eigenvalues[k * n + i - 1]);
+                    }
+                    // A v = lambda v
+                    final RealVector vI = v.getColumnVector(i);
+                    Assert.assertEquals(1.0, vI.getNorm(), 1.0e-14);
+                    TestUtils.assertEquals(vI.mapMultiply(eigenvalues[k * n + i]).toArray(),
+                                           m.operate(vI).toArray(), tol);
+                }
+                TestUtils.assertEquals("", MatrixUtils.createRealIdentityMatrix(n),
+                                       v.transpose().multiply(v), 1.0e-13);
+            }
+        }
+    }
+
+    @Test
+    public void testSymmetricEigenDiagonal() {
+        final SmallMatrixBatch a = new SmallMatrixBatch(1, 3, 3, new double[] {
+            2, 0, 0, 0, 5, 0, 0, 0, -1
+        });
+        final double[] eigenvalues = new double[3];
+        final SmallMatrixBatch eigenvectors = new SmallMatrixBatch(1, 3, 3);
+        a.symmetricEigen(eigenvalues, eigenvectors);
+        TestUtils.assertEquals(new double[] { 5, 2, -1 }, eigenvalues, 0.0);
+        TestUtils.assertEquals(new double[] { 0, 1, 0, 1, 0, 0, 0, 0, 1 },
+                               eigenvectors.getDataRef(), 0.0);
+    }
+
+    @Test
+    public void testParallelSameResults() {
+        final int count = 3 * SmallMatrixBatch.CHUNK_SIZE + 17;
+        final SmallMatrixBatch a = createRandomSPD(count, 3, 0x4f21a7b3l);
+        final SmallMatrixBatch b = createRandom(count, 3, 3, 0x19e3d05cl);
+        a.setEntry(count - 1, 1, 1, -2.0);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final SmallMatrixBatch p1 = new SmallMatrixBatch(count, 3, 3);
+            final SmallMatrixBatch p2 = new SmallMatrixBatch(count, 3, 3);
+            a.multiply(b, p1);
+            a.multiply(b, p2, executor);
+            TestUtils.assertEquals(p1.getDataRef(), p2.getDataRef(), 0.0);
+
+            final SmallMatrixBatch i1 = new SmallMatrixBatch(count, 3, 3);
+            final SmallMatrixBatch i2 = new SmallMatrixBatch(count, 3, 3);
+            Assert.assertEquals(a.invert(i1, SmallMatrixBatch.DEFAULT_SINGULARITY_THRESHOLD),
+                                a.invert(i2, SmallMatrixBatch.DEFAULT_SINGULARITY_THRESHOLD, executor));
+            TestUtils.assertEquals(i1.getDataRef(), i2.getDataRef(), 0.0);
+
+            final SmallMatrixBatch l1 = new SmallMatrixBatch(count, 3, 3);
+            final SmallMatrixBatch l2 = new SmallMatrixBatch(count, 3, 3);
+            Assert.assertEquals(1, a.cholesky(l1));
+            Assert.assertEquals(1, a.cholesky(l2, executor));
+            TestUtils.assertEquals(l1.getDataRef(), l2.getDataRef(), 0.0);
+
+            final double[] e1 = new double[3 * count];
+            final double[] e2 = new double[3 * count];
+            final SmallMatrixBatch v1 = new SmallMatrixBatch(count, 3, 3);
+            final SmallMatrixBatch v2 = new SmallMatrixBatch(count, 3, 3);
+            a.symmetricEigen(e1, v1);
+            a.symmetricEigen(e2, v2, executor);
+            TestUtils.assertEquals(e1, e2, 0.0);
+            TestUtils.assertEquals(v1.getDataRef(), v2.getDataRef(), 0.0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static SmallMatrixBatch createRandom(final int count, final int rows, final int columns,
+                                                 final long seed) {
+        final RandomGenerator random = new Well1024a(seed);
+        final double[] data = new double[count * rows * columns];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = 2 * random.nextDouble() - 1;
+        }
+        return new SmallMatrixBatch(count, rows, columns, data);
+    }
+
+    private static SmallMatrixBatch createRandomSymmetric(final int count, final int n, final long seed) {
+        final SmallMatrixBatch batch = createRandom(count, n, n, seed);
+        for (int k = 0; k < count; ++k) {
+            for (int i = 0; i < n; ++i) {
+                for (int j = 0; j < i; ++j) {
+                    batch.setEntry(k, j, i, batch.getEntry(k, i, j));
+                }
+            }
+        }
+        return batch;
+    }
+
+    private static SmallMatrixBatch createRandomSPD(final int count, final int n, final long seed) {
+        final SmallMatrixBatch b = createRandom(count, n, n, seed);
+        final SmallMatrixBatch spd = new SmallMatrixBatch(count, n, n);
+        for (int k = 0; k < count; ++k) {
+            final RealMatrix m = b.getMatrix(k);
+            spd.setMatrix(k, m.multiply(m.transpose()).add(MatrixUtils.createRealIdentityMatrix(n)));
+        }
+        return spd;
+    }
+
+}
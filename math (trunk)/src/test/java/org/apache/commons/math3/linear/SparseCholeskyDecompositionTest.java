@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparseCholeskyDecompositionTest {
+
+    @Test
+    public void testFactors() {
+        final CompressedColumnRealMatrix a =
+            SparseTestMatrices.randomSpd(new Well1024a(0x6f0d2a5c81e3b947l), 60, 150);
+        final SparseCholeskyDecomposition cholesky = new SparseCholeskyDecomposition(a);
+        final RealMatrix l = cholesky.getL();
+        final int[] p = cholesky.getPermutation();
+        for (int i = 0; i < l.getRowDimension(); ++i) {
+            for (int j = i + 1; j < l.getColumnDimension(); ++j) {
+                Assert.assertEquals(0, l.getEntry(i, j), 0);
+            }
+        }
+        final RealMatrix permuted = new Array2DRowRealMatrix(a.getData()).getSubMatrix(p, p);
+        TestUtils.assertEquals("P A P^T", permuted, l.multiply(cholesky.getLT()), 1.0e-12);
+        Assert.assertEquals(l.getRowDimension(), p.length);
+        Assert.assertEquals(((CompressedColumnRealMatrix) l).getNonZeroCount(), cholesky.getNonZeroCount());
+    }
+
+    @Test
+    public void testSameAsDense() {
+        final CompressedColumnRealMatrix a =
+            SparseTestMatrices.randomSpd(new Well1024a(0x27b4e9c0d53a18f6l), 40, 80);
+        final SparseCholeskyDecomposition sparse = new SparseCholeskyDecomposition(a);
+        final CholeskyDecomposition dense = new CholeskyDecomposition(new Array2DRowRealMatrix(a.getData()));
+        Assert.assertEquals(dense.getDeterminant(), sparse.getDeterminant(), 1.0e-12 * dense.getDeterminant());
+        TestUtils.assertEquals("inverse", dense.getSolver().getInverse(), sparse.getSolver().getInverse(), 1.0e-12);
+    }
+
+    @Test
+    public void testSolve() {
+        final CompressedColumnRealMatrix a = SparseTestMatrices.laplacian2D(50);
+        final SparseCholeskyDecomposition cholesky = new SparseCholeskyDecomposition(a);
+        final RealVector x = new ArrayRealVector(a.getRowDimension());
+        for (int i = 0; i < x.getDimension(); ++i) {
+            x.setEntry(i, FastMath.cos(i));
+        }
+        final DecompositionSolver solver = cholesky.getSolver();
+        Assert.assertTrue(solver.isNonSingular());
+        Assert.assertEquals(0, solver.solve(a.operate(x)).subtract(x).getLInfNorm(), 1.0e-12);
+        final RealMatrix b = new Array2DRowRealMatrix(a.getRowDimension(), 2);
+        b.setColumnVector(0, a.operate(x));
+        b.setColumnVector(1, a.operate(x.mapMultiply(-2)));
+        final RealMatrix s = solver.solve(b);
+        Assert.assertEquals(0, s.getColumnVector(0).subtract(x).getLInfNorm(), 1.0e-12);
+        Assert.assertEquals(0, s.getColumnVector(1).add(x.mapMultiply(2)).getLInfNorm(), 1.0e-12);
+        // the ordering keeps the fill far below the n^1.5 of the natural ordering
+        Assert.assertTrue(cholesky.getNonZeroCount() < 40000);
+    }
+
+    @Test
+    public void testRefactor() {
+        final RandomGenerator random = new Well1024a(0xc3a1f07e5d2b9846l);
+        final CompressedColumnRealMatrix a = SparseTestMatrices.randomSpd(random, 80, 200);
+        final SparseCholeskyDecomposition first = new SparseCholeskyDecomposition(a);
+
+        // same pattern, different values
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(80, 80);
+        final int[] pointers = a.getStorage().getPointersRef();
+        final int[] indices  = a.getStorage().getIndicesRef();
+        final double[] values = a.getStorage().getValuesRef();
+        for (int j = 0; j < 80; ++j) {
+            for (int p = pointers[j]; p < pointers[j + 1]; ++p) {
+                builder.addEntry(indices[p], j, (indices[p] == j) ? 2 * values[p] : values[p]);
+            }
+        }
+        final CompressedColumnRealMatrix a2 = builder.buildColumnMatrix();
+        final SparseCholeskyDecomposition second = first.refactor(a2);
+        Assert.assertArrayEquals(first.getPermutation(), second.getPermutation());
+        final SparseCholeskyDecomposition reference = new SparseCholeskyDecomposition(a2);
+        TestUtils.assertEquals("refactored", reference.getL(), second.getL(), 1.0e-12);
+
+        // fewer entries is allowed
+        final RealMatrix diagonal = new OpenMapRealMatrix(80, 80);
+        for (int i = 0; i < 80; ++i) {
+            diagonal.setEntry(i, i, 4.0);
+        }
+        Assert.assertEquals(FastMath.pow(4.0, 80), first.refactor(diagonal).getDeterminant(),
+                            1.0e-12 * FastMath.pow(4.0, 80));
+    }
+
+    @Test(expected=MathIllegalArgumentException.class)
+    public void testRefactorPatternMismatch() {
+        final SparseCholeskyDecomposition cholesky =
+            new SparseCholeskyDecomposition(SparseTestMatrices.laplacian2D(4));
+        final RealMatrix dense = new Array2DRowRealMatrix(16, 16);
+        for (int i = 0; i < 16; ++i) {
+            dense.setEntry(i, i, 16.0);
+        }
+        dense.setEntry(0, 15, 1.0);
+        dense.setEntry(15, 0, 1.0);
+        cholesky.refactor(dense);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testRefactorWrongDimension() {
+        new SparseCholeskyDecomposition(SparseTestMatrices.laplacian2D(4)).refactor(SparseTestMatrices.laplacian2D(3));
+    }
+
+    @Test(expected=NonSymmetricMatrixException.class)
+    public void testNotSymmetric() {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(3, 3);
+        builder.addEntry(0, 0, 2).addEntry(1, 1, 2).addEntry(2, 2, 2).addEntry(2, 0, 1);
+        new SparseCholeskyDecomposition(builder.buildRowMatrix());
+    }
+
+    @Test(expected=NonPositiveDefiniteMatrixException.class)
+    public void testNotPositiveDefinite() {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(3, 3);
+        builder.addEntry(0, 0, 1).addEntry(1, 1, 1).addEntry(2, 2, 1);
+        builder.addEntry(0, 2, 2).addEntry(2, 0, 2);
+        new SparseCholeskyDecomposition(builder.buildRowMatrix());
+    }
+
+    @Test(expected=NonSquareMatrixException.class)
+    public void testNonSquare() {
+        new SparseCholeskyDecomposition(new OpenMapRealMatrix(3, 4));
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparseLUDecompositionTest {
+
+    @Test
+    public void testFactors() {
+        final RealMatrix a = randomUnsymmetric(new Well1024a(0x5a9c3e1f70b4d286l), 70, 250);
+        final SparseLUDecomposition lu = new SparseLUDecomposition(a);
+        final RealMatrix l = lu.getL();
+        final RealMatrix u = lu.getU();
+        for (int i = 0; i < l.getRowDimension(); ++i) {
+            Assert.assertEquals(1.0, l.getEntry(i, i), 0);
+            for (int j = i + 1; j < l.getColumnDimension(); ++j) {
+                Assert.assertEquals(0, l.getEntry(i, j), 0);
+                Assert.assertEquals(0, u.getEntry(j, i), 0);
+            }
+        }
+        final RealMatrix permuted =
+            new Array2DRowRealMatrix(a.getData()).getSubMatrix(lu.getRowPermutation(), lu.getColumnPermutation());
+        TestUtils.assertEquals("P A Q", permuted, l.multiply(u), 1.0e-12);
+    }
+
+    @Test
+    public void testSameAsDense() {
+        final RealMatrix a = randomUnsymmetric(new Well1024a(0x83f1d6b2a49c0e57l), 50, 150);
+        final SparseLUDecomposition sparse = new SparseLUDecomposition(a);
+        final LUDecomposition dense = new LUDecomposition(new Array2DRowRealMatrix(a.getData()));
+        Assert.assertEquals(dense.getDeterminant(), sparse.getDeterminant(),
+                            1.0e-11 * FastMath.abs(dense.getDeterminant()));
+        final RealMatrix inverse = dense.getSolver().getInverse();
+        TestUtils.assertEquals("inverse", inverse, sparse.getSolver().getInverse(), 1.0e-13 * inverse.getNorm());
+    }
+
+    @Test
+    public void testPivoting() {
+        // zero diagonal: pivoting is mandatory
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(4, 4);
+        builder.addEntry(0, 1, 2).addEntry(1, 0, 3).addEntry(2, 3, 1).addEntry(3, 2, 5).addEntry(3, 3, 1);
+        final RealMatrix a = builder.buildRowMatrix();
+        final SparseLUDecomposition lu = new SparseLUDecomposition(a);
+        Assert.assertTrue(lu.getSolver().isNonSingular());
+        Assert.assertEquals(new LUDecomposition(a).getDeterminant(), lu.getDeterminant(), 1.0e-14);
+        final RealVector x = new ArrayRealVector(new double[] { 1, -2, 3, -4 });
+        Assert.assertEquals(0, lu.getSolver().solve(a.operate(x)).subtract(x).getNorm(), 1.0e-14);
+    }
+
+    @Test
+    public void testSolve() {
+        // convection-diffusion operator, with an unsymmetric pattern
+        final int p = 40;
+        final int n = p * p;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < p; ++i) {
+            for (int j = 0; j < p; ++j) {
+                final int k = i * p + j;
+                builder.addEntry(k, k, 4.5);
+                if (i > 0) {
+                    builder.addEntry(k, k - p, -1.5).addEntry(k - p, k, -0.5);
+                }
+                if (j > 0) {
+                    builder.addEntry(k, k - 1, -1.25);
+                }
+            }
+        }
+        final CompressedRowRealMatrix a = builder.buildRowMatrix();
+        final DecompositionSolver solver = new SparseLUDecomposition(a).getSolver();
+        final RealVector x = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            x.setEntry(i, FastMath.sin(0.1 * i));
+        }
+        Assert.assertEquals(0, solver.solve(a.operate(x)).subtract(x).getLInfNorm(), 1.0e-12);
+    }
+
+    @Test
+    public void testRefactor() {
+        final RandomGenerator random = new Well1024a(0x1c7e4a93f0d52b68l);
+        final RealMatrix a = randomUnsymmetric(random, 60, 200);
+        final SparseLUDecomposition first = new SparseLUDecomposition(a);
+        final RealMatrix a2 = new OpenMapRealMatrix(60, 60);
+        for (int i = 0; i < 60; ++i) {
+            for (int j = 0; j < 60; ++j) {
+                final double aIJ = a.getEntry(i, j);
+                if (aIJ != 0) {
+                    a2.setEntry(i, j, aIJ * (1 + 0.01 * random.nextDouble()));
+                }
+            }
+        }
+        final SparseLUDecomposition second = first.refactor(a2);
+        Assert.assertArrayEquals(first.getRowPermutation(), second.getRowPermutation());
+        final RealVector x = new ArrayRealVector(60, 1.0);
+        Assert.assertEquals(0, second.getSolver().solve(a2.operate(x)).subtract(x).getLInfNorm(), 1.0e-10);
+        Assert.assertEquals(new LUDecomposition(a2).getDeterminant(), second.getDeterminant(),
+                            1.0e-10 * FastMath.abs(second.getDeterminant()));
+    }
+
+    @Test(expected=MathIllegalArgumentException.class)
+    public void testRefactorPatternMismatch() {
+        final RealMatrix a = MatrixUtils.createRealIdentityMatrix(5);
+        final SparseLUDecomposition lu = new SparseLUDecomposition(a);
+        final RealMatrix b = a.copy();
+        b.setEntry(4, 0, 1.0);
+        lu.refactor(b);
+    }
+
+    @Test
+    public void testSingular() {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(3, 3);
+        builder.addEntry(0, 0, 1).addEntry(0, 1, 2).addEntry(1, 0, 2).addEntry(1, 1, 4).addEntry(2, 2, 1);
+        final SparseLUDecomposition lu = new SparseLUDecomposition(builder.buildColumnMatrix());
+        Assert.assertFalse(lu.getSolver().isNonSingular());
+        Assert.assertNull(lu.getL());
+        Assert.assertNull(lu.getU());
+        Assert.assertEquals(0, lu.getDeterminant(), 0);
+        try {
+            lu.getSolver().solve(new ArrayRealVector(3));
+            Assert.fail("an exception should have been thrown");
+        } catch (SingularMatrixException sme) {
+            // expected
+        }
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testWrongThreshold() {
+        new SparseLUDecomposition(MatrixUtils.createRealIdentityMatrix(2), 0.0, 1.0e-11);
+    }
+
+    private static RealMatrix randomUnsymmetric(final RandomGenerator random, final int n, final int offDiagonal) {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int k = 0; k < offDiagonal; ++k) {
+            builder.addEntry(random.nextInt(n), random.nextInt(n), 2 * random.nextDouble() - 1);
+        }
+        for (int i = 0; i < n; ++i) {
+            // weak diagonal, so some off-diagonal pivots are selected
+            builder.addEntry(i, i, 0.2 * random.nextDouble());
+        }
+        return builder.buildColumnMatrix();
+    }
+
+}
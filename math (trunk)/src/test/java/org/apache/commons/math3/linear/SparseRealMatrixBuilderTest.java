@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparseRealMatrixBuilderTest {
+
+    @Test
+    public void testUnsortedTriplets() {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(3, 4);
+        builder.addEntry(2, 3, 6.0).addEntry(0, 1, 1.0).addEntry(2, 0, 4.0).addEntry(0, 0, 2.0);
+        builder.addEntry(1, 2, 3.0).addEntry(2, 1, 5.0);
+        Assert.assertEquals(3, builder.getRowDimension());
+        Assert.assertEquals(4, builder.getColumnDimension());
+        Assert.assertEquals(6, builder.getTripletsCount());
+        final RealMatrix expected = new Array2DRowRealMatrix(new double[][] {
+            { 2, 1, 0, 0 },
+            { 0, 0, 3, 0 },
+            { 4, 5, 0, 6 }
+        });
+        final CompressedRowRealMatrix csr = builder.buildRowMatrix();
+        final CompressedColumnRealMatrix csc = builder.buildColumnMatrix();
+        Assert.assertEquals(expected, csr);
+        Assert.assertEquals(expected, csc);
+        Assert.assertArrayEquals(new int[] { 0, 2, 3, 6 }, csr.getStorage().getPointersRef());
+        Assert.assertArrayEquals(new int[] { 0, 1, 2, 0, 1, 3 }, csr.getStorage().getIndicesRef());
+        Assert.assertArrayEquals(new int[] { 0, 2, 4, 5, 6 }, csc.getStorage().getPointersRef());
+        Assert.assertArrayEquals(new int[] { 0, 2, 0, 2, 1, 2 }, csc.getStorage().getIndicesRef());
+    }
+
+    @Test
+    public void testDuplicates() {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(2, 2);
+        builder.addEntry(1, 1, 1.5).addEntry(0, 1, 2.0).addEntry(1, 1, 2.5);
+        // entries summing to zero are dropped
+        builder.addEntry(1, 0, 3.0).addEntry(1, 0, -3.0);
+        final CompressedRowRealMatrix m = builder.buildRowMatrix();
+        Assert.assertEquals(2, m.getNonZeroCount());
+        Assert.assertEquals(4.0, m.getEntry(1, 1), 0);
+        Assert.assertEquals(2.0, m.getEntry(0, 1), 0);
+        Assert.assertEquals(0.0, m.getEntry(1, 0), 0);
+    }
+
+    @Test
+    public void testGrowthAndReuse() {
+        final int n = 1000;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = n - 1; i >= 0; --i) {
+            builder.addEntry(i, n - 1 - i, i + 1);
+        }
+        final CompressedColumnRealMatrix first = builder.buildColumnMatrix();
+        builder.addEntry(0, 0, 7.0);
+        final CompressedColumnRealMatrix second = builder.buildColumnMatrix();
+        Assert.assertEquals(n, first.getNonZeroCount());
+        Assert.assertEquals(n + 1, second.getNonZeroCount());
+        Assert.assertEquals(0.0, first.getEntry(0, 0), 0);
+        Assert.assertEquals(7.0, second.getEntry(0, 0), 0);
+        for (int i = 0; i < n; ++i) {
+            Assert.assertEquals(i + 1, first.getEntry(i, n - 1 - i), 0);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        final CompressedRowRealMatrix m = new SparseRealMatrixBuilder(3, 2).buildRowMatrix();
+        Assert.assertEquals(0, m.getNonZeroCount());
+        Assert.assertArrayEquals(new double[3], m.operate(new double[] { 1, 2 }), 0);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testRowOutOfRange() {
+        new SparseRealMatrixBuilder(3, 2).addEntry(3, 0, 1.0);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testColumnOutOfRange() {
+        new SparseRealMatrixBuilder(3, 2).addEntry(0, -1, 1.0);
+    }
+
+    @Test(expected=NotStrictlyPositiveException.class)
+    public void testZeroDimension() {
+        new SparseRealMatrixBuilder(0, 2);
+    }
+
+}
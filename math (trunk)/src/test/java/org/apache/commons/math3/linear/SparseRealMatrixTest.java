@@ -266,6 +266,17 @@ public final class SparseRealMatrixTest {
         }
     }
 
+    @Test
+    public void testOperateInto() {
+        OpenMapRealMatrix m = createSparseMatrix(testData);
+        double[] out = new double[3];
+        m.operateInto(testVector, out);
+        assertClose("operate into array", m.operate(testVector), out, entryTolerance);
+        RealVector outVector = new OpenMapRealVector(3);
+        m.operateInto(new ArrayRealVector(testVector), outVector);
+        assertClose("operate into vector", m.operate(testVector), outVector.toArray(), entryTolerance);
+    }
+
     /** test issue MATH-209 */
     @Test
     public void testMath209() {
@@ -137,6 +137,24 @@ public class SparseRealVectorTest extends RealVectorAbstractTest {
         doTestEbeBinaryOperation(BinaryOperation.DIV, false, true);
     }
 
+    @Test
+    @Override
+    public void testEbeMultiplyToSelfMixedTypes() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.MUL, true, true);
+    }
+
+    @Test
+    @Override
+    public void testEbeMultiplyToSelfSameType() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.MUL, false, true);
+    }
+
+    @Test
+    @Override
+    public void testEbeDivideToSelfSameType() {
+        doTestEbeBinaryOperationToSelf(BinaryOperation.DIV, false, true);
+    }
+
     @Override
     protected UnivariateFunction[] createFunctions() {
         return new UnivariateFunction[] {
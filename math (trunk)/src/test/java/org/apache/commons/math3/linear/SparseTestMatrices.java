@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.util.FastMath;
+
+/** Sparse matrices shared by the sparse decompositions tests. */
+class SparseTestMatrices {
+
+    private SparseTestMatrices() {
+    }
+
+    /** Five points Laplacian on a p x p grid. */
+    static CompressedColumnRealMatrix laplacian2D(final int p) {
+        final int n = p * p;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < p; ++i) {
+            for (int j = 0; j < p; ++j) {
+                final int k = i * p + j;
+                builder.addEntry(k, k, 4);
+                if (i > 0) {
+                    builder.addEntry(k, k - p, -1).addEntry(k - p, k, -1);
+                }
+                if (j > 0) {
+                    builder.addEntry(k, k - 1, -1).addEntry(k - 1, k, -1);
+                }
+            }
+        }
+        return builder.buildColumnMatrix();
+    }
+
+    /** Upwind discretization of -Laplacian(u) + (cx, cy).grad(u) on a p x p grid (unit mesh size). */
+    static CompressedRowRealMatrix convectionDiffusion2D(final int p, final double cx, final double cy) {
+        final int n = p * p;
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        for (int i = 0; i < p; ++i) {
+            for (int j = 0; j < p; ++j) {
+                final int k = i * p + j;
+                builder.addEntry(k, k, 4 + cx + cy);
+                if (i > 0) {
+                    builder.addEntry(k, k - p, -1 - cy).addEntry(k - p, k, -1);
+                }
+                if (j > 0) {
+                    builder.addEntry(k, k - 1, -1 - cx).addEntry(k - 1, k, -1);
+                }
+            }
+        }
+        return builder.buildRowMatrix();
+    }
+
+    /** Random sparse symmetric positive definite matrix. */
+    static CompressedColumnRealMatrix randomSpd(final RandomGenerator random, final int n, final int offDiagonal) {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(n, n);
+        final double[] diagonal = new double[n];
+        for (int k = 0; k < offDiagonal; ++k) {
+            final int i = random.nextInt(n);
+            final int j = random.nextInt(n);
+            if (i != j) {
+                final double v = 2 * random.nextDouble() - 1;
+                builder.addEntry(i, j, v).addEntry(j, i, v);
+                diagonal[i] += FastMath.abs(v);
+                diagonal[j] += FastMath.abs(v);
+            }
+        }
+        for (int i = 0; i < n; ++i) {
+            builder.addEntry(i, i, diagonal[i] + 0.5 + random.nextDouble());
+        }
+        return builder.buildColumnMatrix();
+    }
+
+    /** Identity permutation. */
+    static int[] identity(final int n) {
+        final int[] permutation = new int[n];
+        for (int i = 0; i < n; ++i) {
+            permutation[i] = i;
+        }
+        return permutation;
+    }
+
+    /** Number of non-zero entries of the Cholesky factor, computed by brute force symbolic elimination. */
+    static int choleskyFill(final CompressedColumnRealMatrix a, final int[] permutation) {
+        final int n = permutation.length;
+        final int[] inverse = new int[n];
+        for (int k = 0; k < n; ++k) {
+            inverse[permutation[k]] = k;
+        }
+        final CompressedStorage storage = a.getStorage();
+        @SuppressWarnings("unchecked")
+        final Set<Integer>[] adjacency = new Set[n];
+        for (int k = 0; k < n; ++k) {
+            adjacency[k] = new HashSet<Integer>();
+        }
+        for (int j = 0; j < n; ++j) {
+            for (int p = storage.getPointersRef()[j]; p < storage.getPointersRef()[j + 1]; ++p) {
+                final int i = storage.getIndicesRef()[p];
+                if (i != j) {
+                    adjacency[inverse[i]].add(inverse[j]);
+                    adjacency[inverse[j]].add(inverse[i]);
+                }
+            }
+        }
+        int fill = n;
+        for (int k = 0; k < n; ++k) {
+            final Set<Integer> later = new HashSet<Integer>();
+            for (final Integer i : adjacency[k]) {
+                if (i > k) {
+                    later.add(i);
+                }
+            }
+            fill += later.size();
+            for (final Integer i : later) {
+                for (final Integer j : later) {
+                    if (i.intValue() != j.intValue()) {
+                        adjacency[i].add(j);
+                    }
+                }
+            }
+        }
+        return fill;
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StridedVectorView}.
+ */
+public class StridedVectorViewTest extends RealVectorAbstractTest {
+
+    @Override
+    public RealVector create(final double[] data) {
+        // the data is stored in the middle column, surrounded by NaN
+        // so that any access outside of the viewed entries is detected
+        final RealMatrix m = new Array2DRowRealMatrix(FastMath.max(1, data.length), 3);
+        for (int i = 0; i < m.getRowDimension(); ++i) {
+            m.setEntry(i, 0, Double.NaN);
+            m.setEntry(i, 2, Double.NaN);
+        }
+        for (int i = 0; i < data.length; ++i) {
+            m.setEntry(i, 1, data[i]);
+        }
+        return new StridedVectorView(m, 0, 1, 1, 0, data.length);
+    }
+
+    @Test
+    public void testRowView() {
+        final RealMatrix m = new Array2DRowRealMatrix(new double[][] {
+            { 1, 2, 3 },
+            { 4, 5, 6 }
+        });
+        final RealVector row = MatrixUtils.createRowVectorView(m, 1);
+        Assert.assertEquals(3, row.getDimension());
+        TestUtils.assertEquals(new double[] { 4, 5, 6 }, row.toArray(), 0);
+
+        // writes go through to the matrix
+        row.setEntry(0, -4);
+        row.addToEntry(2, 1);
+        row.mapMultiplyToSelf(2);
+        TestUtils.assertEquals(new double[] { -8, 10, 14 }, m.getRow(1), 0);
+        TestUtils.assertEquals(new double[] { 1, 2, 3 }, m.getRow(0), 0);
+
+        // changes in the matrix are seen by the view
+        m.setEntry(1, 1, 100);
+        Assert.assertEquals(100, row.getEntry(1), 0);
+
+        // copies are independent
+        final RealVector copy = row.copy();
+        copy.setEntry(1, 0);
+        Assert.assertEquals(100, m.getEntry(1, 1), 0);
+    }
+
+    @Test
+    public void testEqualsSymmetric() {
+        final RealMatrix m = new Array2DRowRealMatrix(new double[][] {
+            { 1, 2, 3 },
+            { 4, 5, 6 }
+        });
+        final RealVector row = MatrixUtils.createRowVectorView(m, 1);
+        final RealVector v = new ArrayRealVector(new double[] { 4, 5, 6 });
+        Assert.assertTrue(row.equals(v));
+        Assert.assertTrue(v.equals(row));
+        Assert.assertEquals(v.hashCode(), row.hashCode());
+        Assert.assertTrue(row.equals(MatrixUtils.createColumnVectorView(m.transpose(), 1)));
+
+        final RealVector other = new ArrayRealVector(new double[] { 4, 5, 7 });
+        Assert.assertFalse(row.equals(other));
+        Assert.assertFalse(other.equals(row));
+        Assert.assertFalse(row.equals(MatrixUtils.createRowVectorView(m, 0)));
+
+        // all vectors containing NaN are equal
+        m.setEntry(1, 2, Double.NaN);
+        final RealVector nan = new ArrayRealVector(new double[] { Double.NaN, 0, 0 });
+        Assert.assertTrue(row.equals(nan));
+        Assert.assertTrue(nan.equals(row));
+        Assert.assertEquals(nan.hashCode(), row.hashCode());
+    }
+
+    @Test
+    public void testColumnView() {
+        final RealMatrix m = new BlockRealMatrix(new double[][] {
+            { 1, 2, 3 },
+            { 4, 5, 6 }
+        });
+        final RealVector column = MatrixUtils.createColumnVectorView(m, 2);
+        Assert.assertEquals(2, column.getDimension());
+        TestUtils.assertEquals(new double[] { 3, 6 }, column.toArray(), 0);
+        column.setSubVector(0, new ArrayRealVector(new double[] { -3, -6 }));
+        TestUtils.assertEquals(new double[] { -3, -6 }, m.getColumn(2), 0);
+        Assert.assertEquals(-45, column.dotProduct(new ArrayRealVector(new double[] { 1, 7 })), 0);
+    }
+
+    @Test
+    public void testSparseUnderlyingMatrix() {
+        final OpenMapRealMatrix m = new OpenMapRealMatrix(1000, 1000);
+        final RealVector column = MatrixUtils.createColumnVectorView(m, 999);
+        column.setEntry(500, 2.5);
+        Assert.assertEquals(2.5, m.getEntry(500, 999), 0);
+        Assert.assertEquals(2.5, column.getNorm(), 0);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testRowOutOfRange() {
+        MatrixUtils.createRowVectorView(new Array2DRowRealMatrix(2, 3), 2);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testColumnOutOfRange() {
+        MatrixUtils.createColumnVectorView(new Array2DRowRealMatrix(2, 3), -1);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testEntryOutOfRange() {
+        MatrixUtils.createRowVectorView(new Array2DRowRealMatrix(2, 3), 0).getEntry(3);
+    }
+
+    @Test
+    @Ignore("Views are not serializable.")
+    @Override
+    public void testSerial() {
+        // Do nothing
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.NumberIsTooSmallException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SubMatrixView}.
+ */
+public class SubMatrixViewTest {
+
+    private final double[][] data = {
+        {  1,  2,  3,  4 },
+        {  5,  6,  7,  8 },
+        {  9, 10, 11, 12 }
+    };
+
+    @Test
+    public void testEntries() {
+        final RealMatrix m = new Array2DRowRealMatrix(data);
+        final RealMatrix view = MatrixUtils.createSubMatrixView(m, 1, 2, 1, 3);
+        Assert.assertEquals(2, view.getRowDimension());
+        Assert.assertEquals(3, view.getColumnDimension());
+        TestUtils.assertEquals("view", m.getSubMatrix(1, 2, 1, 3), view, 1.0e-15);
+        TestUtils.assertEquals(new double[] { 10, 11, 12 }, view.getRow(1), 0);
+        TestUtils.assertEquals(new double[] { 7, 11 }, view.getColumn(1), 0);
+    }
+
+    @Test
+    public void testWriteThrough() {
+        final RealMatrix m = new Array2DRowRealMatrix(data);
+        final RealMatrix view = MatrixUtils.createSubMatrixView(m, 1, 2, 1, 3);
+        view.setEntry(0, 0, -6);
+        view.addToEntry(1, 2, 100);
+        view.multiplyEntry(1, 0, 2);
+        view.setRow(0, new double[] { -6, -7, -8 });
+        Assert.assertEquals(-6, m.getEntry(1, 1), 0);
+        Assert.assertEquals(-7, m.getEntry(1, 2), 0);
+        Assert.assertEquals(-8, m.getEntry(1, 3), 0);
+        Assert.assertEquals(20, m.getEntry(2, 1), 0);
+        Assert.assertEquals(112, m.getEntry(2, 3), 0);
+        Assert.assertEquals(5, m.getEntry(1, 0), 0);
+        Assert.assertEquals(9, m.getEntry(2, 0), 0);
+
+        // changes in the matrix are seen by the view
+        m.setEntry(2, 2, -1);
+        Assert.assertEquals(-1, view.getEntry(1, 1), 0);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        final RealMatrix m = new BlockRealMatrix(data);
+        final RealMatrix view = MatrixUtils.createSubMatrixView(m, 0, 1, 2, 3);
+        final RealMatrix copy = view.copy();
+        Assert.assertFalse(copy instanceof SubMatrixView);
+        TestUtils.assertEquals("copy", view, copy, 1.0e-15);
+        copy.setEntry(0, 0, 0);
+        Assert.assertEquals(3, m.getEntry(0, 2), 0);
+    }
+
+    @Test
+    public void testNestedViews() {
+        final RealMatrix m = new Array2DRowRealMatrix(data);
+        final RealMatrix outer = MatrixUtils.createSubMatrixView(m, 1, 2, 1, 3);
+        final RealMatrix inner = MatrixUtils.createSubMatrixView(outer, 0, 1, 1, 2);
+        Assert.assertSame(m, ((SubMatrixView) inner).getParent());
+        TestUtils.assertEquals("nested", m.getSubMatrix(1, 2, 2, 3), inner, 1.0e-15);
+        TestUtils.assertEquals("sub-matrix", m.getSubMatrix(2, 2, 2, 3),
+                               outer.getSubMatrix(1, 1, 1, 2), 1.0e-15);
+        inner.setEntry(1, 1, 0);
+        Assert.assertEquals(0, m.getEntry(2, 3), 0);
+    }
+
+    @Test
+    public void testProducts() {
+        final RealMatrix m = new Array2DRowRealMatrix(data);
+        final RealMatrix view = MatrixUtils.createSubMatrixView(m, 0, 2, 1, 2);
+        final RealMatrix copy = m.getSubMatrix(0, 2, 1, 2);
+        final double[] v = { 1, -2 };
+        TestUtils.assertEquals(copy.operate(v), view.operate(v), 0);
+        TestUtils.assertEquals("product", copy.multiply(copy.transpose()),
+                               view.multiply(view.transpose()), 1.0e-15);
+        TestUtils.assertEquals("inverse",
+                               new QRDecomposition(copy).getSolver().getInverse(),
+                               new QRDecomposition(view).getSolver().getInverse(), 1.0e-13);
+    }
+
+    @Test
+    public void testLargeSparseMatrix() {
+        final OpenMapRealMatrix m = new OpenMapRealMatrix(10000, 10000);
+        m.setEntry(5000, 7000, 1.5);
+        final RealMatrix view = MatrixUtils.createSubMatrixView(m, 4000, 5999, 6000, 7999);
+        Assert.assertEquals(1.5, view.getEntry(1000, 1000), 0);
+        Assert.assertTrue(view.createMatrix(10, 10) instanceof OpenMapRealMatrix);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testEntryOutOfRange() {
+        MatrixUtils.createSubMatrixView(new Array2DRowRealMatrix(data), 1, 2, 1, 3).getEntry(0, 3);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testViewOutOfRange() {
+        MatrixUtils.createSubMatrixView(new Array2DRowRealMatrix(data), 1, 3, 1, 3);
+    }
+
+    @Test(expected=NumberIsTooSmallException.class)
+    public void testEmptyView() {
+        MatrixUtils.createSubMatrixView(new Array2DRowRealMatrix(data), 2, 1, 1, 3);
+    }
+
+}
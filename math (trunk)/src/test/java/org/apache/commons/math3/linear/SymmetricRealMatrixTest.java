@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SymmetricRealMatrixTest {
+
+    private final double[][] data = {
+        { 4, 1, 2 },
+        { 1, 5, 3 },
+        { 2, 3, 6 }
+    };
+
+    @Test
+    public void testEntries() {
+        final SymmetricRealMatrix m = new SymmetricRealMatrix(new Array2DRowRealMatrix(data), 0);
+        Assert.assertEquals(3, m.getRowDimension());
+        Assert.assertEquals(3, m.getColumnDimension());
+        Assert.assertEquals(6, m.getDataRef().length);
+        TestUtils.assertEquals(new double[] { 4, 1, 5, 2, 3, 6 }, m.getDataRef(), 0);
+        TestUtils.assertEquals("entries", new Array2DRowRealMatrix(data), m, 1.0e-15);
+        Assert.assertEquals(15, m.getTrace(), 0);
+        Assert.assertEquals(new Array2DRowRealMatrix(data), m);
+    }
+
+    @Test
+    public void testSetEntryIsSymmetric() {
+        final SymmetricRealMatrix m = new SymmetricRealMatrix(3);
+        m.setEntry(2, 0, 7);
+        m.addToEntry(0, 2, 1);
+        m.multiplyEntry(2, 0, 0.5);
+        Assert.assertEquals(4, m.getEntry(0, 2), 0);
+        Assert.assertEquals(4, m.getEntry(2, 0), 0);
+        Assert.assertTrue(MatrixUtils.isSymmetric(m, 0));
+    }
+
+    @Test
+    public void testPackedConstructor() {
+        final double[] packed = { 4, 1, 5, 2, 3, 6 };
+        final SymmetricRealMatrix shared = new SymmetricRealMatrix(packed, false);
+        final SymmetricRealMatrix copied = new SymmetricRealMatrix(packed, true);
+        Assert.assertSame(packed, shared.getDataRef());
+        Assert.assertNotSame(packed, copied.getDataRef());
+        TestUtils.assertEquals("packed", new Array2DRowRealMatrix(data), copied, 1.0e-15);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testWrongPackedLength() {
+        new SymmetricRealMatrix(new double[5], false);
+    }
+
+    @Test(expected=NonSymmetricMatrixException.class)
+    public void testNonSymmetric() {
+        new SymmetricRealMatrix(new Array2DRowRealMatrix(new double[][] { { 1, 2 }, { 3, 4 } }), 1.0e-10);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testEntryOutOfRange() {
+        new SymmetricRealMatrix(3).getEntry(0, 3);
+    }
+
+    @Test
+    public void testProducts() {
+        final RandomGenerator random = new Well1024a(0x3f6a1e9d2b7c4508l);
+        final int n = 37;
+        final SymmetricRealMatrix m = new SymmetricRealMatrix(n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = i; j < n; ++j) {
+                m.setEntry(i, j, random.nextGaussian());
+            }
+        }
+        final RealMatrix dense = new Array2DRowRealMatrix(m.getData());
+        final double[] x = new double[n];
+        for (int i = 0; i < n; ++i) {
+            x[i] = random.nextGaussian();
+        }
+        TestUtils.assertEquals(dense.operate(x), m.operate(x), 1.0e-13);
+        TestUtils.assertEquals(dense.preMultiply(x), m.preMultiply(x), 1.0e-13);
+        TestUtils.assertEquals(dense.operate(x), m.operate(new ArrayRealVector(x)).toArray(), 1.0e-13);
+        final RealMatrix b = new Array2DRowRealMatrix(n, 5);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < 5; ++j) {
+                b.setEntry(i, j, random.nextGaussian());
+            }
+        }
+        TestUtils.assertEquals("multiply", dense.multiply(b), m.multiply(b), 1.0e-13);
+        TestUtils.assertEquals("multiply symmetric", dense.multiply(dense), m.multiply(m), 1.0e-12);
+    }
+
+    @Test
+    public void testArithmetic() {
+        final SymmetricRealMatrix m = new SymmetricRealMatrix(new Array2DRowRealMatrix(data), 0);
+        final RealMatrix dense = new Array2DRowRealMatrix(data);
+        final RealMatrix sum = m.add(m);
+        Assert.assertTrue(sum instanceof SymmetricRealMatrix);
+        TestUtils.assertEquals("add", dense.add(dense), sum, 1.0e-15);
+        final RealMatrix difference = m.subtract((RealMatrix) m.scalarMultiply(0.5));
+        Assert.assertTrue(difference instanceof SymmetricRealMatrix);
+        TestUtils.assertEquals("subtract", dense.scalarMultiply(0.5), difference, 1.0e-15);
+        TestUtils.assertEquals("scalar add", dense.scalarAdd(2), m.scalarAdd(2), 1.0e-15);
+        TestUtils.assertEquals("mixed add", dense.add(dense), m.add(dense), 1.0e-15);
+        TestUtils.assertEquals("transpose", dense, m.transpose(), 1.0e-15);
+        final SymmetricRealMatrix copy = m.copy();
+        copy.setEntry(0, 0, 0);
+        Assert.assertEquals(4, m.getEntry(0, 0), 0);
+    }
+
+    @Test
+    public void testDecompositions() {
+        final SymmetricRealMatrix m = new SymmetricRealMatrix(new Array2DRowRealMatrix(data), 0);
+        final RealMatrix dense = new Array2DRowRealMatrix(data);
+        TestUtils.assertEquals("Cholesky", new CholeskyDecomposition(dense).getL(),
+                               new CholeskyDecomposition(m).getL(), 1.0e-15);
+        TestUtils.assertEquals(new EigenDecomposition(dense).getRealEigenvalues(),
+                               new EigenDecomposition(m).getRealEigenvalues(), 1.0e-13);
+        TestUtils.assertEquals(EigenDecomposition.computeSymmetricEigenvalues(dense),
+                               EigenDecomposition.computeSymmetricEigenvalues(m), 1.0e-13);
+    }
+
+    @Test
+    public void testSerial() {
+        final SymmetricRealMatrix m = new SymmetricRealMatrix(new Array2DRowRealMatrix(data), 0);
+        Assert.assertEquals(m, TestUtils.serializeAndRecover(m));
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TransposedMatrixView}.
+ */
+public class TransposedMatrixViewTest {
+
+    private final double[][] data = {
+        {  1,  2,  3,  4 },
+        {  5,  6,  7,  8 },
+        {  9, 10, 11, 12 }
+    };
+
+    @Test
+    public void testEntries() {
+        final RealMatrix m = new Array2DRowRealMatrix(data);
+        final RealMatrix t = MatrixUtils.createTransposedView(m);
+        Assert.assertEquals(4, t.getRowDimension());
+        Assert.assertEquals(3, t.getColumnDimension());
+        TestUtils.assertEquals("transpose", m.transpose(), t, 1.0e-15);
+        TestUtils.assertEquals(m.getColumn(2), t.getRow(2), 0);
+        TestUtils.assertEquals(m.getRow(1), t.getColumnVector(1).toArray(), 0);
+    }
+
+    @Test
+    public void testWriteThrough() {
+        final RealMatrix m = new Array2DRowRealMatrix(data);
+        final RealMatrix t = MatrixUtils.createTransposedView(m);
+        t.setEntry(3, 0, -4);
+        t.addToEntry(0, 2, 1);
+        t.multiplyEntry(1, 1, 3);
+        Assert.assertEquals(-4, m.getEntry(0, 3), 0);
+        Assert.assertEquals(10, m.getEntry(2, 0), 0);
+        Assert.assertEquals(18, m.getEntry(1, 1), 0);
+        m.setEntry(2, 3, 0);
+        Assert.assertEquals(0, t.getEntry(3, 2), 0);
+    }
+
+    @Test
+    public void testDoubleTranspose() {
+        final RealMatrix m = new Array2DRowRealMatrix(data);
+        final RealMatrix t = MatrixUtils.createTransposedView(m);
+        Assert.assertSame(m, MatrixUtils.createTransposedView(t));
+        final RealMatrix tt = t.transpose();
+        TestUtils.assertEquals("transpose", m, tt, 1.0e-15);
+        tt.setEntry(0, 0, 0);
+        Assert.assertEquals(1, m.getEntry(0, 0), 0);
+        final RealMatrix copy = t.copy();
+        copy.setEntry(0, 0, 0);
+        Assert.assertEquals(1, m.getEntry(0, 0), 0);
+    }
+
+    @Test
+    public void testProducts() {
+        final RealMatrix m = new Array2DRowRealMatrix(data);
+        final RealMatrix t = MatrixUtils.createTransposedView(m);
+        final RealMatrix copy = m.transpose();
+        final double[] x = { 1, -2, 3 };
+        final double[] y = { 1, -1, 2, 0.5 };
+        TestUtils.assertEquals(copy.operate(x), t.operate(x), 0);
+        TestUtils.assertEquals(copy.preMultiply(y), t.preMultiply(y), 0);
+        TestUtils.assertEquals(copy.operate(x), t.operate(new ArrayRealVector(x)).toArray(), 0);
+        TestUtils.assertEquals(copy.preMultiply(y), t.preMultiply(new ArrayRealVector(y)).toArray(), 0);
+        final double[] out = new double[4];
+        ((AbstractRealMatrix) t).operateInto(x, out);
+        TestUtils.assertEquals(copy.operate(x), out, 0);
+        TestUtils.assertEquals("gram", m.transpose().multiply(m), t.multiply(m), 1.0e-15);
+    }
+
+    @Test
+    public void testSparseOperator() {
+        final SparseRealMatrixBuilder builder = new SparseRealMatrixBuilder(3, 4);
+        builder.addEntry(0, 1, 2).addEntry(2, 3, -1).addEntry(1, 0, 4);
+        final CompressedRowRealMatrix m = builder.buildRowMatrix();
+        final RealMatrix t = MatrixUtils.createTransposedView(m);
+        TestUtils.assertEquals("transpose", m.transpose(), t, 1.0e-15);
+        TestUtils.assertEquals(m.operateTranspose(new ArrayRealVector(new double[] { 1, 2, 3 })).toArray(),
+                               t.operate(new double[] { 1, 2, 3 }), 0);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testOperateWrongDimension() {
+        MatrixUtils.createTransposedView(new Array2DRowRealMatrix(data)).operate(new double[4]);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testEntryOutOfRange() {
+        MatrixUtils.createTransposedView(new Array2DRowRealMatrix(data)).getEntry(0, 3);
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.MathArithmeticException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TriangularRealMatrixTest {
+
+    private final double[][] lowerData = {
+        { 2, 0, 0 },
+        { 1, 3, 0 },
+        { 4, 5, 6 }
+    };
+
+    @Test
+    public void testEntries() {
+        final TriangularRealMatrix l = new TriangularRealMatrix(new Array2DRowRealMatrix(lowerData), true);
+        Assert.assertTrue(l.isLower());
+        TestUtils.assertEquals(new double[] { 2, 1, 3, 4, 5, 6 }, l.getDataRef(), 0);
+        TestUtils.assertEquals("lower", new Array2DRowRealMatrix(lowerData), l, 1.0e-15);
+        Assert.assertEquals(11, l.getTrace(), 0);
+        Assert.assertEquals(36, l.getDeterminant(), 0);
+
+        final TriangularRealMatrix u = l.transpose();
+        Assert.assertFalse(u.isLower());
+        TestUtils.assertEquals(l.getDataRef(), u.getDataRef(), 0);
+        TestUtils.assertEquals("upper", new Array2DRowRealMatrix(lowerData).transpose(), u, 1.0e-15);
+    }
+
+    @Test
+    public void testOtherTriangleIgnored() {
+        final RealMatrix full = new Array2DRowRealMatrix(new double[][] {
+            { 1, 2, 3 },
+            { 4, 5, 6 },
+            { 7, 8, 9 }
+        });
+        final TriangularRealMatrix u = new TriangularRealMatrix(full, false);
+        TestUtils.assertEquals(new double[] { 1, 2, 5, 3, 6, 9 }, u.getDataRef(), 0);
+        Assert.assertEquals(0, u.getEntry(2, 0), 0);
+    }
+
+    @Test
+    public void testSetEntry() {
+        final TriangularRealMatrix l = new TriangularRealMatrix(3, true);
+        l.setEntry(2, 1, 4);
+        l.addToEntry(2, 1, 1);
+        l.multiplyEntry(2, 1, 2);
+        l.setEntry(0, 2, 0);
+        l.multiplyEntry(0, 2, 3);
+        Assert.assertEquals(10, l.getEntry(2, 1), 0);
+        Assert.assertEquals(0, l.getEntry(1, 2), 0);
+    }
+
+    @Test(expected=NumberIsTooLargeException.class)
+    public void testSetEntryOutsideTriangle() {
+        new TriangularRealMatrix(3, true).setEntry(0, 1, 1);
+    }
+
+    @Test
+    public void testProducts() {
+        final RandomGenerator random = new Well1024a(0x8d2c5f0b7e1a6394l);
+        final int n = 29;
+        for (final boolean lower : new boolean[] { true, false }) {
+            final TriangularRealMatrix t = new TriangularRealMatrix(n, lower);
+            for (int i = 0; i < n; ++i) {
+                for (int j = 0; j <= i; ++j) {
+                    if (lower) {
+                        t.setEntry(i, j, random.nextGaussian());
+                    } else {
+                        t.setEntry(j, i, random.nextGaussian());
+                    }
+                }
+            }
+            final RealMatrix dense = new Array2DRowRealMatrix(t.getData());
+            final double[] x = new double[n];
+            for (int i = 0; i < n; ++i) {
+                x[i] = random.nextGaussian();
+            }
+            TestUtils.assertEquals(dense.operate(x), t.operate(x), 1.0e-13);
+            TestUtils.assertEquals(dense.preMultiply(x), t.preMultiply(x), 1.0e-13);
+            TestUtils.assertEquals(dense.preMultiply(x), t.preMultiply(new ArrayRealVector(x)).toArray(), 1.0e-13);
+            final RealMatrix m = new Array2DRowRealMatrix(n, 7);
+            for (int i = 0; i < n; ++i) {
+                for (int j = 0; j < 7; ++j) {
+                    m.setEntry(i, j, random.nextGaussian());
+                }
+            }
+            final RealMatrix product = t.multiply(m);
+            Assert.assertTrue(product instanceof Array2DRowRealMatrix);
+            TestUtils.assertEquals("product", dense.multiply(m), product, 1.0e-13);
+            TestUtils.assertEquals("square", dense.multiply(dense), t.multiply(t), 1.0e-13);
+        }
+    }
+
+    @Test
+    public void testSolve() {
+        final TriangularRealMatrix l = new TriangularRealMatrix(new Array2DRowRealMatrix(lowerData), true);
+        final double[] b = { 2, 7, 32 };
+        final double[] x = l.solve(b);
+        TestUtils.assertEquals(b, l.operate(x), 1.0e-14);
+        final TriangularRealMatrix u = l.transpose();
+        final RealVector y = u.solve(new ArrayRealVector(b));
+        TestUtils.assertEquals(b, u.operate(y).toArray(), 1.0e-14);
+
+        // MatrixUtils uses the packed storage
+        final RealVector bl = new ArrayRealVector(b);
+        MatrixUtils.solveLowerTriangularSystem(l, bl);
+        TestUtils.assertEquals(x, bl.toArray(), 0);
+        final RealVector bu = new OpenMapRealVector(b);
+        MatrixUtils.solveUpperTriangularSystem(u, bu);
+        TestUtils.assertEquals(y.toArray(), bu.toArray(), 0);
+    }
+
+    @Test(expected=MathArithmeticException.class)
+    public void testSolveSingular() {
+        new TriangularRealMatrix(3, false).solve(new double[3]);
+    }
+
+    @Test
+    public void testCholeskyFactors() {
+        final double[][] a = {
+            { 4, 2, 2 },
+            { 2, 5, 3 },
+            { 2, 3, 6 }
+        };
+        final CholeskyDecomposition cholesky = new CholeskyDecomposition(new Array2DRowRealMatrix(a));
+        // the general accessors keep returning mutable dense matrices
+        Assert.assertFalse(cholesky.getL() instanceof TriangularRealMatrix);
+        Assert.assertFalse(cholesky.getLT() instanceof TriangularRealMatrix);
+        final TriangularRealMatrix l  = cholesky.getPackedL();
+        final TriangularRealMatrix lt = cholesky.getPackedLT();
+        Assert.assertTrue(l.isLower());
+        Assert.assertFalse(lt.isLower());
+        Assert.assertEquals(cholesky.getL(), l);
+        Assert.assertEquals(cholesky.getLT(), lt);
+        TestUtils.assertEquals("LLT", new Array2DRowRealMatrix(a), l.multiply(lt), 1.0e-14);
+    }
+
+    @Test
+    public void testSerial() {
+        final TriangularRealMatrix l = new TriangularRealMatrix(new Array2DRowRealMatrix(lowerData), true);
+        Assert.assertEquals(l, TestUtils.serializeAndRecover(l));
+    }
+
+}
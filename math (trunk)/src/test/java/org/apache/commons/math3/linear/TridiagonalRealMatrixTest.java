@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.DimensionMismatchException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TridiagonalRealMatrixTest {
+
+    @Test
+    public void testDiagonals() {
+        final TridiagonalRealMatrix t =
+            new TridiagonalRealMatrix(new double[] { 1, 2 }, new double[] { 3, 4, 5 }, new double[] { 6, 7 });
+        Assert.assertEquals(1, t.getLowerBandwidth());
+        Assert.assertEquals(1, t.getUpperBandwidth());
+        TestUtils.assertEquals(new double[] { 1, 2 },    t.getSubDiagonal(),   0);
+        TestUtils.assertEquals(new double[] { 3, 4, 5 }, t.getDiagonal(),      0);
+        TestUtils.assertEquals(new double[] { 6, 7 },    t.getSuperDiagonal(), 0);
+        TestUtils.assertEquals("tridiagonal",
+                               new Array2DRowRealMatrix(new double[][] {
+                                   { 3, 6, 0 },
+                                   { 1, 4, 7 },
+                                   { 0, 2, 5 }
+                               }), t, 1.0e-15);
+    }
+
+    @Test
+    public void testSingleElement() {
+        final TridiagonalRealMatrix t =
+            new TridiagonalRealMatrix(new double[0], new double[] { 3 }, new double[0]);
+        Assert.assertEquals(3, t.getEntry(0, 0), 0);
+        Assert.assertEquals(0, t.getSubDiagonal().length);
+    }
+
+    @Test(expected=DimensionMismatchException.class)
+    public void testDimensionMismatch() {
+        new TridiagonalRealMatrix(new double[] { 1, 2 }, new double[] { 3, 4, 5 }, new double[] { 6 });
+    }
+
+    @Test(expected=NumberIsTooLargeException.class)
+    public void testSetEntryOutsideBand() {
+        new TridiagonalRealMatrix(4).setEntry(0, 2, 1);
+    }
+
+    @Test
+    public void testCopyAndTranspose() {
+        final TridiagonalRealMatrix t =
+            new TridiagonalRealMatrix(new double[] { 1, 2 }, new double[] { 3, 4, 5 }, new double[] { 6, 7 });
+        final TridiagonalRealMatrix copy = t.copy();
+        TestUtils.assertEquals(t.getDataRef(), copy.getDataRef(), 0);
+        final TridiagonalRealMatrix transposed = t.transpose();
+        TestUtils.assertEquals(t.getSuperDiagonal(), transposed.getSubDiagonal(),   0);
+        TestUtils.assertEquals(t.getSubDiagonal(),   transposed.getSuperDiagonal(), 0);
+    }
+
+    @Test
+    public void testLargeSolve() {
+        // one-dimensional Poisson problem, the solution is known
+        final int n = 100000;
+        final double[] sub  = new double[n - 1];
+        final double[] diag = new double[n];
+        final double[] sup  = new double[n - 1];
+        Arrays.fill(sub, -1);
+        Arrays.fill(diag, 2);
+        Arrays.fill(sup, -1);
+        final TridiagonalRealMatrix t = new TridiagonalRealMatrix(sub, diag, sup);
+        final double[] x = new double[n];
+        for (int i = 0; i < n; ++i) {
+            x[i] = FastMath.sin(i * 1.0e-4);
+        }
+        final RealVector b = t.operate(new ArrayRealVector(x, false));
+        final RealVector luSolution = new BandedLUDecomposition(t).getSolver().solve(b);
+        final RealVector choleskySolution = new BandedCholeskyDecomposition(t).getSolver().solve(b);
+        for (int i = 0; i < n; i += 1000) {
+            Assert.assertEquals(x[i], luSolution.getEntry(i), 1.0e-5);
+            Assert.assertEquals(x[i], choleskySolution.getEntry(i), 1.0e-5);
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.linear;
+
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
+import org.apache.commons.math3.exception.MaxCountExceededException;
+import org.apache.commons.math3.exception.NotPositiveException;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.NumberIsTooLargeException;
+import org.apache.commons.math3.exception.NumberIsTooSmallException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TruncatedSingularValueDecompositionTest {
+
+    @Test
+    public void testRandomizedDecayingSpectrum() {
+        final Array2DRowRealMatrix a = createMatrix(new Well1024a(0x3e5d91b27ac40f68l), 300, 120, 0.7);
+        final double[] reference = new SingularValueDecomposition(a).getSingularValues();
+        final TruncatedSingularValueDecomposition svd =
+            new TruncatedSingularValueDecomposition(a, 10, 10, 2, new Well1024a(0x17f2c6a3e9d4b085l));
+        checkTriplets(a, svd, 10, 1.0e-9);
+        final double[] s = svd.getSingularValues();
+        for (int i = 0; i < s.length; ++i) {
+            Assert.assertEquals(reference[i], s[i], 1.0e-10 * reference[0]);
+        }
+    }
+
+    @Test
+    public void testRandomizedExactRank() {
+        // with enough samples, the range of a low rank matrix is found exactly
+        final Array2DRowRealMatrix a = createMatrix(new Well1024a(0x52a9d0e4c3b17f86l), 80, 200, 0.8, 6);
+        final double[] reference = new SingularValueDecomposition(a).getSingularValues();
+        final TruncatedSingularValueDecomposition svd =
+            new TruncatedSingularValueDecomposition(a, 6, 4, 0, new Well1024a(0x6c1e83f5a2d04b97l));
+        checkTriplets(a, svd, 6, 1.0e-12);
+        Assert.assertEquals(0, svd.getU().multiply(svd.getS()).multiply(svd.getVT()).subtract(a).getNorm(),
+                            1.0e-12 * reference[0]);
+    }
+
+    @Test
+    public void testLanczos() {
+        final Array2DRowRealMatrix a = createMatrix(new Well1024a(0x0b4f7e2d96c3a158l), 250, 90, 0.95);
+        final double[] reference = new SingularValueDecomposition(a).getSingularValues();
+        final TruncatedSingularValueDecomposition svd =
+            new TruncatedSingularValueDecomposition(a, 8, 60, 1.0e-12);
+        checkTriplets(a, svd, 8, 1.0e-10);
+        final double[] s = svd.getSingularValues();
+        for (int i = 0; i < s.length; ++i) {
+            Assert.assertEquals(reference[i], s[i], 1.0e-11 * reference[0]);
+        }
+    }
+
+    @Test
+    public void testLanczosWide() {
+        final Array2DRowRealMatrix a = createMatrix(new Well1024a(0x9d36a0f14be25c87l), 40, 150, 0.8);
+        final double[] reference = new SingularValueDecomposition(a).getSingularValues();
+        final TruncatedSingularValueDecomposition svd =
+            new TruncatedSingularValueDecomposition(a, 5, 40, 1.0e-12);
+        checkTriplets(a, svd, 5, 1.0e-10);
+        Assert.assertArrayEquals(new double[] { reference[0], reference[1], reference[2], reference[3], reference[4] },
+                                 svd.getSingularValues(), 1.0e-11 * reference[0]);
+    }
+
+    @Test
+    public void testLanczosRankDeficient() {
+        // more components than the rank: the basis must be restarted
+        final Array2DRowRealMatrix a = createMatrix(new Well1024a(0x4a8c2e61f07d3b59l), 60, 30, 0.8, 3);
+        final TruncatedSingularValueDecomposition svd =
+            new TruncatedSingularValueDecomposition(a, 5, 30, 1.0e-12);
+        final double[] s = svd.getSingularValues();
+        Assert.assertEquals(0, s[3], 1.0e-12 * s[0]);
+        Assert.assertEquals(0, s[4], 1.0e-12 * s[0]);
+        checkTriplets(a, svd, 5, 1.0e-10);
+    }
+
+    @Test
+    public void testOperator() {
+        // a pure operator gives the same results as the underlying matrix
+        final Array2DRowRealMatrix a = createMatrix(new Well1024a(0x2f6b09d3e8a1c475l), 120, 70, 0.8);
+        final RealLinearOperator operator = new RealLinearOperator() {
+            @Override
+            public int getRowDimension() {
+                return a.getRowDimension();
+            }
+            @Override
+            public int getColumnDimension() {
+                return a.getColumnDimension();
+            }
+            @Override
+            public RealVector operate(RealVector x) {
+                return a.operate(x);
+            }
+            @Override
+            public RealVector operateTranspose(RealVector x) {
+                return a.preMultiply(x);
+            }
+            @Override
+            public boolean isTransposable() {
+                return true;
+            }
+        };
+        final double[] fromMatrix =
+            new TruncatedSingularValueDecomposition(a, 4, 6, 1, new Well1024a(0xe3b7a5c1d9f20864l)).getSingularValues();
+        final TruncatedSingularValueDecomposition svd =
+            new TruncatedSingularValueDecomposition(operator, 4, 6, 1, new Well1024a(0xe3b7a5c1d9f20864l));
+        Assert.assertArrayEquals(fromMatrix, svd.getSingularValues(), 1.0e-12 * fromMatrix[0]);
+        checkTriplets(a, new TruncatedSingularValueDecomposition(operator, 4, 50, 1.0e-12), 4, 1.0e-10);
+    }
+
+    @Test(expected=MathUnsupportedOperationException.class)
+    public void testNotTransposable() {
+        new TruncatedSingularValueDecomposition(new JacobiPreconditioner(new double[] { 1, 2, 3 }, false),
+                                                1, 2, 1.0e-10);
+    }
+
+    @Test(expected=NotStrictlyPositiveException.class)
+    public void testZeroComponents() {
+        new TruncatedSingularValueDecomposition(new Array2DRowRealMatrix(3, 3), 0, 2, 1.0e-10);
+    }
+
+    @Test(expected=NumberIsTooLargeException.class)
+    public void testTooManyComponents() {
+        new TruncatedSingularValueDecomposition(new Array2DRowRealMatrix(3, 5), 4, 1, 0, new Well1024a(1));
+    }
+
+    @Test(expected=NotPositiveException.class)
+    public void testNegativeOversampling() {
+        new TruncatedSingularValueDecomposition(new Array2DRowRealMatrix(3, 3), 1, -1, 0, new Well1024a(1));
+    }
+
+    @Test(expected=NumberIsTooSmallException.class)
+    public void testBasisTooSmall() {
+        new TruncatedSingularValueDecomposition(new Array2DRowRealMatrix(5, 5), 3, 2, 1.0e-10);
+    }
+
+    @Test(expected=MaxCountExceededException.class)
+    public void testLanczosNoConvergence() {
+        final Array2DRowRealMatrix a = createMatrix(new Well1024a(0x7d0e4b9a3c16f582l), 200, 200, 0.999);
+        new TruncatedSingularValueDecomposition(a, 10, 12, 1.0e-14);
+    }
+
+    /** Check the singular triplets satisfy A v = sigma u and A^T u = sigma v. */
+    private void checkTriplets(final RealMatrix a, final TruncatedSingularValueDecomposition svd,
+                               final int k, final double tolerance) {
+        final RealMatrix u = svd.getU();
+        final RealMatrix v = svd.getV();
+        final double[] s = svd.getSingularValues();
+        Assert.assertEquals(a.getRowDimension(), u.getRowDimension());
+        Assert.assertEquals(k, u.getColumnDimension());
+        Assert.assertEquals(a.getColumnDimension(), v.getRowDimension());
+        Assert.assertEquals(k, v.getColumnDimension());
+        Assert.assertEquals(k, svd.getS().getRowDimension());
+        final RealMatrix identity = MatrixUtils.createRealIdentityMatrix(k);
+        Assert.assertEquals(0, svd.getUT().multiply(u).subtract(identity).getNorm(), 1.0e-12);
+        Assert.assertEquals(0, svd.getVT().multiply(v).subtract(identity).getNorm(), 1.0e-12);
+        for (int i = 0; i < k; ++i) {
+            if (i > 0) {
+                Assert.assertTrue(s[i] <= s[i - 1]);
+            }
+            if (s[i] > tolerance * s[0]) {
+                final RealVector uI = u.getColumnVector(i);
+                final RealVector vI = v.getColumnVector(i);
+                Assert.assertEquals(0, a.operate(vI).subtract(uI.mapMultiply(s[i])).getNorm(), tolerance * s[0]);
+                Assert.assertEquals(0, a.preMultiply(uI).subtract(vI.mapMultiply(s[i])).getNorm(), tolerance * s[0]);
+            }
+        }
+    }
+
+    /** Create a matrix with geometrically decaying singular values. */
+    private Array2DRowRealMatrix createMatrix(final RandomGenerator random, final int rows, final int columns,
+                                              final double ratio) {
+        return createMatrix(random, rows, columns, ratio, FastMath.min(rows, columns));
+    }
+
+    /** Create a matrix with geometrically decaying singular values and a given rank. */
+    private Array2DRowRealMatrix createMatrix(final RandomGenerator random, final int rows, final int columns,
+                                              final double ratio, final int rank) {
+        final RealMatrix u = orthonormalColumns(random, rows, rank);
+        final RealMatrix v = orthonormalColumns(random, columns, rank);
+        final double[] s = new double[rank];
+        double sigma = 10.0;
+        for (int i = 0; i < rank; ++i) {
+            s[i] = sigma;
+            sigma *= ratio;
+        }
+        return new Array2DRowRealMatrix(u.multiply(MatrixUtils.createRealDiagonalMatrix(s)).multiply(v.transpose()).getData(),
+                                        false);
+    }
+
+    private RealMatrix orthonormalColumns(final RandomGenerator random, final int rows, final int columns) {
+        final double[][] data = new double[rows][columns];
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                data[i][j] = random.nextGaussian();
+            }
+        }
+        final QRDecomposition qr = new QRDecomposition(MatrixUtils.createRealMatrix(data));
+        return qr.getQ().getSubMatrix(0, rows - 1, 0, columns - 1);
+    }
+
+}
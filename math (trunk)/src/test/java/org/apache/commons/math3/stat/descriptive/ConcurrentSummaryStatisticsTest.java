@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.stat.descriptive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentSummaryStatisticsTest {
+
+    @Test
+    public void testStripes() {
+        Assert.assertEquals(1, new ConcurrentSummaryStatistics(1).getStripes());
+        Assert.assertEquals(8, new ConcurrentSummaryStatistics(5).getStripes());
+        Assert.assertEquals(16, new ConcurrentSummaryStatistics(16).getStripes());
+        Assert.assertTrue(new ConcurrentSummaryStatistics().getStripes() >= 4);
+    }
+
+    @Test(expected=NotStrictlyPositiveException.class)
+    public void testNoStripes() {
+        new ConcurrentSummaryStatistics(0);
+    }
+
+    @Test
+    public void testSingleThread() {
+        RandomGenerator random = new Well1024a(0x7c1e5d2al);
+        ConcurrentSummaryStatistics concurrent = new ConcurrentSummaryStatistics(4);
+        SummaryStatistics reference = new SummaryStatistics();
+        Assert.assertEquals(0, concurrent.getN());
+        Assert.assertTrue(Double.isNaN(concurrent.getMean()));
+        for (int i = 0; i < 1000; ++i) {
+            double x = 1 + 20 * random.nextDouble();
+            concurrent.addValue(x);
+            reference.addValue(x);
+        }
+        checkEquals(reference, concurrent);
+        Assert.assertEquals(reference.getSummary(), concurrent.getSummary());
+
+        concurrent.clear();
+        Assert.assertEquals(0, concurrent.getN());
+        Assert.assertTrue(Double.isNaN(concurrent.getMax()));
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        final int nbThreads = 16;
+        final int nbValues  = 20000;
+        final ConcurrentSummaryStatistics concurrent = new ConcurrentSummaryStatistics(4);
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < nbThreads; ++t) {
+                final int offset = t * nbValues;
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() {
+                        for (int i = 0; i < nbValues; ++i) {
+                            concurrent.addValue(offset + i + 1);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // values are 1, 2, ..., N
+        final double n = nbThreads * nbValues;
+        SummaryStatistics snapshot = concurrent.getSnapshot();
+        Assert.assertEquals((long) n, snapshot.getN());
+        Assert.assertEquals((long) n, concurrent.getN());
+        Assert.assertEquals(1.0, snapshot.getMin(), 0);
+        Assert.assertEquals(n, snapshot.getMax(), 0);
+        Assert.assertEquals(n * (n + 1) / 2, snapshot.getSum(), 0);
+        Assert.assertEquals((n + 1) / 2, snapshot.getMean(), 1.0e-12 * n);
+        Assert.assertEquals(n * (n + 1) / 12, snapshot.getVariance(), 1.0e-12 * n * n);
+    }
+
+    @Test
+    public void testSerialization() {
+        ConcurrentSummaryStatistics concurrent = new ConcurrentSummaryStatistics(2);
+        for (double x : new double[] { 1, 2, 4, 8 }) {
+            concurrent.addValue(x);
+        }
+        ConcurrentSummaryStatistics recovered =
+            (ConcurrentSummaryStatistics) TestUtils.serializeAndRecover(concurrent);
+        checkEquals(concurrent.getSnapshot(), recovered);
+        recovered.addValue(16);
+        Assert.assertEquals(5, recovered.getN());
+    }
+
+    private void checkEquals(SummaryStatistics expected, ConcurrentSummaryStatistics actual) {
+        final double tol = 1.0e-12;
+        Assert.assertEquals(expected.getN(), actual.getN());
+        Assert.assertEquals(expected.getMin(), actual.getMin(), 0);
+        Assert.assertEquals(expected.getMax(), actual.getMax(), 0);
+        Assert.assertEquals(expected.getSum(), actual.getSum(), tol * FastMath.abs(expected.getSum()));
+        Assert.assertEquals(expected.getSumsq(), actual.getSumsq(), tol * expected.getSumsq());
+        Assert.assertEquals(expected.getMean(), actual.getMean(), tol * FastMath.abs(expected.getMean()));
+        Assert.assertEquals(expected.getVariance(), actual.getVariance(), tol * expected.getVariance());
+        Assert.assertEquals(expected.getPopulationVariance(), actual.getPopulationVariance(),
+                            tol * expected.getPopulationVariance());
+        Assert.assertEquals(expected.getStandardDeviation(), actual.getStandardDeviation(),
+                            tol * expected.getStandardDeviation());
+        Assert.assertEquals(expected.getSecondMoment(), actual.getSecondMoment(),
+                            tol * expected.getSecondMoment());
+        Assert.assertEquals(expected.getSumOfLogs(), actual.getSumOfLogs(),
+                            tol * FastMath.abs(expected.getSumOfLogs()));
+        Assert.assertEquals(expected.getGeometricMean(), actual.getGeometricMean(),
+                            tol * expected.getGeometricMean());
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.stat.descriptive;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the {@link SlidingWindowStatistics} class.
+ *
+ * @version $Id$
+ */
+public class SlidingWindowStatisticsTest {
+
+    @Test
+    public void testEmpty() {
+        final SlidingWindowStatistics stats = new SlidingWindowStatistics(5);
+        Assert.assertEquals(5, stats.getWindowSize());
+        Assert.assertEquals(0, stats.getN());
+        Assert.assertTrue(Double.isNaN(stats.getMean()));
+        Assert.assertTrue(Double.isNaN(stats.getVariance()));
+        Assert.assertTrue(Double.isNaN(stats.getStandardDeviation()));
+        Assert.assertTrue(Double.isNaN(stats.getMin()));
+        Assert.assertTrue(Double.isNaN(stats.getMax()));
+        Assert.assertTrue(Double.isNaN(stats.getMedian()));
+        Assert.assertEquals(0.0, stats.getSum(), 0.0);
+        Assert.assertEquals(0, stats.getValues().length);
+        Assert.assertEquals(0, stats.getSortedValues().length);
+    }
+
+    @Test
+    public void testSmallWindow() {
+        final SlidingWindowStatistics stats = new SlidingWindowStatistics(3);
+        stats.addValue(5);
+        Assert.assertEquals(5.0, stats.getMedian(), 0.0);
+        Assert.assertEquals(0.0, stats.getVariance(), 0.0);
+        for (final double v : new double[] { 1, 2, 3, 4 }) {
+            stats.addValue(v);
+        }
+        Assert.assertEquals(3, stats.getN());
+        Assert.assertArrayEquals(new double[] { 2, 3, 4 }, stats.getValues(), 0.0);
+        Assert.assertEquals(9.0, stats.getSum(), 0.0);
+        Assert.assertEquals(29.0, stats.getSumsq(), 0.0);
+        Assert.assertEquals(3.0, stats.getMean(), 0.0);
+        Assert.assertEquals(1.0, stats.getVariance(), 1.0e-15);
+        Assert.assertEquals(2.0 / 3.0, stats.getPopulationVariance(), 1.0e-15);
+        Assert.assertEquals(2.0, stats.getMin(), 0.0);
+        Assert.assertEquals(4.0, stats.getMax(), 0.0);
+        Assert.assertEquals(3.0, stats.getMedian(), 0.0);
+
+        final SlidingWindowStatistics single = new SlidingWindowStatistics(1);
+        single.addValue(1);
+        single.addValue(7);
+        Assert.assertEquals(1, single.getN());
+        Assert.assertEquals(7.0, single.getMean(), 0.0);
+        Assert.assertEquals(7.0, single.getPercentile(99), 0.0);
+
+        stats.clear();
+        Assert.assertEquals(0, stats.getN());
+        stats.addValue(-1);
+        Assert.assertEquals(-1.0, stats.getMean(), 0.0);
+        Assert.assertEquals(-1.0, stats.getMax(), 0.0);
+    }
+
+    @Test
+    public void testAgainstDescriptiveStatistics() {
+        final RandomGenerator random = new Well1024a(0x3e5b9a1c7d2f4806l);
+        for (final int window : new int[] { 2, 7, 64, 1000 }) {
+            final SlidingWindowStatistics sliding = new SlidingWindowStatistics(window);
+            final DescriptiveStatistics reference = new DescriptiveStatistics(window);
+            for (int i = 0; i < 5 * window + 3; ++i) {
+                // many ties
+                final double v = random.nextInt(window / 2 + 2) + (i % 3 == 0 ? 0.5 : 0.0);
+                sliding.addValue(v);
+                reference.addValue(v);
+                if (i % 17 == 0 || i > 5 * window) {
+                    checkSame(reference, sliding);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNoDrift() {
+        // large offset with small variations is the worst case for running moments
+        final RandomGenerator random = new Well1024a(0x9c1f7e3a5b2d4860l);
+        final int window = 100;
+        final SlidingWindowStatistics sliding = new SlidingWindowStatistics(window);
+        final DescriptiveStatistics reference = new DescriptiveStatistics(window);
+        for (int i = 0; i < 100000; ++i) {
+            final double v = 1.0e9 + random.nextGaussian();
+            sliding.addValue(v);
+            reference.addValue(v);
+            if (i % 997 == 0) {
+                Assert.assertEquals(reference.getMean(), sliding.getMean(), 1.0e-6);
+                Assert.assertEquals(reference.getVariance(), sliding.getVariance(),
+                                    1.0e-6 * reference.getVariance());
+            }
+        }
+    }
+
+    @Test
+    public void testNonFiniteValues() {
+        final SlidingWindowStatistics stats = new SlidingWindowStatistics(3);
+        stats.addValue(1);
+        stats.addValue(Double.NaN);
+        Assert.assertTrue(Double.isNaN(stats.getMean()));
+        Assert.assertEquals(1.0, stats.getMax(), 0.0);
+        Assert.assertEquals(1.0, stats.getMin(), 0.0);
+        stats.addValue(Double.POSITIVE_INFINITY);
+        stats.addValue(2);
+        stats.addValue(3);
+        Assert.assertTrue(Double.isInfinite(stats.getMean()));
+        Assert.assertEquals(Double.POSITIVE_INFINITY, stats.getMax(), 0.0);
+        stats.addValue(4);
+        Assert.assertEquals(3.0, stats.getMean(), 0.0);
+        Assert.assertEquals(1.0, stats.getVariance(), 1.0e-15);
+        Assert.assertEquals(4.0, stats.getMax(), 0.0);
+    }
+
+    @Test
+    public void testNaNAgainstDescriptiveStatistics() {
+        final SlidingWindowStatistics sliding = new SlidingWindowStatistics(5);
+        final DescriptiveStatistics reference = new DescriptiveStatistics(5);
+        for (final double v : new double[] { 1, 2, Double.NaN, 4, 5 }) {
+            sliding.addValue(v);
+            reference.addValue(v);
+        }
+        Assert.assertEquals(3.0, sliding.getMedian(), 0.0);
+        Assert.assertEquals(5.0, sliding.getMax(), 0.0);
+        Assert.assertEquals(1.0, sliding.getMin(), 0.0);
+        Assert.assertTrue(Double.isNaN(sliding.getMean()));
+        checkSame(reference, sliding);
+
+        // NaN values entering and leaving the window
+        final RandomGenerator random = new Well1024a(0x6a4d2e8b1c3f5970l);
+        for (int i = 0; i < 200; ++i) {
+            final double v = (random.nextInt(4) == 0) ? Double.NaN : random.nextInt(10);
+            sliding.addValue(v);
+            reference.addValue(v);
+            checkSame(reference, sliding);
+        }
+
+        // only NaN values
+        for (int i = 0; i < 5; ++i) {
+            sliding.addValue(Double.NaN);
+        }
+        Assert.assertTrue(Double.isNaN(sliding.getMax()));
+        Assert.assertTrue(Double.isNaN(sliding.getMin()));
+        Assert.assertTrue(Double.isNaN(sliding.getMedian()));
+    }
+
+    @Test
+    public void testCopyAndSerialization() {
+        final SlidingWindowStatistics stats = new SlidingWindowStatistics(10);
+        for (int i = 0; i < 25; ++i) {
+            stats.addValue((i % 7) * (i % 7));
+        }
+        final SlidingWindowStatistics copy = stats.copy();
+        final SlidingWindowStatistics recovered =
+            (SlidingWindowStatistics) TestUtils.serializeAndRecover(stats);
+        stats.addValue(100);
+        for (final SlidingWindowStatistics other : new SlidingWindowStatistics[] { copy, recovered }) {
+            Assert.assertEquals(10, other.getN());
+            Assert.assertEquals(36.0, other.getMax(), 0.0);
+            other.addValue(100);
+            Assert.assertArrayEquals(stats.getValues(), other.getValues(), 0.0);
+            Assert.assertEquals(stats.getMedian(), other.getMedian(), 0.0);
+            Assert.assertEquals(stats.getVariance(), other.getVariance(), 0.0);
+        }
+    }
+
+    @Test(expected=MathIllegalArgumentException.class)
+    public void testInvalidWindow() {
+        new SlidingWindowStatistics(0);
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testInvalidPercentile() {
+        final SlidingWindowStatistics stats = new SlidingWindowStatistics(3);
+        stats.addValue(1);
+        stats.getPercentile(0);
+    }
+
+    private void checkSame(final DescriptiveStatistics reference,
+                           final SlidingWindowStatistics sliding) {
+        final double tol = 1.0e-12 * (reference.getMax() + 1) * (reference.getMax() + 1);
+        Assert.assertEquals(reference.getN(), sliding.getN());
+        Assert.assertArrayEquals(reference.getValues(), sliding.getValues(), 0.0);
+        final double[] sorted = sliding.getSortedValues();
+        final double[] expected = reference.getValues();
+        Arrays.sort(expected);
+        Assert.assertArrayEquals(expected, sorted, 0.0);
+        Assert.assertEquals(reference.getMin(), sliding.getMin(), 0.0);
+        Assert.assertEquals(reference.getMax(), sliding.getMax(), 0.0);
+        Assert.assertEquals(reference.getSum(), sliding.getSum(), tol);
+        Assert.assertEquals(reference.getSumsq(), sliding.getSumsq(), tol * reference.getN());
+        Assert.assertEquals(reference.getMean(), sliding.getMean(), tol);
+        Assert.assertEquals(reference.getVariance(), sliding.getVariance(), tol);
+        Assert.assertEquals(reference.getPopulationVariance(), sliding.getPopulationVariance(), tol);
+        for (final double p : new double[] { 0.5, 1, 10, 25, 50, 75, 90, 99, 100 }) {
+            Assert.assertEquals(reference.getPercentile(p), sliding.getPercentile(p), 0.0);
+        }
+        TestUtils.assertEquals(reference.getSortedValues(), sorted, 0.0);
+    }
+
+}
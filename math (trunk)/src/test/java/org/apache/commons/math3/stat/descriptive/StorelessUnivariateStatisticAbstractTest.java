@@ -211,6 +211,37 @@ public abstract class StorelessUnivariateStatisticAbstractTest
         Assert.assertTrue(master.equals(replica));
     }
 
+    /**
+     * Verifies that aggregating statistics computed on partitions of
+     * testArray gives the same result as computing it on the whole array.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAggregate() {
+        StorelessUnivariateStatistic master =
+            (StorelessUnivariateStatistic) getUnivariateStatistic();
+        if (!(master instanceof AggregatableStatistic)) {
+            return;
+        }
+
+        // split testArray in uneven partitions, the first one being empty
+        int[] bounds = { 0, 0, 1, 4, testArray.length / 2, testArray.length };
+        for (int i = 1; i < bounds.length; ++i) {
+            StorelessUnivariateStatistic partial =
+                (StorelessUnivariateStatistic) getUnivariateStatistic();
+            partial.incrementAll(testArray, bounds[i - 1], bounds[i] - bounds[i - 1]);
+            ((AggregatableStatistic<StorelessUnivariateStatistic>) master).aggregate(partial);
+        }
+        Assert.assertEquals(expectedValue(), master.getResult(), getTolerance());
+        Assert.assertEquals(testArray.length, master.getN());
+
+        // aggregating an empty statistic does not change anything
+        ((AggregatableStatistic<StorelessUnivariateStatistic>) master).aggregate(
+            (StorelessUnivariateStatistic) getUnivariateStatistic());
+        Assert.assertEquals(expectedValue(), master.getResult(), getTolerance());
+        Assert.assertEquals(testArray.length, master.getN());
+    }
+
     @Test
     public void testSerial() {
         StorelessUnivariateStatistic s =
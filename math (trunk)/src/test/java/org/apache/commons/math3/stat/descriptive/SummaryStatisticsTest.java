@@ -17,12 +17,20 @@
 package org.apache.commons.math3.stat.descriptive;
 
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
 
 import org.apache.commons.math3.stat.descriptive.moment.GeometricMean;
 import org.apache.commons.math3.stat.descriptive.moment.Mean;
 import org.apache.commons.math3.stat.descriptive.moment.Variance;
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.apache.commons.math3.stat.descriptive.rank.TDigest;
 import org.apache.commons.math3.stat.descriptive.summary.Sum;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well1024a;
 import org.apache.commons.math3.util.FastMath;
 import org.junit.Assert;
 import org.junit.Test;
@@ -336,4 +344,121 @@ public class SummaryStatisticsTest {
         }
         Assert.assertEquals((new GeometricMean()).evaluate(scores),stats.getGeometricMean(), 0); 
     }
+
+    @Test
+    public void testMerge() {
+        RandomGenerator random = new Well1024a(0x2f8c41a3l);
+        SummaryStatistics all = createSummaryStatistics();
+        List<SummaryStatistics> partitions = new ArrayList<SummaryStatistics>();
+        for (int p = 0; p < 7; ++p) {
+            SummaryStatistics partial = createSummaryStatistics();
+            // partitions with very different sizes and locations, one of them empty
+            int size = (p == 3) ? 0 : random.nextInt(1000) + 1;
+            for (int i = 0; i < size; ++i) {
+                double value = 100 * p + 10 * random.nextDouble();
+                partial.addValue(value);
+                all.addValue(value);
+            }
+            partitions.add(partial);
+        }
+
+        SummaryStatistics merged = createSummaryStatistics();
+        for (SummaryStatistics partial : partitions) {
+            merged.merge(partial);
+        }
+        checkMerged(all, merged);
+        checkMerged(all, SummaryStatistics.merge(partitions));
+
+        // partitions are not modified
+        Assert.assertEquals(0, partitions.get(3).getN());
+    }
+
+    @Test
+    public void testMergeSelf() {
+        SummaryStatistics u = createSummaryStatistics();
+        SummaryStatistics twice = createSummaryStatistics();
+        for (double x : new double[] { one, twoF, twoL, three }) {
+            u.addValue(x);
+            twice.addValue(x);
+            twice.addValue(x);
+        }
+        u.merge(u);
+        checkMerged(twice, u);
+    }
+
+    @Test
+    public void testMergeEmpty() {
+        SummaryStatistics merged = SummaryStatistics.merge(new ArrayList<SummaryStatistics>());
+        Assert.assertEquals(0, merged.getN());
+        Assert.assertTrue(Double.isNaN(merged.getMean()));
+        Assert.assertTrue(Double.isNaN(merged.getMin()));
+        Assert.assertTrue(Double.isNaN(merged.getMax()));
+    }
+
+    @Test(expected=MathUnsupportedOperationException.class)
+    public void testMergeUnsupported() {
+        SummaryStatistics u = createSummaryStatistics();
+        u.setMeanImpl(new Mean());
+        u.addValue(one);
+        SummaryStatistics v = createSummaryStatistics();
+        v.addValue(three);
+        v.merge(u);
+    }
+
+    @Test
+    public void testQuantile() {
+        SummaryStatistics u = createSummaryStatistics();
+        Assert.assertNull(u.getQuantileImpl());
+        u.addValue(one);
+        Assert.assertTrue(Double.isNaN(u.getQuantile()));
+
+        RandomGenerator random = new Well1024a(0x51d3a0c7l);
+        double[] values = new double[20000];
+        List<SummaryStatistics> partitions = new ArrayList<SummaryStatistics>();
+        for (int p = 0; p < 4; ++p) {
+            SummaryStatistics partial = createSummaryStatistics();
+            partial.setQuantileImpl(new TDigest(90));
+            for (int i = p; i < values.length; i += 4) {
+                values[i] = random.nextDouble();
+                partial.addValue(values[i]);
+            }
+            partitions.add(partial);
+        }
+        double exact = new Percentile(90).evaluate(values);
+        Assert.assertEquals(exact, partitions.get(0).getQuantile(), 0.01);
+
+        // the merged instance adopts the quantile implementation
+        SummaryStatistics merged = SummaryStatistics.merge(partitions);
+        Assert.assertTrue(merged.getQuantileImpl() instanceof TDigest);
+        Assert.assertEquals(values.length, merged.getQuantileImpl().getN());
+        Assert.assertEquals(exact, merged.getQuantile(), 0.005);
+        Assert.assertEquals(exact, merged.copy().getQuantile(), 0.005);
+
+        merged.clear();
+        Assert.assertTrue(Double.isNaN(merged.getQuantile()));
+    }
+
+    @Test(expected=MathUnsupportedOperationException.class)
+    public void testMergeQuantileMismatch() {
+        SummaryStatistics u = createSummaryStatistics();
+        u.setQuantileImpl(new TDigest(50));
+        u.addValue(one);
+        SummaryStatistics v = createSummaryStatistics();
+        v.addValue(three);
+        u.merge(v);
+    }
+
+    private void checkMerged(SummaryStatistics expected, SummaryStatistics merged) {
+        Assert.assertEquals(expected.getN(), merged.getN());
+        Assert.assertEquals(expected.getMin(), merged.getMin(), 0);
+        Assert.assertEquals(expected.getMax(), merged.getMax(), 0);
+        Assert.assertEquals(expected.getSum(), merged.getSum(), 1.0e-12 * FastMath.abs(expected.getSum()));
+        Assert.assertEquals(expected.getSumsq(), merged.getSumsq(), 1.0e-12 * expected.getSumsq());
+        Assert.assertEquals(expected.getSumOfLogs(), merged.getSumOfLogs(),
+                            1.0e-12 * FastMath.abs(expected.getSumOfLogs()));
+        Assert.assertEquals(expected.getMean(), merged.getMean(), 1.0e-12 * FastMath.abs(expected.getMean()));
+        Assert.assertEquals(expected.getVariance(), merged.getVariance(), 1.0e-12 * expected.getVariance());
+        Assert.assertEquals(expected.getGeometricMean(), merged.getGeometricMean(),
+                            1.0e-12 * expected.getGeometricMean());
+    }
 }
@@ -16,8 +16,10 @@
  */
 package org.apache.commons.math3.stat.descriptive.moment;
 
+import org.apache.commons.math3.exception.MathUnsupportedOperationException;
 import org.apache.commons.math3.stat.descriptive.StorelessUnivariateStatisticAbstractTest;
 import org.apache.commons.math3.stat.descriptive.UnivariateStatistic;
+import org.junit.Test;
 
 /**
  * Test cases for the {@link ThirdMoment} class.
@@ -44,4 +46,13 @@ public class ThirdMomentTest extends StorelessUnivariateStatisticAbstractTest{
       return this.thirdMoment;
     }
 
+    @Test(expected=MathUnsupportedOperationException.class)
+    public void testAggregateSecondMoment() {
+        ThirdMoment m3 = new ThirdMoment();
+        m3.increment(1.0);
+        SecondMoment m2 = new SecondMoment();
+        m2.increment(2.0);
+        m3.aggregate(m2);
+    }
+
 }
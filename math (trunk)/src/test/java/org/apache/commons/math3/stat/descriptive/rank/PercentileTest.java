@@ -17,6 +17,8 @@
 package org.apache.commons.math3.stat.descriptive.rank;
 
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.exception.MathIllegalArgumentException;
@@ -851,6 +853,171 @@ public class PercentileTest extends UnivariateStatisticAbstractTest{
                 NaNStrategy.REMOVED);
     }
 
+    @Test
+    public void testMultiplePercentilesAllTechniques() {
+        final RandomGenerator random = new Well1024a(0x6fd1e05a3c2b4e9dl);
+        final double[] ps = { 0.1, 1, 5, 25, 50, 50, 75, 95, 99, 99.9, 100 };
+        for (final int n : new int[] { 2, 3, 7, 16, 100, 1001 }) {
+            final double[] data = new double[n];
+            for (int i = 0; i < n; ++i) {
+                // include many ties
+                data[i] = random.nextInt(n / 2 + 1);
+            }
+            final double[] copy = data.clone();
+            for (final EstimationType e : EstimationType.values()) {
+                final Percentile percentile = new Percentile().withEstimationType(e);
+                final double[] results = percentile.evaluate(data, ps);
+                Assert.assertArrayEquals(copy, data, 0.0);
+                for (int i = 0; i < ps.length; ++i) {
+                    Assert.assertEquals(e + ", p = " + ps[i],
+                                        percentile.evaluate(data, ps[i]), results[i], 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultiplePercentilesSubArrayAndStoredData() {
+        final double[] data = { 9, 1, 8, 2, 7, 3, 6, 4, 5, 0, 11, 10 };
+        final double[] ps = { 10, 50, 90 };
+        final Percentile percentile = new Percentile();
+        final double[] results = percentile.evaluate(data, 2, 8, ps);
+        for (int i = 0; i < ps.length; ++i) {
+            Assert.assertEquals(percentile.evaluate(data, 2, 8, ps[i]), results[i], 0.0);
+        }
+
+        percentile.setData(data);
+        final double[] stored = percentile.evaluate(percentile.getData(), ps);
+        Assert.assertEquals(percentile.evaluate(25), percentile.evaluate(data, 25), 0.0);
+        for (int i = 0; i < ps.length; ++i) {
+            Assert.assertEquals(percentile.evaluate(ps[i]), stored[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testMultiplePercentilesSpecialCases() {
+        final Percentile percentile = new Percentile();
+        Assert.assertArrayEquals(new double[] { Double.NaN, Double.NaN },
+                                 percentile.evaluate(new double[0], new double[] { 10, 90 }), 0.0);
+        Assert.assertArrayEquals(new double[] { 3.0, 3.0 },
+                                 percentile.evaluate(new double[] { 3.0 }, new double[] { 10, 90 }), 0.0);
+        Assert.assertEquals(0, percentile.evaluate(new double[] { 1, 2, 3 }, new double[0]).length);
+
+        final double[] withNaN = { 1, Double.NaN, 3, 2, Double.NaN, 5 };
+        final Percentile removed = new Percentile().withNaNStrategy(NaNStrategy.REMOVED);
+        final double[] results = removed.evaluate(withNaN, new double[] { 25, 50, 75 });
+        Assert.assertEquals(removed.evaluate(withNaN, 25), results[0], 0.0);
+        Assert.assertEquals(removed.evaluate(withNaN, 50), results[1], 0.0);
+        Assert.assertEquals(removed.evaluate(withNaN, 75), results[2], 0.0);
+    }
+
+    @Test
+    public void testMultiplePercentilesInvalid() {
+        final Percentile percentile = new Percentile();
+        try {
+            percentile.evaluate(new double[] { 1, 2, 3 }, new double[] { 50, 0 });
+            Assert.fail("an exception should have been thrown");
+        } catch (OutOfRangeException oore) {
+            // expected
+        }
+        try {
+            percentile.evaluate(new double[] { 1, 2, 3 }, new double[] { 50, 100.5 });
+            Assert.fail("an exception should have been thrown");
+        } catch (OutOfRangeException oore) {
+            // expected
+        }
+        try {
+            percentile.evaluate(new double[] { 1, 2, 3 }, (double[]) null);
+            Assert.fail("an exception should have been thrown");
+        } catch (NullArgumentException nae) {
+            // expected
+        }
+        try {
+            percentile.evaluate(null, new double[] { 50 });
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMultipleSelection() {
+        final RandomGenerator random = new Well1024a(0x2b9e4d7c1a5f3e08l);
+        final double[] data = new double[5000];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = random.nextGaussian();
+        }
+        final double[] sorted = data.clone();
+        Arrays.sort(sorted);
+        final int[] ks = { 4999, 0, 2500, 17, 2500, 4000, 1 };
+        final double[] selected = new KthSelector().select(data.clone(), ks);
+        for (int i = 0; i < ks.length; ++i) {
+            Assert.assertEquals(sorted[ks[i]], selected[i], 0.0);
+        }
+        try {
+            new KthSelector().select(data.clone(), new int[] { 5000 });
+            Assert.fail("an exception should have been thrown");
+        } catch (OutOfRangeException oore) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testParallelSelection() {
+        final RandomGenerator random = new Well1024a(0x7a3c5e1f9d2b4c60l);
+        final int n = 1 << 20;
+        final double[] uniform = new double[n];
+        final double[] ascending = new double[n];
+        final double[] ties = new double[n];
+        final double[] constant = new double[n];
+        final double[] mostlyZero = new double[n];
+        for (int i = 0; i < n; ++i) {
+            uniform[i]    = random.nextDouble();
+            ascending[i]  = i;
+            ties[i]       = random.nextInt(3);
+            constant[i]   = 2.5;
+            mostlyZero[i] = (random.nextInt(10) == 0) ? random.nextDouble() : 0.0;
+        }
+        final int[] ks = { 0, 1, n / 100, n / 4, n / 2, n / 2 + 1, (3 * n) / 4, n - 2, n - 1 };
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final double[] data : new double[][] { uniform, ascending, ties, constant, mostlyZero }) {
+                final double[] sorted = data.clone();
+                Arrays.sort(sorted);
+                final double[] selected = new KthSelector().select(data.clone(), ks, executor);
+                for (int i = 0; i < ks.length; ++i) {
+                    Assert.assertEquals(sorted[ks[i]], selected[i], 0.0);
+                }
+            }
+
+            // constant data are counted at the bracket bounds, not gathered
+            final double[] all = new double[100];
+            for (int i = 0; i < all.length; ++i) {
+                all[i] = i + 1;
+            }
+            final double[] constantPercentiles = new Percentile().evaluate(constant, all, executor);
+            for (int i = 0; i < all.length; ++i) {
+                Assert.assertEquals(2.5, constantPercentiles[i], 0.0);
+            }
+
+            // NaN values trigger sequential selection
+            final double[] withNaN = uniform.clone();
+            withNaN[n / 3] = Double.NaN;
+            final double[] fixed = new KthSelector().select(withNaN.clone(), ks, executor);
+            Assert.assertArrayEquals(new KthSelector().select(withNaN.clone(), ks), fixed, 0.0);
+            final double[] ps = { 1, 50, 99 };
+            final Percentile removed = new Percentile().withNaNStrategy(NaNStrategy.REMOVED);
+            final double[] sequential = removed.evaluate(withNaN, ps);
+            final double[] parallel   = removed.evaluate(withNaN, ps, executor);
+            Assert.assertArrayEquals(sequential, parallel, 0.0);
+            for (int i = 0; i < ps.length; ++i) {
+                Assert.assertEquals(removed.evaluate(withNaN, ps[i]), parallel[i], 0.0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     /**
      * Simple test assertion utility method
      *
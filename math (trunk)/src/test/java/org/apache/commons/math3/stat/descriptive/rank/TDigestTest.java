@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.math3.stat.descriptive.rank;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.apache.commons.math3.exception.OutOfRangeException;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.apache.commons.math3.stat.descriptive.StorelessUnivariateStatisticAbstractTest;
+import org.apache.commons.math3.stat.descriptive.UnivariateStatistic;
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the {@link TDigest} class.
+ * @version $Id$
+ */
+public class TDigestTest extends StorelessUnivariateStatisticAbstractTest {
+
+    private final double[] percentiles = { 0.1, 1, 5, 25, 50, 75, 95, 99, 99.9 };
+
+    @Override
+    public UnivariateStatistic getUnivariateStatistic() {
+        return new TDigest(50);
+    }
+
+    @Override
+    public double expectedValue() {
+        return this.median;
+    }
+
+    @Test(expected=OutOfRangeException.class)
+    public void testWrongPercentile() {
+        new TDigest(100.5);
+    }
+
+    @Test(expected=NotStrictlyPositiveException.class)
+    public void testWrongCompression() {
+        new TDigest(50, 0);
+    }
+
+    @Test
+    public void testExtremaAndNaN() {
+        TDigest digest = new TDigest(50);
+        Assert.assertTrue(Double.isNaN(digest.getResult(10)));
+        digest.increment(3.0);
+        Assert.assertEquals(3.0, digest.getResult(), 0);
+        digest.increment(Double.NaN);
+        Assert.assertEquals(1, digest.getN());
+        for (double x : testArray) {
+            digest.increment(x);
+        }
+        Assert.assertEquals(3.0, digest.getResult(0), 0);
+        Assert.assertEquals(21.0, digest.getResult(100), 0);
+    }
+
+    @Test
+    public void testInfinities() {
+        TDigest small = new TDigest(50);
+        for (double x : new double[] { 1, 2, Double.POSITIVE_INFINITY }) {
+            small.increment(x);
+        }
+        Assert.assertEquals(1.0, small.getResult(0), 0);
+        Assert.assertEquals(2.0, small.getResult(), 0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, small.getResult(100), 0);
+
+        RandomGenerator random = new Well19937c(0x2c7e91d4l);
+        double[] data = new double[20000];
+        TDigest digest = new TDigest(50);
+        for (int i = 0; i < data.length; ++i) {
+            if (i % 100 == 0) {
+                data[i] = Double.NEGATIVE_INFINITY;
+            } else if (i % 100 == 1) {
+                data[i] = Double.POSITIVE_INFINITY;
+            } else {
+                data[i] = random.nextGaussian();
+            }
+            digest.increment(data[i]);
+        }
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, digest.getResult(0), 0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, digest.getResult(100), 0);
+        for (double p = 0; p <= 100; p += 0.5) {
+            Assert.assertFalse(Double.isNaN(digest.getResult(p)));
+        }
+        Assert.assertEquals(new Percentile(50).evaluate(data), digest.getResult(), 0.01);
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, digest.getResult(0.5), 0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, digest.getResult(99.5), 0);
+
+        TDigest infinite = new TDigest(50);
+        for (int i = 0; i < 1000; ++i) {
+            infinite.increment(Double.POSITIVE_INFINITY);
+        }
+        Assert.assertEquals(Double.POSITIVE_INFINITY, infinite.getResult(0), 0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, infinite.getResult(), 0);
+    }
+
+    @Test
+    public void testAccuracy() {
+        RandomGenerator random = new Well19937c(0x4b19c3f5l);
+        double[] data = new double[200000];
+        TDigest digest = new TDigest(99);
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = FastMath.exp(random.nextGaussian());
+            digest.increment(data[i]);
+        }
+        checkRankError(data, digest, 0.01);
+        double exact = new Percentile(99).evaluate(data);
+        Assert.assertEquals(exact, digest.getResult(), 0.01 * exact);
+        Assert.assertTrue(digest.getCentroidsCount() <= 2 * digest.getCompression());
+    }
+
+    @Test
+    public void testAggregateShards() {
+        RandomGenerator random = new Well19937c(0x68a0b7e1l);
+        double[] data = new double[100000];
+        TDigest[] shards = new TDigest[8];
+        for (int s = 0; s < shards.length; ++s) {
+            shards[s] = new TDigest(50);
+        }
+        for (int i = 0; i < data.length; ++i) {
+            // shards hold data with different distributions
+            data[i] = random.nextGaussian() + (i % shards.length);
+            shards[i % shards.length].increment(data[i]);
+        }
+        TDigest merged = new TDigest(50);
+        for (TDigest shard : shards) {
+            merged.aggregate(shard);
+        }
+        Assert.assertEquals(data.length, merged.getN());
+        Assert.assertEquals(12500, shards[3].getN());
+        checkRankError(data, merged, 0.01);
+        Assert.assertTrue(merged.getCentroidsCount() <= 2 * merged.getCompression());
+    }
+
+    @Test
+    public void testCompactSerialization() throws IOException {
+        RandomGenerator random = new Well19937c(0x1d3c5e7fl);
+        TDigest digest = new TDigest(95, 200);
+        for (int i = 0; i < 500000; ++i) {
+            digest.increment(random.nextDouble());
+        }
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(digest);
+        oos.close();
+        Assert.assertTrue(bos.size() < 16 * 2 * (int) digest.getCompression() + 1000);
+
+        TDigest recovered = (TDigest) TestUtils.serializeAndRecover(digest);
+        Assert.assertEquals(digest.getN(), recovered.getN());
+        for (double p : percentiles) {
+            Assert.assertEquals(digest.getResult(p), recovered.getResult(p), 0);
+        }
+        recovered.increment(2.0);
+        Assert.assertEquals(2.0, recovered.getResult(100), 0);
+    }
+
+    @Test
+    public void testCopyConstructor() {
+        TDigest digest = new TDigest(75);
+        digest.incrementAll(testArray);
+        TDigest copy = new TDigest(digest);
+        Assert.assertEquals(digest, copy);
+        Assert.assertEquals(digest.getResult(), copy.getResult(), 0);
+        copy.increment(1.0);
+        Assert.assertEquals(testArray.length, digest.getN());
+    }
+
+    private void checkRankError(double[] data, TDigest digest, double tolerance) {
+        double[] sorted = data.clone();
+        Arrays.sort(sorted);
+        for (double p : percentiles) {
+            double estimate = digest.getResult(p);
+            int rank = Arrays.binarySearch(sorted, estimate);
+            if (rank < 0) {
+                rank = -rank - 1;
+            }
+            double q = p / 100.0;
+            // tails are more accurate than the center
+            double allowed = tolerance * FastMath.max(4 * q * (1 - q), 0.02);
+            Assert.assertEquals("p = " + p, q, rank / (double) data.length, allowed);
+        }
+    }
+
+}
@@ -16,11 +16,14 @@
  */
 package org.apache.commons.math3.stat.regression;
 
+import java.util.Random;
 
 import org.apache.commons.math3.TestUtils;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.DefaultRealMatrixChangingVisitor;
 import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.QRDecomposition;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 import org.apache.commons.math3.stat.StatUtils;
@@ -782,4 +785,35 @@ public class OLSMultipleLinearRegressionTest extends MultipleLinearRegressionAbs
         TestUtils.assertEquals(835542680000.000, model.calculateResidualSumOfSquares(), 1.0e-3);
         return;
     }
+
+    @Test
+    public void testBlockedQR() {
+        final int nobs  = 200;
+        final int nvars = 40;
+        final double[] y = new double[nobs];
+        final double[][] x = new double[nobs][nvars];
+        final Random random = new Random(0x3f6a9d2e51c7b804l);
+        for (int i = 0; i < nobs; ++i) {
+            for (int j = 0; j < nvars; ++j) {
+                x[i][j] = random.nextGaussian();
+                y[i] += (j + 1) * x[i][j];
+            }
+            y[i] += 0.1 * random.nextGaussian();
+        }
+        final OLSMultipleLinearRegression unblocked = new OLSMultipleLinearRegression();
+        unblocked.newSampleData(y, x);
+        final OLSMultipleLinearRegression blocked =
+            new OLSMultipleLinearRegression(0d, QRDecomposition.DEFAULT_BLOCK_SIZE);
+        blocked.newSampleData(y, x);
+        TestUtils.assertEquals(unblocked.estimateRegressionParameters(),
+                               blocked.estimateRegressionParameters(), 1.0e-12);
+        TestUtils.assertEquals(unblocked.estimateResiduals(),
+                               blocked.estimateResiduals(), 1.0e-12);
+        Assert.assertEquals(unblocked.calculateRSquared(), blocked.calculateRSquared(), 1.0e-14);
+    }
+
+    @Test(expected=NotStrictlyPositiveException.class)
+    public void testInvalidQRBlockSize() {
+        new OLSMultipleLinearRegression(0d, 0);
+    }
 }